@@ -6,7 +6,6 @@ import com.vaadin.flow.shared.communication.PushMode;
 import com.vaadin.flow.theme.Theme;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * PLS Barrenlager - Spring Boot + Vaadin Application
@@ -15,7 +14,6 @@ import org.springframework.scheduling.annotation.EnableScheduling;
  * Browser öffnet: http://localhost:8080
  */
 @SpringBootApplication
-@EnableScheduling  // Für periodische Kran-Status Updates
 @Push(PushMode.AUTOMATIC)  // Für Real-time UI Updates - automatischer Push nach ui.access()
 @Theme("plsbl")    // Custom Theme
 public class PlsblApplication implements AppShellConfigurator {
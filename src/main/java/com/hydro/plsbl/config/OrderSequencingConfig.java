@@ -0,0 +1,80 @@
+package com.hydro.plsbl.config;
+
+import com.hydro.plsbl.service.CraneJobSequencer.Mode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Konfiguration der Kran-Auftragsreihenfolge (CraneJobSequencer)
+ */
+@Configuration
+@ConfigurationProperties(prefix = "plsbl.orders.sequencing")
+public class OrderSequencingConfig {
+
+    /**
+     * Modus beim Start (FIFO oder NEAREST)
+     */
+    private Mode mode = Mode.FIFO;
+
+    /**
+     * Leerfahrzeit in Sekunden, die eine Prioritätsstufe aufwiegt
+     */
+    private double prioritySeconds = 60;
+
+    /**
+     * Leerfahrzeit in Sekunden, die eine Sekunde Wartezeit aufwiegt
+     */
+    private double ageFactor = 0.02;
+
+    /**
+     * Wartezeit in Sekunden, ab der ein Auftrag in Warteschlangen-Reihenfolge vergeben wird
+     */
+    private long maxWaitSeconds = 900;
+
+    /**
+     * Anzahl der Aufträge vom Anfang der Warteschlange, die bewertet werden
+     */
+    private int window = 25;
+
+    // === Getters & Setters ===
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public double getPrioritySeconds() {
+        return prioritySeconds;
+    }
+
+    public void setPrioritySeconds(double prioritySeconds) {
+        this.prioritySeconds = prioritySeconds;
+    }
+
+    public double getAgeFactor() {
+        return ageFactor;
+    }
+
+    public void setAgeFactor(double ageFactor) {
+        this.ageFactor = ageFactor;
+    }
+
+    public long getMaxWaitSeconds() {
+        return maxWaitSeconds;
+    }
+
+    public void setMaxWaitSeconds(long maxWaitSeconds) {
+        this.maxWaitSeconds = maxWaitSeconds;
+    }
+
+    public int getWindow() {
+        return window;
+    }
+
+    public void setWindow(int window) {
+        this.window = window;
+    }
+}
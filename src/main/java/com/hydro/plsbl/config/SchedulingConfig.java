@@ -0,0 +1,18 @@
+package com.hydro.plsbl.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Periodische Aufgaben (@Scheduled) fuer Kran-Status, Auftragsvergabe und Abgleiche
+ *
+ * Bei virtueller Zeit (plsbl.simulator.virtual-time=true, Profil "headless") abgeschaltet:
+ * dann taktet der HeadlessSimulationStarter Simulator, SPS-Poll, Auftragsvergabe sowie
+ * Meldungs- und Belegungs-Aufgaben selbst.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "plsbl.simulator.virtual-time", havingValue = "false", matchIfMissing = true)
+public class SchedulingConfig {
+}
@@ -7,6 +7,7 @@ import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -28,9 +29,15 @@ public class KafkaConfig {
     private static final Logger log = LoggerFactory.getLogger(KafkaConfig.class);
 
     private final SettingsService settingsService;
+    private final int lingerMs;
+    private final String compressionType;
 
-    public KafkaConfig(SettingsService settingsService) {
+    public KafkaConfig(SettingsService settingsService,
+                       @Value("${plsbl.kafka.producer.linger-ms:20}") int lingerMs,
+                       @Value("${plsbl.kafka.producer.compression-type:lz4}") String compressionType) {
         this.settingsService = settingsService;
+        this.lingerMs = lingerMs;
+        this.compressionType = compressionType;
     }
 
     /**
@@ -47,6 +54,12 @@ public class KafkaConfig {
         configProps.put(ProducerConfig.ACKS_CONFIG, "all");
         configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
         configProps.put(ProducerConfig.RETRY_BACKOFF_MS_CONFIG, 1000);
+        // Reihenfolge je Partition auch bei Wiederholungen (Outbox sendet asynchron im Block)
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        // Buendelung und Kompression
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
 
         log.info("Kafka Producer konfiguriert fuer: {}", settingsService.getKafkaBootstrapServers());
         return new DefaultKafkaProducerFactory<>(configProps);
@@ -74,9 +87,12 @@ public class KafkaConfig {
         // Auto-Commit deaktiviert fuer manuelle Kontrolle
         configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
         configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        // Batch-Groesse der Listener (ein Ack pro Batch)
+        configProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, settingsService.getKafkaMaxPollRecords());
 
-        log.info("Kafka Consumer konfiguriert fuer: {} (Group: {})",
-            settingsService.getKafkaBootstrapServers(), settingsService.getKafkaGroupId());
+        log.info("Kafka Consumer konfiguriert fuer: {} (Group: {}, max. {} Nachrichten/Batch)",
+            settingsService.getKafkaBootstrapServers(), settingsService.getKafkaGroupId(),
+            settingsService.getKafkaMaxPollRecords());
         return new DefaultKafkaConsumerFactory<>(configProps);
     }
 
@@ -1,16 +1,20 @@
 package com.hydro.plsbl.kafka;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hydro.plsbl.kafka.KeyedBatchProcessor.Failure;
 import com.hydro.plsbl.kafka.dto.*;
 import com.hydro.plsbl.service.SettingsService;
+import jakarta.annotation.PreDestroy;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 /**
  * Service fuer das Empfangen von Kafka-Nachrichten
  *
@@ -18,6 +22,14 @@ import org.springframework.stereotype.Service;
  * - Abruf-Telegramme (Calloffs)
  * - Abholauftraege (Pickup Orders)
  * - Produkt-Einschraenkungen
+ *
+ * Die Topics werden in Batches (max. KAFKA_MAX_POLL_RECORDS) gelesen und je
+ * fachlichem Schluessel geordnet, ueber Schluessel hinweg parallel verarbeitet.
+ * Nicht verarbeitbare Nachrichten landen in TD_KAFKA_DEADLETTER, bestaetigt
+ * wird einmal pro Batch.
+ *
+ * KAFKA_ENABLED wirkt sofort (Listener werden gestartet/gestoppt); Server, Gruppe,
+ * Topics und Parallelitaet werden nur beim Start gelesen.
  */
 @Service
 public class KafkaConsumerService {
@@ -25,19 +37,59 @@ public class KafkaConsumerService {
     private static final Logger log = LoggerFactory.getLogger(KafkaConsumerService.class);
 
     private final SettingsService settingsService;
-    private final ObjectMapper objectMapper;
+    private final KafkaDeadLetterService deadLetterService;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final KafkaMessageCodec codec;
+
+    // Batch-Verarbeitung je Topic (eigener Thread-Pool, Reihenfolge je Schluessel bleibt erhalten)
+    private final KeyedBatchProcessor calloffProcessor;
+    private final KeyedBatchProcessor pickupOrderProcessor;
+    private final KeyedBatchProcessor restrictionProcessor;
 
     // Event-Handler (werden von anderen Services gesetzt)
     private CalloffHandler calloffHandler;
     private PickupOrderHandler pickupOrderHandler;
     private ProductRestrictionHandler productRestrictionHandler;
 
-    public KafkaConsumerService(SettingsService settingsService) {
+    public KafkaConsumerService(SettingsService settingsService, KafkaDeadLetterService deadLetterService,
+                                KafkaMessageCodec codec, KafkaListenerEndpointRegistry listenerRegistry) {
         this.settingsService = settingsService;
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
+        this.deadLetterService = deadLetterService;
+        this.codec = codec;
+        this.listenerRegistry = listenerRegistry;
+
+        int parallelism = settingsService.getKafkaParallelism();
+        this.calloffProcessor = new KeyedBatchProcessor("calloff", parallelism);
+        // Einlagerplatz-Suche reserviert keine Plaetze - parallele Abholungen nur wenn explizit freigegeben
+        this.pickupOrderProcessor = new KeyedBatchProcessor("pickup", settingsService.getKafkaPickupParallelism());
+        this.restrictionProcessor = new KeyedBatchProcessor("restriction", parallelism);
+
+        settingsService.addChangeListener(SettingsService.CAT_KAFKA, this::onKafkaSettingsChanged);
     }
 
+    /**
+     * Startet/stoppt die Listener bei Aenderung von KAFKA_ENABLED
+     */
+    private void onKafkaSettingsChanged(SettingsService.SettingsChange change) {
+        if (change.affects(SettingsService.KEY_KAFKA_ENABLED)) {
+            // Aktuellen Wert lesen statt change.current(): eine spaetere Aenderung kann schon gelten
+            boolean enabled = settingsService.isKafkaEnabled();
+            for (MessageListenerContainer container : listenerRegistry.getListenerContainers()) {
+                if (enabled && !container.isRunning()) {
+                    container.start();
+                } else if (!enabled && container.isRunning()) {
+                    container.stop();
+                }
+            }
+            log.info("Kafka-Listener {}", enabled ? "gestartet" : "gestoppt");
+        }
+        if (change.keys().stream().anyMatch(key -> !key.equals(SettingsService.KEY_KAFKA_ENABLED))) {
+            log.info("Kafka-Einstellungen {} geaendert - wirksam nach Neustart", change.keys());
+        }
+    }
+
+    private record ProductRestriction(String productNumber, boolean restricted) {}
+
     // === Handler Interfaces ===
 
     @FunctionalInterface
@@ -72,96 +124,117 @@ public class KafkaConsumerService {
     // === Kafka Listeners ===
 
     /**
-     * Listener fuer Abruf-Telegramme (Calloffs) von SAP
+     * Listener fuer Abruf-Telegramme (Calloffs) von SAP, gruppiert nach Abrufnummer
      */
     @KafkaListener(
         topics = "#{@settingsService.kafkaTopicCalloff}",
         groupId = "#{@settingsService.kafkaGroupId}",
-        autoStartup = "#{@settingsService.kafkaEnabled}"
+        autoStartup = "#{@settingsService.kafkaEnabled}",
+        batch = "true"
     )
-    public void onCalloff(ConsumerRecord<String, String> record, Acknowledgment ack) {
-        log.info("Kafka Calloff empfangen: key={}, partition={}, offset={}",
-            record.key(), record.partition(), record.offset());
-
-        try {
-            KafkaCalloffMessage message = objectMapper.readValue(record.value(), KafkaCalloffMessage.class);
-            log.debug("Calloff deserialisiert: {}", message);
-
-            if (calloffHandler != null) {
-                calloffHandler.handle(message);
-                log.info("Calloff verarbeitet: {}", message.getCalloffNumber());
-            } else {
-                log.warn("Kein Calloff-Handler registriert!");
-            }
-
-            ack.acknowledge();
-
-        } catch (Exception e) {
-            log.error("Fehler beim Verarbeiten des Calloffs: {}", e.getMessage(), e);
-            // Nachricht wird nicht acknowledged - wird erneut zugestellt
-        }
+    public void onCalloffs(List<ConsumerRecord<String, String>> records, Acknowledgment ack) {
+        log.info("Kafka Calloffs empfangen: {} Nachrichten", records.size());
+
+        List<Failure> failures = calloffProcessor.process(records,
+            record -> codec.read(record.value(), KafkaCalloffMessage.class),
+            KafkaCalloffMessage::getCalloffNumber,
+            message -> {
+                if (calloffHandler != null) {
+                    calloffHandler.handle(message);
+                    log.debug("Calloff verarbeitet: {}", message.getCalloffNumber());
+                } else {
+                    log.warn("Kein Calloff-Handler registriert!");
+                }
+            });
+
+        completeBatch("Calloff", records, failures, ack);
     }
 
     /**
-     * Listener fuer Abholauftraege von der Saege
+     * Listener fuer Abholauftraege von der Saege, gruppiert nach Barrennummer
      */
     @KafkaListener(
         topics = "#{@settingsService.kafkaTopicPickupOrder}",
         groupId = "#{@settingsService.kafkaGroupId}",
-        autoStartup = "#{@settingsService.kafkaEnabled}"
+        autoStartup = "#{@settingsService.kafkaEnabled}",
+        batch = "true"
     )
-    public void onPickupOrder(ConsumerRecord<String, String> record, Acknowledgment ack) {
-        log.info("Kafka Pickup-Order empfangen: key={}, partition={}, offset={}",
-            record.key(), record.partition(), record.offset());
-
-        try {
-            KafkaPickupOrderMessage message = objectMapper.readValue(record.value(), KafkaPickupOrderMessage.class);
-            log.debug("Pickup-Order deserialisiert: {}", message);
-
-            if (pickupOrderHandler != null) {
-                pickupOrderHandler.handle(message);
-                log.info("Pickup-Order verarbeitet: Barren {}", message.getIngotNumber());
-            } else {
-                log.warn("Kein Pickup-Order-Handler registriert!");
-            }
-
-            ack.acknowledge();
-
-        } catch (Exception e) {
-            log.error("Fehler beim Verarbeiten des Pickup-Orders: {}", e.getMessage(), e);
-        }
+    public void onPickupOrders(List<ConsumerRecord<String, String>> records, Acknowledgment ack) {
+        log.info("Kafka Pickup-Orders empfangen: {} Nachrichten", records.size());
+
+        List<Failure> failures = pickupOrderProcessor.process(records,
+            record -> codec.read(record.value(), KafkaPickupOrderMessage.class),
+            KafkaPickupOrderMessage::getIngotNumber,
+            message -> {
+                if (pickupOrderHandler != null) {
+                    pickupOrderHandler.handle(message);
+                    log.debug("Pickup-Order verarbeitet: Barren {}", message.getIngotNumber());
+                } else {
+                    log.warn("Kein Pickup-Order-Handler registriert!");
+                }
+            });
+
+        completeBatch("Pickup-Order", records, failures, ack);
     }
 
     /**
-     * Listener fuer Produkt-Einschraenkungen
+     * Listener fuer Produkt-Einschraenkungen, gruppiert nach Produkt-Nummer
      */
     @KafkaListener(
         topics = "#{@settingsService.kafkaTopicProductRestriction}",
         groupId = "#{@settingsService.kafkaGroupId}",
-        autoStartup = "#{@settingsService.kafkaEnabled}"
+        autoStartup = "#{@settingsService.kafkaEnabled}",
+        batch = "true"
     )
-    public void onProductRestriction(ConsumerRecord<String, String> record, Acknowledgment ack) {
-        log.info("Kafka Product-Restriction empfangen: key={}", record.key());
-
-        try {
-            // Einfaches Format: Key = Produkt-Nummer, Value = "true"/"false"
-            String productNumber = record.key();
-            boolean restricted = Boolean.parseBoolean(record.value());
-
-            if (productRestrictionHandler != null) {
-                productRestrictionHandler.handle(productNumber, restricted);
-                log.info("Product-Restriction verarbeitet: {} = {}", productNumber, restricted);
-            } else {
-                log.warn("Kein Product-Restriction-Handler registriert!");
-            }
-
-            ack.acknowledge();
+    public void onProductRestrictions(List<ConsumerRecord<String, String>> records, Acknowledgment ack) {
+        log.info("Kafka Product-Restrictions empfangen: {} Nachrichten", records.size());
+
+        // Einfaches Format: Key = Produkt-Nummer, Value = "true"/"false"
+        List<Failure> failures = restrictionProcessor.process(records,
+            record -> new ProductRestriction(record.key(), Boolean.parseBoolean(record.value())),
+            ProductRestriction::productNumber,
+            restriction -> {
+                if (productRestrictionHandler != null) {
+                    productRestrictionHandler.handle(restriction.productNumber(), restriction.restricted());
+                    log.debug("Product-Restriction verarbeitet: {} = {}",
+                        restriction.productNumber(), restriction.restricted());
+                } else {
+                    log.warn("Kein Product-Restriction-Handler registriert!");
+                }
+            });
+
+        completeBatch("Product-Restriction", records, failures, ack);
+    }
 
-        } catch (Exception e) {
-            log.error("Fehler beim Verarbeiten der Product-Restriction: {}", e.getMessage(), e);
+    /**
+     * Legt fehlgeschlagene Nachrichten in der Dead-Letter-Tabelle ab und bestaetigt
+     * den Batch immer. Ist die Ablage nicht moeglich, stehen die Nachrichten vollstaendig
+     * im Fehler-Log (KafkaDeadLetterService.storeAll) - ein unbestaetigter Batch wuerde
+     * endlos erneut zugestellt und die Partition blockieren.
+     */
+    private void completeBatch(String type, List<ConsumerRecord<String, String>> records,
+                               List<Failure> failures, Acknowledgment ack) {
+        int notStored = deadLetterService.storeAll(failures);
+        ack.acknowledge();
+
+        if (failures.isEmpty()) {
+            log.info("{}-Batch verarbeitet: {} Nachrichten", type, records.size());
+        } else if (notStored > 0) {
+            log.error("{}-Batch verarbeitet: {} Nachrichten, davon {} fehlerhaft, {} davon nur im Log (Dead-Letter-Ablage fehlgeschlagen)",
+                type, records.size(), failures.size(), notStored);
+        } else {
+            log.warn("{}-Batch verarbeitet: {} Nachrichten, davon {} fehlerhaft (Dead-Letter)",
+                type, records.size(), failures.size());
         }
     }
 
+    @PreDestroy
+    public void shutdown() {
+        calloffProcessor.close();
+        pickupOrderProcessor.close();
+        restrictionProcessor.close();
+    }
+
     /**
      * Prueft ob Kafka aktiviert ist
      */
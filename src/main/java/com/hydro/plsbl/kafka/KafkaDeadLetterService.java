@@ -0,0 +1,99 @@
+package com.hydro.plsbl.kafka;
+
+import com.hydro.plsbl.kafka.KeyedBatchProcessor.Failure;
+import com.hydro.plsbl.service.IdAllocator;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ablage nicht verarbeitbarer Kafka-Nachrichten in TD_KAFKA_DEADLETTER
+ *
+ * Fehlerhafte Nachrichten blockieren so nicht den Rest des Batches bzw. der Partition;
+ * sie bleiben mit Topic, Offset und Fehlermeldung zur manuellen Nachbearbeitung erhalten.
+ *
+ * Ist die Ablage selbst nicht moeglich (z.B. Tabelle fehlt, Datenbank nicht erreichbar),
+ * wird die Nachricht vollstaendig im Fehler-Log protokolliert und der Batch trotzdem
+ * bestaetigt: ein nie bestaetigter Batch wuerde die Partition dauerhaft blockieren.
+ */
+@Service
+public class KafkaDeadLetterService {
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaDeadLetterService.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final int MAX_KEY_LENGTH = 200;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IdAllocator idAllocator;
+    private final AtomicLong storeFailures = new AtomicLong();
+
+    public KafkaDeadLetterService(JdbcTemplate jdbcTemplate, IdAllocator idAllocator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idAllocator = idAllocator;
+    }
+
+    /**
+     * Speichert eine fehlgeschlagene Nachricht
+     */
+    public void store(ConsumerRecord<String, String> record, Exception error) {
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        jdbcTemplate.update(
+            "INSERT INTO TD_KAFKA_DEADLETTER (ID, TOPIC, PARTITION_NO, OFFSET_NO, MESSAGE_KEY, PAYLOAD, ERROR_MESSAGE) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)",
+            idAllocator.nextId("TD_KAFKA_DEADLETTER"),
+            record.topic(), record.partition(), record.offset(),
+            truncate(record.key(), MAX_KEY_LENGTH), record.value(),
+            truncate(message, MAX_ERROR_LENGTH));
+        log.warn("Kafka-Nachricht in Dead-Letter-Tabelle: topic={}, partition={}, offset={}, key={}: {}",
+            record.topic(), record.partition(), record.offset(), record.key(), message);
+    }
+
+    /**
+     * Legt alle fehlgeschlagenen Nachrichten eines Batches ab, ohne selbst zu werfen
+     *
+     * @return Anzahl Nachrichten, die nicht abgelegt werden konnten (nur im Log)
+     */
+    public int storeAll(List<Failure> failures) {
+        int notStored = 0;
+        for (Failure failure : failures) {
+            ConsumerRecord<String, String> record = failure.record();
+            try {
+                store(record, failure.error());
+            } catch (Exception e) {
+                notStored++;
+                storeFailures.incrementAndGet();
+                log.error("Dead-Letter-Ablage fehlgeschlagen ({}), Nachricht nur im Log: topic={}, partition={}, " +
+                        "offset={}, key={}, fehler={}, payload={}",
+                    e.getMessage(), record.topic(), record.partition(), record.offset(), record.key(),
+                    failure.error().getMessage(), record.value(), e);
+            }
+        }
+        return notStored;
+    }
+
+    /**
+     * Anzahl Nachrichten seit Start, die nicht in der Tabelle abgelegt werden konnten
+     */
+    public long getStoreFailures() {
+        return storeFailures.get();
+    }
+
+    /**
+     * Anzahl abgelegter Nachrichten eines Topics
+     */
+    public int countByTopic(String topic) {
+        Integer count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM TD_KAFKA_DEADLETTER WHERE TOPIC = ?", Integer.class, topic);
+        return count != null ? count : 0;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+}
@@ -0,0 +1,111 @@
+package com.hydro.plsbl.kafka;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hydro.plsbl.kafka.dto.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JSON-Umwandlung der Kafka-Nachrichten
+ *
+ * Ein gemeinsamer ObjectMapper fuer Consumer und Producer; fuer jeden Nachrichtentyp
+ * werden ObjectReader/ObjectWriter einmalig angelegt (unveraenderlich und thread-sicher),
+ * damit nicht bei jeder Nachricht Serializer ueber die Klasse gesucht werden.
+ *
+ * Liegt das Jackson-Modul Blackbird auf dem Classpath, wird es automatisch registriert
+ * (generierte Zugriffe statt Reflection). Das JSON-Format bleibt dabei unveraendert.
+ */
+@Component
+public class KafkaMessageCodec {
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaMessageCodec.class);
+
+    private static final String BLACKBIRD_MODULE = "com.fasterxml.jackson.module.blackbird.BlackbirdModule";
+
+    /**
+     * Feste Nachrichtentypen (Reader/Writer werden beim Start angelegt)
+     */
+    public static final List<Class<?>> MESSAGE_TYPES = List.of(
+        KafkaCalloffMessage.class,
+        KafkaPickupOrderMessage.class,
+        KafkaIngotEventMessage.class,
+        KafkaShipmentMessage.class,
+        KafkaSawFeedbackMessage.class);
+
+    private final ObjectMapper objectMapper;
+    private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    public KafkaMessageCodec() {
+        this(createObjectMapper());
+    }
+
+    public KafkaMessageCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        for (Class<?> type : MESSAGE_TYPES) {
+            readers.put(type, objectMapper.readerFor(type));
+            writers.put(type, objectMapper.writerFor(type));
+        }
+    }
+
+    /**
+     * ObjectMapper mit der Konfiguration der Kafka-Schnittstelle (Java-Time, optional Blackbird)
+     */
+    public static ObjectMapper createObjectMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        try {
+            Class<?> blackbird = Class.forName(BLACKBIRD_MODULE);
+            mapper.registerModule((Module) blackbird.getDeclaredConstructor().newInstance());
+            log.info("Jackson Blackbird fuer Kafka-Nachrichten aktiviert");
+        } catch (ClassNotFoundException e) {
+            log.debug("Jackson Blackbird nicht vorhanden - Standard-Serialisierung");
+        } catch (ReflectiveOperationException | LinkageError e) {
+            log.warn("Jackson Blackbird konnte nicht registriert werden: {}", e.getMessage());
+        }
+        return mapper;
+    }
+
+    // ========================================================================
+    // Lesen
+    // ========================================================================
+
+    public <T> T read(String json, Class<T> type) throws IOException {
+        return reader(type).readValue(json);
+    }
+
+    // ========================================================================
+    // Schreiben
+    // ========================================================================
+
+    public String writeString(Object message) throws JsonProcessingException {
+        return writer(message.getClass()).writeValueAsString(message);
+    }
+
+    // ========================================================================
+    // Reader/Writer
+    // ========================================================================
+
+    public ObjectReader reader(Class<?> type) {
+        return readers.computeIfAbsent(type, objectMapper::readerFor);
+    }
+
+    public ObjectWriter writer(Class<?> type) {
+        return writers.computeIfAbsent(type, objectMapper::writerFor);
+    }
+
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+}
@@ -0,0 +1,300 @@
+package com.hydro.plsbl.kafka;
+
+import com.hydro.plsbl.kafka.KafkaOutboxService.Backlog;
+import com.hydro.plsbl.kafka.KafkaOutboxService.OutboxMessage;
+import com.hydro.plsbl.service.SettingsService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sendet die Nachrichten der Outbox (TD_KAFKA_OUTBOX) an Kafka
+ *
+ * Laeuft in einem eigenen Thread, damit ein langsamer oder nicht erreichbarer Broker
+ * keine fachlichen Transaktionen aufhaelt. Pro Durchlauf wird ein Block von Nachrichten
+ * asynchron gesendet (Producer buendelt per linger.ms und komprimiert), danach geflusht
+ * und auf die Bestaetigungen gewartet.
+ *
+ * - Gesendete Nachrichten werden geloescht (mindestens einmal zugestellt: faellt der
+ *   Prozess zwischen Senden und Loeschen aus, wird erneut gesendet)
+ * - Fehlgeschlagene Nachrichten werden mit exponentiellem Backoff wiederholt, nach
+ *   maxAttempts Fehlversuchen abgelegt (Dead Letter) - danach geht es mit den
+ *   folgenden Nachrichten des Topics weiter
+ * - Reihenfolge je Topic: solange eine Nachricht eines Topics auf Wiederholung wartet,
+ *   werden spaetere Nachrichten desselben Topics zurueckgehalten. Schlaegt innerhalb eines
+ *   Blocks eine Nachricht fehl, gelten auch die danach gesendeten Nachrichten desselben
+ *   Topics als nicht zugestellt und bleiben in der Outbox (sie werden nach der
+ *   fehlgeschlagenen erneut gesendet, Duplikate statt Ueberholen)
+ * - Nur ein Knoten: findPending sperrt keine Zeilen (die Abfrage je Topic laesst kein
+ *   FOR UPDATE zu). Laufen mehrere Anwendungs-Knoten auf derselben Datenbank, darf das
+ *   Relay nur auf einem aktiv sein (plsbl.kafka.outbox.poll-interval-ms=0 auf den uebrigen)
+ *
+ * Rueckstand und Alter der aeltesten Nachricht werden periodisch protokolliert
+ * (plsbl.kafka.outbox.stats-log-interval-ms) und im Kafka-Reiter der Einstellungen angezeigt.
+ */
+@Service
+public class KafkaOutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaOutboxRelay.class);
+
+    /**
+     * Versand an Kafka (im Betrieb KafkaTemplate, in Tests ein In-Memory-Ersatz)
+     */
+    public interface Transport {
+        CompletableFuture<?> send(String topic, String key, String payload);
+
+        default void flush() {
+        }
+    }
+
+    /**
+     * Kennzahlen: Rueckstand (Anzahl, Alter der aeltesten Nachricht), abgelegte Nachrichten
+     * und Zaehler seit Start
+     */
+    public record OutboxStats(int pending, long lagMs, int parked, long published, long failedAttempts,
+                              String lastError) {}
+
+    private final KafkaOutboxService outbox;
+    private final Transport transport;
+    private final SettingsService settingsService;
+    private final long pollIntervalMs;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+    private final long retryBackoffMs;
+    private final long maxBackoffMs;
+    private final int maxAttempts;
+    private long statsLogIntervalMs;
+    private long lastStatsLog;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong failedAttempts = new AtomicLong();
+    private volatile String lastError;
+    private ScheduledExecutorService executor;
+
+    @Autowired
+    public KafkaOutboxRelay(KafkaOutboxService outbox,
+                            KafkaTemplate<String, String> kafkaTemplate,
+                            SettingsService settingsService,
+                            @Value("${plsbl.kafka.outbox.poll-interval-ms:1000}") long pollIntervalMs,
+                            @Value("${plsbl.kafka.outbox.batch-size:200}") int batchSize,
+                            @Value("${plsbl.kafka.outbox.send-timeout-ms:30000}") long sendTimeoutMs,
+                            @Value("${plsbl.kafka.outbox.retry-backoff-ms:1000}") long retryBackoffMs,
+                            @Value("${plsbl.kafka.outbox.max-backoff-ms:300000}") long maxBackoffMs,
+                            @Value("${plsbl.kafka.outbox.max-attempts:20}") int maxAttempts,
+                            @Value("${plsbl.kafka.outbox.stats-log-interval-ms:60000}") long statsLogIntervalMs) {
+        this(outbox, new Transport() {
+            @Override
+            public CompletableFuture<?> send(String topic, String key, String payload) {
+                return kafkaTemplate.send(topic, key, payload);
+            }
+
+            @Override
+            public void flush() {
+                kafkaTemplate.flush();
+            }
+        }, settingsService, pollIntervalMs, batchSize, sendTimeoutMs, retryBackoffMs, maxBackoffMs, maxAttempts);
+        this.statsLogIntervalMs = statsLogIntervalMs;
+    }
+
+    /**
+     * Relay mit eigenem Transport; ohne Poll-Intervall (0) wird nur per publishPending() gesendet
+     */
+    public KafkaOutboxRelay(KafkaOutboxService outbox, Transport transport, SettingsService settingsService,
+                            long pollIntervalMs, int batchSize, long sendTimeoutMs,
+                            long retryBackoffMs, long maxBackoffMs, int maxAttempts) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch-Groesse muss mindestens 1 sein: " + batchSize);
+        }
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max. Sendeversuche muss mindestens 1 sein: " + maxAttempts);
+        }
+        this.outbox = outbox;
+        this.transport = transport;
+        this.settingsService = settingsService;
+        this.pollIntervalMs = pollIntervalMs;
+        this.batchSize = batchSize;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.retryBackoffMs = retryBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (pollIntervalMs <= 0 || executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "kafka-outbox");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(this::relayIfEnabled, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Kafka-Outbox-Relay gestartet (Intervall {} ms, max. {} Nachrichten/Durchlauf)",
+            pollIntervalMs, batchSize);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private void relayIfEnabled() {
+        if (settingsService != null && !settingsService.isKafkaEnabled()) {
+            return;
+        }
+        try {
+            publishPending();
+        } catch (Exception e) {
+            log.error("Kafka-Outbox-Relay fehlgeschlagen: {}", e.getMessage(), e);
+        }
+        logStatsIfDue();
+    }
+
+    private void logStatsIfDue() {
+        long now = System.currentTimeMillis();
+        if (statsLogIntervalMs <= 0 || now - lastStatsLog < statsLogIntervalMs) {
+            return;
+        }
+        lastStatsLog = now;
+        try {
+            OutboxStats stats = getStats();
+            if (stats.pending() > 0 || stats.parked() > 0) {
+                log.info("Kafka-Outbox: {} wartend (aelteste {} ms), {} abgelegt, {} gesendet, {} Fehlversuche seit Start",
+                    stats.pending(), stats.lagMs(), stats.parked(), stats.published(), stats.failedAttempts());
+            } else {
+                log.debug("Kafka-Outbox: leer, {} gesendet seit Start", stats.published());
+            }
+        } catch (Exception e) {
+            log.warn("Kafka-Outbox: Kennzahlen nicht lesbar: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Sendet faellige Nachrichten, solange volle Bloecke vollstaendig gesendet werden
+     *
+     * @return Anzahl gesendeter Nachrichten
+     */
+    public int publishPending() {
+        int total = 0;
+        int sent;
+        do {
+            sent = publishBatch();
+            total += sent;
+        } while (sent == batchSize);
+        return total;
+    }
+
+    private int publishBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxMessage> due = new ArrayList<>();
+        Set<String> blockedTopics = new HashSet<>();
+        // findPending liefert nur Topics mit faelliger erster Nachricht; spaetere Nachrichten
+        // mit eigenem Backoff halten ihr Topic ab dort zurueck
+        for (OutboxMessage message : outbox.findPending(batchSize)) {
+            if (blockedTopics.contains(message.topic())) {
+                continue;
+            }
+            if (message.nextAttempt() != null && message.nextAttempt().isAfter(now)) {
+                blockedTopics.add(message.topic());
+                continue;
+            }
+            due.add(message);
+        }
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<?>> futures = new ArrayList<>(due.size());
+        for (OutboxMessage message : due) {
+            futures.add(sendSafely(message));
+        }
+        transport.flush();
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        List<Long> sentIds = new ArrayList<>();
+        Set<String> failedTopics = new HashSet<>();
+        for (int i = 0; i < due.size(); i++) {
+            OutboxMessage message = due.get(i);
+            if (failedTopics.contains(message.topic())) {
+                // Nachfolger einer fehlgeschlagenen Nachricht: nicht loeschen, kein eigener Fehlversuch
+                continue;
+            }
+            try {
+                futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                sentIds.add(message.id());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException | TimeoutException e) {
+                Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+                markFailed(message, cause);
+                failedTopics.add(message.topic());
+            }
+        }
+
+        if (!sentIds.isEmpty()) {
+            outbox.delete(sentIds);
+            published.addAndGet(sentIds.size());
+            log.debug("Kafka-Outbox: {} Nachrichten gesendet", sentIds.size());
+        }
+        return sentIds.size();
+    }
+
+    private CompletableFuture<?> sendSafely(OutboxMessage message) {
+        try {
+            return transport.send(message.topic(), message.key(), message.payload());
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void markFailed(OutboxMessage message, Throwable cause) {
+        int attempts = message.attempts() + 1;
+        String error = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        failedAttempts.incrementAndGet();
+        lastError = error;
+        if (attempts >= maxAttempts) {
+            outbox.park(message.id(), error);
+            log.error("Kafka-Outbox: Nachricht nach {} Fehlversuchen abgelegt (id={}, topic={}, key={}): {}",
+                attempts, message.id(), message.topic(), message.key(), error);
+            return;
+        }
+        long backoff = Math.min(maxBackoffMs, retryBackoffMs << Math.min(attempts - 1, 20));
+        outbox.markFailed(message.id(), Duration.ofMillis(backoff), error);
+        log.warn("Kafka-Outbox: Senden fehlgeschlagen (topic={}, key={}, Versuch {}), naechster Versuch in {} ms: {}",
+            message.topic(), message.key(), attempts, backoff, error);
+    }
+
+    public OutboxStats getStats() {
+        Backlog backlog = outbox.getBacklog();
+        long lagMs = backlog.oldest() != null
+            ? Math.max(0, Duration.between(backlog.oldest(), LocalDateTime.now()).toMillis())
+            : 0;
+        return new OutboxStats(backlog.pending(), lagMs, backlog.parked(), published.get(), failedAttempts.get(),
+            lastError);
+    }
+}
@@ -0,0 +1,145 @@
+package com.hydro.plsbl.kafka;
+
+import com.hydro.plsbl.service.IdAllocator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Outbox fuer ausgehende Kafka-Nachrichten (TD_KAFKA_OUTBOX)
+ *
+ * Nachrichten werden in derselben Transaktion wie die fachliche Aenderung geschrieben:
+ * Rollt die Transaktion zurueck, wird auch nichts gesendet; ist sie committet, geht
+ * die Nachricht nicht verloren, auch wenn Kafka gerade nicht erreichbar ist.
+ * Das eigentliche Senden uebernimmt der KafkaOutboxRelay.
+ *
+ * Nachrichten, die zu oft fehlschlagen, werden abgelegt (PARKED_AT gesetzt, Dead Letter):
+ * Sie bleiben zur Analyse in der Tabelle, werden aber nicht mehr gesendet.
+ */
+@Service
+public class KafkaOutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final int MAX_KEY_LENGTH = 200;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IdAllocator idAllocator;
+
+    public KafkaOutboxService(JdbcTemplate jdbcTemplate, IdAllocator idAllocator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idAllocator = idAllocator;
+    }
+
+    /**
+     * Gespeicherte, noch nicht gesendete Nachricht
+     */
+    public record OutboxMessage(long id, String topic, String key, String payload, int attempts,
+                                LocalDateTime created, LocalDateTime nextAttempt) {}
+
+    /**
+     * Rueckstand der Outbox: Anzahl und Alter der aeltesten Nachricht (null = leer)
+     */
+    public record Backlog(int pending, LocalDateTime oldest, int parked) {}
+
+    // ========================================================================
+    // Schreiben
+    // ========================================================================
+
+    /**
+     * Legt eine Nachricht in der Outbox ab - in der Transaktion des Aufrufers (falls vorhanden)
+     */
+    public void enqueue(String topic, String key, String payload) {
+        jdbcTemplate.update(
+            "INSERT INTO TD_KAFKA_OUTBOX (ID, TOPIC, MESSAGE_KEY, PAYLOAD, CREATED, ATTEMPTS) VALUES (?, ?, ?, ?, ?, 0)",
+            idAllocator.nextId("TD_KAFKA_OUTBOX"), topic, truncate(key, MAX_KEY_LENGTH), payload,
+            Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * Legt eine Nachricht in eigener Transaktion ab, z.B. Fehler-Rueckmeldungen,
+     * deren fachliche Transaktion anschliessend zurueckgerollt wird
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void enqueueIndependent(String topic, String key, String payload) {
+        enqueue(topic, key, payload);
+    }
+
+    // ========================================================================
+    // Relay
+    // ========================================================================
+
+    /**
+     * Aelteste sendebereite Nachrichten in Sendereihenfolge (ID)
+     *
+     * Je Topic entscheidet die aelteste nicht abgelegte Nachricht: Wartet sie noch auf
+     * ihren naechsten Versuch, wird das ganze Topic uebersprungen. So blockiert ein
+     * wartendes Topic nicht die faelligen Nachrichten anderer Topics.
+     */
+    public List<OutboxMessage> findPending(int limit) {
+        return jdbcTemplate.query(
+            "SELECT ID, TOPIC, MESSAGE_KEY, PAYLOAD, ATTEMPTS, CREATED, NEXT_ATTEMPT FROM (" +
+            "  SELECT o.*, FIRST_VALUE(NEXT_ATTEMPT) OVER (PARTITION BY TOPIC ORDER BY ID) AS HEAD_NEXT_ATTEMPT " +
+            "  FROM TD_KAFKA_OUTBOX o WHERE PARKED_AT IS NULL) " +
+            "WHERE HEAD_NEXT_ATTEMPT IS NULL OR HEAD_NEXT_ATTEMPT <= ? " +
+            "ORDER BY ID FETCH FIRST ? ROWS ONLY",
+            (rs, rowNum) -> {
+                Timestamp next = rs.getTimestamp("NEXT_ATTEMPT");
+                return new OutboxMessage(rs.getLong("ID"), rs.getString("TOPIC"), rs.getString("MESSAGE_KEY"),
+                    rs.getString("PAYLOAD"), rs.getInt("ATTEMPTS"), rs.getTimestamp("CREATED").toLocalDateTime(),
+                    next != null ? next.toLocalDateTime() : null);
+            },
+            Timestamp.valueOf(LocalDateTime.now()), limit);
+    }
+
+    /**
+     * Entfernt gesendete Nachrichten
+     */
+    public void delete(List<Long> ids) {
+        jdbcTemplate.batchUpdate("DELETE FROM TD_KAFKA_OUTBOX WHERE ID = ?",
+            ids.stream().map(id -> new Object[] {id}).toList());
+    }
+
+    /**
+     * Vermerkt einen fehlgeschlagenen Sendeversuch
+     */
+    public void markFailed(long id, Duration backoff, String error) {
+        jdbcTemplate.update(
+            "UPDATE TD_KAFKA_OUTBOX SET ATTEMPTS = ATTEMPTS + 1, NEXT_ATTEMPT = ?, LAST_ERROR = ? WHERE ID = ?",
+            Timestamp.valueOf(LocalDateTime.now().plus(backoff)), truncate(error, MAX_ERROR_LENGTH), id);
+    }
+
+    /**
+     * Legt eine Nachricht nach dem letzten erlaubten Fehlversuch ab (Dead Letter)
+     */
+    public void park(long id, String error) {
+        jdbcTemplate.update(
+            "UPDATE TD_KAFKA_OUTBOX SET ATTEMPTS = ATTEMPTS + 1, NEXT_ATTEMPT = NULL, PARKED_AT = ?, LAST_ERROR = ? " +
+            "WHERE ID = ?",
+            Timestamp.valueOf(LocalDateTime.now()), truncate(error, MAX_ERROR_LENGTH), id);
+    }
+
+    /**
+     * Rueckstand ohne abgelegte Nachrichten, diese werden getrennt gezaehlt
+     */
+    public Backlog getBacklog() {
+        return jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) - COUNT(PARKED_AT) AS PENDING, " +
+            "MIN(CASE WHEN PARKED_AT IS NULL THEN CREATED END) AS OLDEST, COUNT(PARKED_AT) AS PARKED " +
+            "FROM TD_KAFKA_OUTBOX",
+            (rs, rowNum) -> {
+                Timestamp oldest = rs.getTimestamp("OLDEST");
+                return new Backlog(rs.getInt("PENDING"), oldest != null ? oldest.toLocalDateTime() : null,
+                    rs.getInt("PARKED"));
+            });
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+}
@@ -1,8 +1,6 @@
 package com.hydro.plsbl.kafka;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.hydro.plsbl.kafka.dto.*;
 import com.hydro.plsbl.service.SettingsService;
 import org.slf4j.Logger;
@@ -20,6 +18,9 @@ import java.util.concurrent.CompletableFuture;
  * - Barren-Ereignisse (abgeholt, umgelagert, modifiziert)
  * - Lieferungs-Abschluss
  * - Rueckmeldungen an die Saege
+ *
+ * Die Nachrichten werden nicht direkt gesendet, sondern in der Transaktion des
+ * Aufrufers in die Outbox geschrieben; der KafkaOutboxRelay sendet sie asynchron.
  */
 @Service
 public class KafkaProducerService {
@@ -28,14 +29,17 @@ public class KafkaProducerService {
 
     private final KafkaTemplate<String, String> kafkaTemplate;
     private final SettingsService settingsService;
-    private final ObjectMapper objectMapper;
+    private final KafkaOutboxService outboxService;
+    private final KafkaMessageCodec codec;
 
     public KafkaProducerService(KafkaTemplate<String, String> kafkaTemplate,
-                                 SettingsService settingsService) {
+                                 SettingsService settingsService,
+                                 KafkaOutboxService outboxService,
+                                 KafkaMessageCodec codec) {
         this.kafkaTemplate = kafkaTemplate;
         this.settingsService = settingsService;
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
+        this.outboxService = outboxService;
+        this.codec = codec;
     }
 
     /**
@@ -105,24 +109,31 @@ public class KafkaProducerService {
     }
 
     /**
-     * Generische Methode zum Senden einer Nachricht
+     * Sendet eine Rueckmeldung an die Saege unabhaengig von der laufenden Transaktion
+     * (fuer Fehler-Rueckmeldungen, nach denen die Transaktion zurueckgerollt wird)
      */
-    private <T> void sendMessage(String topic, String key, T message) {
+    public void sendSawFeedbackIndependent(KafkaSawFeedbackMessage message) {
+        if (!isEnabled()) {
+            log.debug("Kafka deaktiviert - Nachricht nicht gesendet: {}", message);
+            return;
+        }
+        String key = message.getIngotNumber() != null ? message.getIngotNumber() : "feedback";
         try {
-            String json = objectMapper.writeValueAsString(message);
+            outboxService.enqueueIndependent(settingsService.getKafkaTopicSawFeedback(), key,
+                codec.writeString(message));
+        } catch (JsonProcessingException e) {
+            log.error("Fehler beim Serialisieren der Kafka Nachricht: {}", e.getMessage());
+        }
+    }
 
-            CompletableFuture<SendResult<String, String>> future =
-                kafkaTemplate.send(topic, key, json);
-
-            future.whenComplete((result, ex) -> {
-                if (ex == null) {
-                    log.info("Kafka Nachricht gesendet: topic={}, key={}, offset={}",
-                        topic, key, result.getRecordMetadata().offset());
-                } else {
-                    log.error("Fehler beim Senden der Kafka Nachricht: topic={}, key={}, error={}",
-                        topic, key, ex.getMessage());
-                }
-            });
+    /**
+     * Generische Methode zum Senden einer Nachricht (ueber die Outbox)
+     */
+    private <T> void sendMessage(String topic, String key, T message) {
+        try {
+            String json = codec.writeString(message);
+            outboxService.enqueue(topic, key, json);
+            log.debug("Kafka Nachricht in Outbox: topic={}, key={}", topic, key);
 
         } catch (JsonProcessingException e) {
             log.error("Fehler beim Serialisieren der Kafka Nachricht: {}", e.getMessage());
@@ -0,0 +1,186 @@
+package com.hydro.plsbl.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Verarbeitung eines Batches von Kafka-Nachrichten
+ *
+ * 1. Deserialisieren aller Nachrichten parallel
+ * 2. Gruppieren nach fachlichem Schluessel (z.B. Barren- oder Abrufnummer)
+ * 3. Gruppen parallel verarbeiten (hoechstens parallelism gleichzeitig), innerhalb
+ *    einer Gruppe in Empfangsreihenfolge - die Reihenfolge je Schluessel bleibt erhalten
+ *
+ * Fehlerhafte Nachrichten halten den Batch nicht auf, sondern werden als Failure
+ * (in Empfangsreihenfolge) zurueckgegeben. Schlaegt eine Nachricht einer Gruppe fehl,
+ * werden die folgenden Nachrichten desselben Schluessels nicht mehr verarbeitet, sondern
+ * ebenfalls als Failure gemeldet - sonst wuerde ein spaeterer Stand vor dem fehlgeschlagenen
+ * angewendet. Bei parallelism 1 laeuft alles im aufrufenden Listener-Thread.
+ */
+public class KeyedBatchProcessor implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(KeyedBatchProcessor.class);
+
+    @FunctionalInterface
+    public interface Parser<T> {
+        T parse(ConsumerRecord<String, String> record) throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface Handler<T> {
+        void handle(T message) throws Exception;
+    }
+
+    /**
+     * Nicht verarbeitbare Nachricht mit Ursache
+     */
+    public record Failure(ConsumerRecord<String, String> record, Exception error) {}
+
+    private record Entry<T>(int index, ConsumerRecord<String, String> record, T message) {}
+
+    private record IndexedFailure(int index, Failure failure) {}
+
+    private final String name;
+    private final int parallelism;
+    private final ExecutorService executor;
+
+    /**
+     * @param name        Bezeichnung fuer Thread-Namen und Logging (z.B. "calloff")
+     * @param parallelism maximale Anzahl gleichzeitig verarbeiteter Schluessel
+     */
+    public KeyedBatchProcessor(String name, int parallelism) {
+        this.name = name;
+        this.parallelism = Math.max(1, parallelism);
+        if (this.parallelism > 1) {
+            AtomicInteger threadNo = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(this.parallelism, r -> {
+                Thread t = new Thread(r, "kafka-" + name + "-" + threadNo.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        } else {
+            this.executor = null;
+        }
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Verarbeitet den Batch und wartet, bis alle Nachrichten abgearbeitet sind
+     *
+     * @param keyOf fachlicher Schluessel; null = Kafka-Key der Nachricht
+     * @return fehlgeschlagene Nachrichten (leer = alles verarbeitet)
+     */
+    public <T> List<Failure> process(List<ConsumerRecord<String, String>> records, Parser<T> parser,
+                                     Function<T, String> keyOf, Handler<T> handler) {
+        ConcurrentLinkedQueue<IndexedFailure> failures = new ConcurrentLinkedQueue<>();
+
+        // 1. Deserialisieren
+        List<Entry<T>> entries = new ArrayList<>(records.size());
+        List<CompletableFuture<T>> parsed = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, String> record : records) {
+            parsed.add(executor != null
+                ? CompletableFuture.supplyAsync(() -> parseUnchecked(parser, record), executor)
+                : parseNow(parser, record));
+        }
+        for (int i = 0; i < records.size(); i++) {
+            try {
+                entries.add(new Entry<>(i, records.get(i), parsed.get(i).join()));
+            } catch (CompletionException e) {
+                failures.add(new IndexedFailure(i, new Failure(records.get(i), unwrap(e))));
+            }
+        }
+
+        // 2. Gruppieren (Reihenfolge der Gruppen und innerhalb der Gruppen wie empfangen)
+        Map<String, List<Entry<T>>> groups = new LinkedHashMap<>();
+        for (Entry<T> entry : entries) {
+            String key = keyOf.apply(entry.message());
+            if (key == null) {
+                key = entry.record().key() != null ? entry.record().key() : "#" + entry.index();
+            }
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+        }
+
+        // 3. Verarbeiten
+        if (executor == null) {
+            groups.values().forEach(group -> handleGroup(group, handler, failures));
+        } else {
+            CompletableFuture.allOf(groups.values().stream()
+                    .map(group -> CompletableFuture.runAsync(() -> handleGroup(group, handler, failures), executor))
+                    .toArray(CompletableFuture[]::new))
+                .join();
+        }
+
+        List<Failure> result = failures.stream()
+            .sorted(Comparator.comparingInt(IndexedFailure::index))
+            .map(IndexedFailure::failure)
+            .toList();
+        log.debug("Kafka-Batch [{}]: {} Nachrichten, {} Schluessel, {} Fehler",
+            name, records.size(), groups.size(), result.size());
+        return result;
+    }
+
+    private <T> void handleGroup(List<Entry<T>> group, Handler<T> handler,
+                                 ConcurrentLinkedQueue<IndexedFailure> failures) {
+        Entry<T> failed = null;
+        for (Entry<T> entry : group) {
+            if (failed != null) {
+                // Reihenfolge je Schluessel: nach dem ersten Fehler nichts mehr anwenden
+                failures.add(new IndexedFailure(entry.index(), new Failure(entry.record(),
+                    new IllegalStateException("Nicht verarbeitet: vorherige Nachricht zum Schluessel fehlgeschlagen (Offset "
+                        + failed.record().offset() + ")"))));
+                continue;
+            }
+            try {
+                handler.handle(entry.message());
+            } catch (Exception e) {
+                failures.add(new IndexedFailure(entry.index(), new Failure(entry.record(), e)));
+                failed = entry;
+            }
+        }
+    }
+
+    private static <T> T parseUnchecked(Parser<T> parser, ConsumerRecord<String, String> record) {
+        try {
+            return parser.parse(record);
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private static <T> CompletableFuture<T> parseNow(Parser<T> parser, ConsumerRecord<String, String> record) {
+        try {
+            return CompletableFuture.completedFuture(parser.parse(record));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static Exception unwrap(CompletionException e) {
+        Throwable cause = e.getCause() != null ? e.getCause() : e;
+        return cause instanceof Exception ex ? ex : new RuntimeException(cause);
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.hydro.plsbl.plc;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latenz-Histogramm mit exponentiellen Buckets (10 µs bis ca. 20 s, Faktor 1,2)
+ *
+ * Thread-sicher und ohne Sperren. Perzentile werden als Obergrenze des Buckets
+ * geliefert (Genauigkeit ca. 20 %), was fuer Betriebs- und Benchmark-Auswertung reicht.
+ */
+public final class LatencyHistogram {
+
+    private static final double BASE_NANOS = 10_000;   // 10 µs
+    private static final double FACTOR = 1.2;
+    private static final int BUCKETS = 80;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS + 1);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sumNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Erfasst eine Dauer in Nanosekunden
+     */
+    public void record(long nanos) {
+        counts.incrementAndGet(bucketOf(nanos));
+        count.incrementAndGet();
+        sumNanos.addAndGet(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private static int bucketOf(long nanos) {
+        if (nanos <= BASE_NANOS) {
+            return 0;
+        }
+        int bucket = (int) Math.ceil(Math.log(nanos / BASE_NANOS) / Math.log(FACTOR));
+        return Math.min(bucket, BUCKETS);
+    }
+
+    private static double upperBoundNanos(int bucket) {
+        return BASE_NANOS * Math.pow(FACTOR, bucket);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Perzentil in Millisekunden (z.B. 0.5 fuer p50, 0.99 fuer p99)
+     */
+    public double getPercentileMillis(double quantile) {
+        long total = count.get();
+        if (total == 0) {
+            return 0.0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i <= BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                // Obergrenze des Buckets, aber nie ueber dem gemessenen Maximum (letzter Bucket ist offen)
+                double bound = i == BUCKETS ? maxNanos.get() : Math.min(upperBoundNanos(i), maxNanos.get());
+                return bound / 1_000_000.0;
+            }
+        }
+        return maxNanos.get() / 1_000_000.0;
+    }
+
+    public double getMeanMillis() {
+        long total = count.get();
+        return total == 0 ? 0.0 : sumNanos.get() / (double) total / 1_000_000.0;
+    }
+
+    public double getMaxMillis() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * Momentaufnahme fuer Anzeige und Logging
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(getCount(), getMeanMillis(), getPercentileMillis(0.5),
+            getPercentileMillis(0.99), getMaxMillis());
+    }
+
+    public void reset() {
+        for (int i = 0; i <= BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        sumNanos.set(0);
+        maxNanos.set(0);
+    }
+
+    public record Snapshot(long count, double meanMillis, double p50Millis, double p99Millis, double maxMillis) {
+        @Override
+        public String toString() {
+            return String.format("n=%d, mean=%.2f ms, p50=%.2f ms, p99=%.2f ms, max=%.2f ms",
+                count, meanMillis, p50Millis, p99Millis, maxMillis);
+        }
+    }
+}
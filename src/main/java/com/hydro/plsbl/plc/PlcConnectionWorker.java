@@ -0,0 +1,252 @@
+package com.hydro.plsbl.plc;
+
+import org.apache.plc4x.java.api.PlcConnection;
+import org.apache.plc4x.java.api.PlcDriverManager;
+import org.apache.plc4x.java.api.messages.PlcReadRequest;
+import org.apache.plc4x.java.api.messages.PlcReadResponse;
+import org.apache.plc4x.java.api.messages.PlcWriteRequest;
+import org.apache.plc4x.java.api.messages.PlcWriteResponse;
+import org.apache.plc4x.java.api.model.PlcTag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verbindungs-Worker fuer die S7-Kommunikation
+ *
+ * - Ein eigener Thread ("plc-io") baut die Verbindung auf und stoesst alle Anfragen an.
+ *   Aufrufer (Spring-Scheduler, UI) erhalten CompletableFutures und blockieren nicht.
+ * - Die Status-Lese-Anfrage wird pro Verbindung einmal gebaut und bei jedem Poll
+ *   wiederverwendet. Die Kommando-Adressen werden einmal geparst; pro Kommando
+ *   werden nur noch die Werte eingesetzt.
+ * - Anfragen werden nicht im IO-Thread abgewartet (asynchrone Pipeline ueber PLC4X).
+ * - Latenz pro Anfrageart wird in einem Histogramm erfasst.
+ */
+class PlcConnectionWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(PlcConnectionWorker.class);
+
+    private final ExecutorService ioThread = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "plc-io");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private volatile PlcConnection connection;
+    private volatile boolean writeSupported;
+
+    // Vorbereitete Anfragen (nur im IO-Thread geschrieben, gehoeren zur aktuellen Verbindung)
+    private volatile PlcReadRequest statusRequest;
+    private volatile Map<String, PlcTag> commandTags;
+
+    private final LatencyHistogram readLatency = new LatencyHistogram();
+    private final LatencyHistogram writeLatency = new LatencyHistogram();
+    private final LatencyHistogram connectLatency = new LatencyHistogram();
+
+    // ========================================================================
+    // Verbindung
+    // ========================================================================
+
+    /**
+     * Baut die Verbindung im IO-Thread auf und bereitet die Anfragen vor
+     */
+    CompletableFuture<Void> connect(String url) {
+        return submit(() -> {
+            if (isConnected()) {
+                return null;
+            }
+            closeConnection();
+            long start = System.nanoTime();
+            PlcConnection newConnection;
+            try {
+                newConnection = PlcDriverManager.getDefault().getConnectionManager().getConnection(url);
+            } catch (Exception e) {
+                throw new PlcException("Verbindung fehlgeschlagen", e.getMessage(), true, e);
+            }
+            try {
+                if (!newConnection.getMetadata().isReadSupported()) {
+                    throw new PlcException("SPS unterstuetzt kein Lesen!");
+                }
+                writeSupported = newConnection.getMetadata().isWriteSupported();
+                statusRequest = buildStatusRequest(newConnection);
+                commandTags = parseCommandTags(newConnection);
+            } catch (Exception e) {
+                close(newConnection);
+                throw e instanceof PlcException plcException ? plcException
+                    : new PlcException("Anfragen konnten nicht vorbereitet werden", e.getMessage(), true, e);
+            }
+            connection = newConnection;
+            connectLatency.record(System.nanoTime() - start);
+            return null;
+        });
+    }
+
+    /**
+     * Trennt die Verbindung (sofort, ohne auf den IO-Thread zu warten)
+     */
+    void disconnect() {
+        closeConnection();
+    }
+
+    boolean isConnected() {
+        PlcConnection current = connection;
+        return current != null && current.isConnected();
+    }
+
+    boolean isWriteSupported() {
+        return writeSupported;
+    }
+
+    void shutdown() {
+        closeConnection();
+        ioThread.shutdownNow();
+    }
+
+    private void closeConnection() {
+        PlcConnection current = connection;
+        connection = null;
+        if (current != null) {
+            close(current);
+        }
+    }
+
+    private static void close(PlcConnection plcConnection) {
+        try {
+            plcConnection.close();
+        } catch (Exception e) {
+            log.error("Fehler beim Trennen der SPS-Verbindung: {}", e.getMessage());
+        }
+    }
+
+    // ========================================================================
+    // Vorbereitete Anfragen
+    // ========================================================================
+
+    private static PlcReadRequest buildStatusRequest(PlcConnection plcConnection) {
+        PlcReadRequest.Builder builder = plcConnection.readRequestBuilder();
+        PlcTags.STATUS_TAGS.forEach(builder::addTagAddress);
+        return builder.build();
+    }
+
+    /**
+     * Parst die Kommando-Adressen einmalig (ueber eine nie ausgefuehrte Lese-Anfrage)
+     */
+    private static Map<String, PlcTag> parseCommandTags(PlcConnection plcConnection) {
+        PlcReadRequest.Builder builder = plcConnection.readRequestBuilder();
+        PlcTags.COMMAND_TAGS.forEach(builder::addTagAddress);
+        PlcReadRequest parsed = builder.build();
+        Map<String, PlcTag> tags = new HashMap<>();
+        for (String name : PlcTags.COMMAND_TAGS.keySet()) {
+            tags.put(name, parsed.getTag(name));
+        }
+        return tags;
+    }
+
+    // ========================================================================
+    // Lesen / Schreiben
+    // ========================================================================
+
+    /**
+     * Liest den Kran-Status mit der vorbereiteten Anfrage
+     */
+    CompletableFuture<PlcReadResponse> readStatus(long timeoutMillis) {
+        return submitRequest(() -> statusRequest.execute(), timeoutMillis, readLatency, "Fehler beim Lesen");
+    }
+
+    /**
+     * Schreibt Kommando-Werte (Tag-Name aus {@link PlcTags#COMMAND_TAGS} -> Wert)
+     */
+    CompletableFuture<PlcWriteResponse> writeCommand(Map<String, Object> values, long timeoutMillis) {
+        return submitRequest(() -> {
+            PlcWriteRequest.Builder builder = connection.writeRequestBuilder();
+            Map<String, PlcTag> tags = commandTags;
+            values.forEach((name, value) -> builder.addTag(name, tags.get(name), value));
+            return builder.build().execute();
+        }, timeoutMillis, writeLatency, "Fehler beim Senden");
+    }
+
+    private <T> CompletableFuture<T> submitRequest(RequestStarter<T> starter, long timeoutMillis,
+                                                   LatencyHistogram latency, String errorMessage) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            ioThread.execute(() -> {
+                if (!isConnected()) {
+                    result.completeExceptionally(new PlcException("Keine SPS-Verbindung", null, true));
+                    return;
+                }
+                long start = System.nanoTime();
+                try {
+                    starter.start()
+                        .orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                        .whenComplete((response, error) -> {
+                            if (error != null) {
+                                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                    ? error.getCause() : error;
+                                result.completeExceptionally(
+                                    new PlcException(errorMessage, String.valueOf(cause.getMessage()), true, cause));
+                            } else {
+                                latency.record(System.nanoTime() - start);
+                                result.complete(response);
+                            }
+                        });
+                } catch (Exception e) {
+                    result.completeExceptionally(new PlcException(errorMessage, e.getMessage(), true, e));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(new PlcException("SPS-Worker beendet"));
+        }
+        return result;
+    }
+
+    private CompletableFuture<Void> submit(IoTask task) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        try {
+            ioThread.execute(() -> {
+                try {
+                    task.run();
+                    result.complete(null);
+                } catch (Exception e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(new PlcException("SPS-Worker beendet"));
+        }
+        return result;
+    }
+
+    // ========================================================================
+    // Latenz
+    // ========================================================================
+
+    LatencyHistogram getReadLatency() {
+        return readLatency;
+    }
+
+    LatencyHistogram getWriteLatency() {
+        return writeLatency;
+    }
+
+    LatencyHistogram getConnectLatency() {
+        return connectLatency;
+    }
+
+    @FunctionalInterface
+    private interface RequestStarter<T> {
+        CompletableFuture<? extends T> start() throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface IoTask {
+        Object run() throws Exception;
+    }
+}
@@ -2,17 +2,16 @@ package com.hydro.plsbl.plc;
 
 import com.hydro.plsbl.plc.dto.*;
 import com.hydro.plsbl.service.SettingsService;
+import com.hydro.plsbl.service.TransportDispatchQueue;
 import com.hydro.plsbl.simulator.CraneSimulatorCommand;
 import com.hydro.plsbl.simulator.CraneSimulatorService;
-import org.apache.plc4x.java.api.PlcConnection;
-import org.apache.plc4x.java.api.PlcDriverManager;
-import org.apache.plc4x.java.api.messages.PlcReadRequest;
+import com.hydro.plsbl.simulator.SimulationClock;
 import org.apache.plc4x.java.api.messages.PlcReadResponse;
-import org.apache.plc4x.java.api.messages.PlcWriteRequest;
 import org.apache.plc4x.java.api.messages.PlcWriteResponse;
 import org.apache.plc4x.java.api.types.PlcResponseCode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
@@ -20,9 +19,18 @@ import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
@@ -34,60 +42,100 @@ import java.util.function.Consumer;
  * - Senden von Kran-Kommandos
  * - Verbindungsmanagement (connect, disconnect, reconnect)
  * - Event-basierte Status-Updates via Listener
+ *
+ * Die gesamte S7-Ein-/Ausgabe laeuft ueber den PlcConnectionWorker (eigener Thread,
+ * vorbereitete Anfragen). Der Status-Poll wartet nicht auf die Antwort, der
+ * Spring-Scheduler wird also nie durch die SPS blockiert.
+ *
+ * Status-Pipeline: Jeder gelesene Status wird eingefroren und feldweise mit dem
+ * zuletzt veroeffentlichten verglichen (Positionen mit Totband). Listener werden
+ * nur bei echten Aenderungen benachrichtigt.
+ *
+ * Adaptives Polling: Das Lese-Intervall richtet sich nach der Kran-Aktivitaet
+ * (schnell bei Aufnahme/Absenken/Greifen/Ablegen, langsam bei Stillstand ohne
+ * wartende Auftraege und mit geschlossenen Tueren).
  */
 @Service
 public class PlcService {
 
     private static final Logger log = LoggerFactory.getLogger(PlcService.class);
 
-    // === PLC4X Adressen fuer Siemens S7 ===
-    // Format: %DB<nummer>.DB<typ><offset>:<datentyp>
-    // Beispiel: %DB100.DBW0:INT = Datenbaustein 100, Wort an Offset 0, als Integer
-
-    // Status-Adressen (Lesen von SPS)
-    private static final String ADDR_STATUS_X_POSITION = "%DB100.DBD0:DINT";      // X-Position [mm]
-    private static final String ADDR_STATUS_Y_POSITION = "%DB100.DBD4:DINT";      // Y-Position [mm]
-    private static final String ADDR_STATUS_Z_POSITION = "%DB100.DBD8:DINT";      // Z-Position [mm]
-    private static final String ADDR_STATUS_CRANE_MODE = "%DB100.DBB12:SINT";     // Kran-Modus (0=Auto, 1=Manual, 2=Semi)
-    private static final String ADDR_STATUS_GRIPPER = "%DB100.DBB13:SINT";        // Greifer (0=Open, 1=Closed, 2=Loaded)
-    private static final String ADDR_STATUS_JOB_STATE = "%DB100.DBB14:SINT";      // Job-Status
-    private static final String ADDR_STATUS_JOB_NUMBER = "%DB100.DBW16:INT";      // Job-Nummer
-    private static final String ADDR_STATUS_FLAGS = "%DB100.DBW18:WORD";          // Status-Flags (Fehler, Tueren, etc.)
-    private static final String ADDR_STATUS_DOORS = "%DB100.DBW20:WORD";          // Tuer-Status Bits
-
-    // Kommando-Adressen (Schreiben zur SPS)
-    private static final String ADDR_CMD_PICKUP_X = "%DB101.DBD0:DINT";           // Aufnahme X [mm]
-    private static final String ADDR_CMD_PICKUP_Y = "%DB101.DBD4:DINT";           // Aufnahme Y [mm]
-    private static final String ADDR_CMD_PICKUP_Z = "%DB101.DBD8:DINT";           // Aufnahme Z [mm]
-    private static final String ADDR_CMD_RELEASE_X = "%DB101.DBD12:DINT";         // Ablage X [mm]
-    private static final String ADDR_CMD_RELEASE_Y = "%DB101.DBD16:DINT";         // Ablage Y [mm]
-    private static final String ADDR_CMD_RELEASE_Z = "%DB101.DBD20:DINT";         // Ablage Z [mm]
-    private static final String ADDR_CMD_LENGTH = "%DB101.DBW24:INT";             // Laenge [mm]
-    private static final String ADDR_CMD_WIDTH = "%DB101.DBW26:INT";              // Breite [mm]
-    private static final String ADDR_CMD_THICKNESS = "%DB101.DBW28:INT";          // Dicke [mm]
-    private static final String ADDR_CMD_WEIGHT = "%DB101.DBW30:INT";             // Gewicht [kg]
-    private static final String ADDR_CMD_FLAGS = "%DB101.DBW32:WORD";             // Flags (abort, longIngot, rotate)
-    private static final String ADDR_CMD_TRIGGER = "%DB101.DBX34.0:BOOL";         // Kommando-Trigger
+    // S7-Adressen und Tag-Namen: siehe PlcTags
+
+    /**
+     * Poll-Stufe, abhaengig von Arbeitsphase, Job-Status und Auftrags-Warteschlange
+     */
+    public enum PollRate {
+        FAST("schnell"),
+        NORMAL("normal"),
+        IDLE("Ruhe");
+
+        private final String displayName;
+
+        PollRate(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
 
     private final SettingsService settingsService;
     private final CraneSimulatorService simulatorService;
-    private final AtomicReference<PlcConnection> connectionRef = new AtomicReference<>();
-    private final AtomicReference<PlcStatus> currentStatus = new AtomicReference<>(new PlcStatus());
+    private final TransportDispatchQueue dispatchQueue;
+    private final SimulationClock clock;
+    private final PlcConnectionWorker worker = new PlcConnectionWorker();
+    private final AtomicReference<PlcStatus> currentStatus = new AtomicReference<>(new PlcStatus().freeze());
     private final AtomicBoolean connecting = new AtomicBoolean(false);
+    private final AtomicBoolean statusReadInFlight = new AtomicBoolean(false);
     private final List<Consumer<PlcStatus>> statusListeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<PlcStatusChange>> statusChangeListeners = new CopyOnWriteArrayList<>();
     private final List<Consumer<PlcAlert>> alertListeners = new CopyOnWriteArrayList<>();
 
     private int reconnectAttempts = 0;
-    private long lastSuccessfulRead = 0;
+    private volatile long lastSuccessfulRead = 0;
     private boolean useSimulator = false;
 
-    public PlcService(SettingsService settingsService, CraneSimulatorService simulatorService) {
+    // Status-Pipeline
+    private final int positionDeadBandMm;
+    // Eigene Sperre fuer Status und Aenderungserkennung - nicht den Monitor von connect(),
+    // der waehrend des Verbindungsaufbaus bis zum doppelten Timeout gehalten wird
+    private final Object statusLock = new Object();
+    private PlcStatus lastPublishedStatus;
+    private final AtomicLong statusReads = new AtomicLong();
+    private final AtomicLong statusChanges = new AtomicLong();
+
+    // Adaptives Polling
+    private final long fastPollInterval;
+    private final long normalPollInterval;
+    private final long idlePollInterval;
+    private volatile PollRate pollRate = PollRate.NORMAL;
+    private volatile long nextPollAt = 0;
+    // Zaehlt Anforderungen des schnellen Pollings; pollTick ueberschreibt eine waehrend des Takts
+    // eingegangene Anforderung nicht mit der (aelteren) eigenen Stufe
+    private final AtomicLong fastPollRequests = new AtomicLong();
+
+    public PlcService(SettingsService settingsService, CraneSimulatorService simulatorService,
+                      TransportDispatchQueue dispatchQueue, SimulationClock clock,
+                      @Value("${plsbl.plc.position-dead-band:5}") int positionDeadBandMm,
+                      @Value("${plsbl.plc.poll-interval-fast:100}") long fastPollInterval,
+                      @Value("${plsbl.plc.poll-interval:500}") long normalPollInterval,
+                      @Value("${plsbl.plc.poll-interval-idle:2000}") long idlePollInterval) {
         this.settingsService = settingsService;
         this.simulatorService = simulatorService;
+        this.dispatchQueue = dispatchQueue;
+        this.clock = clock;
+        this.positionDeadBandMm = positionDeadBandMm;
+        this.fastPollInterval = fastPollInterval;
+        this.normalPollInterval = Math.max(normalPollInterval, fastPollInterval);
+        this.idlePollInterval = Math.max(idlePollInterval, this.normalPollInterval);
     }
 
     @PostConstruct
     public void init() {
+        settingsService.addChangeListener(SettingsService.CAT_SPS, this::onSpsSettingsChanged);
+
         if (settingsService.isSpsEnabled()) {
             log.info("PlcService initialisiert - versuche SPS-Verbindung");
             connect();
@@ -123,13 +171,13 @@ public class PlcService {
 
     @PreDestroy
     public void shutdown() {
-        disconnect();
+        worker.shutdown();
     }
 
     // === Verbindungsmanagement ===
 
     /**
-     * Stellt Verbindung zur SPS her
+     * Stellt Verbindung zur SPS her (wartet auf das Ergebnis)
      */
     public synchronized void connect() {
         if (!settingsService.isSpsEnabled()) {
@@ -142,56 +190,73 @@ public class PlcService {
             return;
         }
 
+        try {
+            startConnect().get(2L * settingsService.getSpsTimeout(), TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Verbindungsaufbau zur SPS dauert an - Ergebnis folgt im Hintergrund");
+        } catch (Exception e) {
+            // Bereits in startConnect() protokolliert
+        }
+    }
+
+    /**
+     * Startet den Verbindungsaufbau im SPS-Worker (kehrt sofort zurueck)
+     */
+    private CompletableFuture<Void> startConnect() {
         if (!connecting.compareAndSet(false, true)) {
             log.debug("Verbindungsaufbau laeuft bereits");
-            return;
+            return CompletableFuture.failedFuture(new PlcException("Verbindungsaufbau laeuft bereits"));
         }
 
-        try {
-            String url = settingsService.getSpsUrl();
-            log.info("Verbinde zur SPS: {}", url);
+        String url = settingsService.getSpsUrl();
+        log.info("Verbinde zur SPS: {}", url);
 
-            PlcConnection connection = PlcDriverManager.getDefault()
-                .getConnectionManager()
-                .getConnection(url);
-
-            if (!connection.getMetadata().isReadSupported()) {
-                log.error("SPS unterstuetzt kein Lesen!");
-                connection.close();
-                return;
-            }
-
-            if (!connection.getMetadata().isWriteSupported()) {
-                log.warn("SPS unterstuetzt kein Schreiben - nur Lesemodus");
+        return worker.connect(url).whenComplete((ignored, error) -> {
+            connecting.set(false);
+            if (error == null) {
+                reconnectAttempts = 0;
+                if (!worker.isWriteSupported()) {
+                    log.warn("SPS unterstuetzt kein Schreiben - nur Lesemodus");
+                }
+                log.info("SPS-Verbindung hergestellt: {}", url);
+                notifyAlert(PlcAlert.linkRestored());
+            } else {
+                log.error("Fehler beim Verbinden zur SPS: {}", error.getMessage());
+                reconnectAttempts++;
+                notifyAlert(PlcAlert.linkDown());
             }
+        });
+    }
 
-            connectionRef.set(connection);
-            reconnectAttempts = 0;
-            log.info("SPS-Verbindung hergestellt: {}", url);
-
-            notifyAlert(PlcAlert.linkRestored());
-
-        } catch (Exception e) {
-            log.error("Fehler beim Verbinden zur SPS: {}", e.getMessage());
-            reconnectAttempts++;
-            notifyAlert(PlcAlert.linkDown());
-        } finally {
-            connecting.set(false);
+    /**
+     * Baut die Verbindung neu auf, wenn sich URL oder Aktivierung geaendert haben.
+     * Timeout und Wiederholungen wirken ohne Neuaufbau beim naechsten Zugriff.
+     */
+    private void onSpsSettingsChanged(SettingsService.SettingsChange change) {
+        if (!change.affects(SettingsService.KEY_SPS_URL, SettingsService.KEY_SPS_ENABLED)) {
+            return;
         }
+        log.info("SPS-Einstellungen geaendert ({}) - Verbindung wird neu aufgebaut", change.keys());
+        disconnect();
+        reconnectAttempts = 0;
+        if (!settingsService.isSpsEnabled()) {
+            return;  // Simulator uebernimmt beim naechsten Poll, falls er laeuft
+        }
+        startConnect().whenComplete((ignored, error) -> {
+            if (error == null) {
+                useSimulator = false;
+            }
+        });
     }
 
     /**
      * Trennt die Verbindung zur SPS
      */
     public synchronized void disconnect() {
-        PlcConnection connection = connectionRef.getAndSet(null);
-        if (connection != null) {
-            try {
-                connection.close();
-                log.info("SPS-Verbindung getrennt");
-            } catch (Exception e) {
-                log.error("Fehler beim Trennen der SPS-Verbindung: {}", e.getMessage());
-            }
+        boolean wasConnected = worker.isConnected();
+        worker.disconnect();
+        if (wasConnected) {
+            log.info("SPS-Verbindung getrennt");
         }
     }
 
@@ -199,8 +264,7 @@ public class PlcService {
      * Prueft ob eine Verbindung besteht
      */
     public boolean isConnected() {
-        PlcConnection connection = connectionRef.get();
-        return connection != null && connection.isConnected();
+        return worker.isConnected();
     }
 
     /**
@@ -213,16 +277,68 @@ public class PlcService {
     // === Status lesen ===
 
     /**
-     * Zyklisches Lesen des SPS-Status (alle 500ms)
+     * Takt fuer das adaptive Polling (im schnellsten Intervall). Gelesen wird nur,
+     * wenn das Intervall der aktuellen Poll-Stufe abgelaufen ist. Bei virtueller
+     * Zeit ruft der HeadlessSimulationRunner diese Methode auf.
+     */
+    @Scheduled(fixedDelayString = "${plsbl.plc.poll-interval-fast:100}")
+    public void pollTick() {
+        long now = clock.millis();
+        if (now < nextPollAt) {
+            return;
+        }
+        long requests = fastPollRequests.get();
+        pollStatus();
+        PollRate rate = selectPollRate();
+        if (rate != pollRate) {
+            log.debug("SPS-Poll-Stufe: {} -> {} ({} ms)", pollRate, rate, getPollInterval(rate));
+            pollRate = rate;
+        }
+        nextPollAt = now + getPollInterval(rate);
+
+        // Erst schreiben, dann pruefen: kam waehrend des Takts ein Kommando (requestFastPolling),
+        // gilt dessen Anforderung - selectPollRate kannte nur den Status vor dem Kommando
+        if (fastPollRequests.get() != requests) {
+            pollRate = PollRate.FAST;
+            nextPollAt = 0;
+        }
+    }
+
+    /**
+     * Waehlt die Poll-Stufe anhand des zuletzt gelesenen Status
+     */
+    private PollRate selectPollRate() {
+        if (!isConnected() && !isSimulatorMode()) {
+            return PollRate.NORMAL;  // Reconnect-Versuche im normalen Takt
+        }
+        PlcStatus status = currentStatus.get();
+        WorkPhase phase = status.getWorkPhase();
+        if (phase == WorkPhase.MOVE_TO_PICKUP || phase.isLowering() || phase.isGripping()) {
+            return PollRate.FAST;
+        }
+        if (phase != WorkPhase.IDLE || status.getJobState() != JobState.IDLE
+                || status.anyDoorOpen() || status.hasError() || !dispatchQueue.isEmpty()) {
+            return PollRate.NORMAL;
+        }
+        return PollRate.IDLE;
+    }
+
+    /**
+     * Liest beim naechsten Takt sofort und im schnellen Intervall (z.B. nach einem Kommando)
+     */
+    private void requestFastPolling() {
+        fastPollRequests.incrementAndGet();
+        pollRate = PollRate.FAST;
+        nextPollAt = 0;
+    }
+
+    /**
+     * Zyklisches Lesen des SPS-Status (Takt siehe {@link #pollTick()})
      */
-    @Scheduled(fixedDelayString = "${plsbl.plc.poll-interval:500}")
     public void pollStatus() {
         // Simulator-Modus: Status vom Simulator holen
         if (useSimulator && simulatorService.isRunning()) {
-            PlcStatus status = readStatusFromSimulator();
-            currentStatus.set(status);
-            lastSuccessfulRead = System.currentTimeMillis();
-            notifyStatusListeners(status);
+            publishStatus(readStatusFromSimulator());
             return;
         }
 
@@ -238,39 +354,112 @@ public class PlcService {
         }
 
         if (!isConnected()) {
-            // Reconnect-Versuch mit Backoff
-            if (reconnectAttempts < settingsService.getSpsRetryCount()) {
-                connect();
-            }
-            // Falls Verbindung fehlgeschlagen, auf Simulator wechseln
-            if (!isConnected() && simulatorService.isRunning()) {
+            // Reconnect-Versuch mit Backoff (im Hintergrund)
+            if (reconnectAttempts < settingsService.getSpsRetryCount() && !connecting.get()) {
+                startConnect().whenComplete((ignored, error) -> {
+                    // Falls Verbindung fehlgeschlagen, auf Simulator wechseln
+                    if (error != null && simulatorService.isRunning()) {
+                        useSimulator = true;
+                        log.info("SPS nicht erreichbar - wechsle zu Simulator");
+                    }
+                });
+            } else if (!connecting.get() && simulatorService.isRunning()) {
                 useSimulator = true;
                 log.info("SPS nicht erreichbar - wechsle zu Simulator");
             }
             return;
         }
 
-        try {
-            PlcStatus status = readStatus();
-            if (status != null) {
-                currentStatus.set(status);
-                lastSuccessfulRead = System.currentTimeMillis();
-                notifyStatusListeners(status);
-            }
-        } catch (PlcException e) {
-            log.error("Fehler beim Lesen des SPS-Status: {}", e.getMessage());
-            if (e.isReconnectNecessary()) {
-                disconnect();
-                notifyAlert(PlcAlert.linkDown());
-                // Auf Simulator wechseln
-                if (simulatorService.isRunning()) {
-                    useSimulator = true;
-                    log.info("SPS-Fehler - wechsle zu Simulator");
+        // Vorherige Anfrage noch unterwegs: diesen Takt auslassen statt Anfragen zu stapeln
+        if (!statusReadInFlight.compareAndSet(false, true)) {
+            return;
+        }
+        worker.readStatus(getRequestTimeoutMillis()).whenComplete((response, error) -> {
+            statusReadInFlight.set(false);
+            if (error == null) {
+                try {
+                    publishStatus(parseStatusResponse(response));
+                } catch (Exception e) {
+                    log.error("Fehler beim Verarbeiten des SPS-Status: {}", e.getMessage(), e);
                 }
+            } else {
+                handleReadError(unwrap(error));
+            }
+        });
+    }
+
+    private void handleReadError(PlcException e) {
+        log.error("Fehler beim Lesen des SPS-Status: {}", e.getMessage());
+        if (e.isReconnectNecessary()) {
+            disconnect();
+            notifyAlert(PlcAlert.linkDown());
+            // Auf Simulator wechseln
+            if (simulatorService.isRunning()) {
+                useSimulator = true;
+                log.info("SPS-Fehler - wechsle zu Simulator");
             }
         }
     }
 
+    private long getRequestTimeoutMillis() {
+        return TimeUnit.SECONDS.toMillis(settingsService.getSpsTimeout());
+    }
+
+    /**
+     * Wartet auf eine Worker-Anfrage (nur fuer Aufrufer ausserhalb des Schedulers, z.B. UI)
+     */
+    private <T> T await(CompletableFuture<T> future) throws PlcException {
+        try {
+            // Timeout der Anfrage selbst setzt der Worker, hier nur Schutz gegen einen haengenden Worker
+            return future.get(2 * getRequestTimeoutMillis() + 1000, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (TimeoutException e) {
+            throw new PlcException("Zeitueberschreitung", "Keine Antwort vom SPS-Worker", true, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PlcException("Unterbrochen", e);
+        }
+    }
+
+    private static PlcException unwrap(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause instanceof PlcException plcException ? plcException
+            : new PlcException("SPS-Fehler", cause.getMessage(), true, cause);
+    }
+
+    /**
+     * Friert den gelesenen Status ein, macht ihn als aktuellen Status sichtbar und
+     * benachrichtigt die Listener nur, wenn sich gegenueber dem zuletzt
+     * veroeffentlichten Status etwas geaendert hat.
+     */
+    private void publishStatus(PlcStatus status) {
+        synchronized (statusLock) {
+            status.setReceiveCounter(currentStatus.get().getReceiveCounter() + 1);
+            status.freeze();
+            currentStatus.set(status);
+            lastSuccessfulRead = clock.millis();
+            statusReads.incrementAndGet();
+
+            Set<PlcStatusChange.Field> changes = PlcStatusChange.diff(lastPublishedStatus, status, positionDeadBandMm);
+            if (changes.isEmpty()) {
+                return;
+            }
+            PlcStatusChange change = new PlcStatusChange(lastPublishedStatus, status, changes);
+            lastPublishedStatus = status;
+            statusChanges.incrementAndGet();
+            log.trace("SPS-Status geaendert: {}", change);
+
+            // Unter der Status-Sperre, damit Listener die Aenderungen in Lesereihenfolge erhalten
+            notifyStatusListeners(status);
+            notifyStatusChangeListeners(change);
+        }
+    }
+
     /**
      * Liest den Status vom Simulator
      */
@@ -319,6 +508,13 @@ public class PlcService {
             case LIFTING_EMPTY -> WorkPhase.LIFTING_EMPTY;
         });
 
+        // Tore und Tueren
+        status.setDoor1Open(simStatus.door1Open());
+        status.setDoor7Open(simStatus.door7Open());
+        status.setDoor10Open(simStatus.door10Open());
+        status.setGatesOpen(simStatus.gatesOpen());
+        status.setDoorsOpen(simStatus.doorsOpen());
+
         // Simulator hat keine Fehler
         status.setLinkDown(false);
         status.setChecksumError(false);
@@ -329,44 +525,18 @@ public class PlcService {
     }
 
     /**
-     * Liest den aktuellen Status von der SPS
+     * Liest den aktuellen Status von der SPS (wartet auf die Antwort)
      */
     public PlcStatus readStatus() throws PlcException {
-        PlcConnection connection = connectionRef.get();
-        if (connection == null || !connection.isConnected()) {
-            throw new PlcException("Keine SPS-Verbindung", null, true);
-        }
-
-        try {
-            PlcReadRequest.Builder builder = connection.readRequestBuilder();
-
-            // Alle Status-Adressen hinzufuegen
-            builder.addTagAddress("xPos", ADDR_STATUS_X_POSITION);
-            builder.addTagAddress("yPos", ADDR_STATUS_Y_POSITION);
-            builder.addTagAddress("zPos", ADDR_STATUS_Z_POSITION);
-            builder.addTagAddress("craneMode", ADDR_STATUS_CRANE_MODE);
-            builder.addTagAddress("gripper", ADDR_STATUS_GRIPPER);
-            builder.addTagAddress("jobState", ADDR_STATUS_JOB_STATE);
-            builder.addTagAddress("jobNumber", ADDR_STATUS_JOB_NUMBER);
-            builder.addTagAddress("flags", ADDR_STATUS_FLAGS);
-            builder.addTagAddress("doors", ADDR_STATUS_DOORS);
-
-            PlcReadRequest request = builder.build();
-            PlcReadResponse response = request.execute().get(
-                settingsService.getSpsTimeout(), java.util.concurrent.TimeUnit.SECONDS);
-
-            return parseStatusResponse(response);
-
-        } catch (Exception e) {
-            throw new PlcException("Fehler beim Lesen", e.getMessage(), true, e);
-        }
+        return parseStatusResponse(await(worker.readStatus(getRequestTimeoutMillis())));
     }
 
     /**
-     * Gibt den zuletzt gelesenen Status zurueck (cached)
+     * Gibt den zuletzt gelesenen Status zurueck (cached, eingefroren - nicht kopiert).
+     * Fuer Aenderungen {@link PlcStatus#clone()} verwenden.
      */
     public PlcStatus getCurrentStatus() {
-        return currentStatus.get().clone();
+        return currentStatus.get();
     }
 
     /**
@@ -429,20 +599,20 @@ public class PlcService {
         // Status-Flags (Bits)
         if (response.getResponseCode("flags") == PlcResponseCode.OK) {
             int flags = response.getInteger("flags");
-            status.setLinkDown((flags & 0x0001) != 0);
-            status.setChecksumError((flags & 0x0002) != 0);
-            status.setPlcError((flags & 0x0004) != 0);
-            status.setCraneOff((flags & 0x0008) != 0);
+            status.setLinkDown((flags & PlcTags.FLAG_LINK_DOWN) != 0);
+            status.setChecksumError((flags & PlcTags.FLAG_CHECKSUM_ERROR) != 0);
+            status.setPlcError((flags & PlcTags.FLAG_PLC_ERROR) != 0);
+            status.setCraneOff((flags & PlcTags.FLAG_CRANE_OFF) != 0);
         }
 
         // Tuer-Status (Bits)
         if (response.getResponseCode("doors") == PlcResponseCode.OK) {
             int doors = response.getInteger("doors");
-            status.setDoor1Open((doors & 0x0001) != 0);
-            status.setDoor7Open((doors & 0x0040) != 0);
-            status.setDoor10Open((doors & 0x0200) != 0);
-            status.setGatesOpen((doors & 0x00A0) != 0);  // Bits 5 & 7
-            status.setDoorsOpen((doors & 0x011E) != 0);  // Bits 1-4, 8
+            status.setDoor1Open((doors & PlcTags.DOOR_1) != 0);
+            status.setDoor7Open((doors & PlcTags.DOOR_7) != 0);
+            status.setDoor10Open((doors & PlcTags.DOOR_10) != 0);
+            status.setGatesOpen((doors & PlcTags.DOOR_GATES) != 0);
+            status.setDoorsOpen((doors & PlcTags.DOOR_OTHERS) != 0);
         }
 
         return status;
@@ -463,6 +633,7 @@ public class PlcService {
         // Simulator-Modus: Kommando an Simulator senden
         if (useSimulator && simulatorService.isRunning()) {
             sendCommandToSimulator(command);
+            requestFastPolling();
             return;
         }
 
@@ -471,63 +642,55 @@ public class PlcService {
             return;
         }
 
-        PlcConnection connection = connectionRef.get();
-        if (connection == null || !connection.isConnected()) {
+        if (!worker.isConnected()) {
             throw new PlcException("Keine SPS-Verbindung", null, true);
         }
 
-        if (!connection.getMetadata().isWriteSupported()) {
+        if (!worker.isWriteSupported()) {
             throw new PlcException("SPS unterstuetzt kein Schreiben");
         }
 
-        try {
-            log.info("Sende Kommando an SPS: {}", command);
-
-            PlcWriteRequest.Builder builder = connection.writeRequestBuilder();
-
-            // Positionen
-            builder.addTagAddress("pickupX", ADDR_CMD_PICKUP_X, command.getPickupPositionX());
-            builder.addTagAddress("pickupY", ADDR_CMD_PICKUP_Y, command.getPickupPositionY());
-            builder.addTagAddress("pickupZ", ADDR_CMD_PICKUP_Z, command.getPickupPositionZ());
-            builder.addTagAddress("releaseX", ADDR_CMD_RELEASE_X, command.getReleasePositionX());
-            builder.addTagAddress("releaseY", ADDR_CMD_RELEASE_Y, command.getReleasePositionY());
-            builder.addTagAddress("releaseZ", ADDR_CMD_RELEASE_Z, command.getReleasePositionZ());
-
-            // Dimensionen
-            builder.addTagAddress("length", ADDR_CMD_LENGTH, command.getLength());
-            builder.addTagAddress("width", ADDR_CMD_WIDTH, command.getWidth());
-            builder.addTagAddress("thickness", ADDR_CMD_THICKNESS, command.getThickness());
-            builder.addTagAddress("weight", ADDR_CMD_WEIGHT, command.getWeight());
-
-            // Flags: Bit 0 = abort, Bit 1 = longIngot, Bit 2 = rotate
-            int flags = 0;
-            if (command.isAbort()) flags |= 0x0001;
-            if (command.isLongIngot()) flags |= 0x0002;
-            if (command.isRotate()) flags |= 0x0004;
-            builder.addTagAddress("flags", ADDR_CMD_FLAGS, flags);
-
-            // Trigger (setzt das Kommando aktiv)
-            builder.addTagAddress("trigger", ADDR_CMD_TRIGGER, true);
-
-            PlcWriteRequest request = builder.build();
-            PlcWriteResponse response = request.execute().get(
-                settingsService.getSpsTimeout(), java.util.concurrent.TimeUnit.SECONDS);
-
-            // Antwort pruefen
-            for (String tagName : response.getTagNames()) {
-                if (response.getResponseCode(tagName) != PlcResponseCode.OK) {
-                    throw new PlcException("Schreibfehler bei " + tagName + ": " +
-                        response.getResponseCode(tagName));
-                }
-            }
+        log.info("Sende Kommando an SPS: {}", command);
 
-            log.info("Kommando erfolgreich gesendet");
+        // Werte fuer die vorbereiteten Kommando-Tags (siehe PlcTags.COMMAND_TAGS)
+        Map<String, Object> values = new LinkedHashMap<>();
 
-        } catch (PlcException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new PlcException("Fehler beim Senden", e.getMessage(), false, e);
+        // Positionen
+        values.put("pickupX", command.getPickupPositionX());
+        values.put("pickupY", command.getPickupPositionY());
+        values.put("pickupZ", command.getPickupPositionZ());
+        values.put("releaseX", command.getReleasePositionX());
+        values.put("releaseY", command.getReleasePositionY());
+        values.put("releaseZ", command.getReleasePositionZ());
+
+        // Dimensionen
+        values.put("length", command.getLength());
+        values.put("width", command.getWidth());
+        values.put("thickness", command.getThickness());
+        values.put("weight", command.getWeight());
+
+        // Flags: Bit 0 = abort, Bit 1 = longIngot, Bit 2 = rotate
+        int flags = 0;
+        if (command.isAbort()) flags |= PlcTags.CMD_FLAG_ABORT;
+        if (command.isLongIngot()) flags |= PlcTags.CMD_FLAG_LONG_INGOT;
+        if (command.isRotate()) flags |= PlcTags.CMD_FLAG_ROTATE;
+        values.put("flags", flags);
+
+        // Trigger (setzt das Kommando aktiv)
+        values.put("trigger", true);
+
+        PlcWriteResponse response = await(worker.writeCommand(values, getRequestTimeoutMillis()));
+
+        // Antwort pruefen
+        for (String tagName : response.getTagNames()) {
+            if (response.getResponseCode(tagName) != PlcResponseCode.OK) {
+                throw new PlcException("Schreibfehler bei " + tagName + ": " +
+                    response.getResponseCode(tagName));
+            }
         }
+
+        log.info("Kommando erfolgreich gesendet");
+        requestFastPolling();
     }
 
     /**
@@ -575,7 +738,7 @@ public class PlcService {
     // === Listener-Management ===
 
     /**
-     * Registriert einen Status-Listener
+     * Registriert einen Status-Listener (wird nur bei geaendertem Status aufgerufen)
      */
     public void addStatusListener(Consumer<PlcStatus> listener) {
         statusListeners.add(listener);
@@ -588,6 +751,20 @@ public class PlcService {
         statusListeners.remove(listener);
     }
 
+    /**
+     * Registriert einen Listener fuer typisierte Aenderungs-Events
+     */
+    public void addStatusChangeListener(Consumer<PlcStatusChange> listener) {
+        statusChangeListeners.add(listener);
+    }
+
+    /**
+     * Entfernt einen Listener fuer Aenderungs-Events
+     */
+    public void removeStatusChangeListener(Consumer<PlcStatusChange> listener) {
+        statusChangeListeners.remove(listener);
+    }
+
     /**
      * Registriert einen Alert-Listener
      */
@@ -612,6 +789,16 @@ public class PlcService {
         }
     }
 
+    private void notifyStatusChangeListeners(PlcStatusChange change) {
+        for (Consumer<PlcStatusChange> listener : statusChangeListeners) {
+            try {
+                listener.accept(change);
+            } catch (Exception e) {
+                log.error("Fehler im Status-Change-Listener: {}", e.getMessage());
+            }
+        }
+    }
+
     private void notifyAlert(PlcAlert alert) {
         log.info("PLC Alert: {}", alert);
         for (Consumer<PlcAlert> listener : alertListeners) {
@@ -674,7 +861,75 @@ public class PlcService {
      */
     public long getTimeSinceLastRead() {
         if (lastSuccessfulRead == 0) return -1;
-        return System.currentTimeMillis() - lastSuccessfulRead;
+        return clock.millis() - lastSuccessfulRead;
+    }
+
+    /**
+     * Anzahl gelesener Status seit dem Start
+     */
+    public long getStatusReadCount() {
+        return statusReads.get();
+    }
+
+    /**
+     * Anzahl veroeffentlichter Aenderungen seit dem Start
+     */
+    public long getStatusChangeCount() {
+        return statusChanges.get();
+    }
+
+    /**
+     * Anteil der gelesenen Status ohne Aenderung, die nicht an Listener verteilt wurden (0.0 - 1.0)
+     */
+    public double getStatusSuppressionRatio() {
+        long reads = statusReads.get();
+        return reads == 0 ? 0.0 : 1.0 - (double) statusChanges.get() / reads;
+    }
+
+    /**
+     * Aktuelle Poll-Stufe
+     */
+    public PollRate getPollRate() {
+        return pollRate;
+    }
+
+    /**
+     * Intervall einer Poll-Stufe [ms]
+     */
+    public long getPollInterval(PollRate rate) {
+        return switch (rate) {
+            case FAST -> fastPollInterval;
+            case NORMAL -> normalPollInterval;
+            case IDLE -> idlePollInterval;
+        };
+    }
+
+    /**
+     * Aktuell wirksames Poll-Intervall [ms]
+     */
+    public long getEffectivePollInterval() {
+        return getPollInterval(pollRate);
+    }
+
+    /**
+     * Latenz der Status-Leseanfragen an die SPS
+     */
+    public LatencyHistogram.Snapshot getReadLatency() {
+        return worker.getReadLatency().snapshot();
+    }
+
+    /**
+     * Latenz der Kommando-Schreibanfragen an die SPS
+     */
+    public LatencyHistogram.Snapshot getWriteLatency() {
+        return worker.getWriteLatency().snapshot();
+    }
+
+    /**
+     * Dauer der Verbindungsaufbauten zur SPS
+     */
+    public LatencyHistogram.Snapshot getConnectLatency() {
+        return worker.getConnectLatency().snapshot();
     }
 
     /**
@@ -0,0 +1,143 @@
+package com.hydro.plsbl.plc;
+
+import com.hydro.plsbl.plc.dto.PlcStatus;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Aenderungs-Event der SPS-Status-Pipeline
+ *
+ * Wird nur erzeugt, wenn sich mindestens ein Feld gegenueber dem zuletzt
+ * veroeffentlichten Status geaendert hat. Positionen werden mit einem Totband
+ * verglichen, damit Messrauschen keine Events ausloest.
+ */
+public class PlcStatusChange {
+
+    /**
+     * Gruppen von Status-Feldern, die sich aendern koennen
+     */
+    public enum Field {
+        POSITION,       // X/Y/Z ausserhalb des Totbands
+        CRANE_MODE,
+        CRANE_OFF,
+        GRIPPER,
+        JOB_STATE,
+        JOB_NUMBER,
+        WORK_PHASE,
+        DOORS,          // Tore und Tueren
+        ERRORS,         // LinkDown, Checksumme, SPS-Fehler
+        INGOT           // Barren-Daten und Positions-Echo vom Kommando
+    }
+
+    private final PlcStatus previous;
+    private final PlcStatus current;
+    private final Set<Field> changes;
+
+    PlcStatusChange(PlcStatus previous, PlcStatus current, Set<Field> changes) {
+        this.previous = previous;
+        this.current = current;
+        this.changes = Collections.unmodifiableSet(changes);
+    }
+
+    /**
+     * Vergleicht zwei Status feldweise
+     *
+     * @param previous   Zuletzt veroeffentlichter Status (null = erster Status, alles geaendert)
+     * @param current    Neu gelesener Status
+     * @param deadBandMm Positionsaenderungen bis einschliesslich dieses Werts werden ignoriert
+     * @return Geaenderte Felder (leer = keine Aenderung)
+     */
+    public static Set<Field> diff(PlcStatus previous, PlcStatus current, int deadBandMm) {
+        if (previous == null) {
+            return EnumSet.allOf(Field.class);
+        }
+        EnumSet<Field> changes = EnumSet.noneOf(Field.class);
+        if (Math.abs(current.getXPosition() - previous.getXPosition()) > deadBandMm
+                || Math.abs(current.getYPosition() - previous.getYPosition()) > deadBandMm
+                || Math.abs(current.getZPosition() - previous.getZPosition()) > deadBandMm) {
+            changes.add(Field.POSITION);
+        }
+        if (current.getCraneMode() != previous.getCraneMode()) {
+            changes.add(Field.CRANE_MODE);
+        }
+        if (current.isCraneOff() != previous.isCraneOff()) {
+            changes.add(Field.CRANE_OFF);
+        }
+        if (current.getGripperState() != previous.getGripperState()) {
+            changes.add(Field.GRIPPER);
+        }
+        if (current.getJobState() != previous.getJobState()) {
+            changes.add(Field.JOB_STATE);
+        }
+        if (current.getJobNumber() != previous.getJobNumber()) {
+            changes.add(Field.JOB_NUMBER);
+        }
+        if (current.getWorkPhase() != previous.getWorkPhase()) {
+            changes.add(Field.WORK_PHASE);
+        }
+        if (current.isDoor1Open() != previous.isDoor1Open()
+                || current.isDoor7Open() != previous.isDoor7Open()
+                || current.isDoor10Open() != previous.isDoor10Open()
+                || current.isGatesOpen() != previous.isGatesOpen()
+                || current.isDoorsOpen() != previous.isDoorsOpen()) {
+            changes.add(Field.DOORS);
+        }
+        if (current.isLinkDown() != previous.isLinkDown()
+                || current.isChecksumError() != previous.isChecksumError()
+                || current.isPlcError() != previous.isPlcError()) {
+            changes.add(Field.ERRORS);
+        }
+        if (current.getLength() != previous.getLength()
+                || current.getWidth() != previous.getWidth()
+                || current.getThickness() != previous.getThickness()
+                || current.getWeight() != previous.getWeight()
+                || current.isLongIngot() != previous.isLongIngot()
+                || current.isRotate() != previous.isRotate()
+                || current.getPickupPositionX() != previous.getPickupPositionX()
+                || current.getPickupPositionY() != previous.getPickupPositionY()
+                || current.getPickupPositionZ() != previous.getPickupPositionZ()
+                || current.getReleasePositionX() != previous.getReleasePositionX()
+                || current.getReleasePositionY() != previous.getReleasePositionY()
+                || current.getReleasePositionZ() != previous.getReleasePositionZ()) {
+            changes.add(Field.INGOT);
+        }
+        return changes;
+    }
+
+    /**
+     * Prueft ob sich mindestens eines der Felder geaendert hat
+     */
+    public boolean affects(Field... fields) {
+        for (Field field : fields) {
+            if (changes.contains(field)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Zuletzt veroeffentlichter Status (null beim ersten Event)
+     */
+    public PlcStatus getPrevious() {
+        return previous;
+    }
+
+    /**
+     * Neuer Status (eingefroren)
+     */
+    public PlcStatus getCurrent() {
+        return current;
+    }
+
+    public Set<Field> getChanges() {
+        return changes;
+    }
+
+    @Override
+    public String toString() {
+        return "PlcStatusChange{" + changes + ", " + current + '}';
+    }
+}
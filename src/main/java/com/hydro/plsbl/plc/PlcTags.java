@@ -0,0 +1,101 @@
+package com.hydro.plsbl.plc;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * S7-Adressen der Kran-SPS im PLC4X-Format
+ *
+ * Format: %DB&lt;nummer&gt;.DB&lt;typ&gt;&lt;offset&gt;:&lt;datentyp&gt;
+ * Beispiel: %DB100.DBW0:INT = Datenbaustein 100, Wort an Offset 0, als Integer
+ *
+ * Die Tag-Namen der Maps werden fuer die vorbereiteten Lese-/Schreib-Anfragen verwendet.
+ */
+public final class PlcTags {
+
+    // Status-Adressen (Lesen von SPS)
+    public static final String ADDR_STATUS_X_POSITION = "%DB100.DBD0:DINT";      // X-Position [mm]
+    public static final String ADDR_STATUS_Y_POSITION = "%DB100.DBD4:DINT";      // Y-Position [mm]
+    public static final String ADDR_STATUS_Z_POSITION = "%DB100.DBD8:DINT";      // Z-Position [mm]
+    public static final String ADDR_STATUS_CRANE_MODE = "%DB100.DBB12:SINT";     // Kran-Modus (0=Auto, 1=Manual, 2=Semi)
+    public static final String ADDR_STATUS_GRIPPER = "%DB100.DBB13:SINT";        // Greifer (0=Open, 1=Closed, 2=Loaded)
+    public static final String ADDR_STATUS_JOB_STATE = "%DB100.DBB14:SINT";      // Job-Status
+    public static final String ADDR_STATUS_JOB_NUMBER = "%DB100.DBW16:INT";      // Job-Nummer
+    public static final String ADDR_STATUS_FLAGS = "%DB100.DBW18:WORD";          // Status-Flags (Fehler, Tueren, etc.)
+    public static final String ADDR_STATUS_DOORS = "%DB100.DBW20:WORD";          // Tuer-Status Bits
+
+    // Kommando-Adressen (Schreiben zur SPS)
+    public static final String ADDR_CMD_PICKUP_X = "%DB101.DBD0:DINT";           // Aufnahme X [mm]
+    public static final String ADDR_CMD_PICKUP_Y = "%DB101.DBD4:DINT";           // Aufnahme Y [mm]
+    public static final String ADDR_CMD_PICKUP_Z = "%DB101.DBD8:DINT";           // Aufnahme Z [mm]
+    public static final String ADDR_CMD_RELEASE_X = "%DB101.DBD12:DINT";         // Ablage X [mm]
+    public static final String ADDR_CMD_RELEASE_Y = "%DB101.DBD16:DINT";         // Ablage Y [mm]
+    public static final String ADDR_CMD_RELEASE_Z = "%DB101.DBD20:DINT";         // Ablage Z [mm]
+    public static final String ADDR_CMD_LENGTH = "%DB101.DBW24:INT";             // Laenge [mm]
+    public static final String ADDR_CMD_WIDTH = "%DB101.DBW26:INT";              // Breite [mm]
+    public static final String ADDR_CMD_THICKNESS = "%DB101.DBW28:INT";          // Dicke [mm]
+    public static final String ADDR_CMD_WEIGHT = "%DB101.DBW30:INT";             // Gewicht [kg]
+    public static final String ADDR_CMD_FLAGS = "%DB101.DBW32:WORD";             // Flags (abort, longIngot, rotate)
+    public static final String ADDR_CMD_TRIGGER = "%DB101.DBX34.0:BOOL";         // Kommando-Trigger
+
+    // Bits in ADDR_STATUS_FLAGS
+    public static final int FLAG_LINK_DOWN = 0x0001;
+    public static final int FLAG_CHECKSUM_ERROR = 0x0002;
+    public static final int FLAG_PLC_ERROR = 0x0004;
+    public static final int FLAG_CRANE_OFF = 0x0008;
+
+    // Bits in ADDR_STATUS_DOORS
+    public static final int DOOR_1 = 0x0001;
+    public static final int DOOR_7 = 0x0040;
+    public static final int DOOR_10 = 0x0200;
+    public static final int DOOR_GATES = 0x00A0;     // Tore 6 & 8 (Bits 5 & 7)
+    public static final int DOOR_OTHERS = 0x011E;    // Tueren 2,3,4,5,9 (Bits 1-4, 8)
+
+    // Bits in ADDR_CMD_FLAGS
+    public static final int CMD_FLAG_ABORT = 0x0001;
+    public static final int CMD_FLAG_LONG_INGOT = 0x0002;
+    public static final int CMD_FLAG_ROTATE = 0x0004;
+
+    /**
+     * Tag-Name -> Adresse fuer die zyklische Status-Anfrage
+     */
+    public static final Map<String, String> STATUS_TAGS = orderedMap(
+        "xPos", ADDR_STATUS_X_POSITION,
+        "yPos", ADDR_STATUS_Y_POSITION,
+        "zPos", ADDR_STATUS_Z_POSITION,
+        "craneMode", ADDR_STATUS_CRANE_MODE,
+        "gripper", ADDR_STATUS_GRIPPER,
+        "jobState", ADDR_STATUS_JOB_STATE,
+        "jobNumber", ADDR_STATUS_JOB_NUMBER,
+        "flags", ADDR_STATUS_FLAGS,
+        "doors", ADDR_STATUS_DOORS);
+
+    /**
+     * Tag-Name -> Adresse fuer Kommandos (Trigger zuletzt)
+     */
+    public static final Map<String, String> COMMAND_TAGS = orderedMap(
+        "pickupX", ADDR_CMD_PICKUP_X,
+        "pickupY", ADDR_CMD_PICKUP_Y,
+        "pickupZ", ADDR_CMD_PICKUP_Z,
+        "releaseX", ADDR_CMD_RELEASE_X,
+        "releaseY", ADDR_CMD_RELEASE_Y,
+        "releaseZ", ADDR_CMD_RELEASE_Z,
+        "length", ADDR_CMD_LENGTH,
+        "width", ADDR_CMD_WIDTH,
+        "thickness", ADDR_CMD_THICKNESS,
+        "weight", ADDR_CMD_WEIGHT,
+        "flags", ADDR_CMD_FLAGS,
+        "trigger", ADDR_CMD_TRIGGER);
+
+    private PlcTags() {
+    }
+
+    private static Map<String, String> orderedMap(String... namesAndAddresses) {
+        Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndAddresses.length; i += 2) {
+            map.put(namesAndAddresses[i], namesAndAddresses[i + 1]);
+        }
+        return Collections.unmodifiableMap(map);
+    }
+}
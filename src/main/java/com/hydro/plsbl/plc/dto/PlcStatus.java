@@ -13,7 +13,10 @@ import java.time.LocalDateTime;
  * - Tuer-Status
  * - Barren-Daten (falls geladen)
  *
- * Mutable - wird bei jedem Poll aktualisiert.
+ * Wird pro Poll neu aufgebaut. Der PlcService friert den Status mit {@link #freeze()}
+ * ein, bevor er ihn veroeffentlicht: getCurrentStatus() und die Listener erhalten
+ * dieselbe unveraenderliche Instanz (kein Kopieren pro Aufruf). Fuer Aenderungen
+ * liefert {@link #clone()} eine veraenderbare Kopie.
  */
 public class PlcStatus implements Cloneable {
 
@@ -66,6 +69,8 @@ public class PlcStatus implements Cloneable {
     private int receiveCounter;
     private LocalDateTime lastUpdate;
 
+    private boolean frozen;
+
     public PlcStatus() {
         this.lastUpdate = LocalDateTime.now();
     }
@@ -74,21 +79,41 @@ public class PlcStatus implements Cloneable {
     public PlcStatus clone() {
         try {
             PlcStatus clone = (PlcStatus) super.clone();
-            clone.lastUpdate = LocalDateTime.now();
+            clone.frozen = false;
             return clone;
         } catch (CloneNotSupportedException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Macht den Status unveraenderlich (Setter werfen danach UnsupportedOperationException)
+     */
+    public PlcStatus freeze() {
+        frozen = true;
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkMutable() {
+        if (frozen) {
+            throw new UnsupportedOperationException("PlcStatus ist eingefroren - clone() fuer Aenderungen verwenden");
+        }
+    }
+
     // === Hilfsmethoden ===
 
     public void incrementReceiveCounter() {
+        checkMutable();
         receiveCounter++;
         lastUpdate = LocalDateTime.now();
     }
 
     public void incrementJobNumber() {
+        checkMutable();
         jobNumber = (jobNumber + 1) % 10000;
     }
 
@@ -115,6 +140,7 @@ public class PlcStatus implements Cloneable {
     }
 
     public void setLinkDown(boolean linkDown) {
+        checkMutable();
         this.linkDown = linkDown;
     }
 
@@ -123,6 +149,7 @@ public class PlcStatus implements Cloneable {
     }
 
     public void setChecksumError(boolean checksumError) {
+        checkMutable();
         this.checksumError = checksumError;
     }
 
@@ -131,6 +158,7 @@ public class PlcStatus implements Cloneable {
     }
 
     public void setJobNumber(int jobNumber) {
+        checkMutable();
         this.jobNumber = jobNumber;
     }
 
@@ -139,6 +167,7 @@ public class PlcStatus implements Cloneable {
     }
 
     public void setPlcError(boolean plcError) {
+        checkMutable();
         this.plcError = plcError;
     }
 
@@ -147,6 +176,7 @@ public class PlcStatus implements Cloneable {
     }
 
     public void setCraneMode(CraneMode craneMode) {
+        checkMutable();
         this.craneMode = craneMode;
     }
 
@@ -155,6 +185,7 @@ public class PlcStatus implements Cloneable {
     }
 
     public void setCraneOff(boolean craneOff) {
+        checkMutable();
         this.craneOff = craneOff;
     }
 
@@ -163,6 +194,7 @@ public class PlcStatus implements Cloneable {
     }
 
     public void setXPosition(int xPosition) {
+        checkMutable();
         this.xPosition = xPosition;
     }
 
@@ -171,6 +203,7 @@ public class PlcStatus implements Cloneable {
     }
 
     public void setYPosition(int yPosition) {
+        checkMutable();
         this.yPosition = yPosition;
     }
 
@@ -179,6 +212,7 @@ public class PlcStatus implements Cloneable {
     }
 
     public void setZPosition(int zPosition) {
+        checkMutable();
         this.zPosition = zPosition;
     }
 
@@ -187,6 +221,7 @@ public class PlcStatus implements Cloneable {
     }
 
     public void setGripperState(GripperState gripperState) {
+        checkMutable();
         this.gripperState = gripperState;
     }
 
@@ -195,6 +230,7 @@ public class PlcStatus implements Cloneable {
     }
 
     public void setJobState(JobState jobState) {
+        checkMutable();
         this.jobState = jobState;
     }
 
@@ -203,6 +239,7 @@ public class PlcStatus implements Cloneable {
     }
 
     public void setWorkPhase(WorkPhase workPhase) {
+        checkMutable();
         this.workPhase = workPhase;
     }
 
@@ -211,6 +248,7 @@ public class PlcStatus implements Cloneable {
     }
 
     public void setDoor1Open(boolean door1Open) {
+        checkMutable();
         this.door1Open = door1Open;
     }
 
@@ -219,6 +257,7 @@ public class PlcStatus implements Cloneable {
     }
 
     public void setDoor7Open(boolean door7Open) {
+        checkMutable();
         this.door7Open = door7Open;
     }
 
@@ -227,6 +266,7 @@ public class PlcStatus implements Cloneable {
     }
 
     public void setDoor10Open(boolean door10Open) {
+        checkMutable();
         this.door10Open = door10Open;
     }
 
@@ -235,6 +275,7 @@ public class PlcStatus implements Cloneable {
     }
 
     public void setGatesOpen(boolean gatesOpen) {
+        checkMutable();
         this.gatesOpen = gatesOpen;
     }
 
@@ -243,6 +284,7 @@ public class PlcStatus implements Cloneable {
     }
 
     public void setDoorsOpen(boolean doorsOpen) {
+        checkMutable();
         this.doorsOpen = doorsOpen;
     }
 
@@ -251,6 +293,7 @@ public class PlcStatus implements Cloneable {
     }
 
     public void setLength(int length) {
+        checkMutable();
         this.length = length;
     }
 
@@ -259,6 +302,7 @@ public class PlcStatus implements Cloneable {
     }
 
     public void setWidth(int width) {
+        checkMutable();
         this.width = width;
     }
 
@@ -267,6 +311,7 @@ public class PlcStatus implements Cloneable {
     }
 
     public void setThickness(int thickness) {
+        checkMutable();
         this.thickness = thickness;
     }
 
@@ -275,6 +320,7 @@ public class PlcStatus implements Cloneable {
     }
 
     public void setWeight(int weight) {
+        checkMutable();
         this.weight = weight;
     }
 
@@ -283,6 +329,7 @@ public class PlcStatus implements Cloneable {
     }
 
     public void setLongIngot(boolean longIngot) {
+        checkMutable();
         this.longIngot = longIngot;
     }
 
@@ -291,6 +338,7 @@ public class PlcStatus implements Cloneable {
     }
 
     public void setRotate(boolean rotate) {
+        checkMutable();
         this.rotate = rotate;
     }
 
@@ -299,6 +347,7 @@ public class PlcStatus implements Cloneable {
     }
 
     public void setPickupPositionX(int pickupPositionX) {
+        checkMutable();
         this.pickupPositionX = pickupPositionX;
     }
 
@@ -307,6 +356,7 @@ public class PlcStatus implements Cloneable {
     }
 
     public void setPickupPositionY(int pickupPositionY) {
+        checkMutable();
         this.pickupPositionY = pickupPositionY;
     }
 
@@ -315,6 +365,7 @@ public class PlcStatus implements Cloneable {
     }
 
     public void setPickupPositionZ(int pickupPositionZ) {
+        checkMutable();
         this.pickupPositionZ = pickupPositionZ;
     }
 
@@ -323,6 +374,7 @@ public class PlcStatus implements Cloneable {
     }
 
     public void setReleasePositionX(int releasePositionX) {
+        checkMutable();
         this.releasePositionX = releasePositionX;
     }
 
@@ -331,6 +383,7 @@ public class PlcStatus implements Cloneable {
     }
 
     public void setReleasePositionY(int releasePositionY) {
+        checkMutable();
         this.releasePositionY = releasePositionY;
     }
 
@@ -339,6 +392,7 @@ public class PlcStatus implements Cloneable {
     }
 
     public void setReleasePositionZ(int releasePositionZ) {
+        checkMutable();
         this.releasePositionZ = releasePositionZ;
     }
 
@@ -347,6 +401,7 @@ public class PlcStatus implements Cloneable {
     }
 
     public void setReceiveCounter(int receiveCounter) {
+        checkMutable();
         this.receiveCounter = receiveCounter;
     }
 
@@ -355,6 +410,7 @@ public class PlcStatus implements Cloneable {
     }
 
     public void setLastUpdate(LocalDateTime lastUpdate) {
+        checkMutable();
         this.lastUpdate = lastUpdate;
     }
 
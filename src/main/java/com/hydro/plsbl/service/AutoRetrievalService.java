@@ -12,7 +12,6 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
@@ -49,6 +48,7 @@ public class AutoRetrievalService {
     private final StockyardRepository stockyardRepository;
     private final StaplerAnforderungBroadcaster staplerBroadcaster;
     private final JdbcTemplate jdbcTemplate;
+    private final IdAllocator idAllocator;
 
     public AutoRetrievalService(
             IngotService ingotService,
@@ -56,13 +56,15 @@ public class AutoRetrievalService {
             TransportOrderService transportOrderService,
             StockyardRepository stockyardRepository,
             StaplerAnforderungBroadcaster staplerBroadcaster,
-            JdbcTemplate jdbcTemplate) {
+            JdbcTemplate jdbcTemplate,
+            IdAllocator idAllocator) {
         this.ingotService = ingotService;
         this.ingotTypeService = ingotTypeService;
         this.transportOrderService = transportOrderService;
         this.stockyardRepository = stockyardRepository;
         this.staplerBroadcaster = staplerBroadcaster;
         this.jdbcTemplate = jdbcTemplate;
+        this.idAllocator = idAllocator;
     }
 
     /**
@@ -191,16 +193,19 @@ public class AutoRetrievalService {
      * Prueft ob mindestens ein Barren einen Typ mit autoRetrieval=true hat.
      */
     private boolean hasAutoRetrievalBarren(List<IngotDTO> barren) {
-        for (IngotDTO ingot : barren) {
-            Integer length = ingot.getLength();
-            if (length == null) continue;
-
-            Optional<IngotTypeDTO> typeOpt = ingotTypeService.determineIngotType(
-                length, ingot.getWidth(), ingot.getThickness(), ingot.getWeight(), null);
-
+        List<IngotDTO> withLength = barren.stream()
+            .filter(ingot -> ingot.getLength() != null)
+            .toList();
+        List<Optional<IngotTypeDTO>> types = ingotTypeService.determineIngotTypes(withLength.stream()
+            .map(ingot -> new IngotTypeClassifier.Dimensions(
+                ingot.getLength(), ingot.getWidth(), ingot.getThickness(), ingot.getWeight(), null))
+            .toList());
+
+        for (int i = 0; i < withLength.size(); i++) {
+            Optional<IngotTypeDTO> typeOpt = types.get(i);
             if (typeOpt.isPresent() && Boolean.TRUE.equals(typeOpt.get().getAutoRetrieval())) {
                 log.info("Barren {} hat Typ {} mit autoRetrieval=true",
-                    ingot.getIngotNo(), typeOpt.get().getName());
+                    withLength.get(i).getIngotNo(), typeOpt.get().getName());
                 return true;
             }
         }
@@ -279,21 +284,10 @@ public class AutoRetrievalService {
 
     /**
      * Generiert eine Transportnummer fuer Stapler-Auftraege.
-     * Format: STYY-NNNN (z.B. ST26-0001)
-     * Synchronized um Race Conditions bei parallelen Aufrufen zu vermeiden.
+     * Format: STYY-NNNN (z.B. ST26-0001), fortlaufend pro Jahr (siehe IdAllocator)
      */
-    private synchronized String generateStaplerTransportNo() {
-        int year = LocalDate.now().getYear() % 100;
-        String prefix = "ST" + String.format("%02d", year) + "-";
-        try {
-            Integer maxNo = jdbcTemplate.queryForObject(
-                "SELECT COALESCE(MAX(CAST(SUBSTRING(TRANSPORT_NO, 6) AS INTEGER)), 0) + 1 FROM TD_TRANSPORTORDER WHERE TRANSPORT_NO LIKE ?",
-                Integer.class, prefix + "%");
-            return prefix + String.format("%04d", maxNo != null ? maxNo : 1);
-        } catch (Exception e) {
-            log.error("Fehler bei Transportnummer-Generierung: {}", e.getMessage());
-            return prefix + String.format("%04d", (System.currentTimeMillis() % 10000));
-        }
+    private String generateStaplerTransportNo() {
+        return idAllocator.nextTransportNo("ST");
     }
 
     /**
@@ -5,57 +5,53 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.util.LinkedList;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 
 /**
  * Broadcaster für Beladungs-Status Updates.
  * Ermöglicht die Synchronisation zwischen verschiedenen Views (z.B. BeladungView und LagerView).
+ *
+ * Jeder Listener hat eine eigene Mailbox (ListenerMailboxes). Wartende STATUS_UPDATE-Events
+ * werden zusammengeführt (nur der neueste Stand zählt), Start/Ende nie.
  */
 @Service
 public class BeladungBroadcaster {
 
     private static final Logger log = LoggerFactory.getLogger(BeladungBroadcaster.class);
 
-    private final Executor executor = Executors.newSingleThreadExecutor();
-    private final LinkedList<Consumer<BeladungEvent>> listeners = new LinkedList<>();
+    /** Maximale Anzahl wartender Events pro Listener */
+    private static final int MAILBOX_CAPACITY = 16;
+
+    private final ListenerMailboxes<BeladungEvent> mailboxes = new ListenerMailboxes<>(
+        "BeladungBroadcaster", MAILBOX_CAPACITY,
+        event -> event.getType() == BeladungEventType.STATUS_UPDATE ? event.getType() : null,
+        (older, newer) -> newer);
 
     /**
      * Registriert einen Listener für Beladungs-Events
      */
-    public synchronized Registration register(Consumer<BeladungEvent> listener) {
-        listeners.add(listener);
-        return () -> {
-            synchronized (BeladungBroadcaster.this) {
-                listeners.remove(listener);
-            }
-        };
+    public Registration register(Consumer<BeladungEvent> listener) {
+        ListenerMailboxes<BeladungEvent>.Mailbox mailbox = mailboxes.register(listener);
+        return mailbox::remove;
     }
 
     /**
      * Sendet ein Event an alle registrierten Listener
      */
-    public synchronized void broadcast(BeladungEvent event) {
+    public void broadcast(BeladungEvent event) {
         log.info(">>> BROADCAST: type={}, listeners={}, hasShipment={}",
-            event.getType(), listeners.size(), event.hasShipment());
+            event.getType(), mailboxes.getListenerCount(), event.hasShipment());
         if (event.hasShipment()) {
             log.info(">>>   shipmentId={}, shipmentNumber={}", event.getShipmentId(), event.getShipmentNumber());
         }
-        int listenerIndex = 0;
-        for (Consumer<BeladungEvent> listener : listeners) {
-            final int idx = listenerIndex++;
-            executor.execute(() -> {
-                try {
-                    log.info(">>> Listener {} empfängt Event...", idx);
-                    listener.accept(event);
-                    log.info(">>> Listener {} hat Event verarbeitet", idx);
-                } catch (Exception e) {
-                    log.error(">>> FEHLER in Listener {}: {}", idx, e.getMessage(), e);
-                }
-            });
-        }
+        mailboxes.publish(event);
+    }
+
+    /**
+     * Rückstau-Metriken (Queue-Tiefe, zusammengeführte/verworfene Events, Latenz)
+     */
+    public ListenerMailboxes.Metrics getMetrics() {
+        return mailboxes.getMetrics();
     }
 
     /**
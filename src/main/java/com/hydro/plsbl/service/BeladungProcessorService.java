@@ -8,6 +8,7 @@ import com.hydro.plsbl.plc.PlcService;
 import com.hydro.plsbl.plc.dto.JobState;
 import com.hydro.plsbl.simulator.CraneSimulatorCommand;
 import com.hydro.plsbl.simulator.CraneSimulatorService;
+import com.hydro.plsbl.simulator.SimulationClock;
 import com.vaadin.flow.spring.annotation.VaadinSessionScope;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,11 +36,6 @@ public class BeladungProcessorService {
 
     private static final Logger log = LoggerFactory.getLogger(BeladungProcessorService.class);
 
-    // Trailer-Position (in mm) - muss mit BeladungView übereinstimmen
-    private static final int TRAILER_X = 40000;
-    private static final int TRAILER_Y = 2000;
-    private static final int TRAILER_Z = 2000;
-
     private final BeladungStateService stateService;
     private final PlcService plcService;
     private final CraneSimulatorService simulatorService;
@@ -50,6 +46,8 @@ public class BeladungProcessorService {
     private final ShipmentService shipmentService;
     private final CalloffService calloffService;
     private final MessageService messageService;
+    private final LoadPlanningService loadPlanningService;
+    private final SimulationClock clock;
 
     private ScheduledExecutorService executor;
     private ScheduledFuture<?> processorTask;
@@ -74,7 +72,9 @@ public class BeladungProcessorService {
                                      DataBroadcaster dataBroadcaster,
                                      ShipmentService shipmentService,
                                      CalloffService calloffService,
-                                     MessageService messageService) {
+                                     MessageService messageService,
+                                     LoadPlanningService loadPlanningService,
+                                     SimulationClock clock) {
         this.stateService = stateService;
         this.plcService = plcService;
         this.simulatorService = simulatorService;
@@ -85,6 +85,8 @@ public class BeladungProcessorService {
         this.shipmentService = shipmentService;
         this.calloffService = calloffService;
         this.messageService = messageService;
+        this.loadPlanningService = loadPlanningService;
+        this.clock = clock;
     }
 
     @PreDestroy
@@ -103,16 +105,19 @@ public class BeladungProcessorService {
 
         log.info("=== BELADUNG PROCESSOR START ===");
 
-        executor = Executors.newSingleThreadScheduledExecutor(r -> {
-            Thread t = new Thread(r, "BeladungProcessor");
-            t.setDaemon(true);
-            return t;
-        });
-
-        processorTask = executor.scheduleAtFixedRate(
-            this::processBeladung,
-            500, 500, TimeUnit.MILLISECONDS
-        );
+        // Bei virtueller Zeit taktet der HeadlessSimulationRunner ueber step()
+        if (!clock.isVirtual()) {
+            executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "BeladungProcessor");
+                t.setDaemon(true);
+                return t;
+            });
+
+            processorTask = executor.scheduleAtFixedRate(
+                this::processBeladung,
+                500, 500, TimeUnit.MILLISECONDS
+            );
+        }
 
         processing = true;
         commandSent = false;
@@ -158,6 +163,15 @@ public class BeladungProcessorService {
         return processing;
     }
 
+    /**
+     * Ein Verarbeitungsschritt (nur fuer virtuelle Zeit, sonst laeuft der eigene Takt)
+     */
+    public void step() {
+        if (processing) {
+            processBeladung();
+        }
+    }
+
     /**
      * Setzt die Calloff-Info für den Lieferschein
      */
@@ -173,9 +187,6 @@ public class BeladungProcessorService {
      */
     private void processBeladung() {
         try {
-            // Tür-Status prüfen und ggf. Alarme erzeugen
-            messageService.checkStatus();
-
             // Prüfen ob Beladung noch läuft
             if (!stateService.isBeladungLaeuft()) {
                 log.debug("Beladung nicht aktiv - überspringe");
@@ -349,6 +360,11 @@ public class BeladungProcessorService {
 
         int pickupZ = sourceYard.getZPosition() > 0 ? sourceYard.getZPosition() : 2000;
 
+        // Ablage vorne/hinten laut Beladungsplan (wie in der Planung bewertet)
+        LoadPlanningService.ReleasePosition release = loadPlanningService.releasePosition(
+            stateService.getGeladeneCount(), stateService.getVorneAnzahl());
+        log.info("  Ablage auf LKW: X={}, Y={}, Z={}", release.x(), release.y(), release.z());
+
         // WARNUNG wenn Koordinaten nicht gesetzt sind
         if (sourceYard.getXPosition() == 0 || sourceYard.getYPosition() == 0) {
             log.error("!!! WARNUNG: Stockyard {} hat keine Kran-Koordinaten (X={}, Y={}) !!!",
@@ -376,7 +392,7 @@ public class BeladungProcessorService {
 
                 CraneSimulatorCommand cmd = CraneSimulatorCommand.builder()
                     .pickup(sourceYard.getXPosition(), sourceYard.getYPosition(), pickupZ)
-                    .release(TRAILER_X, TRAILER_Y, TRAILER_Z)
+                    .release(release.x(), release.y(), release.z())
                     .fromStockyard(sourceYard.getId())
                     .toStockyard(null)  // Trailer hat keine ID
                     .build();
@@ -395,7 +411,7 @@ public class BeladungProcessorService {
                 // Echte SPS
                 com.hydro.plsbl.plc.dto.PlcCommand plcCmd = com.hydro.plsbl.plc.dto.PlcCommand.builder()
                     .pickupPosition(sourceYard.getXPosition(), sourceYard.getYPosition(), pickupZ)
-                    .releasePosition(TRAILER_X, TRAILER_Y, TRAILER_Z)
+                    .releasePosition(release.x(), release.y(), release.z())
                     .build();
                 plcService.sendCommand(plcCmd);
             }
@@ -422,15 +438,19 @@ public class BeladungProcessorService {
         stateService.moveBarrenToGeladen();
 
         // Barren in DB aktualisieren (Lagerplatz auf null setzen = auf LKW)
+        boolean relocated = false;
         try {
             ingotService.relocate(ingot.getId(), null);
+            relocated = true;
             log.info("Barren {} aus Lager entfernt (auf LKW)", ingot.getIngotNo());
         } catch (Exception e) {
             log.error("Fehler beim Aktualisieren des Barren-Standorts: {}", e.getMessage());
         }
 
-        // Lagerplatz-Änderung broadcasten
-        dataBroadcaster.broadcast(DataBroadcaster.DataEventType.STOCKYARD_CHANGED);
+        // Lagerplatz-Änderung broadcasten (nach erfolgreichem Umlagern meldet IngotService.relocate den Platz)
+        if (!relocated) {
+            dataBroadcaster.broadcastStockyardsChanged(ingot.getStockyardId());
+        }
     }
 
     /**
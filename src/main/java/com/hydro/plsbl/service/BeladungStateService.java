@@ -25,6 +25,7 @@ public class BeladungStateService {
     private String beladungsNr = "";
     private boolean langBarrenModus = false;
     private boolean kranKommandoGesendet = false;
+    private int vorneAnzahl = -1;  // Barren vorne laut Beladungsplan, -1 = ohne Plan
 
     private List<IngotDTO> geplanteBarren = new ArrayList<>();
     private List<IngotDTO> geladeneBarren = new ArrayList<>();
@@ -79,6 +80,14 @@ public class BeladungStateService {
         this.kranKommandoGesendet = kranKommandoGesendet;
     }
 
+    public int getVorneAnzahl() {
+        return vorneAnzahl;
+    }
+
+    public void setVorneAnzahl(int vorneAnzahl) {
+        this.vorneAnzahl = vorneAnzahl;
+    }
+
     public List<IngotDTO> getGeplanteBarren() {
         return geplanteBarren;
     }
@@ -106,6 +115,7 @@ public class BeladungStateService {
         beladungsNr = "";
         langBarrenModus = false;
         kranKommandoGesendet = false;
+        vorneAnzahl = -1;
         geplanteBarren.clear();
         geladeneBarren.clear();
     }
@@ -34,14 +34,17 @@ public class CalloffService {
 
     private final CalloffRepository calloffRepository;
     private final JdbcTemplate jdbcTemplate;
+    private final IdAllocator idAllocator;
     private final DataBroadcaster dataBroadcaster;
     private final ObjectProvider<AutoRetrievalService> autoRetrievalServiceProvider;
 
     public CalloffService(CalloffRepository calloffRepository, JdbcTemplate jdbcTemplate,
                           DataBroadcaster dataBroadcaster,
-                          ObjectProvider<AutoRetrievalService> autoRetrievalServiceProvider) {
+                          ObjectProvider<AutoRetrievalService> autoRetrievalServiceProvider,
+                          IdAllocator idAllocator) {
         this.calloffRepository = calloffRepository;
         this.jdbcTemplate = jdbcTemplate;
+        this.idAllocator = idAllocator;
         this.dataBroadcaster = dataBroadcaster;
         this.autoRetrievalServiceProvider = autoRetrievalServiceProvider;
     }
@@ -142,8 +145,7 @@ public class CalloffService {
     private void createSingleTestCalloff(Long productId, String sapProductNo) {
         try {
             // Nächste ID ermitteln
-            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(ID), 0) + 1 FROM TD_CALLOFF", Long.class);
-            if (maxId == null) maxId = 1L;
+            Long maxId = idAllocator.nextId("TD_CALLOFF");
 
             // Anzahl Barren für dieses Produkt ermitteln
             int barrenCount = 5;
@@ -24,10 +24,13 @@ public class CraneCommandService {
 
     private final CraneCommandRepository commandRepository;
     private final JdbcTemplate jdbcTemplate;
+    private final IdAllocator idAllocator;
 
-    public CraneCommandService(CraneCommandRepository commandRepository, JdbcTemplate jdbcTemplate) {
+    public CraneCommandService(CraneCommandRepository commandRepository, JdbcTemplate jdbcTemplate,
+                               IdAllocator idAllocator) {
         this.commandRepository = commandRepository;
         this.jdbcTemplate = jdbcTemplate;
+        this.idAllocator = idAllocator;
     }
 
     /**
@@ -119,25 +122,11 @@ public class CraneCommandService {
     }
 
     private Long getNextId() {
-        try {
-            Long maxId = jdbcTemplate.queryForObject(
-                "SELECT NVL(MAX(ID), 0) + 1 FROM TD_CRANECOMMAND", Long.class);
-            return maxId != null ? maxId : 1L;
-        } catch (Exception e) {
-            log.warn("Could not get next ID, using timestamp", e);
-            return System.currentTimeMillis();
-        }
+        return idAllocator.nextId("TD_CRANECOMMAND");
     }
 
     private Long getNextTableSerial() {
-        try {
-            Long maxSerial = jdbcTemplate.queryForObject(
-                "SELECT NVL(MAX(TABLESERIAL), 0) + 1 FROM TD_CRANECOMMAND", Long.class);
-            return maxSerial != null ? maxSerial : 1L;
-        } catch (Exception e) {
-            log.warn("Could not get next table serial, using timestamp", e);
-            return System.currentTimeMillis();
-        }
+        return idAllocator.nextTableSerial("TD_CRANECOMMAND");
     }
 
     /**
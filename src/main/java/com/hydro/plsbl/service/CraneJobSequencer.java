@@ -0,0 +1,153 @@
+package com.hydro.plsbl.service;
+
+import com.hydro.plsbl.service.TransportDispatchQueue.QueuedOrder;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Waehlt den naechsten Kran-Auftrag aus den wartenden Auftraegen.
+ *
+ * Modus FIFO: erster Auftrag der Warteschlange (Prioritaet, dann Auftrags-ID).
+ *
+ * Modus NEAREST: minimiert die Leerfahrt von der aktuellen Kran-Position zum
+ * Abhol-Platz. Bewertung (kleiner = besser):
+ * <pre>
+ *   Leerfahrzeit [s] - Prioritaet * prioritySeconds - Wartezeit [s] * ageFactor
+ * </pre>
+ * Die Leerfahrzeit liefert eine Fahrzeit-Funktion (z.B. das Bewegungsmodell des
+ * Simulators) oder ersatzweise konstante Achsgeschwindigkeiten; X und Y fahren
+ * gleichzeitig, massgeblich ist die langsamere Achse.
+ *
+ * Aushungerungsschutz: Wartet ein Auftrag laenger als maxWaitSeconds, wird unter
+ * diesen Auftraegen wieder streng in Warteschlangen-Reihenfolge vergeben.
+ *
+ * Die Klasse ist zustandslos und ohne Spring-Abhaengigkeiten.
+ */
+public class CraneJobSequencer {
+
+    /**
+     * Reihenfolge-Modus
+     */
+    public enum Mode {
+        FIFO("Warteschlangen-Reihenfolge"),
+        NEAREST("Minimale Leerfahrt");
+
+        private final String displayName;
+
+        Mode(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    /**
+     * Position in mm
+     */
+    public record Position(int x, int y) {}
+
+    /**
+     * Fahrzeit in Sekunden zwischen zwei Positionen
+     */
+    @FunctionalInterface
+    public interface TravelTime {
+        double seconds(Position from, Position to);
+    }
+
+    private final TravelTime travelTime;
+    private final double prioritySeconds;
+    private final double ageFactor;
+    private final long maxWaitMs;
+
+    /**
+     * @param speedX          Fahrgeschwindigkeit X in mm/s
+     * @param speedY          Fahrgeschwindigkeit Y in mm/s
+     * @param prioritySeconds Leerfahrzeit in Sekunden, die eine Prioritaetsstufe aufwiegt
+     * @param ageFactor       Leerfahrzeit in Sekunden, die eine Sekunde Wartezeit aufwiegt
+     * @param maxWaitSeconds  Wartezeit, ab der ein Auftrag in Warteschlangen-Reihenfolge vergeben wird
+     */
+    public CraneJobSequencer(double speedX, double speedY, double prioritySeconds,
+                             double ageFactor, long maxWaitSeconds) {
+        this(constantSpeed(speedX, speedY), prioritySeconds, ageFactor, maxWaitSeconds);
+    }
+
+    /**
+     * @param travelTime      Leerfahrzeit zwischen zwei Positionen
+     * @param prioritySeconds Leerfahrzeit in Sekunden, die eine Prioritaetsstufe aufwiegt
+     * @param ageFactor       Leerfahrzeit in Sekunden, die eine Sekunde Wartezeit aufwiegt
+     * @param maxWaitSeconds  Wartezeit, ab der ein Auftrag in Warteschlangen-Reihenfolge vergeben wird
+     */
+    public CraneJobSequencer(TravelTime travelTime, double prioritySeconds,
+                             double ageFactor, long maxWaitSeconds) {
+        this.travelTime = travelTime;
+        this.prioritySeconds = prioritySeconds;
+        this.ageFactor = ageFactor;
+        this.maxWaitMs = maxWaitSeconds * 1000;
+    }
+
+    /**
+     * Fahrzeit in Sekunden zwischen zwei Positionen
+     */
+    public double travelSeconds(Position from, Position to) {
+        return travelTime.seconds(from, to);
+    }
+
+    private static TravelTime constantSpeed(double speedX, double speedY) {
+        if (speedX <= 0 || speedY <= 0) {
+            throw new IllegalArgumentException("Achsgeschwindigkeiten muessen positiv sein");
+        }
+        return (from, to) -> Math.max(Math.abs(to.x() - from.x()) / speedX,
+                                      Math.abs(to.y() - from.y()) / speedY);
+    }
+
+    /**
+     * Waehlt den naechsten Auftrag
+     *
+     * @param candidates wartende Auftraege in Warteschlangen-Reihenfolge
+     * @param crane      aktuelle Kran-Position (null = unbekannt -> FIFO)
+     * @param pickup     Abhol-Position je Quell-Lagerplatz-ID (null = unbekannt, wird ohne Leerfahrt bewertet)
+     * @param now        aktuelle Zeit in ms
+     */
+    public Optional<QueuedOrder> select(List<QueuedOrder> candidates, Position crane,
+                                        Function<Long, Position> pickup, long now) {
+        if (candidates.isEmpty()) {
+            return Optional.empty();
+        }
+        if (crane == null) {
+            return Optional.of(candidates.get(0));
+        }
+
+        // Aushungerungsschutz: aeltesten ueberfaelligen Auftrag in Warteschlangen-Reihenfolge
+        for (QueuedOrder candidate : candidates) {
+            if (now - candidate.queuedAt() >= maxWaitMs) {
+                return Optional.of(candidate);
+            }
+        }
+
+        QueuedOrder best = null;
+        double bestScore = Double.MAX_VALUE;
+        for (QueuedOrder candidate : candidates) {
+            double score = score(candidate, crane, pickup, now);
+            // Bei Gleichstand gewinnt der fruehere Auftrag der Warteschlange
+            if (score < bestScore) {
+                bestScore = score;
+                best = candidate;
+            }
+        }
+        return Optional.of(best);
+    }
+
+    /**
+     * Bewertung eines Auftrags (kleiner = besser)
+     */
+    public double score(QueuedOrder candidate, Position crane, Function<Long, Position> pickup, long now) {
+        Position from = candidate.fromYardId() != null ? pickup.apply(candidate.fromYardId()) : null;
+        double travel = from != null ? travelSeconds(crane, from) : 0;
+        double waitSeconds = Math.max(0, now - candidate.queuedAt()) / 1000.0;
+        return travel - candidate.priority() * prioritySeconds - waitSeconds * ageFactor;
+    }
+}
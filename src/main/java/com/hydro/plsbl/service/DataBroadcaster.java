@@ -5,10 +5,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.util.LinkedList;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * Broadcaster für allgemeine Daten-Updates.
@@ -17,48 +21,48 @@ import java.util.function.Consumer;
  * Verwendung:
  * - In Views: registration = dataBroadcaster.register(event -> ui.access(() -> loadData()));
  * - In Services: dataBroadcaster.broadcast(DataEventType.CALLOFF_CHANGED);
+ *
+ * Lagerplatz-Änderungen können mit den betroffenen Lagerplatz-IDs gesendet werden
+ * (broadcastStockyardsChanged). Jedes solche Event bekommt eine fortlaufende Version;
+ * ein Empfänger, der eine Lücke in den Versionen erkennt, muss alle Plätze neu laden.
+ *
+ * Jeder Listener hat eine eigene Mailbox (ListenerMailboxes). Wartet dort bereits ein
+ * Event desselben Typs, werden beide zusammengeführt (Lagerplatz-IDs vereinigt).
  */
 @Service
 public class DataBroadcaster {
 
     private static final Logger log = LoggerFactory.getLogger(DataBroadcaster.class);
 
-    private final Executor executor = Executors.newSingleThreadExecutor();
-    private final LinkedList<Consumer<DataEvent>> listeners = new LinkedList<>();
+    /** Maximale Anzahl wartender Events pro Listener */
+    private static final int MAILBOX_CAPACITY = 16;
+
+    private final ListenerMailboxes<DataEvent> mailboxes = new ListenerMailboxes<>(
+        "DataBroadcaster", MAILBOX_CAPACITY, DataEvent::getType, DataEvent::merge);
+    private final AtomicLong stockyardVersion = new AtomicLong();
+    private final Object stockyardLock = new Object();
 
     /**
      * Registriert einen Listener für Daten-Events
      */
-    public synchronized Registration register(Consumer<DataEvent> listener) {
-        listeners.add(listener);
-        log.debug("Listener registriert, aktive Listener: {}", listeners.size());
+    public Registration register(Consumer<DataEvent> listener) {
+        ListenerMailboxes<DataEvent>.Mailbox mailbox = mailboxes.register(listener);
+        log.debug("Listener registriert, aktive Listener: {}", mailboxes.getListenerCount());
         return () -> {
-            synchronized (DataBroadcaster.this) {
-                listeners.remove(listener);
-                log.debug("Listener entfernt, aktive Listener: {}", listeners.size());
-            }
+            mailbox.remove();
+            log.debug("Listener entfernt, aktive Listener: {}", mailboxes.getListenerCount());
         };
     }
 
     /**
      * Sendet ein Event an alle registrierten Listener
      */
-    public synchronized void broadcast(DataEvent event) {
-        log.info("=== BROADCAST: {} an {} Listener ===", event.getType(), listeners.size());
-        if (listeners.isEmpty()) {
+    public void broadcast(DataEvent event) {
+        log.info("=== BROADCAST: {} an {} Listener ===", event.getType(), mailboxes.getListenerCount());
+        if (mailboxes.getListenerCount() == 0) {
             log.warn("Keine Listener registriert für Event: {}", event.getType());
         }
-        for (Consumer<DataEvent> listener : listeners) {
-            executor.execute(() -> {
-                try {
-                    log.info("Rufe Listener auf für Event: {}", event.getType());
-                    listener.accept(event);
-                    log.info("Listener erfolgreich aufgerufen für Event: {}", event.getType());
-                } catch (Exception e) {
-                    log.error("Fehler beim Broadcasting: {}", e.getMessage(), e);
-                }
-            });
-        }
+        mailboxes.publish(event);
     }
 
     /**
@@ -68,6 +72,44 @@ public class DataBroadcaster {
         broadcast(new DataEvent(type));
     }
 
+    /**
+     * Sendet STOCKYARD_CHANGED mit den geänderten Lagerplatz-IDs und der nächsten Version.
+     * null-IDs werden ignoriert.
+     */
+    public void broadcastStockyardsChanged(Collection<Long> stockyardIds) {
+        Set<Long> ids = stockyardIds.stream()
+            .filter(Objects::nonNull)
+            .collect(Collectors.toUnmodifiableSet());
+        if (ids.isEmpty()) {
+            return;
+        }
+        // Version und Einreihung atomar, damit die Events in Versions-Reihenfolge ausgeliefert werden
+        synchronized (stockyardLock) {
+            broadcast(new DataEvent(DataEventType.STOCKYARD_CHANGED, ids, stockyardVersion.incrementAndGet()));
+        }
+    }
+
+    /**
+     * Convenience-Methode: Lagerplatz-Änderung für einzelne IDs
+     */
+    public void broadcastStockyardsChanged(Long... stockyardIds) {
+        broadcastStockyardsChanged(Arrays.asList(stockyardIds));
+    }
+
+    /**
+     * Aktuelle Version der Lagerplatz-Änderungen (0 = noch keine gesendet)
+     */
+    public long getStockyardVersion() {
+        return stockyardVersion.get();
+    }
+
+    /**
+     * Rückstau-Metriken (Queue-Tiefe, zusammengeführte/verworfene Events, Latenz)
+     */
+    public ListenerMailboxes.Metrics getMetrics() {
+        return mailboxes.getMetrics();
+    }
+
     /**
      * Event-Typen für Daten-Broadcasts
      */
@@ -87,11 +129,28 @@ public class DataBroadcaster {
         private final DataEventType type;
         private final Long entityId;
         private final String message;
+        private final Set<Long> stockyardIds;
+        private final long firstStockyardVersion;
+        private final long stockyardVersion;
 
         public DataEvent(DataEventType type) {
             this(type, null, null);
         }
 
+        public DataEvent(DataEventType type, Set<Long> stockyardIds, long stockyardVersion) {
+            this(type, stockyardIds, stockyardVersion, stockyardVersion);
+        }
+
+        private DataEvent(DataEventType type, Set<Long> stockyardIds, long firstStockyardVersion,
+                          long stockyardVersion) {
+            this.type = type;
+            this.entityId = null;
+            this.message = null;
+            this.stockyardIds = stockyardIds;
+            this.firstStockyardVersion = firstStockyardVersion;
+            this.stockyardVersion = stockyardVersion;
+        }
+
         public DataEvent(DataEventType type, Long entityId) {
             this(type, entityId, null);
         }
@@ -100,6 +159,28 @@ public class DataBroadcaster {
             this.type = type;
             this.entityId = entityId;
             this.message = message;
+            this.stockyardIds = Set.of();
+            this.firstStockyardVersion = 0;
+            this.stockyardVersion = 0;
+        }
+
+        /**
+         * Führt ein wartendes Event mit einem neueren Event desselben Typs zusammen.
+         * Aufeinanderfolgende Lagerplatz-Deltas werden vereinigt; sonst gilt das neuere Event
+         * bzw. bei Lagerplätzen ein vollständiges Neuladen.
+         */
+        static DataEvent merge(DataEvent older, DataEvent newer) {
+            if (newer.type != DataEventType.STOCKYARD_CHANGED) {
+                return newer;
+            }
+            if (older.isStockyardDelta() && newer.isStockyardDelta()
+                    && older.stockyardVersion + 1 == newer.firstStockyardVersion) {
+                Set<Long> ids = new HashSet<>(older.stockyardIds);
+                ids.addAll(newer.stockyardIds);
+                return new DataEvent(newer.type, Set.copyOf(ids), older.firstStockyardVersion,
+                    newer.stockyardVersion);
+            }
+            return new DataEvent(DataEventType.STOCKYARD_CHANGED);
         }
 
         public DataEventType getType() {
@@ -113,5 +194,74 @@ public class DataBroadcaster {
         public String getMessage() {
             return message;
         }
+
+        /**
+         * Geänderte Lagerplätze (leer = unbekannt, alle neu laden)
+         */
+        public Set<Long> getStockyardIds() {
+            return stockyardIds;
+        }
+
+        /**
+         * Version der Lagerplatz-Änderung (0 = ohne Version)
+         */
+        public long getStockyardVersion() {
+            return stockyardVersion;
+        }
+
+        /**
+         * Erste enthaltene Version (kleiner als getStockyardVersion() bei zusammengeführten Events)
+         */
+        public long getFirstStockyardVersion() {
+            return firstStockyardVersion;
+        }
+
+        /**
+         * true wenn das Event nur einzelne Lagerplätze betrifft
+         */
+        public boolean isStockyardDelta() {
+            return stockyardVersion > 0 && !stockyardIds.isEmpty();
+        }
+    }
+
+    /**
+     * Lagerplatz-Version eines Empfängers (z.B. LagerGrid).
+     * Entscheidet, ob ein Event als Delta übernommen werden kann oder alle Plätze
+     * neu geladen werden müssen (Lücke in den Versionen, Event ohne Platz-IDs).
+     */
+    public static final class StockyardVersionTracker {
+
+        public enum Action {
+            SKIP,         // bereits im letzten vollständigen Neuladen enthalten
+            APPLY_DELTA,  // nur die geänderten Plätze laden
+            FULL_RELOAD   // alle Plätze neu laden
+        }
+
+        private long version = 0;
+
+        /**
+         * Bewertet ein Lagerplatz-Event gegenüber der zuletzt übernommenen Version
+         */
+        public Action classify(DataEvent event) {
+            if (!event.isStockyardDelta()) {
+                return Action.FULL_RELOAD;
+            }
+            if (event.getStockyardVersion() <= version) {
+                return Action.SKIP;
+            }
+            // Zusammengeführte Events dürfen bereits übernommene Versionen enthalten
+            return event.getFirstStockyardVersion() <= version + 1 ? Action.APPLY_DELTA : Action.FULL_RELOAD;
+        }
+
+        /**
+         * Merkt sich die Version nach übernommenem Delta bzw. vollständigem Neuladen
+         */
+        public void setVersion(long version) {
+            this.version = version;
+        }
+
+        public long getVersion() {
+            return version;
+        }
     }
 }
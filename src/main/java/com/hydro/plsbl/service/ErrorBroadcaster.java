@@ -5,57 +5,57 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.util.LinkedList;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 
 /**
  * Broadcaster für Fehlermeldungen die im UI angezeigt werden sollen.
  * Verwendet Vaadin Push um Notifications an alle verbundenen Clients zu senden.
+ *
+ * Jeder Listener hat eine eigene Mailbox (ListenerMailboxes). Eine gleiche Meldung,
+ * die noch auf Auslieferung wartet, wird nicht ein zweites Mal eingereiht.
  */
 @Service
 public class ErrorBroadcaster {
 
     private static final Logger log = LoggerFactory.getLogger(ErrorBroadcaster.class);
 
-    private final Executor executor = Executors.newSingleThreadExecutor();
-    private final LinkedList<Consumer<ErrorMessage>> listeners = new LinkedList<>();
+    /** Maximale Anzahl wartender Meldungen pro Listener */
+    private static final int MAILBOX_CAPACITY = 32;
+
+    private final ListenerMailboxes<ErrorMessage> mailboxes = new ListenerMailboxes<>(
+        "ErrorBroadcaster", MAILBOX_CAPACITY,
+        error -> error.getErrorType() + "|" + error.getErrorMessage(),
+        (older, newer) -> newer);
 
     /**
      * Registriert einen Listener für Fehlermeldungen
      */
-    public synchronized Registration register(Consumer<ErrorMessage> listener) {
-        listeners.add(listener);
-        log.info("Error listener registered, total: {}", listeners.size());
+    public Registration register(Consumer<ErrorMessage> listener) {
+        ListenerMailboxes<ErrorMessage>.Mailbox mailbox = mailboxes.register(listener);
+        log.info("Error listener registered, total: {}", mailboxes.getListenerCount());
         return () -> {
-            synchronized (ErrorBroadcaster.this) {
-                listeners.remove(listener);
-                log.info("Error listener removed, total: {}", listeners.size());
-            }
+            mailbox.remove();
+            log.info("Error listener removed, total: {}", mailboxes.getListenerCount());
         };
     }
 
     /**
      * Sendet eine Fehlermeldung an alle registrierten Listener
      */
-    public synchronized void broadcast(String errorType, String errorMessage) {
-        log.info("=== ERROR BROADCAST: {} - {} an {} Listener ===", errorType, errorMessage, listeners.size());
-        if (listeners.isEmpty()) {
+    public void broadcast(String errorType, String errorMessage) {
+        log.info("=== ERROR BROADCAST: {} - {} an {} Listener ===", errorType, errorMessage,
+            mailboxes.getListenerCount());
+        if (mailboxes.getListenerCount() == 0) {
             log.warn("Keine Listener registriert für Fehler!");
         }
-        ErrorMessage error = new ErrorMessage(errorType, errorMessage);
-        for (Consumer<ErrorMessage> listener : listeners) {
-            executor.execute(() -> {
-                try {
-                    log.info("Rufe Error-Listener auf...");
-                    listener.accept(error);
-                    log.info("Error-Listener erfolgreich aufgerufen");
-                } catch (Exception e) {
-                    log.error("Fehler beim Error-Broadcasting: {}", e.getMessage(), e);
-                }
-            });
-        }
+        mailboxes.publish(new ErrorMessage(errorType, errorMessage));
+    }
+
+    /**
+     * Rückstau-Metriken (Queue-Tiefe, zusammengeführte/verworfene Meldungen, Latenz)
+     */
+    public ListenerMailboxes.Metrics getMetrics() {
+        return mailboxes.getMetrics();
     }
 
     /**
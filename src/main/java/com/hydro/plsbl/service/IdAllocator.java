@@ -0,0 +1,334 @@
+package com.hydro.plsbl.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Vergabe von IDs, Tabellen-Seriennummern und Transportnummern.
+ *
+ * Ersetzt die früheren "SELECT MAX(ID) + 1"-Abfragen der Services, die bei parallelen
+ * Einfügungen doppelte Schlüssel liefern konnten und jedes Mal die Tabelle lesen mussten.
+ *
+ * Strategie (plsbl.ids.strategy):
+ * - SEQUENCE: Datenbank-Sequenz pro Tabelle/Spalte (SEQ_&lt;TABELLE&gt;_ID bzw. _TS) mit
+ *   INCREMENT BY = Blockgröße. Ein NEXTVAL reserviert einen ganzen Block, der danach
+ *   im Speicher vergeben wird (Hi/Lo). Funktioniert mit Oracle und H2 (MODE=Oracle).
+ * - MAX: bisheriges Verfahren (MAX + 1), aber pro Schlüssel serialisiert.
+ *   Nur als Rückfallebene für Datenbanken ohne Sequenz-Rechte gedacht.
+ *
+ * Die Sequenzen werden beim Start (und für Transportnummern täglich) außerhalb jeder
+ * Transaktion angelegt bzw. hinter die Tabellendaten vorgestellt. Die Vergabe selbst
+ * führt nie DDL aus - DDL würde unter Oracle und H2 die Transaktion des Aufrufers
+ * committen. Fehlt eine Sequenz, wird für diesen Schlüssel MAX + 1 (im Prozess
+ * serialisiert) verwendet, bis sie wieder vorbereitet wurde.
+ *
+ * Transportnummern (Format PPYY-NNNN) laufen pro Präfix und Jahr über eine eigene
+ * Sequenz (z.B. SEQ_TNO_TA26); mit dem Jahreswechsel beginnt die Zählung neu.
+ * Die Sequenz des Folgejahres wird im Voraus angelegt.
+ *
+ * Hinweis: Die Blockgröße muss zum INCREMENT BY bestehender Sequenzen passen.
+ * Wird sie geändert, müssen die Sequenzen per ALTER SEQUENCE angepasst werden.
+ */
+@Service
+public class IdAllocator {
+
+    private static final Logger log = LoggerFactory.getLogger(IdAllocator.class);
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Z][A-Z0-9_]*");
+
+    /** Tabellen mit ID-Vergabe über den Allocator */
+    private static final List<String> ID_TABLES = List.of(
+        "MD_PRODUCT", "MD_INGOTTYPE", "MD_STOCKYARD",
+        "TD_INGOT", "TD_STOCKYARDSTATUS", "TD_TRANSPORTORDER", "TD_CRANECOMMAND", "TD_CALLOFF",
+        "TD_SHIPMENT", "TD_SHIPMENTLINE", "TD_MESSAGE", "TD_KAFKA_OUTBOX", "TD_KAFKA_DEADLETTER");
+
+    /** Tabellen mit zusätzlicher Vergabe der Spalte TABLESERIAL */
+    private static final List<String> TABLESERIAL_TABLES = List.of("TD_TRANSPORTORDER", "TD_CRANECOMMAND");
+
+    /** Präfixe der Transportnummern: TA = Einlagerung, ST = Stapler */
+    private static final List<String> TRANSPORT_PREFIXES = List.of("TA", "ST");
+
+    public enum Strategy { SEQUENCE, MAX }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Strategy strategy;
+    private final int blockSize;
+
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+    private final Set<String> transportPrefixes = ConcurrentHashMap.newKeySet();
+
+    public IdAllocator(JdbcTemplate jdbcTemplate,
+                       @Value("${plsbl.ids.strategy:SEQUENCE}") Strategy strategy,
+                       @Value("${plsbl.ids.block-size:20}") int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Blockgröße muss mindestens 1 sein: " + blockSize);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.strategy = strategy;
+        this.blockSize = blockSize;
+        this.transportPrefixes.addAll(TRANSPORT_PREFIXES);
+        log.info("ID-Vergabe: Strategie={}, Blockgröße={}", strategy, blockSize);
+    }
+
+    /**
+     * Legt beim Start alle bekannten Sequenzen an (vor der ersten Vergabe, ohne Transaktion)
+     */
+    @PostConstruct
+    public void prepareSequences() {
+        if (strategy != Strategy.SEQUENCE) {
+            return;
+        }
+        for (String table : ID_TABLES) {
+            prepareTable(table, TABLESERIAL_TABLES.contains(table));
+        }
+        prepareTransportNumbers();
+    }
+
+    /**
+     * Legt die Transportnummern-Sequenzen für das laufende und das folgende Jahr an
+     */
+    @Scheduled(cron = "${plsbl.ids.transport-sequence-cron:0 5 0 * * *}")
+    public void prepareTransportNumbers() {
+        if (strategy != Strategy.SEQUENCE) {
+            return;
+        }
+        int year = LocalDate.now().getYear();
+        for (String prefix : transportPrefixes) {
+            for (int y = year; y <= year + 1; y++) {
+                // Bereits vorbereitete Sequenzen nicht erneut abrufen (keine Lücke in den Nummern)
+                Block block = blocks.get("SEQ_TNO_" + transportYearPrefix(prefix, y));
+                if (block == null || !block.prepared) {
+                    prepareTransportNumbers(prefix, y);
+                }
+            }
+        }
+    }
+
+    // ========================================================================
+    // Öffentliche API
+    // ========================================================================
+
+    /**
+     * Nächste freie ID (Spalte ID) der Tabelle
+     */
+    public long nextId(String table) {
+        return next(table, "ID", "SEQ_" + table + "_ID", blockSize);
+    }
+
+    /**
+     * Nächste Tabellen-Seriennummer (Spalte TABLESERIAL) der Tabelle
+     */
+    public long nextTableSerial(String table) {
+        return next(table, "TABLESERIAL", "SEQ_" + table + "_TS", blockSize);
+    }
+
+    /**
+     * Nächste Transportnummer im Format PPYY-NNNN (z.B. TA26-0001)
+     *
+     * @param prefix Zweistelliges Präfix, z.B. "TA" (Einlagerung) oder "ST" (Stapler)
+     */
+    public String nextTransportNo(String prefix) {
+        String yearPrefix = transportYearPrefix(prefix, LocalDate.now().getYear());
+        // Blockgröße 1: Transportnummern sollen möglichst lückenlos bleiben
+        long number = next("TD_TRANSPORTORDER", "TRANSPORT_NO:" + yearPrefix + "-",
+            "SEQ_TNO_" + yearPrefix, 1);
+        return yearPrefix + "-" + String.format("%04d", number);
+    }
+
+    /**
+     * Bereitet die Sequenzen einer Tabelle vor (anlegen bzw. hinter die Daten vorstellen).
+     * Führt DDL aus und darf daher nicht innerhalb einer fachlichen Transaktion laufen.
+     */
+    public void prepareTable(String table, boolean withTableSerial) {
+        prepare(table, "ID", "SEQ_" + table + "_ID", blockSize);
+        if (withTableSerial) {
+            prepare(table, "TABLESERIAL", "SEQ_" + table + "_TS", blockSize);
+        }
+    }
+
+    /**
+     * Bereitet die Transportnummern-Sequenz eines Präfixes für ein Jahr vor (DDL, ohne Transaktion)
+     */
+    public void prepareTransportNumbers(String prefix, int year) {
+        transportPrefixes.add(prefix);
+        String yearPrefix = transportYearPrefix(prefix, year);
+        prepare("TD_TRANSPORTORDER", "TRANSPORT_NO:" + yearPrefix + "-", "SEQ_TNO_" + yearPrefix, 1);
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    // ========================================================================
+    // Vergabe
+    // ========================================================================
+
+    private long next(String table, String column, String sequence, int size) {
+        requireIdentifier(table);
+        requireIdentifier(sequence);
+        Block block = blocks.computeIfAbsent(sequence, k -> new Block());
+        synchronized (block) {
+            if (strategy == Strategy.SEQUENCE && block.next >= block.limit && block.prepared) {
+                try {
+                    long start = nextval(sequence);
+                    block.next = start;
+                    block.limit = start + size;
+                } catch (DataAccessException e) {
+                    // Sequenz nicht mehr verfügbar (z.B. gelöscht): bis zur nächsten Vorbereitung MAX + 1
+                    log.warn("Sequenz {} nicht verfügbar, verwende MAX + 1: {}", sequence, e.getMessage());
+                    block.prepared = false;
+                }
+            }
+            if (block.next < block.limit) {
+                return block.next++;
+            }
+
+            if (strategy == Strategy.SEQUENCE && !block.fallbackLogged) {
+                log.warn("Sequenz {} nicht vorbereitet, verwende MAX + 1", sequence);
+                block.fallbackLogged = true;
+            }
+            // MAX erst im Lock lesen, damit parallele Aufrufe nicht denselben Wert sehen;
+            // block.next deckt vergebene, noch nicht committete Werte ab
+            long value = Math.max(currentMax(table, column) + 1, block.next);
+            block.next = value + 1;
+            block.limit = block.next;
+            return value;
+        }
+    }
+
+    /**
+     * Legt die Sequenz an bzw. stellt sie hinter die Tabellendaten vor (z.B. nach manuellen
+     * Einfügungen oder einem Daten-Import) und reserviert den ersten Block.
+     * Eine bestehende Sequenz wird nie gelöscht, damit parallel laufende Knoten weiter vergeben können.
+     */
+    private void prepare(String table, String column, String sequence, int size) {
+        requireIdentifier(table);
+        requireIdentifier(sequence);
+        Block block = blocks.computeIfAbsent(sequence, k -> new Block());
+        synchronized (block) {
+            try {
+                // Bereits im Prozess vergebene (evtl. noch nicht committete) Werte berücksichtigen
+                long floor = Math.max(currentMax(table, column), Math.max(block.next, block.limit) - 1);
+                long start;
+                if (createSequence(sequence, floor + 1, size)) {
+                    start = nextval(sequence);
+                } else {
+                    start = nextval(sequence);
+                    if (start <= floor) {
+                        start = advance(sequence, start, floor, size);
+                    }
+                }
+                block.next = start;
+                block.limit = start + size;
+                block.prepared = true;
+                block.fallbackLogged = false;
+            } catch (DataAccessException e) {
+                log.warn("Sequenz {} konnte nicht vorbereitet werden: {}", sequence, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Stellt eine Sequenz, die hinter den Daten liegt, per einmaliger Schrittweite vor.
+     * Die Sprungweite ist ein Vielfaches der Blockgröße: parallel von anderen Knoten
+     * abgerufene Blöcke überschneiden sich dadurch nicht.
+     */
+    private long advance(String sequence, long current, long floor, int size) {
+        long jump = ((floor - current) / size + 1) * size;
+        log.warn("Sequenz {} liegt hinter den Daten ({} <= {}), wird um {} vorgestellt", sequence, current, floor, jump);
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " INCREMENT BY " + jump);
+        try {
+            // Oracle wendet die neue Schrittweite sofort an, H2 erst ab dem übernächsten Wert
+            long value = nextval(sequence);
+            while (value <= floor) {
+                value = nextval(sequence);
+            }
+            return value;
+        } finally {
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " INCREMENT BY " + size);
+        }
+    }
+
+    private long nextval(String sequence) {
+        Long value = jdbcTemplate.queryForObject("SELECT " + sequence + ".NEXTVAL FROM DUAL", Long.class);
+        if (value == null) {
+            throw new IllegalStateException("Sequenz " + sequence + " lieferte keinen Wert");
+        }
+        return value;
+    }
+
+    /**
+     * Legt die Sequenz an
+     *
+     * @return false, wenn sie bereits existiert
+     */
+    private boolean createSequence(String sequence, long start, int size) {
+        try {
+            jdbcTemplate.execute("CREATE SEQUENCE " + sequence
+                + " START WITH " + start + " INCREMENT BY " + size + " NOCACHE");
+            log.info("Sequenz {} angelegt (Start {}, Schrittweite {})", sequence, start, size);
+            return true;
+        } catch (DataAccessException e) {
+            log.debug("Sequenz {} nicht angelegt (existiert vermutlich): {}", sequence, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Aktuelles Maximum der Spalte; für Transportnummern die höchste laufende Nummer
+     * mit dem Präfix (wird in Java ausgewertet, damit kein DB-spezifisches SUBSTR/CAST nötig ist)
+     */
+    private long currentMax(String table, String column) {
+        if (column.startsWith("TRANSPORT_NO:")) {
+            String prefix = column.substring("TRANSPORT_NO:".length());
+            List<String> numbers = jdbcTemplate.queryForList(
+                "SELECT TRANSPORT_NO FROM " + table + " WHERE TRANSPORT_NO LIKE ?",
+                String.class, prefix + "%");
+            long max = 0;
+            for (String number : numbers) {
+                try {
+                    max = Math.max(max, Long.parseLong(number.substring(prefix.length()).trim()));
+                } catch (RuntimeException e) {
+                    // Nummer mit fremdem Format ignorieren
+                }
+            }
+            return max;
+        }
+        Long max = jdbcTemplate.queryForObject(
+            "SELECT NVL(MAX(" + column + "), 0) FROM " + table, Long.class);
+        return max != null ? max : 0L;
+    }
+
+    private static String transportYearPrefix(String prefix, int year) {
+        return prefix + String.format("%02d", year % 100);
+    }
+
+    private static void requireIdentifier(String name) {
+        if (!IDENTIFIER.matcher(name).matches()) {
+            throw new IllegalArgumentException("Ungültiger Bezeichner: " + name);
+        }
+    }
+
+    /**
+     * Reservierter Block [next, limit) eines Schlüssels
+     */
+    private static final class Block {
+        private long next;
+        private long limit;
+        private volatile boolean prepared;
+        private boolean fallbackLogged;
+    }
+}
@@ -10,6 +10,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.Optional;
@@ -26,14 +28,23 @@ public class IngotService {
 
     private final IngotRepository ingotRepository;
     private final StockyardStatusRepository stockyardStatusRepository;
+    private final YardOccupancyService yardOccupancyService;
+    private final DataBroadcaster dataBroadcaster;
     private final JdbcTemplate jdbcTemplate;
+    private final IdAllocator idAllocator;
 
     public IngotService(IngotRepository ingotRepository,
                         StockyardStatusRepository stockyardStatusRepository,
-                        JdbcTemplate jdbcTemplate) {
+                        YardOccupancyService yardOccupancyService,
+                        DataBroadcaster dataBroadcaster,
+                        JdbcTemplate jdbcTemplate,
+                        IdAllocator idAllocator) {
         this.ingotRepository = ingotRepository;
         this.stockyardStatusRepository = stockyardStatusRepository;
+        this.yardOccupancyService = yardOccupancyService;
+        this.dataBroadcaster = dataBroadcaster;
         this.jdbcTemplate = jdbcTemplate;
+        this.idAllocator = idAllocator;
     }
 
     /**
@@ -410,6 +421,7 @@ public class IngotService {
                         newCount, status.getId());
                 }
             });
+            yardOccupancyService.yardsChanged(stockyardId);
         }
     }
 
@@ -465,6 +477,7 @@ public class IngotService {
             if (dto.getStockyardId() != null) {
                 log.info("Updating StockyardStatus for new ingot on stockyard {}", dto.getStockyardId());
                 updateStockyardStatusForNewIngot(dto.getStockyardId(), dto.getProductId());
+                yardOccupancyService.yardsChanged(dto.getStockyardId());
             }
 
             return dto;
@@ -473,6 +486,7 @@ public class IngotService {
             Ingot entity = ingotRepository.findById(dto.getId())
                 .orElseThrow(() -> new IllegalArgumentException("Barren nicht gefunden: " + dto.getId()));
             entity.markNotNew();
+            Long previousStockyardId = entity.getStockyardId();
 
             // Werte übernehmen
             entity.setIngotNo(dto.getIngotNo());
@@ -495,6 +509,7 @@ public class IngotService {
             Ingot saved = ingotRepository.save(entity);
             log.info("Ingot updated: ID={}, ingotNo={}, stockyardId={}",
                 saved.getId(), saved.getIngotNo(), saved.getStockyardId());
+            yardOccupancyService.yardsChanged(previousStockyardId, saved.getStockyardId());
 
             return toDTO(saved);
         }
@@ -526,14 +541,7 @@ public class IngotService {
     }
 
     private Long getNextId() {
-        try {
-            Long maxId = jdbcTemplate.queryForObject(
-                "SELECT NVL(MAX(ID), 0) + 1 FROM TD_INGOT", Long.class);
-            return maxId != null ? maxId : 1L;
-        } catch (Exception e) {
-            log.warn("Could not get next ID, using timestamp", e);
-            return System.currentTimeMillis();
-        }
+        return idAllocator.nextId("TD_INGOT");
     }
 
     /**
@@ -559,6 +567,7 @@ public class IngotService {
         // StockyardStatus aktualisieren
         if (stockyardId != null) {
             updateStockyardStatusAfterDelete(stockyardId);
+            yardOccupancyService.yardsChanged(stockyardId);
         }
     }
 
@@ -629,34 +638,55 @@ public class IngotService {
 
         // StockyardStatus aktualisieren
         updateStockyardStatusAfterRelocate(sourceStockyardId, destinationStockyardId, productId);
+        yardOccupancyService.yardsChanged(sourceStockyardId, destinationStockyardId);
+        broadcastStockyardsChangedAfterCommit(sourceStockyardId, destinationStockyardId);
 
         log.info("Ingot {} relocated: {} -> {} (position: {} -> {})",
             ingotId, sourceStockyardId, destinationStockyardId,
             oldPilePosition, ingot.getPilePosition());
     }
 
+    /**
+     * Meldet die betroffenen Lagerplätze an die Views (Delta-Update).
+     * Erst nach dem Commit, damit die Views die neuen Daten lesen.
+     */
+    private void broadcastStockyardsChangedAfterCommit(Long... stockyardIds) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dataBroadcaster.broadcastStockyardsChanged(stockyardIds);
+                }
+            });
+        } else {
+            dataBroadcaster.broadcastStockyardsChanged(stockyardIds);
+        }
+    }
+
     /**
      * Berechnet die Stapelpositionen aller Barren auf einem Lagerplatz neu.
      * Wird aufgerufen nachdem ein Barren entfernt wurde um Lücken zu schließen.
      * Aktualisiert auch SERIAL für Versionskontrolle.
+     *
+     * Ein einziges MERGE nummeriert per ROW_NUMBER() fortlaufend (1, 2, 3, ...) und
+     * ändert nur Barren, deren Position sich tatsächlich verschiebt (Oracle und H2).
+     *
+     * @return Anzahl der geänderten Barren
      */
-    private void recalculatePilePositions(Long stockyardId) {
-        log.info("Recalculating pile positions for stockyard {}", stockyardId);
-
-        // Alle Barren auf dem Platz holen, sortiert nach aktueller Position
-        List<Long> ingotIds = jdbcTemplate.queryForList(
-            "SELECT ID FROM TD_INGOT WHERE STOCKYARD_ID = ? ORDER BY PILE_POSITION ASC NULLS LAST",
-            Long.class, stockyardId);
-
-        // Neue fortlaufende Positionen vergeben (1, 2, 3, ...) und SERIAL erhöhen
-        for (int i = 0; i < ingotIds.size(); i++) {
-            int newPosition = i + 1;
-            jdbcTemplate.update(
-                "UPDATE TD_INGOT SET PILE_POSITION = ?, SERIAL = SERIAL + 1 WHERE ID = ?",
-                newPosition, ingotIds.get(i));
-        }
-
-        log.info("  {} Barren neu nummeriert (1..{})", ingotIds.size(), ingotIds.size());
+    int recalculatePilePositions(Long stockyardId) {
+        String sql =
+            "MERGE INTO TD_INGOT t " +
+            "USING (SELECT ID, NEW_POSITION FROM (" +
+            "         SELECT ID, PILE_POSITION, " +
+            "                ROW_NUMBER() OVER (ORDER BY PILE_POSITION ASC NULLS LAST, ID ASC) AS NEW_POSITION " +
+            "         FROM TD_INGOT WHERE STOCKYARD_ID = ?) p " +
+            "       WHERE p.PILE_POSITION IS NULL OR p.PILE_POSITION <> p.NEW_POSITION) s " +
+            "ON (t.ID = s.ID) " +
+            "WHEN MATCHED THEN UPDATE SET t.PILE_POSITION = s.NEW_POSITION, t.SERIAL = t.SERIAL + 1";
+
+        int updated = jdbcTemplate.update(sql, stockyardId);
+        log.info("Pile positions recalculated for stockyard {}: {} Barren neu nummeriert", stockyardId, updated);
+        return updated;
     }
 
     /**
@@ -706,14 +736,7 @@ public class IngotService {
     }
 
     private Long getNextStatusId() {
-        try {
-            Long maxId = jdbcTemplate.queryForObject(
-                "SELECT NVL(MAX(ID), 0) + 1 FROM TD_STOCKYARDSTATUS", Long.class);
-            return maxId != null ? maxId : 1L;
-        } catch (Exception e) {
-            log.warn("Could not get next status ID, using timestamp", e);
-            return System.currentTimeMillis();
-        }
+        return idAllocator.nextId("TD_STOCKYARDSTATUS");
     }
 
     /**
@@ -822,6 +845,7 @@ public class IngotService {
 
             // Test-Barren erstellen
             int created = 0;
+            List<Long> usedStockyardIds = new java.util.ArrayList<>();
             for (int i = 0; i < Math.min(10, stockyardIds.size()); i++) {
                 Long stockyardId = stockyardIds.get(i);
                 Long nextId = getNextId();
@@ -842,9 +866,13 @@ public class IngotService {
                 );
 
                 log.info("Test-Barren erstellt: {} auf Lagerplatz {} ({} kg)", ingotNo, stockyardId, weight);
+                usedStockyardIds.add(stockyardId);
                 created++;
             }
 
+            // Direktes SQL - Belegungsmodell nach dem Commit gezielt nachladen
+            yardOccupancyService.yardsChanged(usedStockyardIds.toArray(Long[]::new));
+
             log.info("=== {} Test-Barren erstellt ===", created);
             return created;
 
@@ -7,14 +7,13 @@ import com.hydro.plsbl.entity.masterdata.Product;
 import com.hydro.plsbl.entity.enums.LengthType;
 import com.hydro.plsbl.entity.enums.StockyardUsage;
 import com.hydro.plsbl.entity.masterdata.Stockyard;
-import com.hydro.plsbl.entity.transdata.StockyardStatus;
 import com.hydro.plsbl.kafka.KafkaConsumerService;
 import com.hydro.plsbl.kafka.KafkaProducerService;
 import com.hydro.plsbl.kafka.dto.KafkaPickupOrderMessage;
 import com.hydro.plsbl.kafka.dto.KafkaSawFeedbackMessage;
 import com.hydro.plsbl.repository.ProductRepository;
 import com.hydro.plsbl.repository.StockyardRepository;
-import com.hydro.plsbl.repository.StockyardStatusRepository;
+import com.hydro.plsbl.service.YardPlacementIndex.Placement;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,11 +22,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
 /**
@@ -46,12 +43,6 @@ public class IngotStorageService {
 
     // Saege-Position Yard-Type
     private static final String YARD_TYPE_SAW = "S";
-    // Interne Lagerplaetze
-    private static final String YARD_TYPE_INTERNAL = "I";
-    // Externe Lagerplaetze
-    private static final String YARD_TYPE_EXTERNAL = "E";
-    // Ausgang/Swapout Lagerplaetze (Stapler-Abholplatz)
-    private static final String YARD_TYPE_SWAPOUT = "A";
     // Grenze fuer lange Barren in mm
     private static final int LONG_INGOT_THRESHOLD = 6000;
 
@@ -62,10 +53,12 @@ public class IngotStorageService {
     private final TransportOrderService transportOrderService;
     private final ProductRepository productRepository;
     private final StockyardRepository stockyardRepository;
-    private final StockyardStatusRepository stockyardStatusRepository;
+    private final StockyardPlacementService placementService;
     private final SawStatusService sawStatusService;
     private final ErrorBroadcaster errorBroadcaster;
     private final JdbcTemplate jdbcTemplate;
+    private final IdAllocator idAllocator;
+    private final YardOccupancyService yardOccupancyService;
 
     public IngotStorageService(
             KafkaConsumerService kafkaConsumerService,
@@ -75,10 +68,12 @@ public class IngotStorageService {
             TransportOrderService transportOrderService,
             ProductRepository productRepository,
             StockyardRepository stockyardRepository,
-            StockyardStatusRepository stockyardStatusRepository,
+            StockyardPlacementService placementService,
             SawStatusService sawStatusService,
             ErrorBroadcaster errorBroadcaster,
-            JdbcTemplate jdbcTemplate) {
+            JdbcTemplate jdbcTemplate,
+            IdAllocator idAllocator,
+            YardOccupancyService yardOccupancyService) {
         this.kafkaConsumerService = kafkaConsumerService;
         this.kafkaProducerService = kafkaProducerService;
         this.ingotService = ingotService;
@@ -86,10 +81,12 @@ public class IngotStorageService {
         this.transportOrderService = transportOrderService;
         this.productRepository = productRepository;
         this.stockyardRepository = stockyardRepository;
-        this.stockyardStatusRepository = stockyardStatusRepository;
+        this.placementService = placementService;
         this.sawStatusService = sawStatusService;
         this.errorBroadcaster = errorBroadcaster;
         this.jdbcTemplate = jdbcTemplate;
+        this.idAllocator = idAllocator;
+        this.yardOccupancyService = yardOccupancyService;
     }
 
     @PostConstruct
@@ -305,14 +302,7 @@ public class IngotStorageService {
     }
 
     private Long getNextProductId() {
-        try {
-            Long maxId = jdbcTemplate.queryForObject(
-                "SELECT COALESCE(MAX(ID), 0) + 1 FROM MD_PRODUCT", Long.class);
-            return maxId != null ? maxId : 1L;
-        } catch (Exception e) {
-            log.warn("Could not get next product ID, using timestamp", e);
-            return System.currentTimeMillis();
-        }
+        return idAllocator.nextId("MD_PRODUCT");
     }
 
     /**
@@ -431,6 +421,18 @@ public class IngotStorageService {
             log.warn("Konnte aktuelle Barren nicht abfragen: {}", e.getMessage());
         }
 
+        // Ziel-Plätze der gelöschten Transporte verlieren ihre offenen Zugänge
+        List<Long> affectedYards = new java.util.ArrayList<>();
+        affectedYards.add(sawStockyardId);
+        try {
+            affectedYards.addAll(jdbcTemplate.queryForList(
+                "SELECT DISTINCT TO_YARD_ID FROM TD_TRANSPORTORDER WHERE TO_YARD_ID IS NOT NULL " +
+                "AND INGOT_ID IN (SELECT ID FROM TD_INGOT WHERE STOCKYARD_ID = ?)",
+                Long.class, sawStockyardId));
+        } catch (Exception e) {
+            log.warn("Konnte Ziel-Plätze der Transport-Aufträge nicht abfragen: {}", e.getMessage());
+        }
+
         // 2. Transport-Aufträge für alle Barren auf der Säge löschen
         try {
             int deletedOrders = jdbcTemplate.update(
@@ -459,6 +461,9 @@ public class IngotStorageService {
             log.warn("Fehler beim Löschen des StockyardStatus: {}", e.getMessage());
         }
 
+        // Direktes SQL - Belegungsmodell gezielt nachladen (bei laufender Transaktion nach dem Commit)
+        yardOccupancyService.yardsChanged(affectedYards.toArray(Long[]::new));
+
         log.info("=== SAW POSITION CLEARED ({} Barren) ===", deletedIngots);
         return deletedIngots;
     }
@@ -523,15 +528,15 @@ public class IngotStorageService {
             log.info("Barrentyp {} erfordert Stapler-Transport zu externem Lager", ingotType.map(IngotTypeDTO::getName).orElse("?"));
             log.info("Suche freien Ausgang/Swapout-Platz (00/xx)...");
 
-            Optional<Stockyard> swapoutYard = findSwapoutYard();
-            if (swapoutYard.isPresent()) {
-                Stockyard yard = swapoutYard.get();
+            Optional<Placement> swapout = placementService.findSwapout();
+            if (swapout.isPresent()) {
+                Stockyard yard = swapout.get().yard();
                 log.info("========================================");
                 log.info("ERGEBNIS: Ausgang-Platz fuer Stapler gefunden!");
                 log.info("  Lagerplatz: {} (ID={})", yard.getYardNumber(), yard.getId());
                 log.info("  Hinweis: Barren muss vom Stapler zu externem Platz gefahren werden");
                 log.info("========================================");
-                return swapoutYard;
+                return Optional.of(yard);
             } else {
                 log.warn("Kein freier Ausgang/Swapout-Platz verfuegbar!");
                 // Fallback: Wenn kein SWAPOUT frei und internalAllowed=false -> Fehler
@@ -546,7 +551,7 @@ public class IngotStorageService {
         // 1. Gewuenschter Lagerplatz pruefen (muss exakt passen oder AUTOMATIC sein)
         if (preferredYardNo != null && !preferredYardNo.isBlank()) {
             Optional<Stockyard> preferred = stockyardRepository.findByYardNumber(preferredYardNo);
-            if (preferred.isPresent() && isYardAvailable(preferred.get(), productId)
+            if (preferred.isPresent() && placementService.isAvailable(preferred.get().getId(), productId)
                     && hasMatchingUsageStrict(preferred.get(), requiredUsage)
                     && isYardTypeAllowed(preferred.get(), internalAllowed, externalAllowed)) {
                 log.debug("Gewuenschter Lagerplatz verfuegbar: {}", preferredYardNo);
@@ -555,112 +560,18 @@ public class IngotStorageService {
             log.debug("Gewuenschter Lagerplatz {} nicht verfuegbar oder falsche Groesse/Typ", preferredYardNo);
         }
 
-        // 2. Lagerplaetze nach Berechtigung laden
-        List<Stockyard> allowedYards = new java.util.ArrayList<>();
-
-        // Interne Plaetze laden (wenn erlaubt)
-        if (internalAllowed) {
-            List<Stockyard> internalYards = stockyardRepository.findByType(YARD_TYPE_INTERNAL);
-            allowedYards.addAll(internalYards);
-            log.info("  Interne Lagerplaetze geladen: {} Stueck", internalYards.size());
-        } else {
-            log.info("  Interne Lagerplaetze: NICHT ERLAUBT fuer diesen Barrentyp");
-        }
-
-        // Externe Plaetze laden (wenn erlaubt)
-        if (externalAllowed) {
-            List<Stockyard> externalYards = stockyardRepository.findByType(YARD_TYPE_EXTERNAL);
-            allowedYards.addAll(externalYards);
-            log.info("  Externe Lagerplaetze geladen: {} Stueck", externalYards.size());
-        } else {
-            log.info("  Externe Lagerplaetze: NICHT ERLAUBT fuer diesen Barrentyp");
-        }
-
-        if (allowedYards.isEmpty()) {
-            log.error("Keine erlaubten Lagerplaetze fuer Barrentyp! internalAllowed={}, externalAllowed={}",
-                internalAllowed, externalAllowed);
-            return Optional.empty();
-        }
-
-        // Nach EXAKT passender Groesse filtern (SHORT oder LONG, NICHT AUTOMATIC)
-        List<Stockyard> exactMatchYards = allowedYards.stream()
-            .filter(yard -> hasExactUsage(yard, requiredUsage))
-            .collect(Collectors.toList());
-        log.info("  Gefundene {} Lagerplaetze: {} Stueck",
-            requiredUsage.getDisplayName(), exactMatchYards.size());
-        if (!exactMatchYards.isEmpty()) {
-            log.info("  Erste 5: {}", exactMatchYards.stream()
-                .limit(5)
-                .map(y -> y.getYardNumber())
-                .collect(Collectors.joining(", ")));
-        }
-
-        // AUTOMATIC Plaetze als Fallback
-        List<Stockyard> automaticYards = allowedYards.stream()
-            .filter(yard -> yard.getUsage() == null || yard.getUsage() == StockyardUsage.AUTOMATIC)
-            .collect(Collectors.toList());
-        log.info("  AUTOMATIC Fallback-Plaetze: {} Stueck", automaticYards.size());
-
-        // 3. Lagerplaetze mit gleichem Produkt suchen (EXAKT passende Groesse zuerst)
-        List<StockyardStatus> productLocations = stockyardStatusRepository.findByProductId(productId);
-        for (StockyardStatus status : productLocations) {
-            Optional<Stockyard> yard = stockyardRepository.findById(status.getStockyardId());
-            if (yard.isPresent() && isYardAvailable(yard.get(), productId)
-                    && hasExactUsage(yard.get(), requiredUsage)
-                    && isYardTypeAllowed(yard.get(), internalAllowed, externalAllowed)) {
-                log.info("Lagerplatz mit gleichem Produkt und EXAKT passender Groesse gefunden: {}",
-                    yard.get().getYardNumber());
-                return yard;
-            }
-        }
-
-        // 4. Leeren Lagerplatz mit EXAKT passender Groesse suchen
-        for (Stockyard yard : exactMatchYards) {
-            if (yard.isToStockAllowed() && isYardEmpty(yard.getId())) {
-                log.info("========================================");
-                log.info("ERGEBNIS: Leerer {} Platz gefunden!", requiredUsage.getDisplayName());
-                log.info("  Lagerplatz: {} (ID={})", yard.getYardNumber(), yard.getId());
-                log.info("  Typ: {}", yard.getType() != null ? yard.getType().getDisplayName() : "?");
-                log.info("  Position: X={}, Y={}, Z={}", yard.getXPosition(), yard.getYPosition(), yard.getZPosition());
-                log.info("========================================");
-                return Optional.of(yard);
-            }
-        }
-
-        // 4b. Nicht-vollen Lagerplatz mit EXAKT passender Groesse suchen
-        // (fuer neues Produkt - Platz hat noch Kapazitaet)
-        for (Stockyard yard : exactMatchYards) {
-            if (yard.isToStockAllowed() && hasCapacity(yard, productId)) {
-                log.info("========================================");
-                log.info("ERGEBNIS: {} Platz mit Kapazitaet gefunden!", requiredUsage.getDisplayName());
-                log.info("  Lagerplatz: {} (ID={})", yard.getYardNumber(), yard.getId());
-                log.info("  Typ: {}", yard.getType() != null ? yard.getType().getDisplayName() : "?");
-                log.info("  Position: X={}, Y={}, Z={}", yard.getXPosition(), yard.getYPosition(), yard.getZPosition());
-                log.info("========================================");
-                return Optional.of(yard);
-            }
-        }
-
-        // === FALLBACK: AUTOMATIC Plaetze ===
-        log.info("Kein exakt passender Platz gefunden, suche AUTOMATIC Fallback...");
-
-        // 5. AUTOMATIC Platz mit gleichem Produkt
-        for (StockyardStatus status : productLocations) {
-            Optional<Stockyard> yard = stockyardRepository.findById(status.getStockyardId());
-            if (yard.isPresent() && isYardAvailable(yard.get(), productId)
-                    && (yard.get().getUsage() == null || yard.get().getUsage() == StockyardUsage.AUTOMATIC)
-                    && isYardTypeAllowed(yard.get(), internalAllowed, externalAllowed)) {
-                log.info("AUTOMATIC Fallback mit gleichem Produkt gefunden: {}", yard.get().getYardNumber());
-                return yard;
-            }
-        }
-
-        // 6. Leerer AUTOMATIC Platz
-        for (Stockyard yard : automaticYards) {
-            if (yard.isToStockAllowed() && isYardEmpty(yard.getId())) {
-                log.info("Leerer AUTOMATIC Fallback gefunden: {}", yard.getYardNumber());
-                return Optional.of(yard);
-            }
+        // 2.-6. Platzierungs-Index: gleiches Produkt -> leer -> Kapazitaet -> AUTOMATIC (alles im Speicher)
+        Optional<Placement> placement = placementService.findBest(
+            productId, requiredUsage, internalAllowed, externalAllowed);
+        if (placement.isPresent()) {
+            Stockyard yard = placement.get().yard();
+            log.info("========================================");
+            log.info("ERGEBNIS: {}", placement.get().rule().getDisplayName());
+            log.info("  Lagerplatz: {} (ID={})", yard.getYardNumber(), yard.getId());
+            log.info("  Typ: {}", yard.getType() != null ? yard.getType().getDisplayName() : "?");
+            log.info("  Position: X={}, Y={}, Z={}", yard.getXPosition(), yard.getYPosition(), yard.getZPosition());
+            log.info("========================================");
+            return Optional.of(yard);
         }
 
         log.warn("Kein geeigneter Lagerplatz fuer {} Barren ({}mm) gefunden! internalAllowed={}, externalAllowed={}",
@@ -668,30 +579,6 @@ public class IngotStorageService {
         return Optional.empty();
     }
 
-    /**
-     * Findet einen freien Ausgang/Swapout-Platz (00/xx) fuer Stapler-Transport.
-     * Sucht nach Plaetzen mit YARD_TYPE='A' die leer sind.
-     *
-     * @return Ein freier Swapout-Platz oder empty
-     */
-    private Optional<Stockyard> findSwapoutYard() {
-        List<Stockyard> swapoutYards = stockyardRepository.findByType(YARD_TYPE_SWAPOUT);
-        log.info("  Gefundene Ausgang/Swapout-Plaetze: {} Stueck", swapoutYards.size());
-
-        // Sortiere nach Y-Koordinate (niedrigste zuerst = nahe am Tor)
-        swapoutYards.sort(Comparator.comparingInt(Stockyard::getYCoordinate));
-
-        for (Stockyard yard : swapoutYards) {
-            if (yard.isToStockAllowed() && isYardEmpty(yard.getId())) {
-                log.info("  Freier Ausgang-Platz gefunden: {}", yard.getYardNumber());
-                return Optional.of(yard);
-            }
-        }
-
-        log.info("  Alle Ausgang-Plaetze belegt!");
-        return Optional.empty();
-    }
-
     /**
      * Prueft ob ein Lagerplatz aufgrund seines Typs (intern/extern) erlaubt ist.
      */
@@ -711,15 +598,6 @@ public class IngotStorageService {
         }
     }
 
-    /**
-     * Prueft ob ein Lagerplatz EXAKT die passende Verwendung (SHORT/LONG) hat.
-     * AUTOMATIC wird hier NICHT akzeptiert.
-     */
-    private boolean hasExactUsage(Stockyard yard, StockyardUsage requiredUsage) {
-        StockyardUsage yardUsage = yard.getUsage();
-        return yardUsage == requiredUsage;
-    }
-
     /**
      * Prueft ob ein Lagerplatz die passende Verwendung hat (inkl. AUTOMATIC als Fallback).
      */
@@ -731,121 +609,6 @@ public class IngotStorageService {
         return yardUsage == requiredUsage;
     }
 
-    /**
-     * Prueft ob ein Lagerplatz verfuegbar ist (nicht voll und Einlagern erlaubt)
-     * Beruecksichtigt auch offene Transportauftraege, die diesen Platz als Ziel haben.
-     */
-    private boolean isYardAvailable(Stockyard yard, Long productId) {
-        if (!yard.isToStockAllowed()) {
-            log.info("  -> {} NICHT verfuegbar: Einlagern nicht erlaubt", yard.getYardNumber());
-            return false;
-        }
-
-        // Aktuelle Belegung pruefen - direkt aus DB zaehlen
-        int currentCount = ingotService.countByStockyardId(yard.getId());
-        int maxIngots = yard.getMaxIngots();
-
-        // Offene Transportauftraege zaehlen, die diesen Platz als Ziel haben
-        // Status: P=PENDING, I=IN_PROGRESS, U=PICKED_UP, H=PAUSED
-        int pendingTransports = countPendingTransportsToYard(yard.getId());
-
-        // Gesamtanzahl = aktuelle Barren + erwartete Barren aus offenen Auftraegen
-        int totalExpectedCount = currentCount + pendingTransports;
-
-        log.info("  -> {} Pruefung: aktuell={}, pending={}, gesamt={}, max={}",
-            yard.getYardNumber(), currentCount, pendingTransports, totalExpectedCount, maxIngots);
-
-        if (totalExpectedCount >= maxIngots) {
-            log.info("  -> {} NICHT verfuegbar: VOLL ({} >= {})",
-                yard.getYardNumber(), totalExpectedCount, maxIngots);
-            return false;
-        }
-
-        // Bei belegtem Platz: Produkt pruefen
-        if (currentCount > 0) {
-            Optional<StockyardStatus> status = stockyardStatusRepository.findByStockyardId(yard.getId());
-            if (status.isPresent() && status.get().getProductId() != null) {
-                boolean sameProduct = status.get().getProductId().equals(productId);
-                if (!sameProduct) {
-                    log.info("  -> {} NICHT verfuegbar: Anderes Produkt", yard.getYardNumber());
-                }
-                return sameProduct;
-            }
-        }
-
-        log.info("  -> {} VERFUEGBAR", yard.getYardNumber());
-        return true;
-    }
-
-    /**
-     * Zaehlt offene Transportauftraege, die einen bestimmten Lagerplatz als Ziel haben.
-     */
-    private int countPendingTransportsToYard(Long yardId) {
-        try {
-            Integer count = jdbcTemplate.queryForObject(
-                "SELECT COUNT(*) FROM TD_TRANSPORTORDER WHERE TO_YARD_ID = ? AND STATUS IN ('P', 'I', 'U', 'H')",
-                Integer.class, yardId);
-            int result = count != null ? count : 0;
-            if (result > 0) {
-                log.info("     Offene Transporte zu Platz ID={}: {}", yardId, result);
-            }
-            return result;
-        } catch (Exception e) {
-            log.warn("Fehler beim Zaehlen der offenen Transportauftraege fuer Platz {}: {}", yardId, e.getMessage());
-            return 0;
-        }
-    }
-
-    /**
-     * Prueft ob ein Lagerplatz leer ist
-     */
-    private boolean isYardEmpty(Long stockyardId) {
-        int count = ingotService.countByStockyardId(stockyardId);
-        log.info("  isYardEmpty check: StockyardID={}, count={}, isEmpty={}", stockyardId, count, count == 0);
-        return count == 0;
-    }
-
-    /**
-     * Prueft ob ein Lagerplatz noch Kapazitaet hat und das gleiche Produkt hat
-     * (oder leer ist, dann kann jedes Produkt darauf)
-     */
-    private boolean hasCapacity(Stockyard yard, Long productId) {
-        int currentCount = ingotService.countByStockyardId(yard.getId());
-        int pendingTransports = countPendingTransportsToYard(yard.getId());
-        int totalExpected = currentCount + pendingTransports;
-        int maxIngots = yard.getMaxIngots();
-
-        // Kein Platz mehr?
-        if (totalExpected >= maxIngots) {
-            return false;
-        }
-
-        // Platz ist leer - kann jedes Produkt aufnehmen
-        if (currentCount == 0) {
-            log.info("  hasCapacity: {} ist leer, Kapazitaet {}/{}", yard.getYardNumber(), totalExpected, maxIngots);
-            return true;
-        }
-
-        // Platz hat Barren - pruefen ob gleiches Produkt
-        Optional<StockyardStatus> status = stockyardStatusRepository.findByStockyardId(yard.getId());
-        if (status.isPresent() && status.get().getProductId() != null) {
-            boolean sameProduct = status.get().getProductId().equals(productId);
-            if (sameProduct) {
-                log.info("  hasCapacity: {} hat gleiches Produkt, Kapazitaet {}/{}",
-                    yard.getYardNumber(), totalExpected, maxIngots);
-                return true;
-            } else {
-                log.debug("  hasCapacity: {} hat anderes Produkt", yard.getYardNumber());
-                return false;
-            }
-        }
-
-        // Kein Produkt zugeordnet - kann verwendet werden
-        log.info("  hasCapacity: {} hat kein Produkt zugeordnet, Kapazitaet {}/{}",
-            yard.getYardNumber(), totalExpected, maxIngots);
-        return true;
-    }
-
     /**
      * Erstellt einen Transport-Auftrag
      */
@@ -867,17 +630,7 @@ public class IngotStorageService {
      * Format: TAYY-NNNN (z.B. TA26-0001)
      */
     private String generateTransportNo() {
-        int year = java.time.LocalDate.now().getYear() % 100; // 2-stelliges Jahr
-        String prefix = "TA" + String.format("%02d", year) + "-";
-        try {
-            Integer maxNo = jdbcTemplate.queryForObject(
-                "SELECT NVL(MAX(TO_NUMBER(SUBSTR(TRANSPORT_NO, 6))), 0) + 1 FROM TD_TRANSPORTORDER WHERE TRANSPORT_NO LIKE ?",
-                Integer.class, prefix + "%");
-            return prefix + String.format("%04d", maxNo != null ? maxNo : 1);
-        } catch (Exception e) {
-            log.warn("Could not generate transport number, using timestamp", e);
-            return prefix + String.format("%04d", (System.currentTimeMillis() % 10000));
-        }
+        return idAllocator.nextTransportNo("TA");
     }
 
     /**
@@ -909,7 +662,8 @@ public class IngotStorageService {
         KafkaSawFeedbackMessage feedback = KafkaSawFeedbackMessage.pickupFailed(ingotNumber, errorMessage);
         feedback.setTimestamp(LocalDateTime.now());
 
-        kafkaProducerService.sendSawFeedback(feedback);
+        // Eigene Transaktion: die Einlagerung wird anschliessend zurueckgerollt
+        kafkaProducerService.sendSawFeedbackIndependent(feedback);
         log.warn("Fehler-Rueckmeldung an Saege gesendet: {} - {}", ingotNumber, errorMessage);
     }
 }
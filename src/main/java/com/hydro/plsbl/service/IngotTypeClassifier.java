@@ -0,0 +1,186 @@
+package com.hydro.plsbl.service;
+
+import com.hydro.plsbl.entity.masterdata.IngotType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Vorkompilierte Barrentyp-Erkennung (Stand von MD_INGOTTYPE)
+ *
+ * Wird einmal aus den Barrentypen in Prioritaetsreihenfolge aufgebaut:
+ * - Produkt-Regex vorkompiliert (ungueltige Regex: keine Pruefung, wie bisher),
+ * - Laengenbereiche als Intervall-Index: sortierte Grenzen, je Abschnitt die Typen,
+ *   deren Laengenbereich ihn ganz abdeckt (in Prioritaetsreihenfolge),
+ * - Breite, Dicke, Gewicht und Regex werden nur fuer diese Kandidaten geprueft.
+ * Das Ergebnis entspricht der bisherigen linearen Suche: erster passender Typ.
+ * Fehlende Grenzen und fehlende Barren-Werte schraenken nicht ein.
+ *
+ * Unveraenderlich und damit thread-sicher; bei Aenderungen wird eine neue Instanz gebaut
+ * (siehe {@link IngotTypeService#invalidateClassifier()}).
+ */
+public final class IngotTypeClassifier {
+
+    private static final Logger log = LoggerFactory.getLogger(IngotTypeClassifier.class);
+
+    private static final int[] NONE = new int[0];
+
+    /**
+     * Eigenschaften eines Barrens fuer die Typ-Erkennung (alle optional)
+     */
+    public record Dimensions(Integer length, Integer width, Integer thickness, Integer weight, String productNo) {}
+
+    private final IngotType[] types;
+    private final Pattern[] patterns;
+    private final int[] minWidth;
+    private final int[] maxWidth;
+    private final int[] minThickness;
+    private final int[] maxThickness;
+    private final int[] minWeight;
+    private final int[] maxWeight;
+
+    // Abschnitt i = [bounds[i], bounds[i + 1]), candidates[i] = Typ-Indizes aufsteigend
+    private final long[] bounds;
+    private final int[][] candidates;
+    private final int[] all;
+
+    private IngotTypeClassifier(List<IngotType> typesByPriority) {
+        int n = typesByPriority.size();
+        types = typesByPriority.toArray(new IngotType[0]);
+        patterns = new Pattern[n];
+        minWidth = new int[n];
+        maxWidth = new int[n];
+        minThickness = new int[n];
+        maxThickness = new int[n];
+        minWeight = new int[n];
+        maxWeight = new int[n];
+        all = new int[n];
+
+        long[] starts = new long[n];
+        long[] ends = new long[n];
+        TreeSet<Long> points = new TreeSet<>();
+
+        for (int i = 0; i < n; i++) {
+            IngotType type = types[i];
+            all[i] = i;
+            patterns[i] = compile(type);
+            minWidth[i] = lower(type.getMinWidth());
+            maxWidth[i] = upper(type.getMaxWidth());
+            minThickness[i] = lower(type.getMinThickness());
+            maxThickness[i] = upper(type.getMaxThickness());
+            minWeight[i] = lower(type.getMinWeight());
+            maxWeight[i] = upper(type.getMaxWeight());
+
+            starts[i] = type.getMinLength() != null ? type.getMinLength() : Long.MIN_VALUE;
+            ends[i] = type.getMaxLength() != null ? type.getMaxLength() + 1L : Long.MAX_VALUE;
+            points.add(starts[i]);
+            points.add(ends[i]);
+        }
+
+        bounds = points.stream().mapToLong(Long::longValue).toArray();
+        candidates = new int[Math.max(0, bounds.length - 1)][];
+        List<Integer> segment = new ArrayList<>();
+        for (int s = 0; s < candidates.length; s++) {
+            segment.clear();
+            for (int i = 0; i < n; i++) {
+                if (starts[i] <= bounds[s] && ends[i] >= bounds[s + 1]) {
+                    segment.add(i);
+                }
+            }
+            candidates[s] = segment.isEmpty() ? NONE : segment.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * Baut die Erkennung fuer Barrentypen in Prioritaetsreihenfolge
+     * (wie IngotTypeRepository.findAllOrderByPriority)
+     */
+    public static IngotTypeClassifier of(List<IngotType> typesByPriority) {
+        return new IngotTypeClassifier(typesByPriority);
+    }
+
+    /**
+     * Ermittelt den ersten passenden Barrentyp
+     */
+    public Optional<IngotType> classify(Integer length, Integer width, Integer thickness,
+                                        Integer weight, String productNo) {
+        for (int i : candidatesFor(length)) {
+            if (matches(i, width, thickness, weight, productNo)) {
+                return Optional.of(types[i]);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public Optional<IngotType> classify(Dimensions ingot) {
+        return classify(ingot.length(), ingot.width(), ingot.thickness(), ingot.weight(), ingot.productNo());
+    }
+
+    /**
+     * Ermittelt die Barrentypen fuer viele Barren (Ergebnis in gleicher Reihenfolge)
+     */
+    public List<Optional<IngotType>> classifyAll(List<Dimensions> ingots) {
+        List<Optional<IngotType>> result = new ArrayList<>(ingots.size());
+        for (Dimensions ingot : ingots) {
+            result.add(classify(ingot));
+        }
+        return result;
+    }
+
+    /**
+     * Anzahl der Barrentypen
+     */
+    public int size() {
+        return types.length;
+    }
+
+    private int[] candidatesFor(Integer length) {
+        if (length == null) {
+            return all;
+        }
+        int pos = Arrays.binarySearch(bounds, length.longValue());
+        int segment = pos >= 0 ? pos : -pos - 2;
+        return segment >= 0 && segment < candidates.length ? candidates[segment] : NONE;
+    }
+
+    private boolean matches(int i, Integer width, Integer thickness, Integer weight, String productNo) {
+        if (width != null && (width < minWidth[i] || width > maxWidth[i])) {
+            return false;
+        }
+        if (thickness != null && (thickness < minThickness[i] || thickness > maxThickness[i])) {
+            return false;
+        }
+        if (weight != null && (weight < minWeight[i] || weight > maxWeight[i])) {
+            return false;
+        }
+        return productNo == null || patterns[i] == null || patterns[i].matcher(productNo).matches();
+    }
+
+    private static Pattern compile(IngotType type) {
+        String regex = type.getProductRegex();
+        if (regex == null || regex.isEmpty()) {
+            return null;
+        }
+        try {
+            return Pattern.compile(regex);
+        } catch (PatternSyntaxException e) {
+            log.warn("Ungueltiger Regex fuer Barrentyp {}: {}", type.getName(), regex);
+            return null;
+        }
+    }
+
+    private static int lower(Integer value) {
+        return value != null ? value : Integer.MIN_VALUE;
+    }
+
+    private static int upper(Integer value) {
+        return value != null ? value : Integer.MAX_VALUE;
+    }
+}
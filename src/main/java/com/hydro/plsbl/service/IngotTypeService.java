@@ -9,14 +9,20 @@ import org.slf4j.LoggerFactory;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
  * Service für Barrentypen-Verwaltung
+ *
+ * Die Typ-Erkennung (determineIngotType) nutzt einen einmal aus MD_INGOTTYPE aufgebauten
+ * {@link IngotTypeClassifier}; save() und delete() verwerfen ihn.
  */
 @Service
 public class IngotTypeService {
@@ -25,10 +31,17 @@ public class IngotTypeService {
 
     private final IngotTypeRepository ingotTypeRepository;
     private final JdbcTemplate jdbcTemplate;
+    private final IdAllocator idAllocator;
 
-    public IngotTypeService(IngotTypeRepository ingotTypeRepository, JdbcTemplate jdbcTemplate) {
+    // Vorkompilierte Barrentyp-Erkennung (null = beim nächsten Zugriff neu aufbauen)
+    private final Object classifierLock = new Object();
+    private volatile IngotTypeClassifier classifier;
+
+    public IngotTypeService(IngotTypeRepository ingotTypeRepository, JdbcTemplate jdbcTemplate,
+                            IdAllocator idAllocator) {
         this.ingotTypeRepository = ingotTypeRepository;
         this.jdbcTemplate = jdbcTemplate;
+        this.idAllocator = idAllocator;
     }
 
     /**
@@ -66,80 +79,62 @@ public class IngotTypeService {
      */
     public Optional<IngotTypeDTO> determineIngotType(Integer length, Integer width, Integer thickness,
                                                       Integer weight, String productNo) {
-        log.info("Ermittle Barrentyp für: Länge={}, Breite={}, Dicke={}, Gewicht={}, Produkt={}",
-            length, width, thickness, weight, productNo);
-
-        List<IngotType> allTypes = ingotTypeRepository.findAllOrderByPriority();
+        Optional<IngotType> type = classifier().classify(length, width, thickness, weight, productNo);
 
-        for (IngotType type : allTypes) {
-            if (matches(type, length, width, thickness, weight, productNo)) {
-                log.info("Barrentyp gefunden: {} ({})", type.getName(), type.getLengthType());
-                return Optional.of(toDTO(type));
-            }
+        if (type.isPresent()) {
+            log.debug("Barrentyp für Länge={}, Breite={}, Dicke={}, Gewicht={}, Produkt={}: {} ({})",
+                length, width, thickness, weight, productNo, type.get().getName(), type.get().getLengthType());
+        } else {
+            log.warn("Kein passender Barrentyp gefunden für Länge={}", length);
         }
-
-        log.warn("Kein passender Barrentyp gefunden für Länge={}", length);
-        return Optional.empty();
+        return type.map(this::toDTO);
     }
 
     /**
-     * Prüft ob ein Barren zu einem Barrentyp passt
+     * Ermittelt die Barrentypen für viele Barren auf einmal (Ergebnis in gleicher Reihenfolge).
+     * Barren gleichen Typs erhalten dieselbe DTO-Instanz.
      */
-    private boolean matches(IngotType type, Integer length, Integer width, Integer thickness,
-                            Integer weight, String productNo) {
-        // Länge prüfen
-        if (length != null) {
-            if (type.getMinLength() != null && length < type.getMinLength()) {
-                return false;
-            }
-            if (type.getMaxLength() != null && length > type.getMaxLength()) {
-                return false;
-            }
-        }
+    public List<Optional<IngotTypeDTO>> determineIngotTypes(List<IngotTypeClassifier.Dimensions> ingots) {
+        List<Optional<IngotType>> types = classifier().classifyAll(ingots);
+        Map<IngotType, IngotTypeDTO> dtos = new IdentityHashMap<>();
+        return types.stream()
+            .map(type -> type.map(t -> dtos.computeIfAbsent(t, this::toDTO)))
+            .collect(Collectors.toList());
+    }
 
-        // Breite prüfen
-        if (width != null) {
-            if (type.getMinWidth() != null && width < type.getMinWidth()) {
-                return false;
-            }
-            if (type.getMaxWidth() != null && width > type.getMaxWidth()) {
-                return false;
-            }
+    /**
+     * Verwirft die Barrentyp-Erkennung; sie wird beim nächsten Zugriff aus MD_INGOTTYPE neu aufgebaut.
+     * Innerhalb einer Transaktion zusätzlich nach dem Commit (sonst könnte ein paralleler
+     * Zugriff noch den alten Stand laden).
+     */
+    public void invalidateClassifier() {
+        synchronized (classifierLock) {
+            classifier = null;
         }
-
-        // Dicke prüfen
-        if (thickness != null) {
-            if (type.getMinThickness() != null && thickness < type.getMinThickness()) {
-                return false;
-            }
-            if (type.getMaxThickness() != null && thickness > type.getMaxThickness()) {
-                return false;
-            }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    synchronized (classifierLock) {
+                        classifier = null;
+                    }
+                }
+            });
         }
+    }
 
-        // Gewicht prüfen
-        if (weight != null) {
-            if (type.getMinWeight() != null && weight < type.getMinWeight()) {
-                return false;
-            }
-            if (type.getMaxWeight() != null && weight > type.getMaxWeight()) {
-                return false;
-            }
+    private IngotTypeClassifier classifier() {
+        IngotTypeClassifier current = classifier;
+        if (current != null) {
+            return current;
         }
-
-        // Produkt-Regex prüfen
-        if (productNo != null && type.getProductRegex() != null && !type.getProductRegex().isEmpty()) {
-            try {
-                Pattern pattern = Pattern.compile(type.getProductRegex());
-                if (!pattern.matcher(productNo).matches()) {
-                    return false;
-                }
-            } catch (Exception e) {
-                log.warn("Ungültiger Regex für Barrentyp {}: {}", type.getName(), type.getProductRegex());
+        synchronized (classifierLock) {
+            if (classifier == null) {
+                classifier = IngotTypeClassifier.of(ingotTypeRepository.findAllOrderByPriority());
+                log.info("Barrentyp-Erkennung aufgebaut: {} Barrentypen", classifier.size());
             }
+            return classifier;
         }
-
-        return true;
     }
 
     /**
@@ -166,6 +161,7 @@ public class IngotTypeService {
      */
     @Transactional
     public IngotTypeDTO save(IngotTypeDTO dto) {
+        invalidateClassifier();
         if (dto.getId() == null) {
             return create(dto);
         } else {
@@ -266,18 +262,12 @@ public class IngotTypeService {
     public void delete(Long id) {
         log.info("Lösche Barrentyp: ID={}", id);
         ingotTypeRepository.deleteById(id);
+        invalidateClassifier();
         log.info("Barrentyp gelöscht: ID={}", id);
     }
 
     private Long getNextId() {
-        try {
-            Long maxId = jdbcTemplate.queryForObject(
-                "SELECT COALESCE(MAX(ID), 0) + 1 FROM MD_INGOTTYPE", Long.class);
-            return maxId != null ? maxId : 1L;
-        } catch (Exception e) {
-            log.warn("Konnte nächste ID nicht ermitteln, verwende Timestamp", e);
-            return System.currentTimeMillis();
-        }
+        return idAllocator.nextId("MD_INGOTTYPE");
     }
 
     private Integer boolToInt(Boolean value) {
@@ -0,0 +1,245 @@
+package com.hydro.plsbl.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Gemeinsame Auslieferung für die Broadcaster (DataBroadcaster, BeladungBroadcaster,
+ * ErrorBroadcaster, StaplerAnforderungBroadcaster).
+ *
+ * - Registrierung über eine Copy-on-Write Liste: publish() nimmt keine globale Sperre.
+ * - Jeder Listener hat eine eigene, begrenzte Mailbox und wird seriell beliefert.
+ *   Ein langsamer Listener (z.B. loadData() in ui.access) hält die anderen nicht auf.
+ * - Wartet bereits ein Event mit demselben Schlüssel (z.B. Event-Typ) in der Mailbox,
+ *   wird das neue Event damit zusammengeführt statt erneut eingereiht.
+ * - Ist die Mailbox voll, wird das älteste Event verworfen.
+ *
+ * @param <E> Event-Typ
+ */
+public final class ListenerMailboxes<E> {
+
+    private static final Logger log = LoggerFactory.getLogger(ListenerMailboxes.class);
+
+    private final String name;
+    private final int capacity;
+    private final Function<E, Object> coalesceKey;
+    private final BinaryOperator<E> merger;
+    private final Executor executor;
+
+    private final CopyOnWriteArrayList<Mailbox> mailboxes = new CopyOnWriteArrayList<>();
+
+    // Metriken
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    /**
+     * @param name        Name für Threads und Log-Ausgaben
+     * @param capacity    Maximale Anzahl wartender Events pro Listener
+     * @param coalesceKey Schlüssel für das Zusammenführen (null-Schlüssel = nie zusammenführen)
+     * @param merger      Führt ein wartendes (älteres) mit einem neuen Event zusammen
+     */
+    public ListenerMailboxes(String name, int capacity, Function<E, Object> coalesceKey, BinaryOperator<E> merger) {
+        this(name, capacity, coalesceKey, merger, Executors.newCachedThreadPool(daemonThreads(name)));
+    }
+
+    ListenerMailboxes(String name, int capacity, Function<E, Object> coalesceKey, BinaryOperator<E> merger,
+                      Executor executor) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Kapazität muss mindestens 1 sein: " + capacity);
+        }
+        this.name = name;
+        this.capacity = capacity;
+        this.coalesceKey = coalesceKey;
+        this.merger = merger;
+        this.executor = executor;
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    // ========================================================================
+    // Registrierung und Versand
+    // ========================================================================
+
+    /**
+     * Registriert einen Listener mit eigener Mailbox
+     */
+    public Mailbox register(Consumer<E> listener) {
+        Mailbox mailbox = new Mailbox(Objects.requireNonNull(listener));
+        mailboxes.add(mailbox);
+        return mailbox;
+    }
+
+    /**
+     * Legt ein Event in die Mailbox jedes registrierten Listeners
+     */
+    public void publish(E event) {
+        published.incrementAndGet();
+        for (Mailbox mailbox : mailboxes) {
+            mailbox.offer(event);
+        }
+    }
+
+    public int getListenerCount() {
+        return mailboxes.size();
+    }
+
+    /**
+     * Aktuelle Metriken (Momentaufnahme)
+     */
+    public Metrics getMetrics() {
+        int depth = 0;
+        int maxDepth = 0;
+        for (Mailbox mailbox : mailboxes) {
+            int size = mailbox.size();
+            depth += size;
+            maxDepth = Math.max(maxDepth, size);
+        }
+        long count = delivered.get();
+        return new Metrics(mailboxes.size(), depth, maxDepth, published.get(), count,
+            coalesced.get(), dropped.get(),
+            count > 0 ? totalLatencyNanos.get() / count / 1_000_000.0 : 0.0,
+            maxLatencyNanos.get() / 1_000_000.0);
+    }
+
+    private void recordLatency(long enqueuedAt) {
+        long latency = System.nanoTime() - enqueuedAt;
+        totalLatencyNanos.addAndGet(latency);
+        maxLatencyNanos.accumulateAndGet(latency, Math::max);
+    }
+
+    // ========================================================================
+    // Mailbox
+    // ========================================================================
+
+    /**
+     * Mailbox eines Listeners. remove() meldet den Listener ab und verwirft wartende Events.
+     */
+    public final class Mailbox {
+        private final Consumer<E> listener;
+        private final ArrayDeque<Pending<E>> queue = new ArrayDeque<>();
+        private boolean draining = false;
+        private volatile boolean removed = false;
+
+        private Mailbox(Consumer<E> listener) {
+            this.listener = listener;
+        }
+
+        /**
+         * Legt ein Event nur in diese Mailbox (z.B. Anfangszustand für einen neuen Listener)
+         */
+        public void offer(E event) {
+            if (removed) {
+                return;
+            }
+            boolean startDrain;
+            synchronized (this) {
+                if (!coalesce(event)) {
+                    if (queue.size() >= capacity) {
+                        queue.pollFirst();
+                        dropped.incrementAndGet();
+                        log.warn("{}: Mailbox voll ({}), ältestes Event verworfen", name, capacity);
+                    }
+                    queue.addLast(new Pending<>(event, System.nanoTime()));
+                }
+                startDrain = !draining;
+                draining = true;
+            }
+            if (startDrain) {
+                executor.execute(this::drain);
+            }
+        }
+
+        public void remove() {
+            removed = true;
+            mailboxes.remove(this);
+            synchronized (this) {
+                queue.clear();
+            }
+        }
+
+        synchronized int size() {
+            return queue.size();
+        }
+
+        /**
+         * Führt das Event mit einem wartenden Event desselben Schlüssels zusammen
+         */
+        private boolean coalesce(E event) {
+            Object key = coalesceKey.apply(event);
+            if (key == null) {
+                return false;
+            }
+            for (Pending<E> pending : queue) {
+                if (key.equals(coalesceKey.apply(pending.event))) {
+                    pending.event = merger.apply(pending.event, event);
+                    coalesced.incrementAndGet();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void drain() {
+            while (true) {
+                Pending<E> next;
+                synchronized (this) {
+                    next = queue.pollFirst();
+                    if (next == null || removed) {
+                        draining = false;
+                        return;
+                    }
+                }
+                recordLatency(next.enqueuedAt);
+                delivered.incrementAndGet();
+                try {
+                    listener.accept(next.event);
+                } catch (Exception e) {
+                    log.error("{}: Fehler im Listener: {}", name, e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    private static final class Pending<E> {
+        private E event;
+        private final long enqueuedAt;
+
+        private Pending(E event, long enqueuedAt) {
+            this.event = event;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+
+    /**
+     * Rückstau-Metriken eines Broadcasters
+     *
+     * @param queueDepth       Summe der wartenden Events über alle Mailboxen
+     * @param maxQueueDepth    Größte einzelne Mailbox
+     * @param avgLatencyMillis Mittlere Wartezeit vom Versand bis zur Auslieferung
+     */
+    public record Metrics(int listeners, int queueDepth, int maxQueueDepth, long published, long delivered,
+                          long coalesced, long dropped, double avgLatencyMillis, double maxLatencyMillis) {}
+}
@@ -0,0 +1,125 @@
+package com.hydro.plsbl.service;
+
+import com.hydro.plsbl.dto.IngotDTO;
+import com.hydro.plsbl.service.CraneJobSequencer.Position;
+import com.hydro.plsbl.service.TruckLoadPlanner.LoadPlan;
+import com.hydro.plsbl.simulator.CraneSimulatorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Beladungsplanung fuer die BeladungView (LKW-Beladung aus dem Lager).
+ *
+ * Die Planung selbst uebernimmt der {@link TruckLoadPlanner}; dieser Service liefert
+ * die Ladezone aus den Einstellungen (LOADING_ZONE_*), die Kran-Positionen der
+ * Lagerplaetze aus dem Platzierungs-Index (ohne DB-Zugriff) und die Fahrzeit aus dem
+ * Bewegungsmodell des Simulators (beladener Greifer). Die Ablage beim Beladen nutzt
+ * dieselben Positionen ({@link #releasePosition}), damit Plan und Kranfahrt uebereinstimmen.
+ */
+@Service
+public class LoadPlanningService {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadPlanningService.class);
+
+    // Rueckfall, solange keine Ladezone eingestellt ist (Trailer-Position wie BeladungView)
+    private static final int TRAILER_X = 40000;
+    private static final int TRAILER_Y = 2000;
+    private static final int TRAILER_Z = 2000;
+
+    private final SettingsService settingsService;
+    private final StockyardPlacementService placementService;
+    private final TruckLoadPlanner planner;
+    private final long budgetMs;
+    private final int maxImbalancePercent;
+
+    public LoadPlanningService(SettingsService settingsService,
+                               StockyardPlacementService placementService,
+                               CraneSimulatorService simulatorService,
+                               @Value("${plsbl.loading.plan-budget-ms:250}") long budgetMs,
+                               @Value("${plsbl.loading.max-imbalance-percent:20}") int maxImbalancePercent) {
+        this.settingsService = settingsService;
+        this.placementService = placementService;
+        this.budgetMs = budgetMs;
+        this.maxImbalancePercent = maxImbalancePercent;
+        this.planner = new TruckLoadPlanner(
+            (from, to) -> simulatorService.getMotionModel().estimateTravelSeconds(
+                from.x(), from.y(), to.x(), to.y(), true));
+    }
+
+    /**
+     * Plant eine Beladung
+     *
+     * @param stock       verfuegbare Barren
+     * @param maxCount    max. Anzahl Barren (bereits auf die Restmenge des Abrufs begrenzt)
+     * @param maxWeightKg max. Gesamtgewicht in kg
+     * @param productId   Produkt des Abrufs (null = beliebig)
+     */
+    public LoadPlan plan(List<IngotDTO> stock, int maxCount, int maxWeightKg, Long productId) {
+        SettingsService.Snapshot settings = settingsService.getSnapshot();
+        Position front = new Position(frontX(settings), zoneY(settings));
+        Position rear = new Position(rearX(settings), zoneY(settings));
+
+        long start = System.currentTimeMillis();
+        LoadPlan plan = planner.plan(stock,
+            new TruckLoadPlanner.Request(maxCount, maxWeightKg, productId, maxImbalancePercent, front, rear, budgetMs),
+            this::yardPosition);
+
+        log.info("Beladung geplant in {} ms: {} von {} Barren, {} kg (vorne {} / hinten {}), Kranfahrt {} s{}{}{}",
+            System.currentTimeMillis() - start, plan.ingots().size(), stock.size(), plan.weightKg(),
+            plan.frontWeightKg(), plan.rearWeightKg(), Math.round(plan.travelSeconds()),
+            plan.longIngots() ? ", Langbarren" : "",
+            plan.productMatched() ? "" : ", ohne Barren des Abruf-Produkts",
+            plan.searchCompleted() ? "" : ", Zeitbudget erreicht");
+        return plan;
+    }
+
+    /**
+     * Ablage-Position auf dem LKW fuer einen Barren der Beladung
+     *
+     * @param loadIndex  Position des Barrens in der Ladereihenfolge (0 = erster Barren)
+     * @param frontCount Barren vorne laut Plan ({@link LoadPlan#frontCount()}), die ersten in
+     *                   Ladereihenfolge; negativ = ohne Plan, Ablage in der Mitte der Ladezone
+     */
+    public ReleasePosition releasePosition(int loadIndex, int frontCount) {
+        SettingsService.Snapshot settings = settingsService.getSnapshot();
+        int x;
+        if (frontCount < 0) {
+            x = middleX(settings);
+        } else {
+            x = loadIndex < frontCount ? frontX(settings) : rearX(settings);
+        }
+        int z = settings.loadingZoneZ > 0 ? settings.loadingZoneZ : TRAILER_Z;
+        return new ReleasePosition(x, zoneY(settings), z);
+    }
+
+    /**
+     * Kran-Position der Ablage auf dem LKW (in mm)
+     */
+    public record ReleasePosition(int x, int y, int z) {}
+
+    private static int zoneY(SettingsService.Snapshot settings) {
+        return settings.loadingZoneY > 0 ? settings.loadingZoneY : TRAILER_Y;
+    }
+
+    private static int middleX(SettingsService.Snapshot settings) {
+        return settings.loadingZoneMiddleX > 0 ? settings.loadingZoneMiddleX : TRAILER_X;
+    }
+
+    private static int frontX(SettingsService.Snapshot settings) {
+        return settings.loadingZoneFrontX > 0 ? settings.loadingZoneFrontX : middleX(settings);
+    }
+
+    private static int rearX(SettingsService.Snapshot settings) {
+        return settings.loadingZoneRearX > 0 ? settings.loadingZoneRearX : middleX(settings);
+    }
+
+    private Position yardPosition(Long stockyardId) {
+        return placementService.findYard(stockyardId)
+            .map(yard -> new Position(yard.getXPosition(), yard.getYPosition()))
+            .orElse(null);
+    }
+}
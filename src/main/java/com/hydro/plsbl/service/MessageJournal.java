@@ -0,0 +1,181 @@
+package com.hydro.plsbl.service;
+
+import com.hydro.plsbl.service.MessageService.MessageCategory;
+import com.hydro.plsbl.service.MessageService.MessageFilter;
+import com.hydro.plsbl.service.MessageService.MessageType;
+import com.hydro.plsbl.service.MessageService.SystemMessage;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Persistentes Meldungs-Journal (TD_MESSAGE)
+ *
+ * Reine Datenbank-Zugriffe; Pufferung und Schreib-Zeitpunkt bestimmt der MessageService.
+ * Abfragen sind seitenweise (neueste zuerst), damit die Meldungs-Ansicht auch bei
+ * langer Historie nur die sichtbaren Zeilen laedt.
+ */
+@Service
+public class MessageJournal {
+
+    private static final String COLUMNS = "ID, MSG_TYPE, CATEGORY, CODE, TEXT, SOURCE, CREATED, OCCURRENCES, " +
+        "ACKNOWLEDGED, ACKNOWLEDGED_AT, CONDITION_CLEARED, CLEARED_AT";
+
+    private static final RowMapper<SystemMessage> ROW_MAPPER = (rs, rowNum) -> new SystemMessage(
+        rs.getLong("ID"),
+        MessageType.valueOf(rs.getString("MSG_TYPE")),
+        MessageCategory.valueOf(rs.getString("CATEGORY")),
+        rs.getString("CODE"),
+        rs.getString("TEXT"),
+        rs.getString("SOURCE"),
+        toLocalDateTime(rs.getTimestamp("CREATED")),
+        rs.getInt("OCCURRENCES"),
+        rs.getBoolean("ACKNOWLEDGED"),
+        toLocalDateTime(rs.getTimestamp("ACKNOWLEDGED_AT")),
+        rs.getBoolean("CONDITION_CLEARED"),
+        toLocalDateTime(rs.getTimestamp("CLEARED_AT")));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IdAllocator idAllocator;
+
+    public MessageJournal(JdbcTemplate jdbcTemplate, IdAllocator idAllocator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idAllocator = idAllocator;
+    }
+
+    public long nextId() {
+        return idAllocator.nextId("TD_MESSAGE");
+    }
+
+    // ========================================================================
+    // Schreiben
+    // ========================================================================
+
+    public void insert(List<SystemMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO TD_MESSAGE (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            messages.stream().map(m -> new Object[] {
+                m.getId(), m.getType().name(), m.getCategory().name(),
+                truncate(m.getCode(), 100), truncate(m.getText(), 500), truncate(m.getSource(), 100),
+                Timestamp.valueOf(m.getCreatedAt()), m.getCount(),
+                m.isAcknowledged(), toTimestamp(m.getAcknowledgedAt()),
+                m.isConditionCleared(), toTimestamp(m.getClearedAt())
+            }).toList());
+    }
+
+    /**
+     * Schreibt den veraenderlichen Teil (Anzahl, Quittierung, Behebung)
+     */
+    public void update(List<SystemMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+            "UPDATE TD_MESSAGE SET OCCURRENCES = ?, ACKNOWLEDGED = ?, ACKNOWLEDGED_AT = ?, " +
+            "CONDITION_CLEARED = ?, CLEARED_AT = ? WHERE ID = ?",
+            messages.stream().map(m -> new Object[] {
+                m.getCount(), m.isAcknowledged(), toTimestamp(m.getAcknowledgedAt()),
+                m.isConditionCleared(), toTimestamp(m.getClearedAt()), m.getId()
+            }).toList());
+    }
+
+    /**
+     * Loescht abgeschlossene (quittierte und behobene) Meldungen vor dem Stichtag
+     *
+     * @return Anzahl geloeschter Meldungen
+     */
+    public int purge(LocalDateTime before) {
+        return jdbcTemplate.update(
+            "DELETE FROM TD_MESSAGE WHERE CREATED < ? AND ACKNOWLEDGED = ? AND CONDITION_CLEARED = ?",
+            Timestamp.valueOf(before), true, true);
+    }
+
+    // ========================================================================
+    // Lesen
+    // ========================================================================
+
+    /**
+     * Eine Seite Meldungen (neueste zuerst)
+     */
+    public List<SystemMessage> find(MessageFilter filter, int offset, int limit) {
+        List<Object> params = new ArrayList<>();
+        String where = where(filter, params);
+        params.add(offset);
+        params.add(limit);
+        return jdbcTemplate.query(
+            "SELECT " + COLUMNS + " FROM TD_MESSAGE" + where + " ORDER BY ID DESC OFFSET ? ROWS FETCH NEXT ? ROWS ONLY",
+            ROW_MAPPER, params.toArray());
+    }
+
+    public int count(MessageFilter filter) {
+        List<Object> params = new ArrayList<>();
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM TD_MESSAGE" + where(filter, params),
+            Integer.class, params.toArray());
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Offene Meldungen (unquittiert oder Bedingung noch anliegend), aelteste zuerst
+     */
+    public List<SystemMessage> findOpen() {
+        return jdbcTemplate.query(
+            "SELECT " + COLUMNS + " FROM TD_MESSAGE WHERE ACKNOWLEDGED = ? OR CONDITION_CLEARED = ? ORDER BY ID",
+            ROW_MAPPER, false, false);
+    }
+
+    /**
+     * Neueste Meldungen (neueste zuerst)
+     */
+    public List<SystemMessage> findRecent(int limit) {
+        return find(MessageFilter.ALL, 0, limit);
+    }
+
+    private static String where(MessageFilter filter, List<Object> params) {
+        List<String> conditions = new ArrayList<>();
+        if (filter.type() != null) {
+            conditions.add("MSG_TYPE = ?");
+            params.add(filter.type().name());
+        }
+        if (filter.category() != null) {
+            conditions.add("CATEGORY = ?");
+            params.add(filter.category().name());
+        }
+        if (filter.state() != null) {
+            switch (filter.state()) {
+                case ACTIVE -> {
+                    conditions.add("ACKNOWLEDGED = ?");
+                    params.add(false);
+                }
+                case ACKNOWLEDGED -> {
+                    conditions.add("ACKNOWLEDGED = ? AND CONDITION_CLEARED = ?");
+                    params.add(true);
+                    params.add(false);
+                }
+                case CLEARED -> {
+                    conditions.add("CONDITION_CLEARED = ?");
+                    params.add(true);
+                }
+            }
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime time) {
+        return time != null ? Timestamp.valueOf(time) : null;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+}
@@ -1,58 +1,147 @@
 package com.hydro.plsbl.service;
 
 import com.hydro.plsbl.plc.PlcService;
+import com.hydro.plsbl.plc.PlcStatusChange;
 import com.hydro.plsbl.plc.dto.PlcStatus;
 import com.hydro.plsbl.simulator.CraneSimulatorService;
+import com.hydro.plsbl.simulator.SimulationClock;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Service für System-Meldungen (Alarme, Warnungen, Info).
  *
  * Speichert alle Meldungen mit Historie und ermöglicht Quittierung.
- * Meldungen werden persistent gehalten und können gefiltert werden.
  * Überwacht auch Tür-/Tor-Status und erzeugt entsprechende Alarme.
+ *
+ * Tür-Überwachung:
+ * - Ausgelöst durch Status-Änderungen des PlcService (Feld DOORS), nicht durch Polling
+ * - Die Türen werden als Bitmaske geführt; per XOR mit der letzten Maske werden nur die
+ *   tatsächlich geänderten Türen ausgewertet
+ * - Öffnen löst sofort Alarm und Sicherheitsstopp aus; Schließen gilt erst, wenn die Tür
+ *   plsbl.messages.door-debounce-ms lang geschlossen bleibt (Entprellung pro Tür)
+ *
+ * Speicherung:
+ * - Journal in der Datenbank (TD_MESSAGE), gepuffert und periodisch im Block geschrieben;
+ *   offene Meldungen werden beim Start wieder geladen
+ * - Im Speicher nur die neuesten Meldungen (Ring) sowie Indizes für unquittierte und
+ *   aktive Meldungen - Speicher und Aufwand bleiben auch bei langer Laufzeit konstant
+ * - Vollständige Historie seitenweise über findMessages() aus dem Journal
+ * - Abgeschlossene Meldungen werden nach plsbl.messages.retention-days gelöscht
+ * - Ist das Journal nicht erreichbar (z.B. TD_MESSAGE fehlt), laufen Meldungen nur im
+ *   Speicher weiter; das wird einmalig als Fehler protokolliert und als System-Warnung
+ *   JOURNAL_UNAVAILABLE angezeigt, bis das Journal wieder schreibbar ist
  */
 @Service
 public class MessageService {
 
     private static final Logger log = LoggerFactory.getLogger(MessageService.class);
     private static final int MAX_HISTORY_SIZE = 1000;
+    private static final int MAX_PENDING_WRITES = 10_000;
+
+    /** Code der System-Warnung, solange das Journal nicht erreichbar ist */
+    public static final String JOURNAL_UNAVAILABLE = "JOURNAL_UNAVAILABLE";
 
     private final PlcService plcService;
     private final CraneSimulatorService simulatorService;
+    private final MessageJournal journal;
+    private final SimulationClock clock;
+    private final int retentionDays;
+    private final long doorDebounceMs;
 
-    // Alle Meldungen (aktive + Historie)
-    private final List<SystemMessage> allMessages = new CopyOnWriteArrayList<>();
+    // Neueste Meldungen (Ring, neueste zuerst) - Zugriff nur unter Lock auf recentMessages
+    private final Deque<SystemMessage> recentMessages = new ArrayDeque<>();
+
+    // Unquittierte Meldungen nach ID (bleiben auch nach Verdrängung aus dem Ring erhalten)
+    private final Map<Long, SystemMessage> unacknowledgedMessages = new ConcurrentHashMap<>();
 
     // Aktive (nicht quittierte oder noch anliegende) Meldungen
     private final Map<String, SystemMessage> activeMessages = new ConcurrentHashMap<>();
 
-    // ID-Generator
-    private final AtomicLong idGenerator = new AtomicLong(1);
+    // Noch nicht ins Journal geschriebene Änderungen
+    private final Queue<SystemMessage> pendingInserts = new ConcurrentLinkedQueue<>();
+    private final Set<SystemMessage> pendingUpdates = ConcurrentHashMap.newKeySet();
+    private final Object flushLock = new Object();
+
+    // Ersatz-IDs, falls das Journal keine ID liefern kann (Meldung wird dann nicht gespeichert)
+    private final AtomicLong fallbackIds = new AtomicLong();
+    private final AtomicBoolean journalUnavailable = new AtomicBoolean();
 
     // Listener für Meldungs-Änderungen
     private final List<Consumer<MessageEvent>> listeners = new CopyOnWriteArrayList<>();
 
-    // Letzter bekannter Tür-Status für Änderungserkennung
-    private boolean lastDoor1Open = false;
-    private boolean lastDoor7Open = false;
-    private boolean lastDoor10Open = false;
-    private boolean lastGatesOpen = false;
-    private boolean lastDoorsOpen = false;
+    // Tür-Status als Bitmaske (Bit = Door.bit), Zugriff nur unter Lock auf doorLock
+    private final Object doorLock = new Object();
+    private int doorMask = 0;                                   // entprellter Stand (Alarme)
+    private int pendingCloseMask = 0;                           // geschlossen, Entprellung läuft
+    private final long[] pendingCloseSince = new long[Door.values().length];
 
-    public MessageService(PlcService plcService, CraneSimulatorService simulatorService) {
+    public MessageService(PlcService plcService, CraneSimulatorService simulatorService,
+                          MessageJournal journal, SimulationClock clock,
+                          @Value("${plsbl.messages.retention-days:90}") int retentionDays,
+                          @Value("${plsbl.messages.door-debounce-ms:500}") long doorDebounceMs) {
         this.plcService = plcService;
         this.simulatorService = simulatorService;
+        this.journal = journal;
+        this.clock = clock;
+        this.retentionDays = retentionDays;
+        this.doorDebounceMs = doorDebounceMs;
+    }
+
+    /**
+     * Lädt offene und neueste Meldungen aus dem Journal
+     */
+    @PostConstruct
+    public void restore() {
+        try {
+            Map<Long, SystemMessage> open = new HashMap<>();
+            for (SystemMessage msg : journal.findOpen()) {
+                open.put(msg.getId(), msg);
+                if (!msg.isAcknowledged()) {
+                    unacknowledgedMessages.put(msg.getId(), msg);
+                }
+                activeMessages.put(msg.getCategory() + "_" + msg.getCode(), msg);
+                if (msg.getCategory() == MessageCategory.DOOR && !msg.isConditionCleared()) {
+                    // Tür galt als offen: beim nächsten Status wird das Schließen erkannt
+                    restoreDoorOpen(msg.getCode());
+                }
+            }
+            synchronized (recentMessages) {
+                for (SystemMessage msg : journal.findRecent(MAX_HISTORY_SIZE)) {
+                    recentMessages.addLast(open.getOrDefault(msg.getId(), msg));
+                }
+            }
+            if (!open.isEmpty()) {
+                log.info("Meldungs-Journal: {} offene Meldungen wiederhergestellt ({} unquittiert)",
+                    open.size(), unacknowledgedMessages.size());
+            }
+        } catch (DataAccessException e) {
+            journalFailed("Lesen beim Start", e);
+        }
+
+        // Tür-Alarme ereignisgesteuert aus der SPS-Status-Pipeline
+        plcService.addStatusChangeListener(change -> {
+            if (change.affects(PlcStatusChange.Field.DOORS)) {
+                evaluateDoors(change.getCurrent());
+            }
+        });
     }
 
     /**
@@ -60,29 +149,31 @@ public class MessageService {
      */
     public SystemMessage createMessage(MessageType type, MessageCategory category,
                                         String code, String text, String source) {
-        SystemMessage msg = new SystemMessage(
-            idGenerator.getAndIncrement(),
-            type, category, code, text, source
-        );
-
         // Prüfen ob gleiche Meldung bereits aktiv ist
         String key = category + "_" + code;
-        if (activeMessages.containsKey(key)) {
+        SystemMessage existing = activeMessages.get(key);
+        if (existing != null) {
             // Bereits aktiv - nur Counter erhöhen
-            SystemMessage existing = activeMessages.get(key);
             existing.incrementCount();
+            markChanged(existing);
             log.debug("Meldung bereits aktiv: {} (count={})", key, existing.getCount());
             notifyListeners(new MessageEvent(MessageEventType.UPDATED, existing));
             return existing;
         }
 
-        // Neue Meldung hinzufügen
-        allMessages.add(0, msg);  // Neueste zuerst
-        activeMessages.put(key, msg);
+        SystemMessage msg = new SystemMessage(nextId(), type, category, code, text, source);
 
-        // Historie begrenzen
-        while (allMessages.size() > MAX_HISTORY_SIZE) {
-            allMessages.remove(allMessages.size() - 1);
+        // Neue Meldung hinzufügen, Historie im Speicher begrenzen
+        synchronized (recentMessages) {
+            recentMessages.addFirst(msg);  // Neueste zuerst
+            while (recentMessages.size() > MAX_HISTORY_SIZE) {
+                recentMessages.removeLast();
+            }
+        }
+        activeMessages.put(key, msg);
+        unacknowledgedMessages.put(msg.getId(), msg);
+        if (msg.getId() > 0) {
+            pendingInserts.add(msg);
         }
 
         log.info("MELDUNG: [{}] {} - {} ({})", type, category, text, code);
@@ -123,28 +214,28 @@ public class MessageService {
      * Meldung quittieren
      */
     public boolean acknowledge(Long messageId) {
-        for (SystemMessage msg : allMessages) {
-            if (msg.getId().equals(messageId) && !msg.isAcknowledged()) {
-                msg.setAcknowledged(true);
-                msg.setAcknowledgedAt(LocalDateTime.now());
-                log.info("Meldung quittiert: {} - {}", msg.getCode(), msg.getText());
-                notifyListeners(new MessageEvent(MessageEventType.ACKNOWLEDGED, msg));
-
-                // Wenn Bedingung behoben ist, aus aktiven entfernen
-                if (msg.isConditionCleared()) {
-                    String key = msg.getCategory() + "_" + msg.getCode();
-                    activeMessages.remove(key);
-                    notifyListeners(new MessageEvent(MessageEventType.CLEARED, msg));
-                }
+        SystemMessage msg = unacknowledgedMessages.remove(messageId);
+        if (msg == null) {
+            return false;
+        }
+        msg.setAcknowledged(true);
+        msg.setAcknowledgedAt(LocalDateTime.now());
+        markChanged(msg);
+        log.info("Meldung quittiert: {} - {}", msg.getCode(), msg.getText());
+        notifyListeners(new MessageEvent(MessageEventType.ACKNOWLEDGED, msg));
+
+        // Wenn Bedingung behoben ist, aus aktiven entfernen
+        if (msg.isConditionCleared()) {
+            String key = msg.getCategory() + "_" + msg.getCode();
+            activeMessages.remove(key, msg);
+            notifyListeners(new MessageEvent(MessageEventType.CLEARED, msg));
+        }
 
-                // Bei Tür-Alarm prüfen ob Kran fortgesetzt werden kann
-                if (msg.getCategory() == MessageCategory.DOOR) {
-                    checkAndResumeCrane();
-                }
-                return true;
-            }
+        // Bei Tür-Alarm prüfen ob Kran fortgesetzt werden kann
+        if (msg.getCategory() == MessageCategory.DOOR) {
+            checkAndResumeCrane();
         }
-        return false;
+        return true;
     }
 
     /**
@@ -153,23 +244,25 @@ public class MessageService {
     public int acknowledgeAll() {
         int count = 0;
         boolean hadDoorAlarms = false;
-        for (SystemMessage msg : allMessages) {
-            if (!msg.isAcknowledged()) {
-                msg.setAcknowledged(true);
-                msg.setAcknowledgedAt(LocalDateTime.now());
-                notifyListeners(new MessageEvent(MessageEventType.ACKNOWLEDGED, msg));
-
-                if (msg.getCategory() == MessageCategory.DOOR) {
-                    hadDoorAlarms = true;
-                }
+        for (SystemMessage msg : getUnacknowledgedMessages()) {
+            if (unacknowledgedMessages.remove(msg.getId()) == null) {
+                continue;  // parallel quittiert
+            }
+            msg.setAcknowledged(true);
+            msg.setAcknowledgedAt(LocalDateTime.now());
+            markChanged(msg);
+            notifyListeners(new MessageEvent(MessageEventType.ACKNOWLEDGED, msg));
 
-                if (msg.isConditionCleared()) {
-                    String key = msg.getCategory() + "_" + msg.getCode();
-                    activeMessages.remove(key);
-                    notifyListeners(new MessageEvent(MessageEventType.CLEARED, msg));
-                }
-                count++;
+            if (msg.getCategory() == MessageCategory.DOOR) {
+                hadDoorAlarms = true;
+            }
+
+            if (msg.isConditionCleared()) {
+                String key = msg.getCategory() + "_" + msg.getCode();
+                activeMessages.remove(key, msg);
+                notifyListeners(new MessageEvent(MessageEventType.CLEARED, msg));
             }
+            count++;
         }
         if (count > 0) {
             log.info("{} Meldungen quittiert", count);
@@ -190,22 +283,26 @@ public class MessageService {
         if (msg != null) {
             msg.setConditionCleared(true);
             msg.setClearedAt(LocalDateTime.now());
+            markChanged(msg);
             log.info("Meldungs-Bedingung behoben: {} - {}", code, msg.getText());
             notifyListeners(new MessageEvent(MessageEventType.CONDITION_CLEARED, msg));
 
             // Wenn bereits quittiert, aus aktiven entfernen
             if (msg.isAcknowledged()) {
-                activeMessages.remove(key);
+                activeMessages.remove(key, msg);
                 notifyListeners(new MessageEvent(MessageEventType.CLEARED, msg));
             }
         }
     }
 
     /**
-     * Gibt alle Meldungen zurück (neueste zuerst)
+     * Gibt die neuesten Meldungen zurück (neueste zuerst, max. MAX_HISTORY_SIZE).
+     * Die vollständige Historie liefert findMessages().
      */
     public List<SystemMessage> getAllMessages() {
-        return new ArrayList<>(allMessages);
+        synchronized (recentMessages) {
+            return new ArrayList<>(recentMessages);
+        }
     }
 
     /**
@@ -216,19 +313,23 @@ public class MessageService {
     }
 
     /**
-     * Gibt unquittierte Meldungen zurück
+     * Gibt unquittierte Meldungen zurück (neueste zuerst)
      */
     public List<SystemMessage> getUnacknowledgedMessages() {
-        return allMessages.stream()
-            .filter(m -> !m.isAcknowledged())
+        return unacknowledgedMessages.values().stream()
+            .sorted(Comparator.comparing(SystemMessage::getId).reversed())
             .toList();
     }
 
+    public int getUnacknowledgedCount() {
+        return unacknowledgedMessages.size();
+    }
+
     /**
-     * Gibt Alarme zurück
+     * Gibt die neuesten Alarme zurück
      */
     public List<SystemMessage> getAlarms() {
-        return allMessages.stream()
+        return getAllMessages().stream()
             .filter(m -> m.getType() == MessageType.ALARM)
             .toList();
     }
@@ -237,8 +338,45 @@ public class MessageService {
      * Prüft ob unquittierte Alarme existieren
      */
     public boolean hasUnacknowledgedAlarms() {
-        return allMessages.stream()
-            .anyMatch(m -> m.getType() == MessageType.ALARM && !m.isAcknowledged());
+        return unacknowledgedMessages.values().stream()
+            .anyMatch(m -> m.getType() == MessageType.ALARM);
+    }
+
+    /**
+     * Eine Seite der Meldungs-Historie aus dem Journal (neueste zuerst).
+     * Ist das Journal nicht erreichbar, wird auf die Meldungen im Speicher ausgewichen.
+     */
+    public List<SystemMessage> findMessages(MessageFilter filter, int offset, int limit) {
+        flush();
+        try {
+            return journal.find(filter, offset, limit).stream()
+                .map(this::current)
+                .toList();
+        } catch (DataAccessException e) {
+            journalFailed("Lesen", e);
+            return getAllMessages().stream().filter(filter::matches).skip(offset).limit(limit).toList();
+        }
+    }
+
+    /**
+     * Anzahl der Meldungen im Journal zum Filter
+     */
+    public int countMessages(MessageFilter filter) {
+        flush();
+        try {
+            return journal.count(filter);
+        } catch (DataAccessException e) {
+            journalFailed("Zählen", e);
+            return (int) getAllMessages().stream().filter(filter::matches).count();
+        }
+    }
+
+    /**
+     * Für unquittierte Meldungen die Instanz im Speicher (Quittierung wirkt dann sofort in der Anzeige)
+     */
+    private SystemMessage current(SystemMessage stored) {
+        SystemMessage live = unacknowledgedMessages.get(stored.getId());
+        return live != null ? live : stored;
     }
 
     /**
@@ -271,36 +409,70 @@ public class MessageService {
     }
 
     /**
-     * Prüft den aktuellen Status und aktualisiert Tür-Alarme.
-     * Sollte regelmäßig vom Polling aufgerufen werden.
+     * Bestätigt Tür-Schließungen, deren Entprell-Zeit abgelaufen ist
+     * (ohne weiteres Status-Event, wenn die Tür geschlossen bleibt)
      */
-    public void checkStatus() {
-        PlcStatus status = getCurrentStatus();
-        if (status == null) return;
-
-        // Tür-Status prüfen und Alarme erzeugen/löschen
-        checkDoorStatus("DOOR_1", status.isDoor1Open(), lastDoor1Open, "Tor 1 (oben bei 17/10)");
-        checkDoorStatus("DOOR_7", status.isDoor7Open(), lastDoor7Open, "Tor 7 (unten bei 17/01)");
-        checkDoorStatus("DOOR_10", status.isDoor10Open(), lastDoor10Open, "Tor 10 (Fahrer-Tor)");
-        checkDoorStatus("GATES_6_8", status.isGatesOpen(), lastGatesOpen, "Tore 6 & 8 (Einfahrt/Ausfahrt)");
-        checkDoorStatus("DOORS_OTHER", status.isDoorsOpen(), lastDoorsOpen, "Tueren 2,3,4,5,9");
+    @Scheduled(fixedDelayString = "${plsbl.messages.door-debounce-check-ms:100}")
+    public void confirmClosedDoors() {
+        synchronized (doorLock) {
+            if (pendingCloseMask != 0) {
+                // Entprellte Türen gelten weiter als geschlossen
+                applyDoorMask(doorMask & ~pendingCloseMask, clock.millis());
+            }
+        }
+    }
 
-        // Status merken
-        lastDoor1Open = status.isDoor1Open();
-        lastDoor7Open = status.isDoor7Open();
-        lastDoor10Open = status.isDoor10Open();
-        lastGatesOpen = status.isGatesOpen();
-        lastDoorsOpen = status.isDoorsOpen();
+    /**
+     * Wertet die Tür-Bits eines Status aus (nur geänderte Türen)
+     */
+    void evaluateDoors(PlcStatus status) {
+        synchronized (doorLock) {
+            applyDoorMask(Door.mask(status), clock.millis());
+        }
     }
 
-    private void checkDoorStatus(String code, boolean isOpen, boolean wasOpen, String description) {
-        if (isOpen && !wasOpen) {
-            // Tür wurde geöffnet - Alarm erzeugen und Kran SOFORT stoppen!
-            alarm(MessageCategory.DOOR, code, description + " ist offen", "SPS");
-            pauseCrane();
-        } else if (!isOpen && wasOpen) {
-            // Tür wurde geschlossen - Bedingung behoben
-            clearCondition(MessageCategory.DOOR.name(), code);
+    /**
+     * @param mask Gelesene Tür-Bits (1 = offen)
+     */
+    private void applyDoorMask(int mask, long now) {
+        // Wieder geöffnet während der Entprellung: Schließen verwerfen, Alarm bleibt
+        pendingCloseMask &= ~mask;
+
+        int changed = mask ^ doorMask;
+        if (changed == 0 && pendingCloseMask == 0) {
+            return;
+        }
+
+        int opened = changed & mask;
+        int closed = changed & ~mask & ~pendingCloseMask;
+        for (Door door : Door.values()) {
+            if ((closed & door.bit) != 0) {
+                pendingCloseMask |= door.bit;
+                pendingCloseSince[door.ordinal()] = now;
+            }
+        }
+
+        int confirmed = 0;
+        for (Door door : Door.values()) {
+            if ((pendingCloseMask & door.bit) != 0
+                    && now - pendingCloseSince[door.ordinal()] >= doorDebounceMs) {
+                confirmed |= door.bit;
+            }
+        }
+        pendingCloseMask &= ~confirmed;
+        doorMask = (doorMask | opened) & ~confirmed;
+
+        for (Door door : Door.values()) {
+            if ((opened & door.bit) != 0) {
+                // Tür wurde geöffnet - Alarm erzeugen und Kran SOFORT stoppen!
+                alarm(MessageCategory.DOOR, door.name(), door.description + " ist offen", "SPS");
+                pauseCrane();
+            } else if ((confirmed & door.bit) != 0) {
+                // Tür wurde geschlossen - Bedingung behoben
+                clearCondition(MessageCategory.DOOR.name(), door.name());
+            }
+        }
+        if (confirmed != 0) {
             // Kran wird erst fortgesetzt wenn ALLE Türen zu UND ALLE Alarme quittiert sind
             checkAndResumeCrane();
         }
@@ -336,19 +508,140 @@ public class MessageService {
         }
     }
 
-    private PlcStatus getCurrentStatus() {
-        if (plcService.isSimulatorMode()) {
-            // Im Simulator-Modus Status vom Simulator holen
-            var simStatus = simulatorService.getSimulatorStatus();
-            PlcStatus status = new PlcStatus();
-            status.setDoor1Open(simStatus.door1Open());
-            status.setDoor7Open(simStatus.door7Open());
-            status.setDoor10Open(simStatus.door10Open());
-            status.setGatesOpen(simStatus.gatesOpen());
-            status.setDoorsOpen(simStatus.doorsOpen());
-            return status;
+    private void restoreDoorOpen(String code) {
+        for (Door door : Door.values()) {
+            if (door.name().equals(code)) {
+                synchronized (doorLock) {
+                    doorMask |= door.bit;
+                }
+            }
+        }
+    }
+
+    // === Journal ===
+
+    private long nextId() {
+        try {
+            return journal.nextId();
+        } catch (DataAccessException e) {
+            // Meldung darf nicht an der Datenbank scheitern - dann nur im Speicher
+            journalFailed("ID-Vergabe", e);
+            return fallbackIds.decrementAndGet();
+        }
+    }
+
+    /**
+     * Journal nicht erreichbar: beim ersten Mal Fehler-Log und System-Warnung, danach nur Warn-Log
+     */
+    private void journalFailed(String action, DataAccessException e) {
+        if (journalUnavailable.compareAndSet(false, true)) {
+            log.error("Meldungs-Journal nicht verfügbar ({}), Meldungen werden nur im Speicher gehalten: {}",
+                action, e.getMessage(), e);
+            warning(MessageCategory.SYSTEM, JOURNAL_UNAVAILABLE,
+                "Meldungs-Journal nicht verfügbar - Meldungen werden nicht gespeichert", "MessageService");
         } else {
-            return plcService.getCurrentStatus();
+            log.warn("Meldungs-Journal nicht verfügbar ({}): {}", action, e.getMessage());
+        }
+    }
+
+    private void journalWritten() {
+        if (journalUnavailable.compareAndSet(true, false)) {
+            log.info("Meldungs-Journal wieder verfügbar");
+            clearCondition(MessageCategory.SYSTEM.name(), JOURNAL_UNAVAILABLE);
+        }
+    }
+
+    /**
+     * false, solange Meldungen nur im Speicher gehalten werden
+     */
+    public boolean isJournalAvailable() {
+        return !journalUnavailable.get();
+    }
+
+    private void markChanged(SystemMessage msg) {
+        if (msg.getId() > 0) {
+            pendingUpdates.add(msg);
+        }
+    }
+
+    /**
+     * Schreibt gepufferte Meldungen und Änderungen im Block ins Journal
+     */
+    @Scheduled(fixedDelayString = "${plsbl.messages.flush-interval:1000}")
+    @PreDestroy
+    public void flush() {
+        synchronized (flushLock) {
+            List<SystemMessage> inserts = new ArrayList<>();
+            for (SystemMessage msg; (msg = pendingInserts.poll()) != null; ) {
+                inserts.add(msg);
+            }
+            // Neue Meldungen werden mit aktuellem Stand eingefügt, brauchen kein Update
+            Set<SystemMessage> inserted = Collections.newSetFromMap(new IdentityHashMap<>());
+            inserted.addAll(inserts);
+            List<SystemMessage> updates = new ArrayList<>();
+            for (Iterator<SystemMessage> it = pendingUpdates.iterator(); it.hasNext(); ) {
+                SystemMessage msg = it.next();
+                it.remove();
+                if (!inserted.contains(msg)) {
+                    updates.add(msg);
+                }
+            }
+            if (inserts.isEmpty() && updates.isEmpty()) {
+                return;
+            }
+
+            try {
+                journal.insert(inserts);
+            } catch (DataAccessException e) {
+                journalFailed(inserts.size() + " neue Meldungen speichern, neuer Versuch folgt", e);
+                pendingInserts.addAll(inserts);
+                pendingUpdates.addAll(updates);
+                trimPending();
+                return;
+            }
+            try {
+                journal.update(updates);
+            } catch (DataAccessException e) {
+                journalFailed(updates.size() + " Änderungen speichern, neuer Versuch folgt", e);
+                pendingUpdates.addAll(updates);
+                return;
+            }
+            journalWritten();
+        }
+    }
+
+    /**
+     * Begrenzt den Schreibpuffer, falls das Journal längere Zeit nicht erreichbar ist
+     */
+    private void trimPending() {
+        int dropped = 0;
+        while (pendingInserts.size() > MAX_PENDING_WRITES && pendingInserts.poll() != null) {
+            dropped++;
+        }
+        if (dropped > 0) {
+            log.error("Meldungs-Journal: {} älteste Meldungen verworfen (Puffer voll)", dropped);
+        }
+    }
+
+    /**
+     * Löscht abgeschlossene Meldungen, die älter als die Aufbewahrungsdauer sind
+     */
+    @Scheduled(fixedDelayString = "${plsbl.messages.retention-check-interval:3600000}",
+               initialDelayString = "${plsbl.messages.retention-check-interval:3600000}")
+    public int purgeExpired() {
+        if (retentionDays <= 0) {
+            return 0;
+        }
+        flush();
+        try {
+            int deleted = journal.purge(LocalDateTime.now().minusDays(retentionDays));
+            if (deleted > 0) {
+                log.info("Meldungs-Journal: {} Meldungen älter als {} Tage gelöscht", deleted, retentionDays);
+            }
+            return deleted;
+        } catch (DataAccessException e) {
+            log.warn("Meldungs-Journal: Aufräumen fehlgeschlagen: {}", e.getMessage());
+            return 0;
         }
     }
 
@@ -378,6 +671,36 @@ public class MessageService {
 
     // === Inner Classes ===
 
+    /**
+     * Überwachte Türen/Tore; der Name ist der Meldungs-Code
+     */
+    private enum Door {
+        DOOR_1("Tor 1 (oben bei 17/10)", PlcStatus::isDoor1Open),
+        DOOR_7("Tor 7 (unten bei 17/01)", PlcStatus::isDoor7Open),
+        DOOR_10("Tor 10 (Fahrer-Tor)", PlcStatus::isDoor10Open),
+        GATES_6_8("Tore 6 & 8 (Einfahrt/Ausfahrt)", PlcStatus::isGatesOpen),
+        DOORS_OTHER("Tueren 2,3,4,5,9", PlcStatus::isDoorsOpen);
+
+        private final String description;
+        private final Predicate<PlcStatus> open;
+        private final int bit = 1 << ordinal();
+
+        Door(String description, Predicate<PlcStatus> open) {
+            this.description = description;
+            this.open = open;
+        }
+
+        static int mask(PlcStatus status) {
+            int mask = 0;
+            for (Door door : values()) {
+                if (door.open.test(status)) {
+                    mask |= door.bit;
+                }
+            }
+            return mask;
+        }
+    }
+
     public enum MessageType {
         ALARM("Alarm"),
         WARNING("Warnung"),
@@ -423,6 +746,44 @@ public class MessageService {
         CLEARED
     }
 
+    /**
+     * Status-Filter der Meldungs-Ansicht
+     */
+    public enum MessageState {
+        ACTIVE("Aktiv"),             // unquittiert
+        ACKNOWLEDGED("Quittiert"),   // quittiert, Bedingung liegt noch an
+        CLEARED("Behoben");          // Bedingung behoben
+
+        private final String displayName;
+
+        MessageState(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    /**
+     * Filter für Journal-Abfragen (null = keine Einschränkung)
+     */
+    public record MessageFilter(MessageType type, MessageCategory category, MessageState state) {
+
+        public static final MessageFilter ALL = new MessageFilter(null, null, null);
+
+        public boolean matches(SystemMessage msg) {
+            if (type != null && msg.getType() != type) return false;
+            if (category != null && msg.getCategory() != category) return false;
+            if (state == null) return true;
+            return switch (state) {
+                case ACTIVE -> !msg.isAcknowledged();
+                case ACKNOWLEDGED -> msg.isAcknowledged() && !msg.isConditionCleared();
+                case CLEARED -> msg.isConditionCleared();
+            };
+        }
+    }
+
     public static class MessageEvent {
         private final MessageEventType type;
         private final SystemMessage message;
@@ -463,6 +824,26 @@ public class MessageService {
             this.createdAt = LocalDateTime.now();
         }
 
+        /**
+         * Meldung aus dem Journal
+         */
+        public SystemMessage(Long id, MessageType type, MessageCategory category, String code, String text,
+                             String source, LocalDateTime createdAt, int count, boolean acknowledged,
+                             LocalDateTime acknowledgedAt, boolean conditionCleared, LocalDateTime clearedAt) {
+            this.id = id;
+            this.type = type;
+            this.category = category;
+            this.code = code;
+            this.text = text;
+            this.source = source;
+            this.createdAt = createdAt;
+            this.count = count;
+            this.acknowledged = acknowledged;
+            this.acknowledgedAt = acknowledgedAt;
+            this.conditionCleared = conditionCleared;
+            this.clearedAt = clearedAt;
+        }
+
         public Long getId() { return id; }
         public MessageType getType() { return type; }
         public MessageCategory getCategory() { return category; }
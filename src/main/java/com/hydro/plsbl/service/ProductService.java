@@ -23,10 +23,13 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final JdbcTemplate jdbcTemplate;
+    private final IdAllocator idAllocator;
 
-    public ProductService(ProductRepository productRepository, JdbcTemplate jdbcTemplate) {
+    public ProductService(ProductRepository productRepository, JdbcTemplate jdbcTemplate,
+                          IdAllocator idAllocator) {
         this.productRepository = productRepository;
         this.jdbcTemplate = jdbcTemplate;
+        this.idAllocator = idAllocator;
     }
 
     /**
@@ -151,14 +154,7 @@ public class ProductService {
      * Ermittelt die nächste freie ID
      */
     private Long getNextId() {
-        try {
-            Long maxId = jdbcTemplate.queryForObject(
-                "SELECT COALESCE(MAX(ID), 0) + 1 FROM MD_PRODUCT", Long.class);
-            return maxId != null ? maxId : 1L;
-        } catch (Exception e) {
-            log.warn("Konnte nächste ID nicht ermitteln, verwende Timestamp", e);
-            return System.currentTimeMillis();
-        }
+        return idAllocator.nextId("MD_PRODUCT");
     }
 
     /**
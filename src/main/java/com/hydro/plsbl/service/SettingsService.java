@@ -10,13 +10,28 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 /**
  * Service für Anwendungs-Einstellungen
  *
  * Hält die konfigurierbaren Werte für Kran, Säge und Lager.
  * Die Werte werden in der Datenbank persistiert (Tabelle MD_APPSETTING).
+ *
+ * Gelesen wird aus einem unveränderlichen {@link Snapshot}, der bei jeder Änderung und
+ * bei reload() neu aufgebaut und atomar ausgetauscht wird - SPS-Polling, Kafka und UI
+ * sehen nie einen halb geladenen Stand. Jeder neue Stand erhöht die Version.
+ * Listener je Kategorie (z.B. CAT_SPS) werden nur bei tatsächlich geänderten Werten
+ * benachrichtigt; mehrere Setter in update() ergeben einen gemeinsamen neuen Stand.
  */
 @Service
 public class SettingsService {
@@ -93,6 +108,10 @@ public class SettingsService {
     public static final String KEY_KAFKA_BOOTSTRAP_SERVERS = "KAFKA_BOOTSTRAP_SERVERS";
     public static final String KEY_KAFKA_GROUP_ID = "KAFKA_GROUP_ID";
     public static final String KEY_KAFKA_CLIENT_ID = "KAFKA_CLIENT_ID";
+    // Batch-Verarbeitung der eingehenden Topics
+    public static final String KEY_KAFKA_MAX_POLL_RECORDS = "KAFKA_MAX_POLL_RECORDS";
+    public static final String KEY_KAFKA_PARALLELISM = "KAFKA_PARALLELISM";
+    public static final String KEY_KAFKA_PICKUP_PARALLELISM = "KAFKA_PICKUP_PARALLELISM";
     // Topics - Incoming (von SAP/Saege)
     public static final String KEY_KAFKA_TOPIC_CALLOFF = "KAFKA_TOPIC_CALLOFF";
     public static final String KEY_KAFKA_TOPIC_PICKUP_ORDER = "KAFKA_TOPIC_PICKUP_ORDER";
@@ -106,9 +125,20 @@ public class SettingsService {
 
     private final JdbcTemplate jdbcTemplate;
 
-    // Cache für Einstellungen (Key -> Value)
-    private final Map<String, Integer> settingsCache = new HashMap<>();
-    private final Map<String, String> stringSettingsCache = new HashMap<>();
+    // Aktueller Stand (wird nur als Ganzes ersetzt)
+    private volatile Snapshot snapshot;
+
+    // Schreiber: Arbeitskopie des nächsten Stands, nur unter writeLock (null = kein update() aktiv)
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private Map<String, Integer> pendingValues;
+    private Map<String, String> pendingStringValues;
+
+    // Listener je Kategorie
+    private final Map<String, List<Consumer<SettingsChange>>> changeListeners = new ConcurrentHashMap<>();
+    // Noch nicht zugestellte Änderungen: Einreihen unter writeLock (Versionsreihenfolge),
+    // Zustellen nacheinander unter notifyLock, damit kein Listener einen älteren Stand zuletzt sieht
+    private final ConcurrentLinkedQueue<SettingsChange> pendingNotifications = new ConcurrentLinkedQueue<>();
+    private final Object notifyLock = new Object();
 
     // Default-Werte (Integer)
     private static final Map<String, SettingDefinition> DEFAULTS = new HashMap<>();
@@ -195,6 +225,12 @@ public class SettingsService {
             "plsbl-group", CAT_KAFKA, "Kafka Consumer Group ID"));
         STRING_DEFAULTS.put(KEY_KAFKA_CLIENT_ID, new StringSettingDefinition(
             "plsbl-client", CAT_KAFKA, "Kafka Client ID"));
+        DEFAULTS.put(KEY_KAFKA_MAX_POLL_RECORDS, new SettingDefinition(100, CAT_KAFKA,
+            "Max. Nachrichten pro Poll/Batch (Neustart erforderlich)"));
+        DEFAULTS.put(KEY_KAFKA_PARALLELISM, new SettingDefinition(4, CAT_KAFKA,
+            "Parallel verarbeitete Schluessel je Batch (Abrufe, Einschraenkungen)"));
+        DEFAULTS.put(KEY_KAFKA_PICKUP_PARALLELISM, new SettingDefinition(1, CAT_KAFKA,
+            "Parallel verarbeitete Abholauftraege je Batch (1 = nacheinander)"));
         // Topics - Incoming
         STRING_DEFAULTS.put(KEY_KAFKA_TOPIC_CALLOFF, new StringSettingDefinition(
             "plsbl.incoming.calloff", CAT_KAFKA, "Topic fuer Abruf-Telegramme"));
@@ -217,6 +253,7 @@ public class SettingsService {
 
     public SettingsService(JdbcTemplate jdbcTemplate) {
         this.jdbcTemplate = jdbcTemplate;
+        this.snapshot = Snapshot.defaults();
     }
 
     @PostConstruct
@@ -224,7 +261,8 @@ public class SettingsService {
         log.info("Initializing SettingsService...");
         ensureTableExists();
         loadAllSettings();
-        log.info("SettingsService initialized with {} settings", settingsCache.size());
+        log.info("SettingsService initialized with {} settings (Version {})",
+            DEFAULTS.size() + STRING_DEFAULTS.size(), getVersion());
     }
 
     /**
@@ -256,11 +294,11 @@ public class SettingsService {
     }
 
     /**
-     * Lädt alle Einstellungen aus der Datenbank
+     * Lädt alle Einstellungen aus der Datenbank in einen neuen Stand
      */
     private void loadAllSettings() {
-        settingsCache.clear();
-        stringSettingsCache.clear();
+        Map<String, Integer> values = new HashMap<>();
+        Map<String, String> stringValues = new HashMap<>();
 
         try {
             jdbcTemplate.query(
@@ -268,31 +306,34 @@ public class SettingsService {
                 (rs, rowNum) -> {
                     String key = rs.getString("SETTING_KEY");
                     String value = rs.getString("SETTING_VALUE");
+                    if (value == null) {
+                        return null;
+                    }
 
                     // Prüfen ob es ein String-Setting ist
                     if (STRING_DEFAULTS.containsKey(key)) {
-                        stringSettingsCache.put(key, value);
+                        stringValues.put(key, value);
                     } else {
                         try {
-                            settingsCache.put(key, Integer.parseInt(value));
+                            values.put(key, Integer.parseInt(value));
                         } catch (NumberFormatException e) {
                             // Könnte ein String-Wert sein
-                            stringSettingsCache.put(key, value);
+                            stringValues.put(key, value);
                         }
                     }
                     return null;
                 }
             );
             log.info("Loaded {} int settings and {} string settings from database",
-                settingsCache.size(), stringSettingsCache.size());
+                values.size(), stringValues.size());
         } catch (Exception e) {
             log.warn("Could not load settings from database: {}", e.getMessage());
         }
 
         // Fehlende Integer-Einstellungen mit Defaults auffüllen und speichern
         for (Map.Entry<String, SettingDefinition> entry : DEFAULTS.entrySet()) {
-            if (!settingsCache.containsKey(entry.getKey())) {
-                settingsCache.put(entry.getKey(), entry.getValue().defaultValue);
+            if (!values.containsKey(entry.getKey())) {
+                values.put(entry.getKey(), entry.getValue().defaultValue);
                 saveSettingToDb(entry.getKey(), String.valueOf(entry.getValue().defaultValue),
                     entry.getValue().category, entry.getValue().description);
             }
@@ -300,12 +341,20 @@ public class SettingsService {
 
         // Fehlende String-Einstellungen mit Defaults auffüllen und speichern
         for (Map.Entry<String, StringSettingDefinition> entry : STRING_DEFAULTS.entrySet()) {
-            if (!stringSettingsCache.containsKey(entry.getKey())) {
-                stringSettingsCache.put(entry.getKey(), entry.getValue().defaultValue);
+            if (!stringValues.containsKey(entry.getKey())) {
+                stringValues.put(entry.getKey(), entry.getValue().defaultValue);
                 saveSettingToDb(entry.getKey(), entry.getValue().defaultValue,
                     entry.getValue().category, entry.getValue().description);
             }
         }
+
+        writeLock.lock();
+        try {
+            pendingNotifications.addAll(publish(values, stringValues));
+        } finally {
+            writeLock.unlock();
+        }
+        notifyChangeListeners();
     }
 
     /**
@@ -337,228 +386,337 @@ public class SettingsService {
     }
 
     /**
-     * Holt einen Wert aus dem Cache (mit Default-Fallback)
+     * Führt mehrere Setter als eine Änderung aus: ein neuer Stand, eine Benachrichtigung
+     * je Kategorie (z.B. beim Speichern eines Einstellungs-Reiters).
+     * Innerhalb von update() liefern die Getter noch den bisherigen Stand.
      */
-    private int getValue(String key) {
-        Integer value = settingsCache.get(key);
-        if (value != null) {
-            return value;
+    public void update(Runnable changes) {
+        writeLock.lock();
+        try {
+            boolean outermost = pendingValues == null;
+            if (outermost) {
+                pendingValues = new HashMap<>(snapshot.values);
+                pendingStringValues = new HashMap<>(snapshot.stringValues);
+            }
+            try {
+                changes.run();
+            } finally {
+                if (outermost) {
+                    Map<String, Integer> values = pendingValues;
+                    Map<String, String> stringValues = pendingStringValues;
+                    pendingValues = null;
+                    pendingStringValues = null;
+                    pendingNotifications.addAll(publish(values, stringValues));
+                }
+            }
+        } finally {
+            writeLock.unlock();
         }
+        notifyChangeListeners();
+    }
+
+    /**
+     * Tauscht den Stand aus, falls sich Werte geändert haben (nur unter writeLock)
+     *
+     * @return Änderungen je Kategorie
+     */
+    private List<SettingsChange> publish(Map<String, Integer> values, Map<String, String> stringValues) {
+        Snapshot previous = snapshot;
+        Snapshot next = new Snapshot(previous.version + 1, values, stringValues);
+        Set<String> changedKeys = next.changedKeys(previous);
+        if (changedKeys.isEmpty()) {
+            return List.of();
+        }
+        snapshot = next;
+        log.debug("Einstellungen Version {}: {}", next.version, changedKeys);
+
+        Map<String, Set<String>> byCategory = new HashMap<>();
+        for (String key : changedKeys) {
+            byCategory.computeIfAbsent(categoryOf(key), c -> new TreeSet<>()).add(key);
+        }
+        return byCategory.entrySet().stream()
+            .map(e -> new SettingsChange(e.getKey(), Set.copyOf(e.getValue()), previous, next))
+            .toList();
+    }
+
+    private static String categoryOf(String key) {
         SettingDefinition def = DEFAULTS.get(key);
-        return def != null ? def.defaultValue : 0;
+        if (def != null) {
+            return def.category;
+        }
+        StringSettingDefinition stringDef = STRING_DEFAULTS.get(key);
+        return stringDef != null ? stringDef.category : "UNKNOWN";
+    }
+
+    /**
+     * Stellt alle eingereihten Änderungen in Versionsreihenfolge zu (auch die anderer Threads)
+     */
+    private void notifyChangeListeners() {
+        if (Thread.holdsLock(notifyLock)) {
+            return;  // Änderung aus einem Listener: die laufende Zustellung übernimmt sie danach
+        }
+        synchronized (notifyLock) {
+            SettingsChange change;
+            while ((change = pendingNotifications.poll()) != null) {
+                for (Consumer<SettingsChange> listener : changeListeners.getOrDefault(change.category(), List.of())) {
+                    try {
+                        listener.accept(change);
+                    } catch (Exception e) {
+                        log.error("Fehler im Einstellungs-Listener ({}): {}", change.category(), e.getMessage(), e);
+                    }
+                }
+            }
+        }
     }
 
     /**
      * Setzt einen Integer-Wert und speichert ihn in der Datenbank
      */
     private void setValue(String key, int value) {
-        settingsCache.put(key, value);
         SettingDefinition def = DEFAULTS.get(key);
         String category = def != null ? def.category : "UNKNOWN";
         String description = def != null ? def.description : "";
-        saveSettingToDb(key, String.valueOf(value), category, description);
+        update(() -> {
+            pendingValues.put(key, value);
+            saveSettingToDb(key, String.valueOf(value), category, description);
+        });
         log.info("Setting updated: {} = {}", key, value);
     }
 
-    /**
-     * Holt einen String-Wert aus dem Cache (mit Default-Fallback)
-     */
-    private String getStringValue(String key) {
-        String value = stringSettingsCache.get(key);
-        if (value != null) {
-            return value;
-        }
-        StringSettingDefinition def = STRING_DEFAULTS.get(key);
-        return def != null ? def.defaultValue : "";
-    }
-
     /**
      * Setzt einen String-Wert und speichert ihn in der Datenbank
      */
     private void setStringValue(String key, String value) {
-        stringSettingsCache.put(key, value);
         StringSettingDefinition def = STRING_DEFAULTS.get(key);
         String category = def != null ? def.category : "UNKNOWN";
         String description = def != null ? def.description : "";
-        saveSettingToDb(key, value, category, description);
+        update(() -> {
+            if (value != null) {
+                pendingStringValues.put(key, value);
+            } else {
+                pendingStringValues.remove(key);  // Default gilt
+            }
+            saveSettingToDb(key, value, category, description);
+        });
         log.info("Setting updated: {} = {}", key, value);
     }
 
+    // === Stand, Version, Listener ===
+
+    /**
+     * Aktueller, unveränderlicher Stand (für mehrere zusammengehörige Werte)
+     */
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Version des aktuellen Stands (erhöht sich bei jeder wirksamen Änderung)
+     */
+    public long getVersion() {
+        return snapshot.version;
+    }
+
+    /**
+     * Registriert einen Listener für Änderungen einer Kategorie (z.B. CAT_SPS, CAT_KAFKA, CAT_CRANE).
+     * Aufruf nach dem Austausch des Stands, in Versionsreihenfolge und nie gleichzeitig; meist im
+     * Thread, der die Änderung ausgelöst hat, bei parallelen Änderungen ggf. im anderen Thread.
+     */
+    public void addChangeListener(String category, Consumer<SettingsChange> listener) {
+        changeListeners.computeIfAbsent(category, c -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    public void removeChangeListener(String category, Consumer<SettingsChange> listener) {
+        List<Consumer<SettingsChange>> listeners = changeListeners.get(category);
+        if (listeners != null) {
+            listeners.remove(listener);
+        }
+    }
+
     // === Getters & Setters ===
 
     // Säge
-    public int getSawX() { return getValue(KEY_SAW_X); }
+    public int getSawX() { return snapshot.sawX; }
     public void setSawX(int value) { setValue(KEY_SAW_X, value); }
 
-    public int getSawY() { return getValue(KEY_SAW_Y); }
+    public int getSawY() { return snapshot.sawY; }
     public void setSawY(int value) { setValue(KEY_SAW_Y, value); }
 
-    public int getSawZ() { return getValue(KEY_SAW_Z); }
+    public int getSawZ() { return snapshot.sawZ; }
     public void setSawZ(int value) { setValue(KEY_SAW_Z, value); }
 
-    public int getSawToleranzX() { return getValue(KEY_SAW_TOLERANZ_X); }
+    public int getSawToleranzX() { return snapshot.sawToleranzX; }
     public void setSawToleranzX(int value) { setValue(KEY_SAW_TOLERANZ_X, value); }
 
-    public int getSawToleranzY() { return getValue(KEY_SAW_TOLERANZ_Y); }
+    public int getSawToleranzY() { return snapshot.sawToleranzY; }
     public void setSawToleranzY(int value) { setValue(KEY_SAW_TOLERANZ_Y, value); }
 
-    public int getSawToleranzZ() { return getValue(KEY_SAW_TOLERANZ_Z); }
+    public int getSawToleranzZ() { return snapshot.sawToleranzZ; }
     public void setSawToleranzZ(int value) { setValue(KEY_SAW_TOLERANZ_Z, value); }
 
     // Lager
-    public int getLagerMinX() { return getValue(KEY_LAGER_MIN_X); }
+    public int getLagerMinX() { return snapshot.lagerMinX; }
     public void setLagerMinX(int value) { setValue(KEY_LAGER_MIN_X, value); }
 
-    public int getLagerMinY() { return getValue(KEY_LAGER_MIN_Y); }
+    public int getLagerMinY() { return snapshot.lagerMinY; }
     public void setLagerMinY(int value) { setValue(KEY_LAGER_MIN_Y, value); }
 
-    public int getLagerMaxX() { return getValue(KEY_LAGER_MAX_X); }
+    public int getLagerMaxX() { return snapshot.lagerMaxX; }
     public void setLagerMaxX(int value) { setValue(KEY_LAGER_MAX_X, value); }
 
-    public int getLagerMaxY() { return getValue(KEY_LAGER_MAX_Y); }
+    public int getLagerMaxY() { return snapshot.lagerMaxY; }
     public void setLagerMaxY(int value) { setValue(KEY_LAGER_MAX_Y, value); }
 
-    public int getGridCols() { return getValue(KEY_GRID_COLS); }
+    public int getGridCols() { return snapshot.gridCols; }
     public void setGridCols(int value) { setValue(KEY_GRID_COLS, value); }
 
-    public int getGridRows() { return getValue(KEY_GRID_ROWS); }
+    public int getGridRows() { return snapshot.gridRows; }
     public void setGridRows(int value) { setValue(KEY_GRID_ROWS, value); }
 
     // Kran
-    public int getKranZielposMaxDX() { return getValue(KEY_KRAN_ZIELPOS_MAX_DX); }
+    public int getKranZielposMaxDX() { return snapshot.kranZielposMaxDX; }
     public void setKranZielposMaxDX(int value) { setValue(KEY_KRAN_ZIELPOS_MAX_DX, value); }
 
-    public int getKranZielposMaxDY() { return getValue(KEY_KRAN_ZIELPOS_MAX_DY); }
+    public int getKranZielposMaxDY() { return snapshot.kranZielposMaxDY; }
     public void setKranZielposMaxDY(int value) { setValue(KEY_KRAN_ZIELPOS_MAX_DY, value); }
 
-    public int getKranZielposMaxDZ() { return getValue(KEY_KRAN_ZIELPOS_MAX_DZ); }
+    public int getKranZielposMaxDZ() { return snapshot.kranZielposMaxDZ; }
     public void setKranZielposMaxDZ(int value) { setValue(KEY_KRAN_ZIELPOS_MAX_DZ, value); }
 
-    public int getKranToleranzDX() { return getValue(KEY_KRAN_TOLERANZ_DX); }
+    public int getKranToleranzDX() { return snapshot.kranToleranzDX; }
     public void setKranToleranzDX(int value) { setValue(KEY_KRAN_TOLERANZ_DX, value); }
 
-    public int getKranToleranzDY() { return getValue(KEY_KRAN_TOLERANZ_DY); }
+    public int getKranToleranzDY() { return snapshot.kranToleranzDY; }
     public void setKranToleranzDY(int value) { setValue(KEY_KRAN_TOLERANZ_DY, value); }
 
-    public int getKranToleranzDZ() { return getValue(KEY_KRAN_TOLERANZ_DZ); }
+    public int getKranToleranzDZ() { return snapshot.kranToleranzDZ; }
     public void setKranToleranzDZ(int value) { setValue(KEY_KRAN_TOLERANZ_DZ, value); }
 
-    public int getPhasenerkennungDX() { return getValue(KEY_PHASENERKENNUNG_DX); }
+    public int getPhasenerkennungDX() { return snapshot.phasenerkennungDX; }
     public void setPhasenerkennungDX(int value) { setValue(KEY_PHASENERKENNUNG_DX, value); }
 
-    public int getPhasenerkennungDY() { return getValue(KEY_PHASENERKENNUNG_DY); }
+    public int getPhasenerkennungDY() { return snapshot.phasenerkennungDY; }
     public void setPhasenerkennungDY(int value) { setValue(KEY_PHASENERKENNUNG_DY, value); }
 
-    public int getPhasenerkennungDZ() { return getValue(KEY_PHASENERKENNUNG_DZ); }
+    public int getPhasenerkennungDZ() { return snapshot.phasenerkennungDZ; }
     public void setPhasenerkennungDZ(int value) { setValue(KEY_PHASENERKENNUNG_DZ, value); }
 
     // SPS
-    public String getSpsUrl() { return getStringValue(KEY_SPS_URL); }
+    public String getSpsUrl() { return snapshot.spsUrl; }
     public void setSpsUrl(String value) { setStringValue(KEY_SPS_URL, value); }
 
-    public int getSpsTimeout() { return getValue(KEY_SPS_TIMEOUT); }
+    public int getSpsTimeout() { return snapshot.spsTimeout; }
     public void setSpsTimeout(int value) { setValue(KEY_SPS_TIMEOUT, value); }
 
-    public int getSpsRetryCount() { return getValue(KEY_SPS_RETRY_COUNT); }
+    public int getSpsRetryCount() { return snapshot.spsRetryCount; }
     public void setSpsRetryCount(int value) { setValue(KEY_SPS_RETRY_COUNT, value); }
 
-    public int getSpsRetryDelay() { return getValue(KEY_SPS_RETRY_DELAY); }
+    public int getSpsRetryDelay() { return snapshot.spsRetryDelay; }
     public void setSpsRetryDelay(int value) { setValue(KEY_SPS_RETRY_DELAY, value); }
 
-    public boolean isSpsEnabled() { return getValue(KEY_SPS_ENABLED) == 1; }
+    public boolean isSpsEnabled() { return snapshot.spsEnabled; }
     public void setSpsEnabled(boolean enabled) { setValue(KEY_SPS_ENABLED, enabled ? 1 : 0); }
 
     // Verladung
-    public int getLoadingZoneFrontX() { return getValue(KEY_LOADING_ZONE_FRONT_X); }
+    public int getLoadingZoneFrontX() { return snapshot.loadingZoneFrontX; }
     public void setLoadingZoneFrontX(int value) { setValue(KEY_LOADING_ZONE_FRONT_X, value); }
 
-    public int getLoadingZoneRearX() { return getValue(KEY_LOADING_ZONE_REAR_X); }
+    public int getLoadingZoneRearX() { return snapshot.loadingZoneRearX; }
     public void setLoadingZoneRearX(int value) { setValue(KEY_LOADING_ZONE_REAR_X, value); }
 
-    public int getLoadingZoneMiddleX() { return getValue(KEY_LOADING_ZONE_MIDDLE_X); }
+    public int getLoadingZoneMiddleX() { return snapshot.loadingZoneMiddleX; }
     public void setLoadingZoneMiddleX(int value) { setValue(KEY_LOADING_ZONE_MIDDLE_X, value); }
 
-    public int getLoadingZoneY() { return getValue(KEY_LOADING_ZONE_Y); }
+    public int getLoadingZoneY() { return snapshot.loadingZoneY; }
     public void setLoadingZoneY(int value) { setValue(KEY_LOADING_ZONE_Y, value); }
 
-    public int getLoadingZoneZ() { return getValue(KEY_LOADING_ZONE_Z); }
+    public int getLoadingZoneZ() { return snapshot.loadingZoneZ; }
     public void setLoadingZoneZ(int value) { setValue(KEY_LOADING_ZONE_Z, value); }
 
-    public int getLoadingMaxIngots() { return getValue(KEY_LOADING_MAX_INGOTS); }
+    public int getLoadingMaxIngots() { return snapshot.loadingMaxIngots; }
     public void setLoadingMaxIngots(int value) { setValue(KEY_LOADING_MAX_INGOTS, value); }
 
-    public int getLoadingMaxWeight() { return getValue(KEY_LOADING_MAX_WEIGHT); }
+    public int getLoadingMaxWeight() { return snapshot.loadingMaxWeight; }
     public void setLoadingMaxWeight(int value) { setValue(KEY_LOADING_MAX_WEIGHT, value); }
 
     // General
-    public int getTemporaryProductTimeout() { return getValue(KEY_TEMPORARY_PRODUCT_TIMEOUT); }
+    public int getTemporaryProductTimeout() { return snapshot.temporaryProductTimeout; }
     public void setTemporaryProductTimeout(int value) { setValue(KEY_TEMPORARY_PRODUCT_TIMEOUT, value); }
 
-    public int getRetireDays() { return getValue(KEY_RETIRE_DAYS); }
+    public int getRetireDays() { return snapshot.retireDays; }
     public void setRetireDays(int value) { setValue(KEY_RETIRE_DAYS, value); }
 
-    public String getHelpUrl() { return getStringValue(KEY_HELP_URL); }
+    public String getHelpUrl() { return snapshot.helpUrl; }
     public void setHelpUrl(String value) { setStringValue(KEY_HELP_URL, value); }
 
     // Colors
-    public String getColorYardEmpty() { return getStringValue(KEY_COLOR_YARD_EMPTY); }
+    public String getColorYardEmpty() { return snapshot.colorYardEmpty; }
     public void setColorYardEmpty(String value) { setStringValue(KEY_COLOR_YARD_EMPTY, value); }
 
-    public String getColorYardInUse() { return getStringValue(KEY_COLOR_YARD_IN_USE); }
+    public String getColorYardInUse() { return snapshot.colorYardInUse; }
     public void setColorYardInUse(String value) { setStringValue(KEY_COLOR_YARD_IN_USE, value); }
 
-    public String getColorYardFull() { return getStringValue(KEY_COLOR_YARD_FULL); }
+    public String getColorYardFull() { return snapshot.colorYardFull; }
     public void setColorYardFull(String value) { setStringValue(KEY_COLOR_YARD_FULL, value); }
 
-    public String getColorYardLocked() { return getStringValue(KEY_COLOR_YARD_LOCKED); }
+    public String getColorYardLocked() { return snapshot.colorYardLocked; }
     public void setColorYardLocked(String value) { setStringValue(KEY_COLOR_YARD_LOCKED, value); }
 
-    public String getColorYardNoSwapIn() { return getStringValue(KEY_COLOR_YARD_NO_SWAP_IN); }
+    public String getColorYardNoSwapIn() { return snapshot.colorYardNoSwapIn; }
     public void setColorYardNoSwapIn(String value) { setStringValue(KEY_COLOR_YARD_NO_SWAP_IN, value); }
 
-    public String getColorYardNoSwapOut() { return getStringValue(KEY_COLOR_YARD_NO_SWAP_OUT); }
+    public String getColorYardNoSwapOut() { return snapshot.colorYardNoSwapOut; }
     public void setColorYardNoSwapOut(String value) { setStringValue(KEY_COLOR_YARD_NO_SWAP_OUT, value); }
 
-    public String getColorYardNoSwapInOut() { return getStringValue(KEY_COLOR_YARD_NO_SWAP_IN_OUT); }
+    public String getColorYardNoSwapInOut() { return snapshot.colorYardNoSwapInOut; }
     public void setColorYardNoSwapInOut(String value) { setStringValue(KEY_COLOR_YARD_NO_SWAP_IN_OUT, value); }
 
     // Kafka
-    public boolean isKafkaEnabled() { return getValue(KEY_KAFKA_ENABLED) == 1; }
+    public boolean isKafkaEnabled() { return snapshot.kafkaEnabled; }
     public void setKafkaEnabled(boolean enabled) { setValue(KEY_KAFKA_ENABLED, enabled ? 1 : 0); }
 
-    public String getKafkaBootstrapServers() { return getStringValue(KEY_KAFKA_BOOTSTRAP_SERVERS); }
+    public String getKafkaBootstrapServers() { return snapshot.kafkaBootstrapServers; }
     public void setKafkaBootstrapServers(String value) { setStringValue(KEY_KAFKA_BOOTSTRAP_SERVERS, value); }
 
-    public String getKafkaGroupId() { return getStringValue(KEY_KAFKA_GROUP_ID); }
+    public String getKafkaGroupId() { return snapshot.kafkaGroupId; }
     public void setKafkaGroupId(String value) { setStringValue(KEY_KAFKA_GROUP_ID, value); }
 
-    public String getKafkaClientId() { return getStringValue(KEY_KAFKA_CLIENT_ID); }
+    public String getKafkaClientId() { return snapshot.kafkaClientId; }
     public void setKafkaClientId(String value) { setStringValue(KEY_KAFKA_CLIENT_ID, value); }
 
+    public int getKafkaMaxPollRecords() { return snapshot.kafkaMaxPollRecords; }
+    public void setKafkaMaxPollRecords(int value) { setValue(KEY_KAFKA_MAX_POLL_RECORDS, value); }
+
+    public int getKafkaParallelism() { return snapshot.kafkaParallelism; }
+    public void setKafkaParallelism(int value) { setValue(KEY_KAFKA_PARALLELISM, value); }
+
+    public int getKafkaPickupParallelism() { return snapshot.kafkaPickupParallelism; }
+    public void setKafkaPickupParallelism(int value) { setValue(KEY_KAFKA_PICKUP_PARALLELISM, value); }
+
     // Kafka Topics - Incoming
-    public String getKafkaTopicCalloff() { return getStringValue(KEY_KAFKA_TOPIC_CALLOFF); }
+    public String getKafkaTopicCalloff() { return snapshot.kafkaTopicCalloff; }
     public void setKafkaTopicCalloff(String value) { setStringValue(KEY_KAFKA_TOPIC_CALLOFF, value); }
 
-    public String getKafkaTopicPickupOrder() { return getStringValue(KEY_KAFKA_TOPIC_PICKUP_ORDER); }
+    public String getKafkaTopicPickupOrder() { return snapshot.kafkaTopicPickupOrder; }
     public void setKafkaTopicPickupOrder(String value) { setStringValue(KEY_KAFKA_TOPIC_PICKUP_ORDER, value); }
 
-    public String getKafkaTopicProductRestriction() { return getStringValue(KEY_KAFKA_TOPIC_PRODUCT_RESTRICTION); }
+    public String getKafkaTopicProductRestriction() { return snapshot.kafkaTopicProductRestriction; }
     public void setKafkaTopicProductRestriction(String value) { setStringValue(KEY_KAFKA_TOPIC_PRODUCT_RESTRICTION, value); }
 
     // Kafka Topics - Outgoing
-    public String getKafkaTopicIngotPickedUp() { return getStringValue(KEY_KAFKA_TOPIC_INGOT_PICKED_UP); }
+    public String getKafkaTopicIngotPickedUp() { return snapshot.kafkaTopicIngotPickedUp; }
     public void setKafkaTopicIngotPickedUp(String value) { setStringValue(KEY_KAFKA_TOPIC_INGOT_PICKED_UP, value); }
 
-    public String getKafkaTopicIngotMoved() { return getStringValue(KEY_KAFKA_TOPIC_INGOT_MOVED); }
+    public String getKafkaTopicIngotMoved() { return snapshot.kafkaTopicIngotMoved; }
     public void setKafkaTopicIngotMoved(String value) { setStringValue(KEY_KAFKA_TOPIC_INGOT_MOVED, value); }
 
-    public String getKafkaTopicIngotModified() { return getStringValue(KEY_KAFKA_TOPIC_INGOT_MODIFIED); }
+    public String getKafkaTopicIngotModified() { return snapshot.kafkaTopicIngotModified; }
     public void setKafkaTopicIngotModified(String value) { setStringValue(KEY_KAFKA_TOPIC_INGOT_MODIFIED, value); }
 
-    public String getKafkaTopicShipmentCompleted() { return getStringValue(KEY_KAFKA_TOPIC_SHIPMENT_COMPLETED); }
+    public String getKafkaTopicShipmentCompleted() { return snapshot.kafkaTopicShipmentCompleted; }
     public void setKafkaTopicShipmentCompleted(String value) { setStringValue(KEY_KAFKA_TOPIC_SHIPMENT_COMPLETED, value); }
 
-    public String getKafkaTopicSawFeedback() { return getStringValue(KEY_KAFKA_TOPIC_SAW_FEEDBACK); }
+    public String getKafkaTopicSawFeedback() { return snapshot.kafkaTopicSawFeedback; }
     public void setKafkaTopicSawFeedback(String value) { setStringValue(KEY_KAFKA_TOPIC_SAW_FEEDBACK, value); }
 
     // === Hilfsmethoden für Koordinaten-Konvertierung ===
@@ -623,10 +781,223 @@ public class SettingsService {
     public void reload() {
         log.info("Reloading settings from database...");
         loadAllSettings();
+        log.info("Settings reloaded (Version {})", getVersion());
     }
 
     // === Inner Classes ===
 
+    /**
+     * Unveränderlicher Stand aller Einstellungen
+     *
+     * Wird bei jeder Änderung bzw. jedem Neuladen komplett neu aufgebaut und als Ganzes
+     * ausgetauscht. Leser sehen dadurch immer einen vollständigen, in sich konsistenten
+     * Stand; die typisierten Getter lesen nur noch ein Feld.
+     */
+    public static final class Snapshot {
+        private final long version;
+        private final Map<String, Integer> values;
+        private final Map<String, String> stringValues;
+
+        public final int sawX;
+        public final int sawY;
+        public final int sawZ;
+        public final int sawToleranzX;
+        public final int sawToleranzY;
+        public final int sawToleranzZ;
+        public final int lagerMinX;
+        public final int lagerMinY;
+        public final int lagerMaxX;
+        public final int lagerMaxY;
+        public final int gridCols;
+        public final int gridRows;
+        public final int kranZielposMaxDX;
+        public final int kranZielposMaxDY;
+        public final int kranZielposMaxDZ;
+        public final int kranToleranzDX;
+        public final int kranToleranzDY;
+        public final int kranToleranzDZ;
+        public final int phasenerkennungDX;
+        public final int phasenerkennungDY;
+        public final int phasenerkennungDZ;
+        public final String spsUrl;
+        public final int spsTimeout;
+        public final int spsRetryCount;
+        public final int spsRetryDelay;
+        public final boolean spsEnabled;
+        public final int loadingZoneFrontX;
+        public final int loadingZoneRearX;
+        public final int loadingZoneMiddleX;
+        public final int loadingZoneY;
+        public final int loadingZoneZ;
+        public final int loadingMaxIngots;
+        public final int loadingMaxWeight;
+        public final int temporaryProductTimeout;
+        public final int retireDays;
+        public final String helpUrl;
+        public final String colorYardEmpty;
+        public final String colorYardInUse;
+        public final String colorYardFull;
+        public final String colorYardLocked;
+        public final String colorYardNoSwapIn;
+        public final String colorYardNoSwapOut;
+        public final String colorYardNoSwapInOut;
+        public final boolean kafkaEnabled;
+        public final String kafkaBootstrapServers;
+        public final String kafkaGroupId;
+        public final String kafkaClientId;
+        public final int kafkaMaxPollRecords;
+        public final int kafkaParallelism;
+        public final int kafkaPickupParallelism;
+        public final String kafkaTopicCalloff;
+        public final String kafkaTopicPickupOrder;
+        public final String kafkaTopicProductRestriction;
+        public final String kafkaTopicIngotPickedUp;
+        public final String kafkaTopicIngotMoved;
+        public final String kafkaTopicIngotModified;
+        public final String kafkaTopicShipmentCompleted;
+        public final String kafkaTopicSawFeedback;
+
+        Snapshot(long version, Map<String, Integer> values, Map<String, String> stringValues) {
+            this.version = version;
+            this.values = Map.copyOf(values);
+            this.stringValues = Map.copyOf(stringValues);
+            this.sawX = getInt(KEY_SAW_X);
+            this.sawY = getInt(KEY_SAW_Y);
+            this.sawZ = getInt(KEY_SAW_Z);
+            this.sawToleranzX = getInt(KEY_SAW_TOLERANZ_X);
+            this.sawToleranzY = getInt(KEY_SAW_TOLERANZ_Y);
+            this.sawToleranzZ = getInt(KEY_SAW_TOLERANZ_Z);
+            this.lagerMinX = getInt(KEY_LAGER_MIN_X);
+            this.lagerMinY = getInt(KEY_LAGER_MIN_Y);
+            this.lagerMaxX = getInt(KEY_LAGER_MAX_X);
+            this.lagerMaxY = getInt(KEY_LAGER_MAX_Y);
+            this.gridCols = getInt(KEY_GRID_COLS);
+            this.gridRows = getInt(KEY_GRID_ROWS);
+            this.kranZielposMaxDX = getInt(KEY_KRAN_ZIELPOS_MAX_DX);
+            this.kranZielposMaxDY = getInt(KEY_KRAN_ZIELPOS_MAX_DY);
+            this.kranZielposMaxDZ = getInt(KEY_KRAN_ZIELPOS_MAX_DZ);
+            this.kranToleranzDX = getInt(KEY_KRAN_TOLERANZ_DX);
+            this.kranToleranzDY = getInt(KEY_KRAN_TOLERANZ_DY);
+            this.kranToleranzDZ = getInt(KEY_KRAN_TOLERANZ_DZ);
+            this.phasenerkennungDX = getInt(KEY_PHASENERKENNUNG_DX);
+            this.phasenerkennungDY = getInt(KEY_PHASENERKENNUNG_DY);
+            this.phasenerkennungDZ = getInt(KEY_PHASENERKENNUNG_DZ);
+            this.spsUrl = getString(KEY_SPS_URL);
+            this.spsTimeout = getInt(KEY_SPS_TIMEOUT);
+            this.spsRetryCount = getInt(KEY_SPS_RETRY_COUNT);
+            this.spsRetryDelay = getInt(KEY_SPS_RETRY_DELAY);
+            this.spsEnabled = getInt(KEY_SPS_ENABLED) == 1;
+            this.loadingZoneFrontX = getInt(KEY_LOADING_ZONE_FRONT_X);
+            this.loadingZoneRearX = getInt(KEY_LOADING_ZONE_REAR_X);
+            this.loadingZoneMiddleX = getInt(KEY_LOADING_ZONE_MIDDLE_X);
+            this.loadingZoneY = getInt(KEY_LOADING_ZONE_Y);
+            this.loadingZoneZ = getInt(KEY_LOADING_ZONE_Z);
+            this.loadingMaxIngots = getInt(KEY_LOADING_MAX_INGOTS);
+            this.loadingMaxWeight = getInt(KEY_LOADING_MAX_WEIGHT);
+            this.temporaryProductTimeout = getInt(KEY_TEMPORARY_PRODUCT_TIMEOUT);
+            this.retireDays = getInt(KEY_RETIRE_DAYS);
+            this.helpUrl = getString(KEY_HELP_URL);
+            this.colorYardEmpty = getString(KEY_COLOR_YARD_EMPTY);
+            this.colorYardInUse = getString(KEY_COLOR_YARD_IN_USE);
+            this.colorYardFull = getString(KEY_COLOR_YARD_FULL);
+            this.colorYardLocked = getString(KEY_COLOR_YARD_LOCKED);
+            this.colorYardNoSwapIn = getString(KEY_COLOR_YARD_NO_SWAP_IN);
+            this.colorYardNoSwapOut = getString(KEY_COLOR_YARD_NO_SWAP_OUT);
+            this.colorYardNoSwapInOut = getString(KEY_COLOR_YARD_NO_SWAP_IN_OUT);
+            this.kafkaEnabled = getInt(KEY_KAFKA_ENABLED) == 1;
+            this.kafkaBootstrapServers = getString(KEY_KAFKA_BOOTSTRAP_SERVERS);
+            this.kafkaGroupId = getString(KEY_KAFKA_GROUP_ID);
+            this.kafkaClientId = getString(KEY_KAFKA_CLIENT_ID);
+            this.kafkaMaxPollRecords = getInt(KEY_KAFKA_MAX_POLL_RECORDS);
+            this.kafkaParallelism = getInt(KEY_KAFKA_PARALLELISM);
+            this.kafkaPickupParallelism = getInt(KEY_KAFKA_PICKUP_PARALLELISM);
+            this.kafkaTopicCalloff = getString(KEY_KAFKA_TOPIC_CALLOFF);
+            this.kafkaTopicPickupOrder = getString(KEY_KAFKA_TOPIC_PICKUP_ORDER);
+            this.kafkaTopicProductRestriction = getString(KEY_KAFKA_TOPIC_PRODUCT_RESTRICTION);
+            this.kafkaTopicIngotPickedUp = getString(KEY_KAFKA_TOPIC_INGOT_PICKED_UP);
+            this.kafkaTopicIngotMoved = getString(KEY_KAFKA_TOPIC_INGOT_MOVED);
+            this.kafkaTopicIngotModified = getString(KEY_KAFKA_TOPIC_INGOT_MODIFIED);
+            this.kafkaTopicShipmentCompleted = getString(KEY_KAFKA_TOPIC_SHIPMENT_COMPLETED);
+            this.kafkaTopicSawFeedback = getString(KEY_KAFKA_TOPIC_SAW_FEEDBACK);
+        }
+
+        /**
+         * Stand nur aus den Default-Werten (vor dem ersten Laden bzw. ohne Datenbank)
+         */
+        static Snapshot defaults() {
+            Map<String, Integer> values = new HashMap<>();
+            DEFAULTS.forEach((key, def) -> values.put(key, def.defaultValue));
+            Map<String, String> stringValues = new HashMap<>();
+            STRING_DEFAULTS.forEach((key, def) -> stringValues.put(key, def.defaultValue));
+            return new Snapshot(0, values, stringValues);
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public int getInt(String key) {
+            Integer value = values.get(key);
+            if (value != null) {
+                return value;
+            }
+            SettingDefinition def = DEFAULTS.get(key);
+            return def != null ? def.defaultValue : 0;
+        }
+
+        public String getString(String key) {
+            String value = stringValues.get(key);
+            if (value != null) {
+                return value;
+            }
+            StringSettingDefinition def = STRING_DEFAULTS.get(key);
+            return def != null ? def.defaultValue : "";
+        }
+
+        /**
+         * Schlüssel, deren Wert sich gegenüber dem anderen Stand unterscheidet
+         */
+        Set<String> changedKeys(Snapshot other) {
+            Set<String> changed = new TreeSet<>();
+            collectChanges(values, other.values, changed);
+            collectChanges(stringValues, other.stringValues, changed);
+            return changed;
+        }
+
+        private static <V> void collectChanges(Map<String, V> a, Map<String, V> b, Set<String> changed) {
+            for (Map.Entry<String, V> entry : a.entrySet()) {
+                if (!Objects.equals(entry.getValue(), b.get(entry.getKey()))) {
+                    changed.add(entry.getKey());
+                }
+            }
+            for (String key : b.keySet()) {
+                if (!a.containsKey(key)) {
+                    changed.add(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Änderung der Einstellungen einer Kategorie
+     *
+     * @param category Kategorie (z.B. CAT_SPS)
+     * @param keys     Geänderte Schlüssel dieser Kategorie
+     * @param previous Stand vor der Änderung
+     * @param current  Neuer Stand
+     */
+    public record SettingsChange(String category, Set<String> keys, Snapshot previous, Snapshot current) {
+
+        public boolean affects(String... keys) {
+            for (String key : keys) {
+                if (this.keys.contains(key)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
     private static class SettingDefinition {
         final int defaultValue;
         final String category;
@@ -37,19 +37,22 @@ public class ShipmentService {
     private final IngotService ingotService;
     private final ProductService productService;
     private final JdbcTemplate jdbcTemplate;
+    private final IdAllocator idAllocator;
 
     public ShipmentService(ShipmentRepository shipmentRepository,
                           ShipmentLineRepository shipmentLineRepository,
                           IngotRepository ingotRepository,
                           IngotService ingotService,
                           ProductService productService,
-                          JdbcTemplate jdbcTemplate) {
+                          JdbcTemplate jdbcTemplate,
+                          IdAllocator idAllocator) {
         this.shipmentRepository = shipmentRepository;
         this.shipmentLineRepository = shipmentLineRepository;
         this.ingotRepository = ingotRepository;
         this.ingotService = ingotService;
         this.productService = productService;
         this.jdbcTemplate = jdbcTemplate;
+        this.idAllocator = idAllocator;
     }
 
     /**
@@ -269,13 +272,7 @@ public class ShipmentService {
     }
 
     private Long getNextId(String tableName) {
-        try {
-            Long maxId = jdbcTemplate.queryForObject(
-                "SELECT COALESCE(MAX(ID), 0) + 1 FROM " + tableName, Long.class);
-            return maxId != null ? maxId : 1L;
-        } catch (Exception e) {
-            return System.currentTimeMillis();
-        }
+        return idAllocator.nextId(tableName);
     }
 
     /**
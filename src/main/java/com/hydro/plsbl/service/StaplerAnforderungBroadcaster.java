@@ -5,10 +5,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 
 /**
@@ -21,14 +20,21 @@ import java.util.function.Consumer;
  * - AutoRetrievalService ruft broadcast() auf wenn Anforderungen erstellt werden
  * - LagerView oder StaplerView registrieren sich als Listener
  * - Listener zeigt Notification oder aktualisiert Anforderungs-Liste
+ *
+ * Jeder Listener hat eine eigene Mailbox (ListenerMailboxes); noch nicht ausgelieferte
+ * Anforderungs-Listen werden zu einer Liste zusammengefasst.
  */
 @Service
 public class StaplerAnforderungBroadcaster {
 
     private static final Logger log = LoggerFactory.getLogger(StaplerAnforderungBroadcaster.class);
 
-    private final Executor executor = Executors.newSingleThreadExecutor();
-    private final CopyOnWriteArrayList<Consumer<List<StaplerAnforderung>>> listeners = new CopyOnWriteArrayList<>();
+    /** Maximale Anzahl wartender Listen pro Listener */
+    private static final int MAILBOX_CAPACITY = 8;
+
+    private final ListenerMailboxes<List<StaplerAnforderung>> mailboxes = new ListenerMailboxes<>(
+        "StaplerBroadcaster", MAILBOX_CAPACITY, anforderungen -> Boolean.TRUE,
+        StaplerAnforderungBroadcaster::concat);
 
     // Aktuelle offene Anforderungen (fuer spaetere Abfrage)
     private final CopyOnWriteArrayList<StaplerAnforderung> offeneAnforderungen = new CopyOnWriteArrayList<>();
@@ -40,17 +46,17 @@ public class StaplerAnforderungBroadcaster {
      * @return Registration zum Deregistrieren
      */
     public Registration register(Consumer<List<StaplerAnforderung>> listener) {
-        listeners.add(listener);
-        log.debug("Stapler-Listener registriert, aktuell {} Listener", listeners.size());
+        ListenerMailboxes<List<StaplerAnforderung>>.Mailbox mailbox = mailboxes.register(listener);
+        log.debug("Stapler-Listener registriert, aktuell {} Listener", mailboxes.getListenerCount());
 
         // Sofort bestehende Anforderungen senden
         if (!offeneAnforderungen.isEmpty()) {
-            executor.execute(() -> listener.accept(List.copyOf(offeneAnforderungen)));
+            mailbox.offer(List.copyOf(offeneAnforderungen));
         }
 
         return () -> {
-            listeners.remove(listener);
-            log.debug("Stapler-Listener entfernt, aktuell {} Listener", listeners.size());
+            mailbox.remove();
+            log.debug("Stapler-Listener entfernt, aktuell {} Listener", mailboxes.getListenerCount());
         };
     }
 
@@ -65,7 +71,7 @@ public class StaplerAnforderungBroadcaster {
         }
 
         log.info("=== STAPLER-ANFORDERUNGEN BROADCAST ===");
-        log.info("Sende {} Anforderungen an {} Listener", anforderungen.size(), listeners.size());
+        log.info("Sende {} Anforderungen an {} Listener", anforderungen.size(), mailboxes.getListenerCount());
 
         // Anforderungen zur Liste hinzufuegen
         offeneAnforderungen.addAll(anforderungen);
@@ -77,16 +83,7 @@ public class StaplerAnforderungBroadcaster {
         }
 
         // Alle Listener benachrichtigen
-        List<StaplerAnforderung> copy = List.copyOf(anforderungen);
-        for (Consumer<List<StaplerAnforderung>> listener : listeners) {
-            executor.execute(() -> {
-                try {
-                    listener.accept(copy);
-                } catch (Exception e) {
-                    log.error("Fehler bei Stapler-Broadcast Listener: {}", e.getMessage());
-                }
-            });
-        }
+        mailboxes.publish(List.copyOf(anforderungen));
 
         log.info("========================================");
     }
@@ -124,6 +121,20 @@ public class StaplerAnforderungBroadcaster {
         log.info("Alle Stapler-Anforderungen geloescht");
     }
 
+    /**
+     * Rueckstau-Metriken (Queue-Tiefe, zusammengefasste/verworfene Listen, Latenz)
+     */
+    public ListenerMailboxes.Metrics getMetrics() {
+        return mailboxes.getMetrics();
+    }
+
+    private static List<StaplerAnforderung> concat(List<StaplerAnforderung> older,
+                                                   List<StaplerAnforderung> newer) {
+        List<StaplerAnforderung> merged = new ArrayList<>(older);
+        merged.addAll(newer);
+        return List.copyOf(merged);
+    }
+
     /**
      * Functional interface fuer Listener-Deregistrierung.
      */
@@ -0,0 +1,121 @@
+package com.hydro.plsbl.service;
+
+import com.hydro.plsbl.entity.enums.StockyardUsage;
+import com.hydro.plsbl.entity.masterdata.Stockyard;
+import com.hydro.plsbl.repository.StockyardRepository;
+import com.hydro.plsbl.service.YardPlacementIndex.Placement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Platzierungs-Engine fuer die Einlagerung.
+ *
+ * Haelt einen {@link YardPlacementIndex} ueber alle Lagerplaetze, der bei jeder
+ * Aenderung im Belegungsmodell (YardOccupancyService) gezielt aktualisiert wird.
+ * Suchen laufen dadurch komplett im Speicher ohne DB-Abfragen.
+ *
+ * Stammdaten-Aenderungen an Lagerplaetzen (Anlegen, Loeschen, Zusammenfuegen, ...)
+ * muessen ueber {@link #invalidate()} gemeldet werden; der Index wird dann bei der
+ * naechsten Suche neu aufgebaut.
+ */
+@Service
+public class StockyardPlacementService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockyardPlacementService.class);
+
+    private final StockyardRepository stockyardRepository;
+    private final YardOccupancyService yardOccupancyService;
+
+    private YardPlacementIndex index;
+
+    public StockyardPlacementService(StockyardRepository stockyardRepository,
+                                     YardOccupancyService yardOccupancyService) {
+        this.stockyardRepository = stockyardRepository;
+        this.yardOccupancyService = yardOccupancyService;
+        yardOccupancyService.addChangeListener(this::onOccupancyChanged);
+    }
+
+    /**
+     * Erster freier Ausgang-Platz (00/xx) fuer Stapler-Transport
+     */
+    public synchronized Optional<Placement> findSwapout() {
+        return index().findSwapout();
+    }
+
+    /**
+     * Bester Ziel-Platz fuer Produkt, Verwendung und erlaubte Platz-Typen
+     */
+    public synchronized Optional<Placement> findBest(Long productId, StockyardUsage requiredUsage,
+                                                     boolean internalAllowed, boolean externalAllowed) {
+        return index().findBest(productId, requiredUsage, internalAllowed, externalAllowed);
+    }
+
+    /**
+     * Prueft ob ein Lagerplatz fuer das Produkt verfuegbar ist (Einlagern erlaubt, nicht voll, passendes Produkt)
+     */
+    public synchronized boolean isAvailable(Long stockyardId, Long productId) {
+        return index().isAvailable(stockyardId, productId);
+    }
+
+    /**
+     * Stammdaten eines Lagerplatzes (ohne DB-Zugriff, z.B. fuer Kran-Positionen)
+     */
+    public synchronized Optional<Stockyard> findYard(Long stockyardId) {
+        return index().getYard(stockyardId);
+    }
+
+    /**
+     * Verwirft den Index (nach Stammdaten-Aenderungen an Lagerplaetzen).
+     * Laeuft eine Transaktion, wird der Index erst nach dem Commit verworfen.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clearIndex();
+                }
+            });
+        } else {
+            clearIndex();
+        }
+    }
+
+    private synchronized void clearIndex() {
+        index = null;
+    }
+
+    private YardPlacementIndex index() {
+        if (index == null) {
+            long start = System.currentTimeMillis();
+            List<Stockyard> yards = new ArrayList<>();
+            stockyardRepository.findAll().forEach(yards::add);
+            index = new YardPlacementIndex(yards, yardOccupancyService.snapshot());
+            log.info("Platzierungs-Index aufgebaut: {} Lagerplaetze in {}ms",
+                index.size(), System.currentTimeMillis() - start);
+        }
+        return index;
+    }
+
+    private synchronized void onOccupancyChanged(Set<Long> stockyardIds) {
+        if (index == null) {
+            return;
+        }
+        for (Long id : stockyardIds) {
+            if (!index.update(yardOccupancyService.get(id))) {
+                // Unbekannter Lagerplatz - Stammdaten veraltet
+                log.debug("Lagerplatz {} nicht im Platzierungs-Index - Neuaufbau", id);
+                index = null;
+                return;
+            }
+        }
+    }
+}
@@ -13,6 +13,8 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -38,19 +40,29 @@ public class StockyardService {
     
     private final StockyardRepository stockyardRepository;
     private final StockyardStatusRepository statusRepository;
+    private final YardOccupancyService yardOccupancyService;
+    private final StockyardPlacementService placementService;
     private final JdbcTemplate jdbcTemplate;
+    private final IdAllocator idAllocator;
     
     public StockyardService(StockyardRepository stockyardRepository,
                            StockyardStatusRepository statusRepository,
-                           JdbcTemplate jdbcTemplate) {
+                           YardOccupancyService yardOccupancyService,
+                           StockyardPlacementService placementService,
+                           JdbcTemplate jdbcTemplate,
+                           IdAllocator idAllocator) {
         this.stockyardRepository = stockyardRepository;
         this.statusRepository = statusRepository;
+        this.yardOccupancyService = yardOccupancyService;
+        this.placementService = placementService;
         this.jdbcTemplate = jdbcTemplate;
+        this.idAllocator = idAllocator;
     }
     
     /**
      * Lädt alle Lagerplätze für die Stock-View mit Status-Informationen.
-     * WICHTIG: Berechnet die tatsächliche Barren-Anzahl aus TD_INGOT statt aus dem Cache.
+     * WICHTIG: Verwendet die tatsächliche Barren-Anzahl aus dem Belegungsmodell
+     * (YardOccupancyService, Basis TD_INGOT) statt INGOTS_COUNT aus TD_STOCKYARDSTATUS.
      */
     public Map<Long, StockyardDTO> findAllForStockView() {
         log.debug("Loading all stockyards for stock view");
@@ -58,6 +70,30 @@ public class StockyardService {
         List<Stockyard> stockyards = stockyardRepository.findAllForStockView();
         log.debug("Found {} stockyards", stockyards.size());
 
+        // Produkt- und Barren-Nummern für alle Plätze in einer Abfrage (statt 2 pro Platz)
+        Map<Long, StockyardDTO> result = toStockViewDTOs(stockyards, loadStatusDetails(null));
+
+        log.debug("Returning {} stockyard DTOs", result.size());
+        return result;
+    }
+
+    /**
+     * Lädt einzelne Lagerplätze für die Stock-View (wie findAllForStockView).
+     * Wird für Delta-Updates nach Lagerplatz-Änderungen verwendet.
+     */
+    public Map<Long, StockyardDTO> findForStockView(Collection<Long> stockyardIds) {
+        if (stockyardIds.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> ids = List.copyOf(stockyardIds);
+        List<Stockyard> stockyards = new ArrayList<>();
+        stockyardRepository.findAllById(ids).forEach(stockyards::add);
+
+        return toStockViewDTOs(stockyards, loadStatusDetails(ids));
+    }
+
+    private Map<Long, StockyardDTO> toStockViewDTOs(List<Stockyard> stockyards,
+                                                    Map<Long, StatusDetails> detailsMap) {
         // Alle IDs sammeln
         List<Long> stockyardIds = stockyards.stream()
             .map(Stockyard::getId)
@@ -68,7 +104,7 @@ public class StockyardService {
             .stream()
             .collect(Collectors.toMap(StockyardStatus::getStockyardId, s -> s));
 
-        // TATSÄCHLICHE Barren-Anzahl aus TD_INGOT zählen (nicht aus Cache!)
+        // TATSÄCHLICHE Barren-Anzahl aus dem Belegungsmodell (nicht aus TD_STOCKYARDSTATUS!)
         Map<Long, Integer> actualCounts = getActualIngotCounts();
 
         // DTOs erstellen
@@ -80,7 +116,8 @@ public class StockyardService {
             // Status hinzufügen
             StockyardStatus status = statusMap.get(yard.getId());
             if (status != null) {
-                StockyardStatusDTO statusDTO = toStatusDTO(status, yard.getMaxIngots());
+                StockyardStatusDTO statusDTO = toStatusDTO(status, yard.getMaxIngots(),
+                    detailsMap.get(yard.getId()));
 
                 // WICHTIG: Tatsächliche Anzahl aus TD_INGOT verwenden!
                 Integer actualCount = actualCounts.getOrDefault(yard.getId(), 0);
@@ -119,29 +156,15 @@ public class StockyardService {
             result.put(dto.getId(), dto);
         }
 
-        log.debug("Returning {} stockyard DTOs", result.size());
         return result;
     }
 
     /**
-     * Zählt die tatsächliche Anzahl der Barren pro Lagerplatz aus TD_INGOT.
-     * Dies ist die korrekte Quelle - nicht der gecachte Wert in TD_STOCKYARDSTATUS.
+     * Liefert die tatsächliche Anzahl der Barren pro Lagerplatz.
+     * Quelle ist das In-Memory Belegungsmodell (basiert auf TD_INGOT) - kein DB-Zugriff.
      */
     private Map<Long, Integer> getActualIngotCounts() {
-        Map<Long, Integer> counts = new HashMap<>();
-        try {
-            jdbcTemplate.query(
-                "SELECT STOCKYARD_ID, COUNT(*) as CNT FROM TD_INGOT " +
-                "WHERE STOCKYARD_ID IS NOT NULL GROUP BY STOCKYARD_ID",
-                rs -> {
-                    Long stockyardId = rs.getLong("STOCKYARD_ID");
-                    int count = rs.getInt("CNT");
-                    counts.put(stockyardId, count);
-                });
-        } catch (Exception e) {
-            log.warn("Konnte Barren-Anzahl nicht zählen: {}", e.getMessage());
-        }
-        return counts;
+        return yardOccupancyService.getAllIngotCounts();
     }
     
     /**
@@ -152,7 +175,8 @@ public class StockyardService {
             .map(yard -> {
                 StockyardDTO dto = toDTO(yard);
                 statusRepository.findByStockyardId(id)
-                    .ifPresent(status -> dto.setStatus(toStatusDTO(status, yard.getMaxIngots())));
+                    .ifPresent(status -> dto.setStatus(toStatusDTO(status, yard.getMaxIngots(),
+                        loadStatusDetails(List.of(id)).get(id))));
                 return dto;
             });
     }
@@ -165,7 +189,8 @@ public class StockyardService {
             .map(yard -> {
                 StockyardDTO dto = toDTO(yard);
                 statusRepository.findByStockyardId(yard.getId())
-                    .ifPresent(status -> dto.setStatus(toStatusDTO(status, yard.getMaxIngots())));
+                    .ifPresent(status -> dto.setStatus(toStatusDTO(status, yard.getMaxIngots(),
+                        loadStatusDetails(List.of(yard.getId())).get(yard.getId()))));
                 return dto;
             });
     }
@@ -176,6 +201,7 @@ public class StockyardService {
     @Transactional
     public StockyardDTO save(StockyardDTO dto) {
         log.debug("Saving stockyard: {}", dto.getId());
+        placementService.invalidate();
 
         if (dto.getId() != null) {
             // Update - existierenden Eintrag aktualisieren
@@ -221,14 +247,7 @@ public class StockyardService {
     }
 
     private Long getNextId() {
-        try {
-            Long maxId = jdbcTemplate.queryForObject(
-                "SELECT COALESCE(MAX(ID), 0) + 1 FROM MD_STOCKYARD", Long.class);
-            return maxId != null ? maxId : 1L;
-        } catch (Exception e) {
-            log.warn("Could not get next ID, using timestamp", e);
-            return System.currentTimeMillis();
-        }
+        return idAllocator.nextId("MD_STOCKYARD");
     }
 
     /**
@@ -247,6 +266,7 @@ public class StockyardService {
     @Transactional
     public Stockyard save(Stockyard entity) {
         log.debug("Saving stockyard entity: {}", entity.getYardNumber());
+        placementService.invalidate();
 
         if (entity.getId() != null) {
             // Update - markiere als nicht neu
@@ -281,6 +301,8 @@ public class StockyardService {
 
         // Dann den Lagerplatz selbst löschen
         stockyardRepository.deleteById(id);
+        yardOccupancyService.yardsChanged(id);
+        placementService.invalidate();
         log.info("Stockyard deleted: {}", id);
     }
 
@@ -308,6 +330,8 @@ public class StockyardService {
 
         // Lagerplatz löschen
         stockyardRepository.deleteById(id);
+        yardOccupancyService.yardsChanged(id);
+        placementService.invalidate();
         log.info("Stockyard force deleted: {}", id);
     }
 
@@ -346,8 +370,7 @@ public class StockyardService {
     }
 
     /**
-     * Zählt Barren auf mehreren Lagerplätzen DIREKT aus TD_INGOT.
-     * Dies liefert aktuelle Daten, nicht aus TD_STOCKYARDSTATUS (kann veraltet sein).
+     * Zählt Barren auf mehreren Lagerplätzen (aus dem Belegungsmodell, basiert auf TD_INGOT).
      *
      * @param stockyardIds Liste der Lagerplatz-IDs
      * @return Map mit Lagerplatz-ID -> Anzahl Barren
@@ -356,34 +379,11 @@ public class StockyardService {
         if (stockyardIds == null || stockyardIds.isEmpty()) {
             return Collections.emptyMap();
         }
-
-        try {
-            String placeholders = stockyardIds.stream()
-                .map(id -> "?")
-                .collect(Collectors.joining(","));
-
-            String sql = String.format(
-                "SELECT STOCKYARD_ID, COUNT(*) as CNT FROM TD_INGOT " +
-                "WHERE STOCKYARD_ID IN (%s) " +
-                "GROUP BY STOCKYARD_ID",
-                placeholders);
-
-            Map<Long, Integer> result = new HashMap<>();
-            jdbcTemplate.query(sql, rs -> {
-                Long yardId = rs.getLong("STOCKYARD_ID");
-                int count = rs.getInt("CNT");
-                result.put(yardId, count);
-            }, stockyardIds.toArray());
-
-            return result;
-        } catch (Exception e) {
-            log.warn("Fehler beim Zaehlen der Barren: {}", e.getMessage());
-            return Collections.emptyMap();
-        }
+        return yardOccupancyService.getIngotCounts(stockyardIds);
     }
 
     /**
-     * Zählt offene Transport-Aufträge ZU den angegebenen Lagerplätzen.
+     * Zählt offene Transport-Aufträge ZU den angegebenen Lagerplätzen (aus dem Belegungsmodell).
      * Status: PENDING (P), IN_PROGRESS (I), PICKED_UP (U), PAUSED (H)
      * Dies verhindert, dass volle Lagerplätze als Ziel ausgewählt werden.
      *
@@ -394,35 +394,11 @@ public class StockyardService {
         if (stockyardIds == null || stockyardIds.isEmpty()) {
             return Collections.emptyMap();
         }
-
-        try {
-            // SQL für Oracle und H2 kompatibel
-            String placeholders = stockyardIds.stream()
-                .map(id -> "?")
-                .collect(Collectors.joining(","));
-
-            String sql = String.format(
-                "SELECT TO_YARD_ID, COUNT(*) as CNT FROM TD_TRANSPORTORDER " +
-                "WHERE TO_YARD_ID IN (%s) AND STATUS IN ('P', 'I', 'U', 'H') " +
-                "GROUP BY TO_YARD_ID",
-                placeholders);
-
-            Map<Long, Integer> result = new HashMap<>();
-            jdbcTemplate.query(sql, rs -> {
-                Long yardId = rs.getLong("TO_YARD_ID");
-                int count = rs.getInt("CNT");
-                result.put(yardId, count);
-            }, stockyardIds.toArray());
-
-            if (!result.isEmpty()) {
-                log.debug("Offene Transporte zu Lagerplaetzen: {}", result);
-            }
-
-            return result;
-        } catch (Exception e) {
-            log.warn("Fehler beim Zaehlen offener Transporte: {}", e.getMessage());
-            return Collections.emptyMap();
+        Map<Long, Integer> result = yardOccupancyService.getPendingInbound(stockyardIds);
+        if (!result.isEmpty()) {
+            log.debug("Offene Transporte zu Lagerplaetzen: {}", result);
         }
+        return result;
     }
 
     /**
@@ -438,7 +414,7 @@ public class StockyardService {
     /**
      * Findet verfügbare Lagerplätze eines bestimmten Typs
      * Berücksichtigt auch offene Transport-Aufträge (PENDING, IN_PROGRESS, PICKED_UP, PAUSED)
-     * Zählt Barren DIREKT aus TD_INGOT (nicht aus TD_STOCKYARDSTATUS) für aktuelle Daten.
+     * Zählt Barren über das Belegungsmodell (TD_INGOT, nicht TD_STOCKYARDSTATUS) für aktuelle Daten.
      */
     public List<StockyardDTO> findAvailableByType(String typeCode) {
         log.info("=== findAvailableByType START (Typ={}) ===", typeCode);
@@ -454,11 +430,12 @@ public class StockyardService {
         Map<Long, StockyardStatus> statusMap = statusRepository.findByStockyardIdIn(stockyardIds)
             .stream()
             .collect(Collectors.toMap(StockyardStatus::getStockyardId, s -> s));
+        Map<Long, StatusDetails> detailsMap = loadStatusDetails(stockyardIds);
 
         // Offene Transport-Aufträge pro Ziel-Lagerplatz zählen
         Map<Long, Integer> pendingTransportsMap = countPendingTransportsToYards(stockyardIds);
 
-        // Aktuelle Barren-Anzahl DIREKT aus TD_INGOT zählen (nicht aus Status-Tabelle)
+        // Aktuelle Barren-Anzahl aus dem Belegungsmodell (nicht aus Status-Tabelle)
         Map<Long, Integer> actualIngotCounts = countIngotsOnStockyards(stockyardIds);
 
         // DTOs erstellen und nach verfügbarem Platz filtern (inkl. offener Transporte)
@@ -467,7 +444,7 @@ public class StockyardService {
                 StockyardDTO dto = toDTO(yard);
                 StockyardStatus status = statusMap.get(yard.getId());
                 if (status != null) {
-                    dto.setStatus(toStatusDTO(status, yard.getMaxIngots()));
+                    dto.setStatus(toStatusDTO(status, yard.getMaxIngots(), detailsMap.get(yard.getId())));
                 }
                 return dto;
             })
@@ -632,7 +609,7 @@ public class StockyardService {
     /**
      * Findet verfügbare Ziel-Lagerplätze (Einlagern erlaubt, nicht voll)
      * Berücksichtigt auch offene Transport-Aufträge (PENDING, IN_PROGRESS, PICKED_UP, PAUSED)
-     * Zählt Barren DIREKT aus TD_INGOT (nicht aus TD_STOCKYARDSTATUS) für aktuelle Daten.
+     * Zählt Barren über das Belegungsmodell (TD_INGOT, nicht TD_STOCKYARDSTATUS) für aktuelle Daten.
      */
     public List<StockyardDTO> findAvailableDestinations() {
         log.info("######################################################");
@@ -651,14 +628,15 @@ public class StockyardService {
         Map<Long, StockyardStatus> statusMap = statusRepository.findByStockyardIdIn(stockyardIds)
             .stream()
             .collect(Collectors.toMap(StockyardStatus::getStockyardId, s -> s));
+        Map<Long, StatusDetails> detailsMap = loadStatusDetails(stockyardIds);
 
         // Offene Transport-Aufträge pro Ziel-Lagerplatz zählen
         Map<Long, Integer> pendingTransportsMap = countPendingTransportsToYards(stockyardIds);
         log.info("Pending Transports Map: {}", pendingTransportsMap);
 
-        // Aktuelle Barren-Anzahl DIREKT aus TD_INGOT zählen (nicht aus Status-Tabelle)
+        // Aktuelle Barren-Anzahl aus dem Belegungsmodell (nicht aus Status-Tabelle)
         Map<Long, Integer> actualIngotCounts = countIngotsOnStockyards(stockyardIds);
-        log.info("Actual Ingot Counts (aus TD_INGOT): {}", actualIngotCounts);
+        log.info("Actual Ingot Counts (Belegungsmodell): {}", actualIngotCounts);
 
         // DTOs erstellen und nach verfügbarem Platz filtern (inkl. offener Transporte)
         List<StockyardDTO> result = stockyards.stream()
@@ -670,8 +648,9 @@ public class StockyardService {
                 int actualCount = actualIngotCounts.getOrDefault(yard.getId(), 0);
 
                 if (status != null) {
-                    StockyardStatusDTO statusDTO = toStatusDTO(status, yard.getMaxIngots());
-                    // Überschreibe mit echtem Count aus TD_INGOT
+                    StockyardStatusDTO statusDTO = toStatusDTO(status, yard.getMaxIngots(),
+                        detailsMap.get(yard.getId()));
+                    // Überschreibe mit echtem Count aus dem Belegungsmodell
                     statusDTO.setIngotsCount(actualCount);
                     dto.setStatus(statusDTO);
                 } else if (actualCount > 0) {
@@ -732,8 +711,9 @@ public class StockyardService {
         Map<Long, StockyardStatus> statusMap = statusRepository.findByStockyardIdIn(stockyardIds)
             .stream()
             .collect(Collectors.toMap(StockyardStatus::getStockyardId, s -> s));
+        Map<Long, StatusDetails> detailsMap = loadStatusDetails(stockyardIds);
 
-        // Aktuelle Barren-Anzahl DIREKT aus TD_INGOT zählen
+        // Aktuelle Barren-Anzahl aus dem Belegungsmodell
         Map<Long, Integer> actualIngotCounts = countIngotsOnStockyards(stockyardIds);
 
         // DTOs erstellen und nach verfügbarem Platz filtern
@@ -745,7 +725,8 @@ public class StockyardService {
                 int actualCount = actualIngotCounts.getOrDefault(yard.getId(), 0);
 
                 if (status != null) {
-                    StockyardStatusDTO statusDTO = toStatusDTO(status, yard.getMaxIngots());
+                    StockyardStatusDTO statusDTO = toStatusDTO(status, yard.getMaxIngots(),
+                        detailsMap.get(yard.getId()));
                     statusDTO.setIngotsCount(actualCount);
                     dto.setStatus(statusDTO);
                 } else if (actualCount > 0) {
@@ -888,6 +869,8 @@ public class StockyardService {
         // Anderen Platz löschen (samt Status falls vorhanden)
         statusRepository.findByStockyardId(delete.getId()).ifPresent(statusRepository::delete);
         stockyardRepository.deleteById(delete.getId());
+        yardOccupancyService.yardsChanged(keep.getId(), delete.getId());
+        placementService.invalidate();
 
         log.info("Stockyards merged: {} + {} -> {} (Lang)",
             stockyardId1, stockyardId2, keep.getYardNumber());
@@ -1042,7 +1025,7 @@ public class StockyardService {
         return dto;
     }
     
-    private StockyardStatusDTO toStatusDTO(StockyardStatus status, int maxIngots) {
+    private StockyardStatusDTO toStatusDTO(StockyardStatus status, int maxIngots, StatusDetails details) {
         StockyardStatusDTO dto = new StockyardStatusDTO();
         dto.setId(status.getId());
         dto.setStockyardId(status.getStockyardId());
@@ -1052,47 +1035,77 @@ public class StockyardService {
         dto.setFull(status.getIngotsCount() >= maxIngots);
         dto.setNeighborId(status.getNeighborId());
 
-        // Produkt-Nummer laden (optional)
-        if (status.getProductId() != null) {
-            try {
-                String productNo = jdbcTemplate.queryForObject(
-                    "SELECT PRODUCT_NO FROM MD_PRODUCT WHERE ID = ?",
-                    String.class,
-                    status.getProductId()
-                );
-                dto.setProductNumber(productNo);
-            } catch (Exception e) {
-                // Produkt nicht gefunden - ignorieren
-            }
+        // Produkt- und Barren-Nummer aus der vorab geladenen Projektion (siehe loadStatusDetails)
+        if (details != null) {
+            dto.setProductNumber(details.productNumber());
+            dto.setIngotNumber(details.ingotNumber());
         }
 
-        // Barren-Nummer laden (für alle Plätze mit Barren, z.B. SAW-Plätze)
-        // Erster Barren in Warteschlange = niedrigste Position (ASC) = nächster zu verarbeiten
-        // WICHTIG: Nur Barren mit ABGESCHLOSSENEN Transportaufträgen ausschließen
-        // (COMPLETED='C' wird nicht angezeigt, aktive Transporte werden weiterhin angezeigt)
-        if (status.getIngotsCount() > 0) {
-            try {
-                String ingotNo = jdbcTemplate.queryForObject(
-                    "SELECT INGOT_NO FROM TD_INGOT i WHERE i.STOCKYARD_ID = ? " +
-                    "AND NOT EXISTS (" +
-                    "  SELECT 1 FROM TD_TRANSPORTORDER t " +
-                    "  WHERE t.INGOT_ID = i.ID " +
-                    "  AND t.FROM_YARD_ID = i.STOCKYARD_ID " +
-                    "  AND t.STATUS = 'C'" +
-                    ") " +
-                    "ORDER BY i.PILE_POSITION ASC FETCH FIRST 1 ROWS ONLY",
-                    String.class,
-                    status.getStockyardId()
-                );
-                dto.setIngotNumber(ingotNo);
-            } catch (Exception e) {
-                log.debug("Ingot number not found for stockyard {}: {}",
-                    status.getStockyardId(), e.getMessage());
+        return dto;
+    }
+
+    /**
+     * Lädt Produkt-Nummer und nächsten Barren in der Warteschlange für mehrere Lagerplätze
+     * in EINER Abfrage (statt zwei Einzelabfragen pro Lagerplatz).
+     *
+     * Nächster Barren = niedrigste Position (ASC) = nächster zu verarbeiten.
+     * WICHTIG: Nur Barren mit ABGESCHLOSSENEN Transportaufträgen ausschließen
+     * (COMPLETED='C' wird nicht angezeigt, aktive Transporte werden weiterhin angezeigt)
+     *
+     * @param stockyardIds Lagerplatz-IDs oder null für alle Lagerplätze
+     * @return Map StockyardId -> Details (nur Plätze mit Status-Eintrag)
+     */
+    private Map<Long, StatusDetails> loadStatusDetails(Collection<Long> stockyardIds) {
+        if (stockyardIds != null && stockyardIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        String yardFilter = "";
+        Object[] args = new Object[0];
+        if (stockyardIds != null) {
+            String placeholders = stockyardIds.stream().map(id -> "?").collect(Collectors.joining(","));
+            yardFilter = " AND %s IN (" + placeholders + ")";
+            // IDs werden zweimal gebunden: Innen (Barren) und außen (Status)
+            args = new Object[stockyardIds.size() * 2];
+            int i = 0;
+            for (Long id : stockyardIds) {
+                args[i] = id;
+                args[i + stockyardIds.size()] = id;
+                i++;
             }
         }
 
-        return dto;
+        // ROW_NUMBER() wird von Oracle und H2 (MODE=Oracle) gleichermaßen unterstützt
+        String sql =
+            "SELECT s.STOCKYARD_ID, p.PRODUCT_NO, q.INGOT_NO " +
+            "FROM TD_STOCKYARDSTATUS s " +
+            "LEFT JOIN MD_PRODUCT p ON p.ID = s.PRODUCT_ID " +
+            "LEFT JOIN (" +
+            "  SELECT i.STOCKYARD_ID, i.INGOT_NO, " +
+            "         ROW_NUMBER() OVER (PARTITION BY i.STOCKYARD_ID ORDER BY i.PILE_POSITION ASC, i.ID ASC) AS RN " +
+            "  FROM TD_INGOT i " +
+            "  WHERE i.STOCKYARD_ID IS NOT NULL" + yardFilter.formatted("i.STOCKYARD_ID") +
+            "  AND NOT EXISTS (" +
+            "    SELECT 1 FROM TD_TRANSPORTORDER t " +
+            "    WHERE t.INGOT_ID = i.ID " +
+            "    AND t.FROM_YARD_ID = i.STOCKYARD_ID " +
+            "    AND t.STATUS = 'C'" +
+            "  )" +
+            ") q ON q.STOCKYARD_ID = s.STOCKYARD_ID AND q.RN = 1 " +
+            "WHERE 1 = 1" + yardFilter.formatted("s.STOCKYARD_ID");
+
+        Map<Long, StatusDetails> result = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            result.putIfAbsent(rs.getLong("STOCKYARD_ID"),
+                new StatusDetails(rs.getString("PRODUCT_NO"), rs.getString("INGOT_NO")));
+        }, args);
+        return result;
     }
+
+    /**
+     * Produkt- und Barren-Nummer eines Lagerplatzes für die Status-Anzeige
+     */
+    private record StatusDetails(String productNumber, String ingotNumber) {}
     
     private void updateFromDTO(Stockyard entity, StockyardDTO dto) {
         entity.setYardNumber(dto.getYardNumber());
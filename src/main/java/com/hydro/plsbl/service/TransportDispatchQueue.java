@@ -0,0 +1,237 @@
+package com.hydro.plsbl.service;
+
+import com.hydro.plsbl.entity.enums.OrderStatus;
+import com.hydro.plsbl.entity.transdata.TransportOrder;
+import com.hydro.plsbl.repository.TransportOrderRepository;
+import com.hydro.plsbl.simulator.SimulationClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-Process Warteschlange der wartenden Transportaufträge (Status PENDING).
+ *
+ * Sortierung wie TransportOrderService.findPendingOrders():
+ * höhere Priorität zuerst, bei gleicher Priorität der ältere Auftrag (kleinere ID).
+ *
+ * Wird von TransportOrderService nach jedem Commit gepflegt und beim Start sowie
+ * periodisch (Sicherheits-Abgleich) aus TD_TRANSPORTORDER neu aufgebaut.
+ * Listener werden benachrichtigt, sobald ein Auftrag neu eingereiht wurde.
+ *
+ * Jeder Eintrag kennt zusaetzlich den Quell-Lagerplatz und den Zeitpunkt des
+ * Einreihens, damit die Kran-Reihenfolge (CraneJobSequencer) ohne DB-Zugriff
+ * nach Leerfahrt und Wartezeit bewertet werden kann.
+ */
+@Service
+public class TransportDispatchQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(TransportDispatchQueue.class);
+
+    private static final Comparator<QueuedOrder> DISPATCH_ORDER = Comparator
+        .comparingInt(QueuedOrder::priority).reversed()
+        .thenComparingLong(QueuedOrder::orderId);
+
+    private final TransportOrderRepository orderRepository;
+    private final SimulationClock clock;
+
+    private final ConcurrentSkipListSet<QueuedOrder> queue = new ConcurrentSkipListSet<>(DISPATCH_ORDER);
+    private final Map<Long, QueuedOrder> byId = new ConcurrentHashMap<>();
+
+    private final List<Runnable> orderQueuedListeners = new CopyOnWriteArrayList<>();
+
+    public TransportDispatchQueue(TransportOrderRepository orderRepository, SimulationClock clock) {
+        this.orderRepository = orderRepository;
+        this.clock = clock;
+    }
+
+    // ========================================================================
+    // Lesen
+    // ========================================================================
+
+    /**
+     * Nächster Auftrag (ohne ihn zu entfernen)
+     */
+    public Optional<QueuedOrder> peek() {
+        return queue.stream().findFirst();
+    }
+
+    /**
+     * Die ersten {@code limit} Auftraege in Vergabe-Reihenfolge
+     */
+    public List<QueuedOrder> head(int limit) {
+        return queue.stream().limit(limit).toList();
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public boolean isEmpty() {
+        return byId.isEmpty();
+    }
+
+    public boolean contains(Long orderId) {
+        return orderId != null && byId.containsKey(orderId);
+    }
+
+    // ========================================================================
+    // Pflege
+    // ========================================================================
+
+    /**
+     * Meldet einen geänderten Auftrag. PENDING-Aufträge werden (neu) eingereiht,
+     * alle anderen entfernt. Läuft eine Transaktion, erst nach dem Commit.
+     */
+    public void orderChanged(Long orderId, OrderStatus status, Integer priority, Long fromYardId) {
+        if (orderId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            if (status == OrderStatus.PENDING) {
+                offer(orderId, priority != null ? priority : 0, fromYardId);
+            } else {
+                remove(orderId);
+            }
+        });
+    }
+
+    /**
+     * Meldet einen gelöschten Auftrag
+     */
+    public void orderDeleted(Long orderId) {
+        if (orderId != null) {
+            afterCommit(() -> remove(orderId));
+        }
+    }
+
+    /**
+     * Reiht einen Auftrag ein bzw. aktualisiert seine Priorität (Wartezeit bleibt erhalten)
+     */
+    public void offer(Long orderId, int priority, Long fromYardId) {
+        boolean added;
+        synchronized (this) {
+            QueuedOrder previous = byId.get(orderId);
+            long queuedAt = previous != null ? previous.queuedAt() : clock.millis();
+            QueuedOrder entry = new QueuedOrder(orderId, priority, fromYardId, queuedAt);
+            byId.put(orderId, entry);
+            if (previous != null) {
+                queue.remove(previous);
+            }
+            queue.add(entry);
+            added = previous == null;
+        }
+        if (added) {
+            log.debug("Auftrag {} eingereiht (Prio {}), Warteschlange: {}", orderId, priority, size());
+            notifyOrderQueued();
+        }
+    }
+
+    /**
+     * Entfernt einen Auftrag aus der Warteschlange
+     */
+    public synchronized void remove(Long orderId) {
+        QueuedOrder previous = byId.remove(orderId);
+        if (previous != null) {
+            queue.remove(previous);
+        }
+    }
+
+    /**
+     * Baut die Warteschlange aus TD_TRANSPORTORDER neu auf
+     *
+     * @return Anzahl der Korrekturen gegenüber dem bisherigen Stand
+     */
+    public int rebuild() {
+        List<TransportOrder> pending = orderRepository.findByStatus(OrderStatus.PENDING.getCode());
+        int corrections;
+        boolean added = false;
+        synchronized (this) {
+            long now = clock.millis();
+            Map<Long, QueuedOrder> fresh = new HashMap<>();
+            for (TransportOrder order : pending) {
+                QueuedOrder known = byId.get(order.getId());
+                fresh.put(order.getId(), new QueuedOrder(order.getId(),
+                    order.getPriority() != null ? order.getPriority() : 0,
+                    order.getFromYardId(),
+                    known != null ? known.queuedAt() : now));
+            }
+
+            corrections = 0;
+            for (Long id : byId.keySet()) {
+                if (!fresh.containsKey(id)) {
+                    corrections++;
+                }
+            }
+            for (Map.Entry<Long, QueuedOrder> entry : fresh.entrySet()) {
+                if (!entry.getValue().equals(byId.get(entry.getKey()))) {
+                    corrections++;
+                    added |= !byId.containsKey(entry.getKey());
+                }
+            }
+
+            byId.clear();
+            byId.putAll(fresh);
+            queue.clear();
+            queue.addAll(fresh.values());
+        }
+
+        log.debug("Auftrags-Warteschlange neu aufgebaut: {} wartende Aufträge, {} Korrekturen",
+            pending.size(), corrections);
+        if (added) {
+            notifyOrderQueued();
+        }
+        return corrections;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // ========================================================================
+    // Listener
+    // ========================================================================
+
+    /**
+     * Registriert einen Listener, der aufgerufen wird, sobald ein neuer Auftrag eingereiht wurde
+     */
+    public void addOrderQueuedListener(Runnable listener) {
+        orderQueuedListeners.add(listener);
+    }
+
+    private void notifyOrderQueued() {
+        orderQueuedListeners.forEach(l -> {
+            try { l.run(); } catch (Exception e) { log.error("Listener error", e); }
+        });
+    }
+
+    // ========================================================================
+    // Datentypen
+    // ========================================================================
+
+    /**
+     * Eintrag in der Warteschlange
+     *
+     * @param queuedAt Zeitpunkt des ersten Einreihens (ms), bleibt bei Prioritaets-Aenderung erhalten
+     */
+    public record QueuedOrder(long orderId, int priority, Long fromYardId, long queuedAt) {}
+}
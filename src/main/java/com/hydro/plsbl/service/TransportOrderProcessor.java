@@ -6,20 +6,28 @@ import com.hydro.plsbl.dto.TransportOrderDTO;
 import com.hydro.plsbl.entity.enums.OrderStatus;
 import com.hydro.plsbl.plc.PlcException;
 import com.hydro.plsbl.plc.PlcService;
+import com.hydro.plsbl.plc.PlcStatusChange;
 import com.hydro.plsbl.plc.dto.JobState;
 import com.hydro.plsbl.plc.dto.PlcCommand;
 import com.hydro.plsbl.plc.dto.PlcStatus;
 import com.hydro.plsbl.plc.dto.WorkPhase;
-import com.hydro.plsbl.service.DataBroadcaster.DataEventType;
+import com.hydro.plsbl.service.TransportDispatchQueue.QueuedOrder;
+import com.hydro.plsbl.simulator.SimulationClock;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
@@ -27,10 +35,14 @@ import java.util.function.Consumer;
  * Automatische Verarbeitung von Transportaufträgen
  *
  * Dieser Service:
- * - Holt wartende Aufträge aus der Datenbank
+ * - Holt wartende Aufträge aus der In-Process Warteschlange (TransportDispatchQueue)
  * - Sendet Kran-Befehle an PlcService
  * - Überwacht den Fortschritt
  * - Aktualisiert den Auftragsstatus
+ *
+ * Die Vergabe ist ereignisgesteuert: neuer Auftrag in der Warteschlange, Kran wird IDLE
+ * oder Auftrag abgeschlossen lösen sofort die nächste Vergabe aus. Die Datenbank wird
+ * nur noch beim Start und im langsamen Sicherheits-Abgleich gelesen.
  */
 @Service
 public class TransportOrderProcessor {
@@ -45,12 +57,29 @@ public class TransportOrderProcessor {
     private final PlcService plcService;
     private final DataBroadcaster dataBroadcaster;
     private final MessageService messageService;
+    private final TransportDispatchQueue dispatchQueue;
+    private final CraneSequencingService sequencingService;
+    private final SimulationClock clock;
 
     // Aktueller Auftrag in Bearbeitung
     private final AtomicReference<TransportOrderDTO> currentOrder = new AtomicReference<>();
     private final AtomicBoolean autoProcessingEnabled = new AtomicBoolean(false);
     private final AtomicBoolean processing = new AtomicBoolean(false);
 
+    // Vergabe läuft in eigenem Thread; mehrere Weck-Ereignisse werden zusammengefasst
+    private final ExecutorService dispatchExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "OrderDispatcher");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicBoolean dispatchRequested = new AtomicBoolean(false);
+    private volatile JobState lastJobState;
+
+    // Wartezeit der Aufträge in der Warteschlange (Einreihen bis Vergabe)
+    private final AtomicLong dispatchedOrders = new AtomicLong();
+    private final AtomicLong queueWaitSumMs = new AtomicLong();
+    private final AtomicLong queueWaitMaxMs = new AtomicLong();
+
     // Event-Listener
     private final List<Consumer<TransportOrderDTO>> orderStartedListeners = new CopyOnWriteArrayList<>();
     private final List<Consumer<TransportOrderDTO>> orderCompletedListeners = new CopyOnWriteArrayList<>();
@@ -62,16 +91,43 @@ public class TransportOrderProcessor {
                                    IngotService ingotService,
                                    PlcService plcService,
                                    DataBroadcaster dataBroadcaster,
-                                   MessageService messageService) {
+                                   MessageService messageService,
+                                   TransportDispatchQueue dispatchQueue,
+                                   CraneSequencingService sequencingService,
+                                   SimulationClock clock) {
         this.orderService = orderService;
         this.stockyardService = stockyardService;
         this.ingotService = ingotService;
         this.plcService = plcService;
         this.dataBroadcaster = dataBroadcaster;
         this.messageService = messageService;
+        this.dispatchQueue = dispatchQueue;
+        this.sequencingService = sequencingService;
+        this.clock = clock;
+
+        // PlcService Status-Listener für Fortschritts-Tracking (nur Job-Status/Arbeitsphase)
+        plcService.addStatusChangeListener(change -> {
+            if (change.affects(PlcStatusChange.Field.JOB_STATE, PlcStatusChange.Field.WORK_PHASE)) {
+                onPlcStatusUpdate(change.getCurrent());
+            }
+        });
 
-        // PlcService Status-Listener für Fortschritts-Tracking
-        plcService.addStatusListener(this::onPlcStatusUpdate);
+        // Neuer Auftrag in der Warteschlange -> sofort vergeben
+        dispatchQueue.addOrderQueuedListener(this::requestDispatch);
+    }
+
+    /**
+     * Baut die Warteschlange beim Start aus TD_TRANSPORTORDER auf
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        dispatchQueue.rebuild();
+        log.info("Auftrags-Warteschlange geladen: {} wartende Aufträge", dispatchQueue.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatchExecutor.shutdownNow();
     }
 
     // ========================================================================
@@ -91,6 +147,7 @@ public class TransportOrderProcessor {
         autoProcessingEnabled.set(true);
         log.info("Automatische Auftragsverarbeitung gestartet");
         notifyStatusChange("Auto-Processing gestartet");
+        requestDispatch();
     }
 
     /**
@@ -163,10 +220,25 @@ public class TransportOrderProcessor {
     }
 
     /**
-     * Gibt die Anzahl der wartenden Aufträge zurück
+     * Gibt die Anzahl der wartenden Aufträge zurück (aus der Warteschlange, ohne DB-Zugriff)
      */
     public int getPendingOrderCount() {
-        return orderService.findPendingOrders().size();
+        return dispatchQueue.size();
+    }
+
+    /**
+     * Wartezeit-Statistik der vergebenen Aufträge (Einreihen bis Vergabe an den Kran)
+     */
+    public QueueWaitStats getQueueWaitStats() {
+        long orders = dispatchedOrders.get();
+        double mean = orders == 0 ? 0.0 : queueWaitSumMs.get() / (double) orders / 1000.0;
+        return new QueueWaitStats(orders, mean, queueWaitMaxMs.get() / 1000.0);
+    }
+
+    public void resetQueueWaitStats() {
+        dispatchedOrders.set(0);
+        queueWaitSumMs.set(0);
+        queueWaitMaxMs.set(0);
     }
 
     // ========================================================================
@@ -174,13 +246,66 @@ public class TransportOrderProcessor {
     // ========================================================================
 
     /**
-     * Prüft regelmäßig auf neue Aufträge (alle 2 Sekunden)
+     * Liegen Aufträge in der Warteschlange, wird die Vergabe regelmäßig (alle 2 Sekunden)
+     * erneut angestoßen (z.B. nach Alarm-Quittierung oder Retry) - ohne DB-Zugriff.
+     * Tür-Alarme wertet der MessageService selbst bei Status-Änderungen aus.
      */
     @Scheduled(fixedDelay = 2000)
     public void checkForPendingOrders() {
-        // Tür-Status prüfen und ggf. Alarme erzeugen
-        messageService.checkStatus();
+        if (!dispatchQueue.isEmpty()) {
+            requestDispatch();
+        }
+    }
 
+    /**
+     * Langsamer Sicherheits-Abgleich der Warteschlange mit TD_TRANSPORTORDER.
+     * Fängt Aufträge ab, die an TransportOrderService vorbei geändert wurden.
+     */
+    @Scheduled(fixedDelayString = "${plsbl.orders.sweep-interval:30000}",
+               initialDelayString = "${plsbl.orders.sweep-interval:30000}")
+    public void safetySweep() {
+        int corrections = dispatchQueue.rebuild();
+        if (corrections > 0) {
+            log.warn("Auftrags-Warteschlange: {} Abweichungen zur Datenbank korrigiert", corrections);
+        }
+        if (!dispatchQueue.isEmpty()) {
+            requestDispatch();
+        }
+    }
+
+    /**
+     * Stößt die Vergabe des nächsten Auftrags an (asynchron, mehrfache Anfragen werden zusammengefasst).
+     * Bei virtueller Zeit wird synchron vergeben, damit der Ablauf reproduzierbar bleibt.
+     */
+    public void requestDispatch() {
+        if (clock.isVirtual()) {
+            try {
+                dispatchNext();
+            } catch (Exception e) {
+                log.error("Fehler bei der Auftragsvergabe", e);
+            }
+            return;
+        }
+        if (dispatchRequested.compareAndSet(false, true)) {
+            try {
+                dispatchExecutor.execute(() -> {
+                    dispatchRequested.set(false);
+                    try {
+                        dispatchNext();
+                    } catch (Exception e) {
+                        log.error("Fehler bei der Auftragsvergabe", e);
+                    }
+                });
+            } catch (java.util.concurrent.RejectedExecutionException e) {
+                dispatchRequested.set(false);
+            }
+        }
+    }
+
+    /**
+     * Vergibt den nächsten Auftrag aus der Warteschlange, wenn der Kran bereit ist
+     */
+    private void dispatchNext() {
         if (!autoProcessingEnabled.get()) {
             return;
         }
@@ -204,16 +329,29 @@ public class TransportOrderProcessor {
             return; // Kran ist beschäftigt
         }
 
-        // Nächsten Auftrag holen
-        List<TransportOrderDTO> pending = orderService.findPendingOrders();
-        if (pending.isEmpty()) {
+        // Nächsten Auftrag wählen (FIFO oder minimale Leerfahrt) - Status in der DB gegenprüfen
+        Optional<QueuedOrder> next;
+        while ((next = sequencingService.selectNext(dispatchQueue, status)).isPresent()) {
+            long orderId = next.get().orderId();
+            Optional<TransportOrderDTO> order = orderService.findById(orderId);
+            if (order.isEmpty() || order.get().getStatus() != OrderStatus.PENDING) {
+                log.debug("Auftrag {} nicht mehr wartend - aus Warteschlange entfernt", orderId);
+                dispatchQueue.remove(orderId);
+                continue;
+            }
+
+            recordQueueWait(clock.millis() - next.get().queuedAt());
+            TransportOrderDTO nextOrder = order.get();
+            log.info("Starte automatische Verarbeitung von Auftrag {}", nextOrder.getTransportNo());
+            executeOrder(nextOrder);
             return;
         }
+    }
 
-        TransportOrderDTO nextOrder = pending.get(0);
-        log.info("Starte automatische Verarbeitung von Auftrag {}", nextOrder.getTransportNo());
-
-        executeOrder(nextOrder);
+    private void recordQueueWait(long waitMs) {
+        dispatchedOrders.incrementAndGet();
+        queueWaitSumMs.addAndGet(Math.max(0, waitMs));
+        queueWaitMaxMs.accumulateAndGet(waitMs, Math::max);
     }
 
     // ========================================================================
@@ -333,6 +471,14 @@ public class TransportOrderProcessor {
      * Wird bei PLC-Status-Updates aufgerufen
      */
     private void onPlcStatusUpdate(PlcStatus status) {
+        // Kran wird IDLE -> nächsten Auftrag vergeben
+        JobState previousJobState = lastJobState;
+        lastJobState = status.getJobState();
+        if (status.getJobState() == JobState.IDLE && previousJobState != JobState.IDLE
+                && !dispatchQueue.isEmpty()) {
+            requestDispatch();
+        }
+
         TransportOrderDTO order = currentOrder.get();
         if (order == null) {
             return;
@@ -372,9 +518,11 @@ public class TransportOrderProcessor {
         orderService.updateStatus(order.getId(), OrderStatus.COMPLETED, null);
 
         // Barren in Datenbank umlagern
+        boolean relocated = false;
         if (order.getIngotId() != null && order.getToYardId() != null) {
             try {
                 ingotService.relocate(order.getIngotId(), order.getToYardId());
+                relocated = true;
                 log.info("Barren {} nach {} umgelagert", order.getIngotNo(), order.getToYardNo());
             } catch (Exception e) {
                 log.error("Fehler beim DB-Umlagern", e);
@@ -389,10 +537,14 @@ public class TransportOrderProcessor {
         notifyStatusChange("Auftrag " + order.getTransportNo() + " abgeschlossen");
 
         // UI-Views benachrichtigen, dass sich Lagerplatz-Daten geändert haben
-        if (dataBroadcaster != null) {
-            dataBroadcaster.broadcast(DataEventType.STOCKYARD_CHANGED);
+        // (nach erfolgreichem Umlagern meldet IngotService.relocate die Plätze bereits)
+        if (dataBroadcaster != null && !relocated) {
+            dataBroadcaster.broadcastStockyardsChanged(order.getFromYardId(), order.getToYardId());
             log.info("STOCKYARD_CHANGED broadcast gesendet");
         }
+
+        // Nächsten Auftrag sofort vergeben
+        requestDispatch();
     }
 
     /**
@@ -464,4 +616,14 @@ public class TransportOrderProcessor {
             try { l.accept(message); } catch (Exception e) { log.error("Listener error", e); }
         });
     }
+
+    /**
+     * Wartezeit-Statistik: Anzahl vergebener Aufträge, mittlere und maximale Wartezeit [s]
+     */
+    public record QueueWaitStats(long orders, double meanWaitSeconds, double maxWaitSeconds) {
+        @Override
+        public String toString() {
+            return String.format("n=%d, mean=%.1f s, max=%.1f s", orders, meanWaitSeconds, maxWaitSeconds);
+        }
+    }
 }
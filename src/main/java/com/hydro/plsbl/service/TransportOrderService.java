@@ -27,11 +27,21 @@ public class TransportOrderService {
     private static final Logger log = LoggerFactory.getLogger(TransportOrderService.class);
 
     private final TransportOrderRepository orderRepository;
+    private final YardOccupancyService yardOccupancyService;
+    private final TransportDispatchQueue dispatchQueue;
     private final JdbcTemplate jdbcTemplate;
+    private final IdAllocator idAllocator;
 
-    public TransportOrderService(TransportOrderRepository orderRepository, JdbcTemplate jdbcTemplate) {
+    public TransportOrderService(TransportOrderRepository orderRepository,
+                                 YardOccupancyService yardOccupancyService,
+                                 TransportDispatchQueue dispatchQueue,
+                                 JdbcTemplate jdbcTemplate,
+                                 IdAllocator idAllocator) {
         this.orderRepository = orderRepository;
+        this.yardOccupancyService = yardOccupancyService;
+        this.dispatchQueue = dispatchQueue;
         this.jdbcTemplate = jdbcTemplate;
+        this.idAllocator = idAllocator;
     }
 
     /**
@@ -91,12 +101,13 @@ public class TransportOrderService {
 
             // Basis-INSERT nur mit Spalten die sicher existieren
             Timestamp defaultTime = Timestamp.valueOf(LocalDateTime.of(1970, 1, 1, 0, 0, 0));
+            int priority = dto.getPriority() != null ? dto.getPriority() : 0;
 
             jdbcTemplate.update(
                 "INSERT INTO TD_TRANSPORTORDER (ID, SERIAL, TABLESERIAL, TRANSPORT_NO, NORMTEXT, " +
                 "CALLOFF_ID, INGOT_ID, FROM_YARD_ID, FROM_PILE_POSITION, TO_YARD_ID, TO_PILE_POSITION, " +
-                "PRINTED, DELIVERED) " +
-                "VALUES (?, 1, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                "PRINTED, DELIVERED, PRIORITY) " +
+                "VALUES (?, 1, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
                 nextId,
                 nextSerial,
                 dto.getTransportNo(),
@@ -108,16 +119,21 @@ public class TransportOrderService {
                 dto.getToYardId(),
                 dto.getToPilePosition(),
                 defaultTime,
-                defaultTime
+                defaultTime,
+                priority
             );
 
             log.info("Transport order created via SQL: ID={}, transportNo={}", nextId, dto.getTransportNo());
+            yardOccupancyService.yardsChanged(dto.getToYardId());
+            // STATUS wird beim INSERT nicht gesetzt -> DB-Default 'P'
+            dispatchQueue.orderChanged(nextId, OrderStatus.PENDING, priority, dto.getFromYardId());
             return dto;
         } else {
             // UPDATE - Repository verwenden
             TransportOrder entity = orderRepository.findById(dto.getId())
                 .orElseThrow(() -> new IllegalArgumentException("Auftrag nicht gefunden: " + dto.getId()));
             entity.markNotNew();
+            Long previousToYardId = entity.getToYardId();
 
             // Werte übernehmen
             entity.setTransportNo(dto.getTransportNo());
@@ -138,31 +154,19 @@ public class TransportOrderService {
 
             TransportOrder saved = orderRepository.save(entity);
             log.info("Transport order updated: ID={}", saved.getId());
+            yardOccupancyService.yardsChanged(previousToYardId, saved.getToYardId());
+            dispatchQueue.orderChanged(saved.getId(), saved.getOrderStatus(), saved.getPriority(), saved.getFromYardId());
 
             return toDTO(saved);
         }
     }
 
     private Long getNextId() {
-        try {
-            Long maxId = jdbcTemplate.queryForObject(
-                "SELECT NVL(MAX(ID), 0) + 1 FROM TD_TRANSPORTORDER", Long.class);
-            return maxId != null ? maxId : 1L;
-        } catch (Exception e) {
-            log.warn("Could not get next ID, using timestamp", e);
-            return System.currentTimeMillis();
-        }
+        return idAllocator.nextId("TD_TRANSPORTORDER");
     }
 
     private Long getNextTableSerial() {
-        try {
-            Long maxSerial = jdbcTemplate.queryForObject(
-                "SELECT NVL(MAX(TABLESERIAL), 0) + 1 FROM TD_TRANSPORTORDER", Long.class);
-            return maxSerial != null ? maxSerial : 1L;
-        } catch (Exception e) {
-            log.warn("Could not get next table serial, using timestamp", e);
-            return System.currentTimeMillis();
-        }
+        return idAllocator.nextTableSerial("TD_TRANSPORTORDER");
     }
 
     /**
@@ -171,7 +175,10 @@ public class TransportOrderService {
     @Transactional
     public void delete(Long id) {
         log.debug("Deleting transport order: {}", id);
+        Long toYardId = orderRepository.findById(id).map(TransportOrder::getToYardId).orElse(null);
         orderRepository.deleteById(id);
+        yardOccupancyService.yardsChanged(toYardId);
+        dispatchQueue.orderDeleted(id);
         log.info("Transport order deleted: {}", id);
     }
 
@@ -260,6 +267,8 @@ public class TransportOrderService {
             }
 
             orderRepository.save(order);
+            yardOccupancyService.yardsChanged(order.getToYardId());
+            dispatchQueue.orderChanged(order.getId(), status, order.getPriority(), order.getFromYardId());
         });
     }
 
@@ -0,0 +1,495 @@
+package com.hydro.plsbl.service;
+
+import com.hydro.plsbl.dto.IngotDTO;
+import com.hydro.plsbl.service.CraneJobSequencer.Position;
+import com.hydro.plsbl.service.CraneJobSequencer.TravelTime;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Plant eine LKW-Beladung aus dem Lagerbestand.
+ *
+ * Nebenbedingungen:
+ * - hoechstens maxCount Barren (max. Anzahl bzw. Restmenge des Abrufs) und maxWeightKg Gesamtgewicht,
+ * - Produkt des Abrufs (gibt es davon keinen Barren im Bestand, wird der ganze Bestand verwendet),
+ * - nur lange (> LONG_INGOT_LENGTH) oder nur kurze Barren, da eine Beladung in einem Kran-Modus faehrt,
+ * - Achslast: vorne und hinten unterscheiden sich um hoechstens maxImbalancePercent des Gesamtgewichts.
+ *
+ * Ziele: zuerst moeglichst viele Barren, dann minimale Kosten
+ * <pre>
+ *   Kranfahrzeit [s] (Lagerplatz -> Ladezone -> Lagerplatz) + Abweichung vorne/hinten [kg] * BALANCE_SECONDS_PER_KG
+ * </pre>
+ * Eine unzulaessige Abweichung wird zusaetzlich hoch bestraft.
+ *
+ * Ablauf je Laengenklasse: die erreichbare Anzahl ergibt sich aus den leichtesten Barren;
+ * Startloesung ist die bessere aus "kuerzeste Fahrt zuerst" und "leichteste zuerst",
+ * danach Tausch-Verbesserung (ein Barren gegen einen nicht geplanten) bis kein Tausch
+ * mehr hilft oder das Zeitbudget aufgebraucht ist. Die Aufteilung vorne/hinten ist bis
+ * EXACT_SPLIT_MAX Barren exakt, sonst heuristisch (schwerster Barren auf die leichtere Seite).
+ *
+ * Die Reihenfolge im Ergebnis entspricht der Anzeige in BeladungView: die ersten
+ * frontCount Barren liegen vorne (ein einzelner Barren gilt als vorne).
+ *
+ * Die Klasse ist zustandslos und ohne Spring-Abhaengigkeiten.
+ */
+public class TruckLoadPlanner {
+
+    /** Ab dieser Laenge (mm, exklusiv) wird im Langbarren-Modus geladen (wie BeladungView) */
+    public static final int LONG_INGOT_LENGTH = 4000;
+
+    /** Kranfahrzeit in Sekunden, die 1 kg Abweichung vorne/hinten aufwiegt */
+    static final double BALANCE_SECONDS_PER_KG = 0.01;
+
+    /** Strafe je kg ueber der zulaessigen Abweichung */
+    static final double IMBALANCE_PENALTY_PER_KG = 100.0;
+
+    /** Bis zu dieser Anzahl Barren wird die Aufteilung vorne/hinten exakt bestimmt */
+    static final int EXACT_SPLIT_MAX = 20;
+
+    /**
+     * Planungs-Auftrag
+     *
+     * @param maxCount            max. Anzahl Barren
+     * @param maxWeightKg         max. Gesamtgewicht in kg
+     * @param productId           Produkt des Abrufs (null = beliebig)
+     * @param maxImbalancePercent zulaessige Abweichung vorne/hinten in % des Gesamtgewichts
+     * @param front               Ablage-Position vorne auf dem LKW
+     * @param rear                Ablage-Position hinten auf dem LKW
+     * @param budgetMs            Zeitbudget fuer die Verbesserung in ms
+     */
+    public record Request(int maxCount, int maxWeightKg, Long productId, int maxImbalancePercent,
+                          Position front, Position rear, long budgetMs) {}
+
+    /**
+     * Ergebnis der Planung
+     *
+     * @param ingots          Barren in Ladereihenfolge (die ersten frontCount vorne)
+     * @param travelSeconds   geschaetzte Kranfahrzeit (Hin- und Rueckfahrt je Barren)
+     * @param longIngots      Beladung im Langbarren-Modus
+     * @param productMatched  Barren gehoeren zum Produkt des Abrufs (false = Rueckfall auf ganzen Bestand)
+     * @param balanced        Abweichung vorne/hinten liegt im zulaessigen Bereich
+     * @param searchCompleted Verbesserung vor Ablauf des Zeitbudgets abgeschlossen
+     */
+    public record LoadPlan(List<IngotDTO> ingots, int frontCount, int weightKg, int frontWeightKg,
+                           int rearWeightKg, double travelSeconds, boolean longIngots,
+                           boolean productMatched, boolean balanced, boolean searchCompleted) {
+
+        static LoadPlan empty(boolean productMatched) {
+            return new LoadPlan(List.of(), 0, 0, 0, 0, 0, false, productMatched, true, true);
+        }
+
+        public boolean isEmpty() {
+            return ingots.isEmpty();
+        }
+
+        public int getImbalanceKg() {
+            return Math.abs(frontWeightKg - rearWeightKg);
+        }
+    }
+
+    private final TravelTime travelTime;
+
+    /**
+     * @param travelTime Fahrzeit des Krans zwischen zwei Positionen
+     */
+    public TruckLoadPlanner(TravelTime travelTime) {
+        this.travelTime = travelTime;
+    }
+
+    /**
+     * Plant die Beladung
+     *
+     * @param stock        verfuegbare Barren
+     * @param request      Grenzen und Ladezone
+     * @param yardPosition Kran-Position je Lagerplatz-ID (null = unbekannt, wird ohne Fahrzeit bewertet)
+     */
+    public LoadPlan plan(List<IngotDTO> stock, Request request, Function<Long, Position> yardPosition) {
+        long deadline = System.nanoTime() + request.budgetMs() * 1_000_000L;
+
+        List<IngotDTO> pool = stock;
+        boolean productMatched = true;
+        if (request.productId() != null) {
+            List<IngotDTO> sameProduct = stock.stream()
+                .filter(ingot -> request.productId().equals(ingot.getProductId()))
+                .toList();
+            productMatched = !sameProduct.isEmpty();
+            if (productMatched) {
+                pool = sameProduct;
+            }
+        }
+
+        List<IngotDTO> shortIngots = new ArrayList<>();
+        List<IngotDTO> longIngots = new ArrayList<>();
+        for (IngotDTO ingot : pool) {
+            (isLong(ingot) ? longIngots : shortIngots).add(ingot);
+        }
+
+        Position middle = new Position((request.front().x() + request.rear().x()) / 2,
+                                       (request.front().y() + request.rear().y()) / 2);
+
+        // Zeitbudget auf die Laengenklassen aufteilen
+        long halfBudget = (deadline - System.nanoTime()) / 2;
+        Solution best = solve(new Group(shortIngots, false, middle, yardPosition), request,
+            System.nanoTime() + halfBudget);
+        Solution other = solve(new Group(longIngots, true, middle, yardPosition), request, deadline);
+        if (other.isBetterThan(best)) {
+            best = other;
+        }
+        if (best.selected.length == 0) {
+            return LoadPlan.empty(productMatched);
+        }
+        return split(best, request, yardPosition, productMatched);
+    }
+
+    static boolean isLong(IngotDTO ingot) {
+        return ingot.getLength() != null && ingot.getLength() > LONG_INGOT_LENGTH;
+    }
+
+    /**
+     * Gewicht in kg (TD_INGOT speichert Gramm, wie bisher in BeladungView umgerechnet)
+     */
+    static int weightKg(IngotDTO ingot) {
+        return ingot.getWeight() != null ? ingot.getWeight() / 1000 : 0;
+    }
+
+    /**
+     * Anzahl Barren vorne bei n Barren (wie BeladungView.updateAnzeigen)
+     */
+    static int frontCount(int n) {
+        return n == 1 ? 1 : n / 2;
+    }
+
+    // ========================================================================
+    // Suche
+    // ========================================================================
+
+    /**
+     * Barren einer Laengenklasse mit Gewicht und Fahrzeit zur Ladezonen-Mitte
+     */
+    private final class Group {
+        final List<IngotDTO> ingots;
+        final boolean longIngots;
+        final int[] weight;
+        final double[] travel;
+        final Integer[] byTravel;
+
+        Group(List<IngotDTO> ingots, boolean longIngots, Position middle, Function<Long, Position> yardPosition) {
+            this.ingots = ingots;
+            this.longIngots = longIngots;
+            int n = ingots.size();
+            weight = new int[n];
+            travel = new double[n];
+            byTravel = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                weight[i] = weightKg(ingots.get(i));
+                travel[i] = roundTrip(ingots.get(i), middle, yardPosition);
+                byTravel[i] = i;
+            }
+            Arrays.sort(byTravel, Comparator.<Integer>comparingDouble(i -> travel[i]).thenComparingInt(i -> weight[i]));
+        }
+    }
+
+    private double roundTrip(IngotDTO ingot, Position zone, Function<Long, Position> yardPosition) {
+        Position yard = ingot.getStockyardId() != null ? yardPosition.apply(ingot.getStockyardId()) : null;
+        if (yard == null) {
+            return 0;
+        }
+        return travelTime.seconds(yard, zone) + travelTime.seconds(zone, yard);
+    }
+
+    /**
+     * Auswahl (Indizes in der Gruppe) mit Bewertung
+     */
+    private static final class Solution {
+        final Group group;
+        final int[] selected;
+        final int weightKg;
+        final double travel;
+        final double cost;
+        final boolean completed;
+
+        Solution(Group group, int[] selected, int weightKg, double travel, double cost, boolean completed) {
+            this.group = group;
+            this.selected = selected;
+            this.weightKg = weightKg;
+            this.travel = travel;
+            this.cost = cost;
+            this.completed = completed;
+        }
+
+        boolean isBetterThan(Solution other) {
+            if (selected.length != other.selected.length) {
+                return selected.length > other.selected.length;
+            }
+            return cost < other.cost;
+        }
+    }
+
+    private Solution solve(Group group, Request request, long deadline) {
+        int n = group.ingots.size();
+        int target = targetCount(group, request);
+        if (target == 0) {
+            return new Solution(group, new int[0], 0, 0, 0, true);
+        }
+
+        // Startloesung A: kuerzeste Fahrt zuerst, solange das Gewicht passt
+        int[] byTravel = new int[target];
+        int count = 0;
+        int weight = 0;
+        for (int k = 0; k < n && count < target; k++) {
+            int i = group.byTravel[k];
+            if (weight + group.weight[i] <= request.maxWeightKg()) {
+                byTravel[count++] = i;
+                weight += group.weight[i];
+            }
+        }
+
+        // Startloesung B: die leichtesten Barren (erreichen die Anzahl immer)
+        int[] lightest = lightest(group, target);
+
+        Solution best = evaluate(group, lightest, request, false);
+        if (count == target) {
+            Solution travelFirst = evaluate(group, byTravel, request, false);
+            if (travelFirst.cost < best.cost) {
+                best = travelFirst;
+            }
+        }
+        return improve(group, best, request, deadline);
+    }
+
+    /**
+     * Groesste erreichbare Anzahl: die leichtesten Barren bis zum Gewichtslimit
+     */
+    private static int targetCount(Group group, Request request) {
+        int[] weights = group.weight.clone();
+        Arrays.sort(weights);
+        int limit = Math.min(request.maxCount(), weights.length);
+        int sum = 0;
+        for (int k = 0; k < limit; k++) {
+            sum += weights[k];
+            if (sum > request.maxWeightKg()) {
+                return k;
+            }
+        }
+        return Math.max(0, limit);
+    }
+
+    private static int[] lightest(Group group, int count) {
+        return Arrays.stream(group.byTravel)
+            .sorted(Comparator.<Integer>comparingInt(i -> group.weight[i]).thenComparingDouble(i -> group.travel[i]))
+            .limit(count)
+            .mapToInt(Integer::intValue)
+            .toArray();
+    }
+
+    private static Solution evaluate(Group group, int[] selected, Request request, boolean completed) {
+        int weight = 0;
+        double travel = 0;
+        int[] weights = new int[selected.length];
+        for (int s = 0; s < selected.length; s++) {
+            weights[s] = group.weight[selected[s]];
+            weight += weights[s];
+            travel += group.travel[selected[s]];
+        }
+        return new Solution(group, selected, weight, travel,
+            travel + balanceCost(weights, weight, request), completed);
+    }
+
+    /**
+     * Tausch-Verbesserung: ein geplanter Barren gegen einen nicht geplanten, solange es die Kosten senkt
+     */
+    private static Solution improve(Group group, Solution start, Request request, long deadline) {
+        int n = group.ingots.size();
+        int[] selected = start.selected.clone();
+        boolean[] inPlan = new boolean[n];
+        for (int i : selected) {
+            inPlan[i] = true;
+        }
+        int[] weights = new int[selected.length];
+        int weight = start.weightKg;
+        double travel = start.travel;
+        double balance = start.cost - start.travel;
+        long steps = 0;
+
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int s = 0; s < selected.length; s++) {
+                int out = selected[s];
+                for (int k = 0; k < n; k++) {
+                    int in = group.byTravel[k];
+                    double travelDelta = group.travel[in] - group.travel[out];
+                    // Nach Fahrzeit sortiert: ab hier kann auch perfekte Balance nichts mehr gewinnen
+                    if (travelDelta >= balance) {
+                        break;
+                    }
+                    if (inPlan[in] || weight - group.weight[out] + group.weight[in] > request.maxWeightKg()) {
+                        continue;
+                    }
+                    if ((++steps & 0xFF) == 0 && System.nanoTime() > deadline) {
+                        return new Solution(group, selected, weight, travel, travel + balance, false);
+                    }
+
+                    for (int t = 0; t < selected.length; t++) {
+                        weights[t] = t == s ? group.weight[in] : group.weight[selected[t]];
+                    }
+                    int newWeight = weight - group.weight[out] + group.weight[in];
+                    double newBalance = balanceCost(weights, newWeight, request);
+                    if (travelDelta + newBalance < balance - 1e-9) {
+                        inPlan[out] = false;
+                        inPlan[in] = true;
+                        selected[s] = in;
+                        weight = newWeight;
+                        travel += travelDelta;
+                        balance = newBalance;
+                        improved = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return new Solution(group, selected, weight, travel, travel + balance, true);
+    }
+
+    /**
+     * Bewertung der Achslast (heuristische Aufteilung, fuer die Suche)
+     */
+    private static double balanceCost(int[] weights, int total, Request request) {
+        if (weights.length < 2) {
+            return 0;  // einzelner Barren: keine Aufteilung moeglich
+        }
+        long imbalance = greedySplit(weights, new boolean[weights.length]);
+        double allowed = total * request.maxImbalancePercent() / 100.0;
+        return imbalance * BALANCE_SECONDS_PER_KG + Math.max(0, imbalance - allowed) * IMBALANCE_PENALTY_PER_KG;
+    }
+
+    /**
+     * Schwerster Barren zuerst auf die leichtere Seite, solange dort Platz ist
+     *
+     * @param front Ausgabe: Barren liegt vorne
+     * @return Abweichung vorne/hinten in kg
+     */
+    private static long greedySplit(int[] weights, boolean[] front) {
+        int n = weights.length;
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(weights[b], weights[a]));
+        int frontLeft = frontCount(n);
+        int rearLeft = n - frontLeft;
+        long frontWeight = 0;
+        long rearWeight = 0;
+        for (int i : order) {
+            front[i] = rearLeft == 0 || (frontLeft > 0 && frontWeight <= rearWeight);
+            if (front[i]) {
+                frontWeight += weights[i];
+                frontLeft--;
+            } else {
+                rearWeight += weights[i];
+                rearLeft--;
+            }
+        }
+        return Math.abs(frontWeight - rearWeight);
+    }
+
+    // ========================================================================
+    // Aufteilung vorne/hinten und Ergebnis
+    // ========================================================================
+
+    private LoadPlan split(Solution solution, Request request, Function<Long, Position> yardPosition,
+                           boolean productMatched) {
+        Group group = solution.group;
+        int n = solution.selected.length;
+        IngotDTO[] ingots = new IngotDTO[n];
+        int[] weights = new int[n];
+        double[] toFront = new double[n];
+        double[] toRear = new double[n];
+        for (int s = 0; s < n; s++) {
+            ingots[s] = group.ingots.get(solution.selected[s]);
+            weights[s] = group.weight[solution.selected[s]];
+            toFront[s] = roundTrip(ingots[s], request.front(), yardPosition);
+            toRear[s] = roundTrip(ingots[s], request.rear(), yardPosition);
+        }
+
+        int front = frontCount(n);
+        boolean[] isFront = new boolean[n];
+        if (n <= EXACT_SPLIT_MAX) {
+            exactSplit(weights, toFront, toRear, front, isFront);
+        } else {
+            greedySplit(weights, isFront);
+        }
+
+        // Ladereihenfolge: vorne, dann hinten (jeweils in Bestandsreihenfolge)
+        List<IngotDTO> ordered = new ArrayList<>(n);
+        int frontWeight = 0;
+        int rearWeight = 0;
+        double travel = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            for (int s = 0; s < n; s++) {
+                if (isFront[s] != (pass == 0)) {
+                    continue;
+                }
+                ordered.add(ingots[s]);
+                if (isFront[s]) {
+                    frontWeight += weights[s];
+                    travel += toFront[s];
+                } else {
+                    rearWeight += weights[s];
+                    travel += toRear[s];
+                }
+            }
+        }
+
+        int total = frontWeight + rearWeight;
+        boolean balanced = n < 2
+            || Math.abs(frontWeight - rearWeight) <= total * request.maxImbalancePercent() / 100.0;
+        return new LoadPlan(List.copyOf(ordered), front, total, frontWeight, rearWeight, travel,
+            group.longIngots, productMatched, balanced, solution.completed);
+    }
+
+    /**
+     * Alle Aufteilungen mit genau 'front' Barren vorne: minimale Abweichung, dann minimale Fahrzeit
+     */
+    private static void exactSplit(int[] weights, double[] toFront, double[] toRear, int front, boolean[] isFront) {
+        int n = weights.length;
+        long total = 0;
+        for (int w : weights) {
+            total += w;
+        }
+        long bestMask = (1L << front) - 1;
+        long bestImbalance = Long.MAX_VALUE;
+        double bestTravel = Double.MAX_VALUE;
+
+        // Gosper: alle Bitmasken mit 'front' gesetzten Bits unterhalb von 2^n
+        long mask = (1L << front) - 1;
+        while (mask < (1L << n)) {
+            long frontWeight = 0;
+            double travel = 0;
+            for (int s = 0; s < n; s++) {
+                if ((mask & (1L << s)) != 0) {
+                    frontWeight += weights[s];
+                    travel += toFront[s];
+                } else {
+                    travel += toRear[s];
+                }
+            }
+            long imbalance = Math.abs(2 * frontWeight - total);
+            if (imbalance < bestImbalance || (imbalance == bestImbalance && travel < bestTravel)) {
+                bestImbalance = imbalance;
+                bestTravel = travel;
+                bestMask = mask;
+            }
+            long c = mask & -mask;
+            long r = mask + c;
+            mask = (((r ^ mask) >>> 2) / c) | r;
+        }
+        for (int s = 0; s < n; s++) {
+            isFront[s] = (bestMask & (1L << s)) != 0;
+        }
+    }
+}
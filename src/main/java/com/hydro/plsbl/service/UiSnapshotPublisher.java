@@ -0,0 +1,611 @@
+package com.hydro.plsbl.service;
+
+import com.hydro.plsbl.dto.CraneStatusDTO;
+import com.hydro.plsbl.dto.IngotDTO;
+import com.hydro.plsbl.dto.SawStatusDTO;
+import com.hydro.plsbl.dto.StockyardDTO;
+import com.hydro.plsbl.entity.enums.StockyardType;
+import com.hydro.plsbl.plc.PlcService;
+import com.hydro.plsbl.plc.dto.PlcStatus;
+import com.hydro.plsbl.security.CraneAccessService;
+import com.hydro.plsbl.simulator.CraneSimulatorService;
+import com.hydro.plsbl.simulator.CraneSimulatorService.SimulatorStatus;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.shared.Registration;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Zentraler Snapshot-Publisher für alle UI-Sitzungen.
+ *
+ * Statt dass jede View (LagerView, KranView, SawView, BeladungView, CraneStatusBar,
+ * AccessControlBar) einen eigenen Scheduler betreibt und die Services selbst abfragt,
+ * berechnet dieser Service Kran-Status, Lagerbelegung und Säge-Status EINMAL pro Takt
+ * und verteilt unveränderliche Snapshots per ui.access() an die angemeldeten UIs.
+ *
+ * - Jeder Bereich (Topic) hat einen eigenen Takt und wird nur berechnet,
+ *   wenn mindestens ein Abonnent ihn benötigt.
+ * - Ein Bereich bekommt nur dann eine neue Version, wenn sich sein Inhalt geändert hat.
+ * - Eine UI wird nur benachrichtigt, wenn sich einer ihrer Bereiche geändert hat.
+ *
+ * Verwendung in Views:
+ * <pre>
+ * registration = snapshotPublisher.subscribe(ui, EnumSet.of(Topic.CRANE), this::applySnapshot);
+ * ...
+ * registration.remove();  // in onDetach
+ * </pre>
+ *
+ * Die DTOs im Snapshot werden von mehreren UIs gleichzeitig gelesen und dürfen
+ * von den Views NICHT verändert werden.
+ */
+@Service
+public class UiSnapshotPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(UiSnapshotPublisher.class);
+
+    /** Basistakt in Millisekunden (Kran-Position) */
+    private static final int TICK_MS = 200;
+
+    /** SAW-01 Lagerplatz (wie SawView) */
+    private static final Long SAW_STOCKYARD_ID = 1001L;
+
+    /**
+     * Bereiche eines Snapshots mit ihrem Takt (Vielfaches von TICK_MS)
+     */
+    public enum Topic {
+        CRANE(1),        // Kran-Status aus Simulator / SPS (Speicher)
+        CRANE_DB(5),     // Kran-Status aus TD_CRANESTATUS (~1 Sekunde)
+        STOCKYARDS(15),  // Lagerplätze für die Lager-Ansicht (~3 Sekunden)
+        SAW(10),         // Säge-Status und Barren auf SAW-01 (~2 Sekunden)
+        LOADING(1),      // Beladungs-Fortschritt (Speicher)
+        ACCESS(5),       // Aktueller Kran-Steuerungs-Inhaber (Speicher)
+        CLOCK(5);        // Sekundentakt für zeitgesteuerte Aktionen in Views
+
+        private final int everyTicks;
+
+        Topic(int everyTicks) {
+            this.everyTicks = everyTicks;
+        }
+    }
+
+    private final PlcService plcService;
+    private final CraneSimulatorService simulatorService;
+    private final CraneStatusService craneStatusService;
+    private final StockyardService stockyardService;
+    private final SawStatusService sawStatusService;
+    private final IngotService ingotService;
+    private final BeladungStateService beladungStateService;
+    private final CraneAccessService accessService;
+    private final YardOccupancyService yardOccupancyService;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    // Zustand des Publishers (nur im Publisher-Thread verändert)
+    private final Map<Topic, Object> values = new EnumMap<>(Topic.class);
+    private final TopicVersions versions = new TopicVersions();
+    private Set<Topic> lastWanted = EnumSet.noneOf(Topic.class);
+    private long tick = 0;
+    private volatile UiSnapshot current = UiSnapshot.EMPTY;
+
+    // Metriken
+    private final AtomicLong deliveries = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+
+    private ScheduledExecutorService executor;
+
+    public UiSnapshotPublisher(PlcService plcService,
+                               CraneSimulatorService simulatorService,
+                               CraneStatusService craneStatusService,
+                               StockyardService stockyardService,
+                               SawStatusService sawStatusService,
+                               IngotService ingotService,
+                               BeladungStateService beladungStateService,
+                               CraneAccessService accessService,
+                               YardOccupancyService yardOccupancyService) {
+        this.plcService = plcService;
+        this.simulatorService = simulatorService;
+        this.craneStatusService = craneStatusService;
+        this.stockyardService = stockyardService;
+        this.sawStatusService = sawStatusService;
+        this.ingotService = ingotService;
+        this.beladungStateService = beladungStateService;
+        this.accessService = accessService;
+        this.yardOccupancyService = yardOccupancyService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "UiSnapshotPublisher");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleAtFixedRate(this::tick, TICK_MS, TICK_MS, TimeUnit.MILLISECONDS);
+        log.info("UI-Snapshot-Publisher gestartet (Takt {}ms)", TICK_MS);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    // ========================================================================
+    // Anmeldung
+    // ========================================================================
+
+    /**
+     * Meldet eine UI für die angegebenen Bereiche an. Der Listener wird innerhalb
+     * von ui.access() aufgerufen, sobald sich einer der Bereiche geändert hat
+     * (beim ersten Takt nach der Anmeldung immer).
+     */
+    public Registration subscribe(UI ui, Set<Topic> topics, Consumer<UiSnapshot> listener) {
+        Subscriber subscriber = new Subscriber(ui, EnumSet.copyOf(topics), listener);
+        subscribers.add(subscriber);
+        log.debug("UI-Snapshot Abonnent angemeldet {}, aktiv: {}", topics, subscribers.size());
+        return () -> {
+            subscribers.remove(subscriber);
+            log.debug("UI-Snapshot Abonnent abgemeldet, aktiv: {}", subscribers.size());
+        };
+    }
+
+    /**
+     * Letzter veröffentlichter Snapshot
+     */
+    public UiSnapshot getCurrent() {
+        return current;
+    }
+
+    // ========================================================================
+    // Metriken
+    // ========================================================================
+
+    /**
+     * Anzahl der aktiven Abonnenten (UI-Komponenten)
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Anzahl der ausgelieferten Snapshots (ui.access-Aufrufe)
+     */
+    public long getDeliveryCount() {
+        return deliveries.get();
+    }
+
+    /**
+     * Anzahl der übersprungenen Auslieferungen (keine Änderung für den Abonnenten)
+     */
+    public long getSkippedCount() {
+        return skipped.get();
+    }
+
+    // ========================================================================
+    // Takt
+    // ========================================================================
+
+    private void tick() {
+        try {
+            tick++;
+            if (subscribers.isEmpty()) {
+                lastWanted = EnumSet.noneOf(Topic.class);
+                return;
+            }
+
+            // Nur Bereiche berechnen, die jemand abonniert hat und deren Takt fällig ist
+            Set<Topic> wanted = EnumSet.noneOf(Topic.class);
+            for (Subscriber subscriber : subscribers) {
+                wanted.addAll(subscriber.topics);
+            }
+            // Neu abonnierte Bereiche sofort berechnen (Wert kann veraltet sein)
+            boolean changed = false;
+            for (Topic topic : wanted) {
+                if (tick % topic.everyTicks == 0 || !lastWanted.contains(topic)) {
+                    changed |= refresh(topic);
+                }
+            }
+            lastWanted = wanted;
+            if (changed) {
+                current = new UiSnapshot(System.currentTimeMillis(),
+                    versions.snapshot(),
+                    Collections.unmodifiableMap(new EnumMap<>(values)));
+            }
+
+            publish(current);
+        } catch (Exception e) {
+            // NIEMALS Exception aus dem Scheduler werfen - sonst stoppt er!
+            log.error("Fehler im UI-Snapshot-Takt: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Berechnet einen Bereich neu
+     *
+     * @return true wenn sich der Inhalt geändert hat
+     */
+    private boolean refresh(Topic topic) {
+        Object value;
+        Object fingerprint;
+        try {
+            switch (topic) {
+                case CRANE -> {
+                    CraneSnapshot crane = loadCrane();
+                    value = crane;
+                    fingerprint = crane.fingerprint();
+                }
+                case CRANE_DB -> {
+                    CraneStatusDTO status = craneStatusService.getCurrentStatus().orElse(null);
+                    value = new CraneDbSnapshot(status);
+                    fingerprint = fingerprint(status);
+                }
+                case STOCKYARDS -> {
+                    StockyardSnapshot yards = loadStockyards();
+                    value = yards;
+                    fingerprint = yards.fingerprint();
+                }
+                case SAW -> {
+                    SawSnapshot saw = new SawSnapshot(
+                        sawStatusService.getCurrentStatus().orElse(null),
+                        List.copyOf(ingotService.findByStockyardId(SAW_STOCKYARD_ID)));
+                    value = saw;
+                    fingerprint = saw.fingerprint();
+                }
+                case LOADING -> {
+                    LoadingSnapshot loading = new LoadingSnapshot(
+                        beladungStateService.isBeladungLaeuft(),
+                        beladungStateService.getGeladeneCount(),
+                        beladungStateService.getTotalCount());
+                    value = loading;
+                    fingerprint = loading;
+                }
+                case ACCESS -> {
+                    String controller = accessService.getCurrentController()
+                        .map(token -> token.workstationId)
+                        .orElse(null);
+                    value = new AccessSnapshot(controller);
+                    fingerprint = value;
+                }
+                case CLOCK -> {
+                    value = System.currentTimeMillis();
+                    fingerprint = value;
+                }
+                default -> throw new IllegalStateException("Unbekannter Bereich: " + topic);
+            }
+        } catch (Exception e) {
+            log.debug("UI-Snapshot Bereich {} konnte nicht geladen werden: {}", topic, e.getMessage());
+            return false;
+        }
+
+        values.put(topic, value);
+        return versions.update(topic, fingerprint);
+    }
+
+    private CraneSnapshot loadCrane() {
+        boolean connected = plcService.isConnected();
+        boolean simulatorMode = plcService.isSimulatorMode();
+        boolean simulatorRunning = simulatorService.isRunning();
+        SimulatorStatus simulator = simulatorRunning || simulatorMode ? simulatorService.getSimulatorStatus() : null;
+        PlcStatus plc = connected && !simulatorMode ? plcService.getCurrentStatus() : null;
+        return new CraneSnapshot(connected, simulatorMode, simulatorRunning, simulator, plc);
+    }
+
+    private StockyardSnapshot loadStockyards() {
+        Map<Long, StockyardDTO> yards = stockyardService.findAllForStockView();
+        Long activeTarget = stockyardService.findActiveTransportOrderTarget().orElse(null);
+
+        // Säge-Plätze aus dem Belegungsmodell (kein Zugriff auf TD_INGOT je Takt)
+        Map<Long, Integer> sawIngotCounts = new HashMap<>();
+        for (StockyardDTO yard : yards.values()) {
+            if (yard.getType() == StockyardType.SAW) {
+                sawIngotCounts.put(yard.getId(), yardOccupancyService.getIngotCount(yard.getId()));
+            }
+        }
+        return new StockyardSnapshot(Collections.unmodifiableMap(yards), activeTarget,
+            Collections.unmodifiableMap(sawIngotCounts));
+    }
+
+    private void publish(UiSnapshot snapshot) {
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.hasChanges(snapshot)) {
+                skipped.incrementAndGet();
+                continue;
+            }
+            if (!subscriber.pending.compareAndSet(false, true)) {
+                // Vorherige Auslieferung noch nicht verarbeitet - beim nächsten Takt erneut
+                skipped.incrementAndGet();
+                continue;
+            }
+            try {
+                subscriber.ui.access(() -> {
+                    subscriber.pending.set(false);
+                    subscriber.markDelivered(snapshot);
+                    try {
+                        subscriber.listener.accept(snapshot);
+                    } catch (Exception e) {
+                        log.error("Fehler beim Anwenden des UI-Snapshots: {}", e.getMessage(), e);
+                    }
+                });
+                deliveries.incrementAndGet();
+            } catch (UIDetachedException e) {
+                // UI geschlossen ohne Abmeldung - Abonnent entfernen
+                subscribers.remove(subscriber);
+                log.debug("UI-Snapshot Abonnent entfernt (UI getrennt), aktiv: {}", subscribers.size());
+            }
+        }
+    }
+
+    // ========================================================================
+    // Fingerprints (Änderungserkennung für DTOs ohne equals)
+    // ========================================================================
+
+    private static List<Object> fingerprint(CraneStatusDTO s) {
+        if (s == null) {
+            return Collections.emptyList();
+        }
+        return Arrays.asList(s.getXPosition(), s.getYPosition(), s.getZPosition(),
+            s.getCraneMode(), s.getGripperState(), s.getJobState(), s.getDaemonState(), s.getWorkPhase(),
+            s.getFromStockyardNo(), s.getToStockyardNo(), s.getIncident(), s.getIncidentText(),
+            s.getDoorsOpen(), s.getGatesOpen(), s.getIngotNo(), s.getIngotProductNo(),
+            s.getIngotLength(), s.getIngotWidth());
+    }
+
+    private static List<Object> fingerprint(PlcStatus s) {
+        if (s == null) {
+            return Collections.emptyList();
+        }
+        return Arrays.asList(s.getXPosition(), s.getYPosition(), s.getZPosition(),
+            s.getCraneMode(), s.getGripperState(), s.getJobState(), s.getWorkPhase());
+    }
+
+    private static List<Object> fingerprint(SawStatusDTO s) {
+        if (s == null) {
+            return Collections.emptyList();
+        }
+        return Arrays.asList(s.getPickupMode(), s.isRotate(), s.isPickupInProgress(), s.getPickupNumber(),
+            s.getReceived(), s.getPositionX(), s.getPositionY(), s.getPositionZ(),
+            s.getComputedX(), s.getComputedY(), s.getComputedZ(),
+            s.getIngotNo(), s.getProductNo(), s.getProductSuffix(),
+            s.getLength(), s.getWidth(), s.getThickness(), s.getWeight(),
+            s.isHeadSawn(), s.isFootSawn(), s.isScrap(), s.isRevised(),
+            s.getErrorType(), s.getErrorMessage(),
+            s.isReturnConfirmed(), s.isRecycleConfirmed(), s.isSawnConfirmed());
+    }
+
+    private static List<Object> fingerprint(IngotDTO i) {
+        return Arrays.asList(i.getId(), i.getIngotNo(), i.getProductNo(), i.getProductSuffix(),
+            i.getLength(), i.getWidth(), i.getThickness(), i.getWeight(), i.getPilePosition(),
+            i.getHeadSawn(), i.getFootSawn(), i.getScrap(), i.getRevised());
+    }
+
+    // ========================================================================
+    // Snapshot-Typen
+    // ========================================================================
+
+    /**
+     * Unveränderlicher Snapshot aller berechneten Bereiche
+     */
+    public static final class UiSnapshot {
+
+        static final UiSnapshot EMPTY = new UiSnapshot(0, Map.of(), Map.of());
+
+        private final long timestamp;
+        private final Map<Topic, Long> versions;
+        private final Map<Topic, Object> values;
+
+        UiSnapshot(long timestamp, Map<Topic, Long> versions, Map<Topic, Object> values) {
+            this.timestamp = timestamp;
+            this.versions = versions;
+            this.values = values;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        /**
+         * Version eines Bereichs (0 = noch nicht berechnet)
+         */
+        public long getVersion(Topic topic) {
+            return versions.getOrDefault(topic, 0L);
+        }
+
+        /**
+         * Prüft ob sich ein Bereich gegenüber einem früheren Snapshot geändert hat
+         */
+        public boolean isNewer(Topic topic, UiSnapshot previous) {
+            return previous == null || getVersion(topic) > previous.getVersion(topic);
+        }
+
+        public CraneSnapshot getCrane() {
+            return (CraneSnapshot) values.get(Topic.CRANE);
+        }
+
+        public CraneStatusDTO getCraneDbStatus() {
+            CraneDbSnapshot db = (CraneDbSnapshot) values.get(Topic.CRANE_DB);
+            return db != null ? db.status() : null;
+        }
+
+        public StockyardSnapshot getStockyards() {
+            return (StockyardSnapshot) values.get(Topic.STOCKYARDS);
+        }
+
+        public SawSnapshot getSaw() {
+            return (SawSnapshot) values.get(Topic.SAW);
+        }
+
+        public LoadingSnapshot getLoading() {
+            return (LoadingSnapshot) values.get(Topic.LOADING);
+        }
+
+        public AccessSnapshot getAccess() {
+            return (AccessSnapshot) values.get(Topic.ACCESS);
+        }
+    }
+
+    /**
+     * Kran-Status aus Simulator bzw. SPS
+     *
+     * @param simulator Simulator-Status (nur wenn der Simulator läuft)
+     * @param plc       SPS-Status (nur bei echter SPS-Verbindung)
+     */
+    public record CraneSnapshot(boolean plcConnected, boolean simulatorMode, boolean simulatorRunning,
+                                SimulatorStatus simulator, PlcStatus plc) {
+
+        public boolean isCraneAvailable() {
+            return plcConnected || simulatorMode;
+        }
+
+        List<Object> fingerprint() {
+            return Arrays.asList(plcConnected, simulatorMode, simulatorRunning, simulator,
+                UiSnapshotPublisher.fingerprint(plc));
+        }
+    }
+
+    record CraneDbSnapshot(CraneStatusDTO status) {}
+
+    /**
+     * Lagerplätze für die Lager-Ansicht
+     *
+     * @param activeTransportTarget Ziel-Platz eines laufenden Transports von der Säge (null = keiner)
+     * @param sawIngotCounts        Barren-Anzahl je Säge-Platz (aus dem Belegungsmodell)
+     */
+    public record StockyardSnapshot(Map<Long, StockyardDTO> yards, Long activeTransportTarget,
+                                    Map<Long, Integer> sawIngotCounts) {
+
+        public int getSawIngotCount(Long stockyardId) {
+            return sawIngotCounts.getOrDefault(stockyardId, 0);
+        }
+
+        List<Object> fingerprint() {
+            Map<Long, List<Object>> perYard = new HashMap<>();
+            for (StockyardDTO yard : yards.values()) {
+                var status = yard.getStatus();
+                perYard.put(yard.getId(), status == null
+                    ? Arrays.asList(yard.isToStockAllowed(), yard.isFromStockAllowed())
+                    : Arrays.asList(yard.isToStockAllowed(), yard.isFromStockAllowed(), status.isFull(),
+                        status.getIngotsCount(), status.getIngotNumber(), status.getProductNumber()));
+            }
+            return Arrays.asList(perYard, activeTransportTarget, sawIngotCounts);
+        }
+    }
+
+    /**
+     * Säge-Status und Barren auf SAW-01
+     */
+    public record SawSnapshot(SawStatusDTO status, List<IngotDTO> sawIngots) {
+
+        List<Object> fingerprint() {
+            return Arrays.asList(UiSnapshotPublisher.fingerprint(status),
+                sawIngots.stream().map(UiSnapshotPublisher::fingerprint).toList());
+        }
+    }
+
+    /**
+     * Beladungs-Fortschritt aus dem BeladungStateService
+     */
+    public record LoadingSnapshot(boolean beladungLaeuft, int geladenCount, int totalCount) {}
+
+    /**
+     * Aktueller Inhaber der Kran-Steuerung (null = niemand)
+     */
+    public record AccessSnapshot(String controllerWorkstationId) {}
+
+    // ========================================================================
+    // Versionen
+    // ========================================================================
+
+    /**
+     * Version je Bereich: wird nur erhöht, wenn sich der Fingerprint geändert hat
+     */
+    static final class TopicVersions {
+        private final Map<Topic, Object> fingerprints = new EnumMap<>(Topic.class);
+        private final Map<Topic, Long> versions = new EnumMap<>(Topic.class);
+
+        TopicVersions() {
+            for (Topic topic : Topic.values()) {
+                versions.put(topic, 0L);
+            }
+        }
+
+        /**
+         * @return true wenn sich der Fingerprint geändert hat (neue Version)
+         */
+        boolean update(Topic topic, Object fingerprint) {
+            if (fingerprint.equals(fingerprints.get(topic))) {
+                return false;
+            }
+            fingerprints.put(topic, fingerprint);
+            versions.merge(topic, 1L, Long::sum);
+            return true;
+        }
+
+        long get(Topic topic) {
+            return versions.get(topic);
+        }
+
+        Map<Topic, Long> snapshot() {
+            return Collections.unmodifiableMap(new EnumMap<>(versions));
+        }
+    }
+
+    // ========================================================================
+    // Abonnent
+    // ========================================================================
+
+    static final class Subscriber {
+        private final UI ui;
+        private final Set<Topic> topics;
+        private final Consumer<UiSnapshot> listener;
+        private final AtomicBoolean pending = new AtomicBoolean();
+        private final Map<Topic, Long> delivered = new EnumMap<>(Topic.class);
+
+        Subscriber(UI ui, Set<Topic> topics, Consumer<UiSnapshot> listener) {
+            this.ui = ui;
+            this.topics = topics;
+            this.listener = listener;
+        }
+
+        synchronized boolean hasChanges(UiSnapshot snapshot) {
+            for (Topic topic : topics) {
+                long version = snapshot.getVersion(topic);
+                if (version > 0 && version > delivered.getOrDefault(topic, 0L)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        synchronized void markDelivered(UiSnapshot snapshot) {
+            for (Topic topic : topics) {
+                delivered.put(topic, snapshot.getVersion(topic));
+            }
+        }
+    }
+}
@@ -0,0 +1,421 @@
+package com.hydro.plsbl.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * In-Memory Belegungsmodell aller Lagerplätze.
+ *
+ * Hält pro Lagerplatz:
+ * - Anzahl Barren (aus TD_INGOT)
+ * - Anzahl offener Transporte ZU diesem Platz (P, I, U, H)
+ * - Produkt (aus TD_STOCKYARDSTATUS)
+ * - Obersten Barren (höchste PILE_POSITION)
+ *
+ * Lesezugriffe gehen ausschließlich auf den Speicher (kein JDBC).
+ * Schreibende Services (IngotService, TransportOrderService, StockyardService)
+ * melden geänderte Lagerplätze über {@link #yardsChanged(Long...)}; diese werden
+ * nach dem Commit der laufenden Transaktion gezielt neu geladen.
+ * Zusätzlich wird das Modell periodisch komplett mit der DB abgeglichen.
+ */
+@Service
+public class YardOccupancyService {
+
+    private static final Logger log = LoggerFactory.getLogger(YardOccupancyService.class);
+
+    // Status-Codes aktiver Transportaufträge: P=PENDING, I=IN_PROGRESS, U=PICKED_UP, H=PAUSED
+    private static final String ACTIVE_ORDER_STATUS = "('P', 'I', 'U', 'H')";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, YardOccupancy> occupancy = new ConcurrentHashMap<>();
+    private volatile boolean loaded = false;
+
+    // Listener für geänderte Lagerplätze (IDs)
+    private final List<Consumer<Set<Long>>> changeListeners = new CopyOnWriteArrayList<>();
+
+    // Statistik
+    private final AtomicLong reloadCount = new AtomicLong();
+    private final AtomicLong yardRefreshCount = new AtomicLong();
+    private final AtomicLong reconcileMismatches = new AtomicLong();
+    private volatile long lastReloadTime = 0;
+
+    public YardOccupancyService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    /**
+     * Periodischer Abgleich mit der Datenbank.
+     * Fängt Änderungen ab, die nicht über die Services gelaufen sind (z.B. direktes SQL).
+     */
+    @Scheduled(fixedDelayString = "${plsbl.occupancy.reconcile-interval:60000}",
+               initialDelayString = "${plsbl.occupancy.reconcile-interval:60000}")
+    public void reconcile() {
+        Map<Long, YardOccupancy> before = Map.copyOf(occupancy);
+        reload();
+
+        int mismatches = 0;
+        Set<Long> ids = new HashSet<>(before.keySet());
+        ids.addAll(occupancy.keySet());
+        for (Long id : ids) {
+            if (!Objects.equals(before.getOrDefault(id, YardOccupancy.empty(id)),
+                                occupancy.getOrDefault(id, YardOccupancy.empty(id)))) {
+                mismatches++;
+            }
+        }
+        if (mismatches > 0) {
+            reconcileMismatches.addAndGet(mismatches);
+            log.warn("Belegungsmodell: {} Lagerplätze beim Abgleich korrigiert", mismatches);
+        }
+    }
+
+    // ========================================================================
+    // Lesen (nur Speicher)
+    // ========================================================================
+
+    /**
+     * Liefert die Belegung eines Lagerplatzes (leer wenn unbekannt)
+     */
+    public YardOccupancy get(Long stockyardId) {
+        ensureLoaded();
+        if (stockyardId == null) {
+            return YardOccupancy.empty(null);
+        }
+        YardOccupancy yard = occupancy.get(stockyardId);
+        return yard != null ? yard : YardOccupancy.empty(stockyardId);
+    }
+
+    /**
+     * Anzahl Barren auf einem Lagerplatz
+     */
+    public int getIngotCount(Long stockyardId) {
+        return get(stockyardId).ingotCount();
+    }
+
+    /**
+     * Anzahl offener Transporte zu einem Lagerplatz
+     */
+    public int getPendingInbound(Long stockyardId) {
+        return get(stockyardId).pendingInbound();
+    }
+
+    /**
+     * Barren-Anzahl für mehrere Lagerplätze (nur Plätze mit Barren sind enthalten)
+     */
+    public Map<Long, Integer> getIngotCounts(Collection<Long> stockyardIds) {
+        ensureLoaded();
+        Map<Long, Integer> result = new HashMap<>();
+        for (Long id : stockyardIds) {
+            YardOccupancy yard = occupancy.get(id);
+            if (yard != null && yard.ingotCount() > 0) {
+                result.put(id, yard.ingotCount());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Offene Transporte für mehrere Lagerplätze (nur Plätze mit offenen Transporten sind enthalten)
+     */
+    public Map<Long, Integer> getPendingInbound(Collection<Long> stockyardIds) {
+        ensureLoaded();
+        Map<Long, Integer> result = new HashMap<>();
+        for (Long id : stockyardIds) {
+            YardOccupancy yard = occupancy.get(id);
+            if (yard != null && yard.pendingInbound() > 0) {
+                result.put(id, yard.pendingInbound());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Barren-Anzahl aller belegten Lagerplätze
+     */
+    public Map<Long, Integer> getAllIngotCounts() {
+        ensureLoaded();
+        return occupancy.values().stream()
+            .filter(yard -> yard.ingotCount() > 0)
+            .collect(Collectors.toMap(YardOccupancy::stockyardId, YardOccupancy::ingotCount));
+    }
+
+    // ========================================================================
+    // Änderungen
+    // ========================================================================
+
+    /**
+     * Meldet geänderte Lagerplätze. Läuft eine Transaktion, werden die Plätze
+     * erst nach erfolgreichem Commit neu geladen (bei Rollback bleibt das Modell unverändert).
+     */
+    public void yardsChanged(Long... stockyardIds) {
+        Set<Long> ids = new HashSet<>();
+        for (Long id : stockyardIds) {
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refreshYards(ids);
+                }
+            });
+        } else {
+            refreshYards(ids);
+        }
+    }
+
+    /**
+     * Lädt die Belegung einzelner Lagerplätze neu
+     */
+    public void refreshYards(Collection<Long> stockyardIds) {
+        if (doRefreshYards(stockyardIds)) {
+            notifyChangeListeners(Set.copyOf(stockyardIds));
+        }
+    }
+
+    private synchronized boolean doRefreshYards(Collection<Long> stockyardIds) {
+        if (stockyardIds.isEmpty() || !loaded) {
+            return false;
+        }
+        try {
+            List<Long> ids = List.copyOf(stockyardIds);
+            String placeholders = ids.stream().map(id -> "?").collect(Collectors.joining(","));
+            Map<Long, YardOccupancy> fresh = load(
+                " AND STOCKYARD_ID IN (" + placeholders + ")",
+                " AND TO_YARD_ID IN (" + placeholders + ")",
+                ids.toArray());
+
+            for (Long id : ids) {
+                YardOccupancy yard = fresh.get(id);
+                if (yard != null) {
+                    occupancy.put(id, yard);
+                } else {
+                    occupancy.remove(id);
+                }
+            }
+            yardRefreshCount.addAndGet(ids.size());
+            log.debug("Belegungsmodell aktualisiert für Lagerplätze {}", ids);
+            return true;
+        } catch (Exception e) {
+            log.warn("Belegung für Lagerplätze {} konnte nicht geladen werden: {}", stockyardIds, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Lädt das komplette Belegungsmodell neu
+     */
+    public void reload() {
+        Set<Long> changed = doReload();
+        if (!changed.isEmpty()) {
+            notifyChangeListeners(changed);
+        }
+    }
+
+    /**
+     * @return IDs aller Lagerplätze, deren Belegung vor oder nach dem Laden bekannt war
+     */
+    private synchronized Set<Long> doReload() {
+        long start = System.currentTimeMillis();
+        try {
+            Map<Long, YardOccupancy> fresh = load("", "");
+            Set<Long> changed = new HashSet<>(occupancy.keySet());
+            changed.addAll(fresh.keySet());
+            occupancy.keySet().retainAll(fresh.keySet());
+            occupancy.putAll(fresh);
+            loaded = true;
+            lastReloadTime = System.currentTimeMillis();
+            reloadCount.incrementAndGet();
+            log.debug("Belegungsmodell geladen: {} Lagerplätze in {}ms",
+                fresh.size(), lastReloadTime - start);
+            return changed;
+        } catch (Exception e) {
+            log.warn("Belegungsmodell konnte nicht geladen werden: {}", e.getMessage());
+            return Set.of();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            reload();
+        }
+    }
+
+    /**
+     * Lädt Barren, offene Transporte und Produkt-Zuordnung (3 Abfragen, unabhängig von der Platzanzahl)
+     */
+    private Map<Long, YardOccupancy> load(String yardFilter, String orderFilter, Object... args) {
+        Map<Long, Builder> builders = new HashMap<>();
+
+        // Barren pro Platz - sortiert, damit die letzte Zeile der oberste Barren ist
+        jdbcTemplate.query(
+            "SELECT STOCKYARD_ID, ID, INGOT_NO FROM TD_INGOT " +
+            "WHERE STOCKYARD_ID IS NOT NULL" + yardFilter + " " +
+            "ORDER BY STOCKYARD_ID, PILE_POSITION ASC NULLS FIRST, ID",
+            rs -> {
+                Builder b = builders.computeIfAbsent(rs.getLong("STOCKYARD_ID"), Builder::new);
+                b.ingotCount++;
+                b.topIngotId = rs.getLong("ID");
+                b.topIngotNo = rs.getString("INGOT_NO");
+            }, args);
+
+        // Offene Transporte zu den Plätzen
+        jdbcTemplate.query(
+            "SELECT TO_YARD_ID, COUNT(*) AS CNT FROM TD_TRANSPORTORDER " +
+            "WHERE TO_YARD_ID IS NOT NULL AND STATUS IN " + ACTIVE_ORDER_STATUS + orderFilter + " " +
+            "GROUP BY TO_YARD_ID",
+            rs -> {
+                builders.computeIfAbsent(rs.getLong("TO_YARD_ID"), Builder::new).pendingInbound = rs.getInt("CNT");
+            }, args);
+
+        // Produkt aus dem Lagerplatz-Status
+        jdbcTemplate.query(
+            "SELECT STOCKYARD_ID, PRODUCT_ID FROM TD_STOCKYARDSTATUS " +
+            "WHERE PRODUCT_ID IS NOT NULL" + yardFilter,
+            rs -> {
+                builders.computeIfAbsent(rs.getLong("STOCKYARD_ID"), Builder::new).productId = rs.getLong("PRODUCT_ID");
+            }, args);
+
+        Map<Long, YardOccupancy> result = new HashMap<>();
+        builders.forEach((id, b) -> result.put(id, b.build()));
+        return result;
+    }
+
+    // ========================================================================
+    // Listener
+    // ========================================================================
+
+    /**
+     * Registriert einen Listener, der nach jeder Aktualisierung die IDs der
+     * betroffenen Lagerplätze erhält. Wird außerhalb der Modell-Sperre aufgerufen.
+     */
+    public void addChangeListener(Consumer<Set<Long>> listener) {
+        changeListeners.add(listener);
+    }
+
+    public void removeChangeListener(Consumer<Set<Long>> listener) {
+        changeListeners.remove(listener);
+    }
+
+    private void notifyChangeListeners(Set<Long> stockyardIds) {
+        for (Consumer<Set<Long>> listener : changeListeners) {
+            try {
+                listener.accept(stockyardIds);
+            } catch (Exception e) {
+                log.error("Fehler im Belegungs-Listener: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    // ========================================================================
+    // Statistik
+    // ========================================================================
+
+    public int getYardCount() {
+        return occupancy.size();
+    }
+
+    public long getReloadCount() {
+        return reloadCount.get();
+    }
+
+    public long getYardRefreshCount() {
+        return yardRefreshCount.get();
+    }
+
+    public long getReconcileMismatches() {
+        return reconcileMismatches.get();
+    }
+
+    public long getLastReloadTime() {
+        return lastReloadTime;
+    }
+
+    /**
+     * Nur lesbare Sicht auf das Modell (für Diagnose)
+     */
+    public Map<Long, YardOccupancy> snapshot() {
+        ensureLoaded();
+        return Collections.unmodifiableMap(new HashMap<>(occupancy));
+    }
+
+    // ========================================================================
+    // Datentypen
+    // ========================================================================
+
+    /**
+     * Unveränderliche Belegung eines Lagerplatzes
+     */
+    public record YardOccupancy(
+        Long stockyardId,
+        int ingotCount,
+        int pendingInbound,
+        Long productId,
+        Long topIngotId,
+        String topIngotNo
+    ) {
+        public static YardOccupancy empty(Long stockyardId) {
+            return new YardOccupancy(stockyardId, 0, 0, null, null, null);
+        }
+
+        public boolean isEmpty() {
+            return ingotCount == 0;
+        }
+
+        /**
+         * Erwartete Belegung = aktuelle Barren + offene Transporte zu diesem Platz
+         */
+        public int expectedCount() {
+            return ingotCount + pendingInbound;
+        }
+    }
+
+    private static final class Builder {
+        private final Long stockyardId;
+        private int ingotCount;
+        private int pendingInbound;
+        private Long productId;
+        private Long topIngotId;
+        private String topIngotNo;
+
+        private Builder(Long stockyardId) {
+            this.stockyardId = stockyardId;
+        }
+
+        private YardOccupancy build() {
+            return new YardOccupancy(stockyardId, ingotCount, pendingInbound, productId, topIngotId, topIngotNo);
+        }
+    }
+}
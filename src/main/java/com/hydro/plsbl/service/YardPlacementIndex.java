@@ -0,0 +1,408 @@
+package com.hydro.plsbl.service;
+
+import com.hydro.plsbl.entity.enums.StockyardType;
+import com.hydro.plsbl.entity.enums.StockyardUsage;
+import com.hydro.plsbl.entity.masterdata.Stockyard;
+import com.hydro.plsbl.service.YardOccupancyService.YardOccupancy;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+/**
+ * Index fuer die Ziel-Platz-Suche bei der Einlagerung von der Saege.
+ *
+ * Die Lagerplaetze werden nach Typ (I/E) und Verwendung (SHORT/LONG/AUTOMATIC)
+ * in Buckets gehalten. Jeder Bucket fuehrt sortierte Mengen fuer
+ * - leere Plaetze,
+ * - Plaetze mit freier Kapazitaet fuer jedes Produkt,
+ * - Plaetze mit freier Kapazitaet pro Produkt.
+ * Dadurch ist jede Suche ein Zugriff auf das erste Element einer Menge statt
+ * einer Schleife ueber alle Plaetze mit DB-Abfragen.
+ *
+ * Die Reihenfolge innerhalb eines Buckets entspricht der bisherigen Suche
+ * (StockyardRepository.findByType: Y absteigend, X aufsteigend).
+ *
+ * Die Klasse ist nicht thread-sicher; Synchronisation uebernimmt
+ * {@link StockyardPlacementService}.
+ */
+public class YardPlacementIndex {
+
+    /** Reihenfolge wie StockyardRepository.findByType (Y_COORDINATE DESC, X_COORDINATE) */
+    private static final Comparator<Stockyard> STOCK_ORDER = Comparator
+        .comparingInt(Stockyard::getYCoordinate).reversed()
+        .thenComparingInt(Stockyard::getXCoordinate)
+        .thenComparing(Stockyard::getId);
+
+    /** Ausgang-Plaetze: niedrigste Y-Koordinate zuerst (nahe am Tor) */
+    private static final Comparator<Stockyard> SWAPOUT_ORDER = Comparator
+        .comparingInt(Stockyard::getYCoordinate)
+        .thenComparingInt(Stockyard::getXCoordinate)
+        .thenComparing(Stockyard::getId);
+
+    private static final Comparator<Entry> BY_RANK = Comparator.comparingInt(e -> e.rank);
+    private static final Comparator<Entry> BY_ID = Comparator.comparing(e -> e.yard.getId());
+
+    /**
+     * Regel, nach der ein Ziel-Platz gefunden wurde (in Prioritaetsreihenfolge)
+     */
+    public enum PlacementRule {
+        SWAPOUT("Ausgang-Platz fuer Stapler"),
+        SAME_PRODUCT("Gleiches Produkt, exakte Groesse"),
+        EMPTY("Leerer Platz, exakte Groesse"),
+        CAPACITY("Platz mit Kapazitaet, exakte Groesse"),
+        AUTOMATIC_SAME_PRODUCT("AUTOMATIC Fallback mit gleichem Produkt"),
+        AUTOMATIC_EMPTY("Leerer AUTOMATIC Fallback");
+
+        private final String displayName;
+
+        PlacementRule(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    /**
+     * Ergebnis der Suche
+     */
+    public record Placement(Stockyard yard, PlacementRule rule) {}
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<StockyardType, Map<StockyardUsage, Bucket>> buckets = new EnumMap<>(StockyardType.class);
+    private final Map<StockyardType, Integer> yardsPerType = new EnumMap<>(StockyardType.class);
+
+    // Belegte Plaetze pro Produkt (alle Typen), sortiert nach ID
+    private final Map<Long, TreeSet<Entry>> productLocations = new HashMap<>();
+
+    // Freie Ausgang-Plaetze (Typ A)
+    private final TreeSet<Entry> freeSwapouts = new TreeSet<>(BY_RANK);
+
+    /**
+     * @param yards     alle Lagerplaetze (Stammdaten)
+     * @param occupancy aktuelle Belegung; fehlende Plaetze gelten als leer
+     */
+    public YardPlacementIndex(Collection<Stockyard> yards, Map<Long, YardOccupancy> occupancy) {
+        for (StockyardType type : new StockyardType[] {StockyardType.INTERNAL, StockyardType.EXTERNAL}) {
+            Map<StockyardUsage, Bucket> byUsage = new EnumMap<>(StockyardUsage.class);
+            byUsage.put(StockyardUsage.SHORT, new Bucket());
+            byUsage.put(StockyardUsage.LONG, new Bucket());
+            byUsage.put(StockyardUsage.AUTOMATIC, new Bucket());
+            buckets.put(type, byUsage);
+        }
+
+        int rank = 0;
+        for (Stockyard yard : yards.stream().filter(y -> y.getId() != null).sorted(STOCK_ORDER).toList()) {
+            entries.put(yard.getId(), new Entry(yard, rank++));
+            if (yard.getType() != null) {
+                yardsPerType.merge(yard.getType(), 1, Integer::sum);
+            }
+        }
+
+        // Ausgang-Plaetze bekommen einen eigenen Rang nach Y aufsteigend
+        int swapoutRank = 0;
+        for (Stockyard yard : yards.stream()
+                .filter(y -> y.getId() != null && y.getType() == StockyardType.SWAPOUT)
+                .sorted(SWAPOUT_ORDER).toList()) {
+            entries.get(yard.getId()).rank = swapoutRank++;
+        }
+
+        for (Entry entry : entries.values()) {
+            YardOccupancy occ = occupancy.get(entry.yard.getId());
+            entry.occupancy = occ != null ? occ : YardOccupancy.empty(entry.yard.getId());
+            addToSets(entry);
+        }
+    }
+
+    /**
+     * Uebernimmt die neue Belegung eines Lagerplatzes
+     *
+     * @return false wenn der Lagerplatz im Index unbekannt ist
+     */
+    public boolean update(YardOccupancy occupancy) {
+        Entry entry = entries.get(occupancy.stockyardId());
+        if (entry == null) {
+            return false;
+        }
+        if (!entry.occupancy.equals(occupancy)) {
+            removeFromSets(entry);
+            entry.occupancy = occupancy;
+            addToSets(entry);
+        }
+        return true;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Stammdaten eines Lagerplatzes aus dem Index
+     */
+    public Optional<Stockyard> getYard(Long stockyardId) {
+        Entry entry = entries.get(stockyardId);
+        return entry != null ? Optional.of(entry.yard) : Optional.empty();
+    }
+
+    // ========================================================================
+    // Abfragen
+    // ========================================================================
+
+    /**
+     * Erster freier Ausgang-Platz (Einlagern erlaubt und leer)
+     */
+    public Optional<Placement> findSwapout() {
+        return freeSwapouts.isEmpty()
+            ? Optional.empty()
+            : Optional.of(new Placement(freeSwapouts.first().yard, PlacementRule.SWAPOUT));
+    }
+
+    /**
+     * Prueft ob ein Lagerplatz verfuegbar ist: Einlagern erlaubt, Kapazitaet inkl.
+     * offener Transporte nicht erreicht und - falls belegt - gleiches Produkt.
+     */
+    public boolean isAvailable(Long stockyardId, Long productId) {
+        Entry entry = entries.get(stockyardId);
+        return entry != null && entry.isAvailableFor(productId);
+    }
+
+    /**
+     * Sucht den besten Ziel-Platz nach den Prioritaetsregeln der Einlagerung:
+     * 1. Gleiches Produkt, exakte Groesse
+     * 2. Leerer Platz, exakte Groesse
+     * 3. Platz mit Kapazitaet (leer, ohne Produkt oder gleiches Produkt), exakte Groesse
+     * 4. AUTOMATIC mit gleichem Produkt
+     * 5. Leerer AUTOMATIC Platz
+     * Interne Plaetze haben bei gleicher Regel Vorrang vor externen.
+     */
+    public Optional<Placement> findBest(Long productId, StockyardUsage requiredUsage,
+                                        boolean internalAllowed, boolean externalAllowed) {
+        int allowedYards = (internalAllowed ? yardsPerType.getOrDefault(StockyardType.INTERNAL, 0) : 0)
+            + (externalAllowed ? yardsPerType.getOrDefault(StockyardType.EXTERNAL, 0) : 0);
+        if (allowedYards == 0) {
+            return Optional.empty();
+        }
+
+        StockyardType[] types = allowedTypes(internalAllowed, externalAllowed);
+
+        // 1. Gleiches Produkt, exakte Groesse
+        Optional<Entry> found = findProductLocation(productId, internalAllowed, externalAllowed,
+            usage -> usage == requiredUsage);
+        if (found.isPresent()) {
+            return placement(found.get(), PlacementRule.SAME_PRODUCT);
+        }
+
+        // 2. Leer, exakte Groesse
+        for (StockyardType type : types) {
+            Bucket bucket = bucket(type, requiredUsage);
+            if (bucket != null && !bucket.empty.isEmpty()) {
+                return placement(bucket.empty.first(), PlacementRule.EMPTY);
+            }
+        }
+
+        // 3. Kapazitaet, exakte Groesse
+        for (StockyardType type : types) {
+            Bucket bucket = bucket(type, requiredUsage);
+            if (bucket != null) {
+                Entry candidate = bucket.firstOpenFor(productId);
+                if (candidate != null) {
+                    return placement(candidate, PlacementRule.CAPACITY);
+                }
+            }
+        }
+
+        // 4. AUTOMATIC mit gleichem Produkt
+        found = findProductLocation(productId, internalAllowed, externalAllowed,
+            usage -> usage == null || usage == StockyardUsage.AUTOMATIC);
+        if (found.isPresent()) {
+            return placement(found.get(), PlacementRule.AUTOMATIC_SAME_PRODUCT);
+        }
+
+        // 5. Leerer AUTOMATIC Platz
+        for (StockyardType type : types) {
+            Bucket bucket = bucket(type, StockyardUsage.AUTOMATIC);
+            if (!bucket.empty.isEmpty()) {
+                return placement(bucket.empty.first(), PlacementRule.AUTOMATIC_EMPTY);
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    private Optional<Entry> findProductLocation(Long productId, boolean internalAllowed, boolean externalAllowed,
+                                                Predicate<StockyardUsage> usageFilter) {
+        TreeSet<Entry> locations = productLocations.get(productId);
+        if (locations == null) {
+            return Optional.empty();
+        }
+        for (Entry entry : locations) {
+            if (entry.isAvailableFor(productId)
+                    && usageFilter.test(entry.yard.getUsage())
+                    && isTypeAllowed(entry.yard.getType(), internalAllowed, externalAllowed)) {
+                return Optional.of(entry);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<Placement> placement(Entry entry, PlacementRule rule) {
+        return Optional.of(new Placement(entry.yard, rule));
+    }
+
+    private static StockyardType[] allowedTypes(boolean internalAllowed, boolean externalAllowed) {
+        if (internalAllowed && externalAllowed) {
+            return new StockyardType[] {StockyardType.INTERNAL, StockyardType.EXTERNAL};
+        }
+        if (internalAllowed) {
+            return new StockyardType[] {StockyardType.INTERNAL};
+        }
+        return new StockyardType[] {StockyardType.EXTERNAL};
+    }
+
+    /**
+     * Andere Typen (SAW, LOADING, etc.) und unbekannte Typen sind immer erlaubt
+     */
+    private static boolean isTypeAllowed(StockyardType type, boolean internalAllowed, boolean externalAllowed) {
+        if (type == StockyardType.INTERNAL) {
+            return internalAllowed;
+        }
+        if (type == StockyardType.EXTERNAL) {
+            return externalAllowed;
+        }
+        return true;
+    }
+
+    // ========================================================================
+    // Pflege der Mengen
+    // ========================================================================
+
+    private Bucket bucket(StockyardType type, StockyardUsage usage) {
+        Map<StockyardUsage, Bucket> byUsage = buckets.get(type);
+        if (byUsage == null) {
+            return null;
+        }
+        return byUsage.get(usage == null ? StockyardUsage.AUTOMATIC : usage);
+    }
+
+    private void addToSets(Entry entry) {
+        apply(entry, true);
+    }
+
+    private void removeFromSets(Entry entry) {
+        apply(entry, false);
+    }
+
+    private void apply(Entry entry, boolean add) {
+        Stockyard yard = entry.yard;
+        YardOccupancy occ = entry.occupancy;
+
+        if (occ.ingotCount() > 0 && occ.productId() != null) {
+            if (add) {
+                productLocations.computeIfAbsent(occ.productId(), id -> new TreeSet<>(BY_ID)).add(entry);
+            } else {
+                TreeSet<Entry> locations = productLocations.get(occ.productId());
+                if (locations != null) {
+                    locations.remove(entry);
+                    if (locations.isEmpty()) {
+                        productLocations.remove(occ.productId());
+                    }
+                }
+            }
+        }
+
+        if (!yard.isToStockAllowed()) {
+            return;
+        }
+
+        if (yard.getType() == StockyardType.SWAPOUT) {
+            if (occ.isEmpty()) {
+                toggle(freeSwapouts, entry, add);
+            }
+            return;
+        }
+
+        Bucket bucket = bucket(yard.getType(), yard.getUsage());
+        if (bucket == null) {
+            return;
+        }
+        if (occ.isEmpty()) {
+            toggle(bucket.empty, entry, add);
+        }
+        if (occ.expectedCount() < yard.getMaxIngots()) {
+            if (occ.isEmpty() || occ.productId() == null) {
+                toggle(bucket.openForAny, entry, add);
+            } else if (add) {
+                bucket.openByProduct.computeIfAbsent(occ.productId(), id -> new TreeSet<>(BY_RANK)).add(entry);
+            } else {
+                TreeSet<Entry> open = bucket.openByProduct.get(occ.productId());
+                if (open != null) {
+                    open.remove(entry);
+                    if (open.isEmpty()) {
+                        bucket.openByProduct.remove(occ.productId());
+                    }
+                }
+            }
+        }
+    }
+
+    private static void toggle(TreeSet<Entry> set, Entry entry, boolean add) {
+        if (add) {
+            set.add(entry);
+        } else {
+            set.remove(entry);
+        }
+    }
+
+    // ========================================================================
+    // Datentypen
+    // ========================================================================
+
+    private static final class Entry {
+        private final Stockyard yard;
+        private int rank;
+        private YardOccupancy occupancy;
+
+        private Entry(Stockyard yard, int rank) {
+            this.yard = yard;
+            this.rank = rank;
+        }
+
+        private boolean isAvailableFor(Long productId) {
+            if (!yard.isToStockAllowed() || occupancy.expectedCount() >= yard.getMaxIngots()) {
+                return false;
+            }
+            return occupancy.isEmpty() || occupancy.productId() == null
+                || Objects.equals(occupancy.productId(), productId);
+        }
+    }
+
+    private static final class Bucket {
+        private final TreeSet<Entry> empty = new TreeSet<>(BY_RANK);
+        private final TreeSet<Entry> openForAny = new TreeSet<>(BY_RANK);
+        private final Map<Long, TreeSet<Entry>> openByProduct = new HashMap<>();
+
+        /**
+         * Erster Platz mit Kapazitaet, der das Produkt aufnehmen kann
+         */
+        private Entry firstOpenFor(Long productId) {
+            Entry any = openForAny.isEmpty() ? null : openForAny.first();
+            TreeSet<Entry> sameProduct = productId != null ? openByProduct.get(productId) : null;
+            Entry same = sameProduct == null || sameProduct.isEmpty() ? null : sameProduct.first();
+            if (any == null) {
+                return same;
+            }
+            if (same == null) {
+                return any;
+            }
+            return any.rank <= same.rank ? any : same;
+        }
+    }
+}
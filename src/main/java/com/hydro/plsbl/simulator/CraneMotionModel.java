@@ -0,0 +1,71 @@
+package com.hydro.plsbl.simulator;
+
+/**
+ * Bewegungsmodell der Kran-Achsen fuer den Simulator
+ *
+ * - step(): bewegt eine Achse um einen Zeitschritt (vom Simulator je Takt aufgerufen)
+ * - travelSeconds(): analytische Fahrzeit ohne Simulation, z.B. fuer die
+ *   Auftragsreihenfolge oder Anzeigen im UI
+ *
+ * X (Kranbruecke) und Y (Katze) fahren gleichzeitig, Z (Hubwerk) getrennt davon.
+ * Das Hubwerk darf abhaengig von der Last (Greifer beladen) unterschiedlich schnell sein.
+ */
+public interface CraneMotionModel {
+
+    enum Axis { X, Y, Z }
+
+    /**
+     * Zustand einer Achse nach einem Zeitschritt
+     *
+     * @param position Position in mm
+     * @param velocity Geschwindigkeit in mm/s (Vorzeichen = Richtung)
+     */
+    record Motion(int position, double velocity) {
+
+        public boolean reached(int goal) {
+            return position == goal && velocity == 0;
+        }
+    }
+
+    /**
+     * Bewegt eine Achse um einen Zeitschritt in Richtung Ziel
+     *
+     * @param loaded Greifer beladen (Hubwerk mit Last)
+     */
+    Motion step(Axis axis, int position, double velocity, int goal, boolean loaded, double dtSeconds);
+
+    /**
+     * Fahrzeit einer Achse ueber die Strecke (aus dem Stand in den Stand) in Sekunden
+     */
+    double travelSeconds(Axis axis, int distanceMm, boolean loaded);
+
+    /**
+     * Geschaetzte Fahrzeit von A nach B in der Ebene (X und Y gleichzeitig) in Sekunden
+     */
+    default double estimateTravelSeconds(int fromX, int fromY, int toX, int toY, boolean loaded) {
+        return Math.max(travelSeconds(Axis.X, Math.abs(toX - fromX), loaded),
+                        travelSeconds(Axis.Y, Math.abs(toY - fromY), loaded));
+    }
+
+    /**
+     * Geschaetzte Fahrzeit von A nach B mit Heben auf Fahrhoehe, Fahren und Absenken in Sekunden
+     *
+     * @param safeZ Fahrhoehe in mm (z.B. CraneSimulatorConfig.getDefaultZ())
+     */
+    default double estimateTravelSeconds(int fromX, int fromY, int fromZ, int toX, int toY, int toZ,
+                                         int safeZ, boolean loaded) {
+        return travelSeconds(Axis.Z, Math.abs(safeZ - fromZ), loaded)
+            + estimateTravelSeconds(fromX, fromY, toX, toY, loaded)
+            + travelSeconds(Axis.Z, Math.abs(safeZ - toZ), loaded);
+    }
+
+    /**
+     * Bewegungsmodell gemaess Konfiguration (plsbl.simulator.motion-model)
+     */
+    static CraneMotionModel of(CraneSimulatorConfig config) {
+        return switch (config.getMotionModel()) {
+            case STEP -> new StepMotionModel(config);
+            case KINEMATIC -> KinematicMotionModel.of(config);
+        };
+    }
+}
@@ -10,6 +10,16 @@ import org.springframework.context.annotation.Configuration;
 @ConfigurationProperties(prefix = "plsbl.simulator")
 public class CraneSimulatorConfig {
 
+    /**
+     * Bewegungsmodell des Simulators
+     */
+    public enum MotionModel {
+        /** Feste Schrittweite pro Intervall (delta-x/-y/-z) */
+        STEP,
+        /** Hoechstgeschwindigkeit, Beschleunigung und Verzoegerung je Achse, Hubwerk lastabhaengig */
+        KINEMATIC
+    }
+
     /**
      * Simulator aktivieren
      */
@@ -35,6 +45,48 @@ public class CraneSimulatorConfig {
      */
     private int deltaZ = 80;
 
+    /**
+     * Bewegungsmodell (STEP oder KINEMATIC)
+     */
+    private MotionModel motionModel = MotionModel.KINEMATIC;
+
+    /**
+     * Hoechstgeschwindigkeit Kranbruecke (X) in mm/s
+     */
+    private double maxSpeedX = 1500;
+
+    /**
+     * Hoechstgeschwindigkeit Katze (Y) in mm/s
+     */
+    private double maxSpeedY = 1000;
+
+    /**
+     * Beschleunigung / Verzoegerung X in mm/s²
+     */
+    private double accelX = 400;
+    private double decelX = 400;
+
+    /**
+     * Beschleunigung / Verzoegerung Y in mm/s²
+     */
+    private double accelY = 400;
+    private double decelY = 400;
+
+    /**
+     * Hubgeschwindigkeit mit leerem Greifer in mm/s
+     */
+    private double hoistSpeedEmpty = 300;
+
+    /**
+     * Hubgeschwindigkeit mit Barren im Greifer in mm/s
+     */
+    private double hoistSpeedLoaded = 150;
+
+    /**
+     * Beschleunigung / Verzoegerung Hubwerk in mm/s²
+     */
+    private double hoistAccel = 300;
+
     /**
      * Standard-Höhe (Z-Position) in mm
      */
@@ -55,6 +107,39 @@ public class CraneSimulatorConfig {
      */
     private boolean autoStart = true;
 
+    /**
+     * Port der S7-Attrappe (FakeS7Plc) auf 127.0.0.1, 0 = aus
+     */
+    private int s7Port = 0;
+
+    /**
+     * Kopie der Konfiguration (z.B. fuer weitere Kran-Simulatoren im Mehrkran-Betrieb)
+     */
+    public CraneSimulatorConfig copy() {
+        CraneSimulatorConfig copy = new CraneSimulatorConfig();
+        copy.enabled = enabled;
+        copy.intervalMs = intervalMs;
+        copy.deltaX = deltaX;
+        copy.deltaY = deltaY;
+        copy.deltaZ = deltaZ;
+        copy.motionModel = motionModel;
+        copy.maxSpeedX = maxSpeedX;
+        copy.maxSpeedY = maxSpeedY;
+        copy.accelX = accelX;
+        copy.decelX = decelX;
+        copy.accelY = accelY;
+        copy.decelY = decelY;
+        copy.hoistSpeedEmpty = hoistSpeedEmpty;
+        copy.hoistSpeedLoaded = hoistSpeedLoaded;
+        copy.hoistAccel = hoistAccel;
+        copy.defaultZ = defaultZ;
+        copy.parkX = parkX;
+        copy.parkY = parkY;
+        copy.autoStart = autoStart;
+        copy.s7Port = s7Port;
+        return copy;
+    }
+
     // === Getters & Setters ===
 
     public boolean isEnabled() {
@@ -97,6 +182,86 @@ public class CraneSimulatorConfig {
         this.deltaZ = deltaZ;
     }
 
+    public MotionModel getMotionModel() {
+        return motionModel;
+    }
+
+    public void setMotionModel(MotionModel motionModel) {
+        this.motionModel = motionModel;
+    }
+
+    public double getMaxSpeedX() {
+        return maxSpeedX;
+    }
+
+    public void setMaxSpeedX(double maxSpeedX) {
+        this.maxSpeedX = maxSpeedX;
+    }
+
+    public double getMaxSpeedY() {
+        return maxSpeedY;
+    }
+
+    public void setMaxSpeedY(double maxSpeedY) {
+        this.maxSpeedY = maxSpeedY;
+    }
+
+    public double getAccelX() {
+        return accelX;
+    }
+
+    public void setAccelX(double accelX) {
+        this.accelX = accelX;
+    }
+
+    public double getDecelX() {
+        return decelX;
+    }
+
+    public void setDecelX(double decelX) {
+        this.decelX = decelX;
+    }
+
+    public double getAccelY() {
+        return accelY;
+    }
+
+    public void setAccelY(double accelY) {
+        this.accelY = accelY;
+    }
+
+    public double getDecelY() {
+        return decelY;
+    }
+
+    public void setDecelY(double decelY) {
+        this.decelY = decelY;
+    }
+
+    public double getHoistSpeedEmpty() {
+        return hoistSpeedEmpty;
+    }
+
+    public void setHoistSpeedEmpty(double hoistSpeedEmpty) {
+        this.hoistSpeedEmpty = hoistSpeedEmpty;
+    }
+
+    public double getHoistSpeedLoaded() {
+        return hoistSpeedLoaded;
+    }
+
+    public void setHoistSpeedLoaded(double hoistSpeedLoaded) {
+        this.hoistSpeedLoaded = hoistSpeedLoaded;
+    }
+
+    public double getHoistAccel() {
+        return hoistAccel;
+    }
+
+    public void setHoistAccel(double hoistAccel) {
+        this.hoistAccel = hoistAccel;
+    }
+
     public int getDefaultZ() {
         return defaultZ;
     }
@@ -128,4 +293,12 @@ public class CraneSimulatorConfig {
     public void setAutoStart(boolean autoStart) {
         this.autoStart = autoStart;
     }
+
+    public int getS7Port() {
+        return s7Port;
+    }
+
+    public void setS7Port(int s7Port) {
+        this.s7Port = s7Port;
+    }
 }
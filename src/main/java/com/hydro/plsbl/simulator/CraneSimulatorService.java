@@ -6,7 +6,13 @@ import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalDouble;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -24,16 +30,24 @@ public class CraneSimulatorService {
     private static final Logger log = LoggerFactory.getLogger(CraneSimulatorService.class);
 
     private final CraneSimulatorConfig config;
+    private final SimulationClock clock;
 
     // Simulator State
     private volatile boolean running = false;
     private ScheduledExecutorService executor;
     private ScheduledFuture<?> simulatorTask;
 
-    // Aktuelle Position
+    // Aktuelle Position [mm] und Geschwindigkeit [mm/s]
     private int xPosition;
     private int yPosition;
     private int zPosition;
+    private double xVelocity;
+    private double yVelocity;
+    private double zVelocity;
+    private volatile CraneMotionModel motionModel;
+
+    // Ausweichfahrt ohne Auftrag (Mehrkran-Betrieb), null = keine
+    private int[] repositionTarget;
 
     // Aktueller Auftrag
     private CraneSimulatorCommand currentCommand;
@@ -55,8 +69,19 @@ public class CraneSimulatorService {
     // Sicherheits-Pause: Kran stoppt bei offenen Türen
     private volatile boolean paused = false;
 
-    public CraneSimulatorService(CraneSimulatorConfig config) {
+    // Optionale S7-Attrappe (plsbl.simulator.s7-port)
+    private FakeS7Plc s7Server;
+
+    // Durchsatz-Messung (simulierte Zeit) je Auftragsreihenfolge
+    private volatile String throughputLabel = "FIFO";
+    private final Map<String, ThroughputStats> throughput = new LinkedHashMap<>();
+    private int jobTicks = 0;
+    private int emptyTicks = 0;
+
+    public CraneSimulatorService(CraneSimulatorConfig config, SimulationClock clock) {
         this.config = config;
+        this.clock = clock;
+        this.motionModel = CraneMotionModel.of(config);
         reset();
     }
 
@@ -69,9 +94,30 @@ public class CraneSimulatorService {
         }
     }
 
+    /**
+     * Startet die S7-Attrappe, falls konfiguriert. Laeuft vor PlcService.init(),
+     * damit die SPS-Verbindung beim Start bereits aufgebaut werden kann.
+     */
+    @PostConstruct
+    public void startS7Server() {
+        if (config.getS7Port() <= 0) {
+            return;
+        }
+        FakeS7Plc server = new FakeS7Plc(this, config.getS7Port());
+        try {
+            server.start();
+            s7Server = server;
+        } catch (IOException e) {
+            log.error("S7-Attrappe konnte nicht gestartet werden (Port {}): {}", config.getS7Port(), e.getMessage());
+        }
+    }
+
     @PreDestroy
     public void onShutdown() {
         stop();
+        if (s7Server != null) {
+            s7Server.stop();
+        }
     }
 
     /**
@@ -81,17 +127,21 @@ public class CraneSimulatorService {
         xPosition = config.getParkX();
         yPosition = config.getParkY();
         zPosition = config.getDefaultZ();
+        xVelocity = 0;
+        yVelocity = 0;
+        zVelocity = 0;
         workPhase = WorkPhase.IDLE;
         jobState = JobState.IDLE;
         gripperState = GripperState.OPEN;
         currentCommand = null;
+        repositionTarget = null;
         simCount = 0;
         updateDatabase();
         log.info("Simulator reset to park position ({}, {}, {})", xPosition, yPosition, zPosition);
     }
 
     /**
-     * Startet den Simulator
+     * Startet den Simulator (bei virtueller Zeit ohne eigenen Takt, siehe {@link #step()})
      */
     public synchronized void start() {
         if (running) {
@@ -103,6 +153,12 @@ public class CraneSimulatorService {
             return;
         }
 
+        if (clock.isVirtual()) {
+            running = true;
+            log.info("Crane simulator started headless (virtual time, {}ms per step)", config.getIntervalMs());
+            return;
+        }
+
         executor = Executors.newSingleThreadScheduledExecutor(r -> {
             Thread t = new Thread(r, "CraneSimulator");
             t.setDaemon(true);
@@ -202,10 +258,13 @@ public class CraneSimulatorService {
         }
 
         currentCommand = command;
+        repositionTarget = null;
         jobState = JobState.STARTED;
         workPhase = WorkPhase.IDLE;
         jobNumber++;
         simCount = 0;
+        jobTicks = 0;
+        emptyTicks = 0;
 
         // Stockyards in DB speichern
         updateStockyardIds(command.getFromStockyardId(), command.getToStockyardId());
@@ -218,6 +277,25 @@ public class CraneSimulatorService {
         log.info("Command accepted: {} - starting from ({},{},{})", command, xPosition, yPosition, zPosition);
     }
 
+    /**
+     * Faehrt den leeren Kran ohne Auftrag auf eine Position (Ausweichfahrt im Mehrkran-Betrieb).
+     * Wird von einem neuen Auftrag abgeloest.
+     */
+    public synchronized void moveTo(int x, int y) {
+        if (jobState != JobState.IDLE) {
+            log.warn("Cannot reposition - crane is busy (jobState={})", jobState);
+            return;
+        }
+        repositionTarget = new int[]{x, y};
+    }
+
+    /**
+     * Prüft ob eine Ausweichfahrt läuft
+     */
+    public synchronized boolean isRepositioning() {
+        return repositionTarget != null;
+    }
+
     /**
      * Gibt die aktuelle Arbeitsphase zurück
      */
@@ -239,6 +317,13 @@ public class CraneSimulatorService {
         return gripperState;
     }
 
+    /**
+     * Gibt die Nummer des zuletzt angenommenen Auftrags zurück
+     */
+    public synchronized int getJobNumber() {
+        return jobNumber;
+    }
+
     /**
      * Gibt die aktuelle Position zurück
      */
@@ -246,6 +331,23 @@ public class CraneSimulatorService {
         return new int[]{xPosition, yPosition, zPosition};
     }
 
+    /**
+     * Führt einen Simulationsschritt aus (ein Intervall). Bei virtueller Zeit
+     * ruft der HeadlessSimulationRunner diese Methode statt des Executors auf.
+     */
+    public void step() {
+        if (running) {
+            tick();
+        }
+    }
+
+    /**
+     * Simulationsintervall [ms]
+     */
+    public int getIntervalMs() {
+        return config.getIntervalMs();
+    }
+
     // === Private Methods ===
 
     private int tickCounter = 0;
@@ -287,13 +389,22 @@ public class CraneSimulatorService {
         }
 
         if (jobState == JobState.IDLE) {
-            // Kein Auftrag - nichts zu tun
+            // Kein Auftrag - ggf. Ausweichfahrt fortsetzen
+            if (repositionTarget != null && moveXY(repositionTarget[0], repositionTarget[1])) {
+                repositionTarget = null;
+            }
             return;
         }
 
         WorkPhase prevPhase = workPhase;
         JobState prevJobState = jobState;
 
+        // Durchsatz: Auftragszeit und Leerfahrt (bis zum Absenken am Abholplatz) zählen
+        jobTicks++;
+        if (workPhase == WorkPhase.IDLE || workPhase == WorkPhase.MOVE_TO_PICKUP) {
+            emptyTicks++;
+        }
+
         switch (workPhase) {
             case IDLE:
                 // Zum Abholen fahren (erst auf Höhe gehen)
@@ -386,6 +497,7 @@ public class CraneSimulatorService {
                     int finalY = currentCommand != null ? currentCommand.getReleaseY() : yPosition;
                     currentCommand = null;
                     simCount = 0;
+                    recordJobThroughput();
                     log.info(">>> SIMULATOR: Job COMPLETED! Phase=IDLE, jobState=IDLE, pos=({}, {}, {})", finalX, finalY, zPosition);
                 }
                 break;
@@ -393,43 +505,89 @@ public class CraneSimulatorService {
     }
 
     /**
-     * Bewegt den Kran horizontal
+     * Verbucht den abgeschlossenen Auftrag in der Durchsatz-Statistik
+     */
+    private void recordJobThroughput() {
+        String label = throughputLabel;
+        long busyMs = (long) jobTicks * config.getIntervalMs();
+        long emptyMs = (long) emptyTicks * config.getIntervalMs();
+        ThroughputStats stats = throughput.merge(label, new ThroughputStats(label, 1, busyMs, emptyMs),
+            ThroughputStats::plus);
+
+        if (stats.jobs() % 10 == 0) {
+            log.info("Durchsatz [{}]: {} Jobs, {} Jobs/h, Leerfahrt {}%", label, stats.jobs(),
+                String.format("%.1f", stats.jobsPerHour()), String.format("%.0f", stats.emptyTravelShare() * 100));
+            for (String other : throughput.keySet()) {
+                if (!other.equals(label)) {
+                    getThroughputGain(other, label).ifPresent(gain ->
+                        log.info("Durchsatz [{}] gegenüber [{}]: {}%", label, other, String.format("%+.1f", gain)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Bewegt den Kran horizontal (Bruecke und Katze gleichzeitig)
      */
     private boolean moveXY(int goalX, int goalY) {
-        boolean reachedX = moveAxis('X', goalX);
-        boolean reachedY = moveAxis('Y', goalY);
-        return reachedX && reachedY;
+        double dt = config.getIntervalMs() / 1000.0;
+        CraneMotionModel.Motion x = motionModel.step(CraneMotionModel.Axis.X, xPosition, xVelocity, goalX, isCarrying(), dt);
+        CraneMotionModel.Motion y = motionModel.step(CraneMotionModel.Axis.Y, yPosition, yVelocity, goalY, isCarrying(), dt);
+        xPosition = x.position();
+        xVelocity = x.velocity();
+        yPosition = y.position();
+        yVelocity = y.velocity();
+        return x.reached(goalX) && y.reached(goalY);
     }
 
-    private boolean moveAxis(char axis, int goal) {
-        int current = axis == 'X' ? xPosition : yPosition;
-        int delta = axis == 'X' ? config.getDeltaX() : config.getDeltaY();
+    /**
+     * Bewegt den Kran vertikal (Hubgeschwindigkeit abhaengig von der Last)
+     */
+    private boolean moveZ(int goalZ) {
+        CraneMotionModel.Motion z = motionModel.step(CraneMotionModel.Axis.Z, zPosition, zVelocity, goalZ,
+            isCarrying(), config.getIntervalMs() / 1000.0);
+        zPosition = z.position();
+        zVelocity = z.velocity();
+        return z.reached(goalZ);
+    }
 
-        if (current < goal) {
-            current = Math.min(current + delta, goal);
-        } else if (current > goal) {
-            current = Math.max(current - delta, goal);
-        }
+    /**
+     * Barren im Greifer (vom Anheben am Abholplatz bis zum Absenken am Ziel)
+     */
+    private boolean isCarrying() {
+        return workPhase == WorkPhase.LIFTING_INGOT || workPhase == WorkPhase.MOVE_TO_DESTINATION
+            || workPhase == WorkPhase.LOWERING_TO_DROP;
+    }
 
-        if (axis == 'X') {
-            xPosition = current;
-        } else {
-            yPosition = current;
-        }
+    /**
+     * Aktives Bewegungsmodell
+     */
+    public CraneMotionModel getMotionModel() {
+        return motionModel;
+    }
 
-        return current == goal;
+    /**
+     * Tauscht das Bewegungsmodell aus (wirkt ab dem naechsten Takt)
+     */
+    public synchronized void setMotionModel(CraneMotionModel motionModel) {
+        this.motionModel = motionModel;
+        log.info("Simulator-Bewegungsmodell: {}", motionModel.getClass().getSimpleName());
     }
 
     /**
-     * Bewegt den Kran vertikal
+     * Geschaetzte Fahrzeit in der Ebene von A nach B, ohne die Simulation zu takten
      */
-    private boolean moveZ(int goalZ) {
-        if (zPosition < goalZ) {
-            zPosition = Math.min(zPosition + config.getDeltaZ(), goalZ);
-        } else if (zPosition > goalZ) {
-            zPosition = Math.max(zPosition - config.getDeltaZ(), goalZ);
-        }
-        return zPosition == goalZ;
+    public Duration estimateTravelTime(int fromX, int fromY, int toX, int toY, boolean loaded) {
+        return Duration.ofMillis(Math.round(motionModel.estimateTravelSeconds(fromX, fromY, toX, toY, loaded) * 1000));
+    }
+
+    /**
+     * Geschaetzte Fahrzeit von A nach B inkl. Heben auf und Absenken von der Fahrhoehe
+     */
+    public Duration estimateTravelTime(int fromX, int fromY, int fromZ, int toX, int toY, int toZ, boolean loaded) {
+        double seconds = motionModel.estimateTravelSeconds(fromX, fromY, fromZ, toX, toY, toZ,
+            config.getDefaultZ(), loaded);
+        return Duration.ofMillis(Math.round(seconds * 1000));
     }
 
     /**
@@ -468,6 +626,61 @@ public class CraneSimulatorService {
         );
     }
 
+    // === Durchsatz-Messung ===
+
+    /**
+     * Setzt die Bezeichnung, unter der abgeschlossene Aufträge verbucht werden
+     * (z.B. die aktive Auftragsreihenfolge FIFO/NEAREST)
+     */
+    public void setThroughputLabel(String label) {
+        this.throughputLabel = label;
+    }
+
+    /**
+     * Gemessener Durchsatz je Bezeichnung (Kopie)
+     */
+    public synchronized Map<String, ThroughputStats> getThroughputStats() {
+        return new LinkedHashMap<>(throughput);
+    }
+
+    /**
+     * Durchsatz-Gewinn von candidate gegenüber baseline in Prozent (Jobs/Stunde)
+     */
+    public synchronized OptionalDouble getThroughputGain(String baseline, String candidate) {
+        ThroughputStats base = throughput.get(baseline);
+        ThroughputStats cand = throughput.get(candidate);
+        if (base == null || cand == null || base.jobsPerHour() <= 0) {
+            return OptionalDouble.empty();
+        }
+        return OptionalDouble.of((cand.jobsPerHour() / base.jobsPerHour() - 1) * 100);
+    }
+
+    /**
+     * Setzt die Durchsatz-Messung zurück
+     */
+    public synchronized void resetThroughputStats() {
+        throughput.clear();
+    }
+
+    /**
+     * Durchsatz-Kennzahlen (simulierte Zeit vom Befehlseingang bis Auftragsende)
+     */
+    public record ThroughputStats(String label, int jobs, long busyMs, long emptyTravelMs) {
+
+        ThroughputStats plus(ThroughputStats other) {
+            return new ThroughputStats(label, jobs + other.jobs, busyMs + other.busyMs,
+                emptyTravelMs + other.emptyTravelMs);
+        }
+
+        public double jobsPerHour() {
+            return busyMs > 0 ? jobs * 3_600_000.0 / busyMs : 0;
+        }
+
+        public double emptyTravelShare() {
+            return busyMs > 0 ? (double) emptyTravelMs / busyMs : 0;
+        }
+    }
+
     /**
      * Status-DTO für den Simulator
      */
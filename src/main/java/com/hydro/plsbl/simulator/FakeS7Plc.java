@@ -0,0 +1,578 @@
+package com.hydro.plsbl.simulator;
+
+import com.hydro.plsbl.plc.PlcTags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * SPS-Attrappe: lokale S7-Gegenstelle auf Basis des Kran-Simulators
+ *
+ * Spricht ISO-on-TCP (TPKT/COTP) und S7comm, so dass PlcService ueber den echten
+ * PLC4X-S7-Treiber verbunden werden kann, z.B. mit
+ * s7://127.0.0.1:10102?controller-type=S7_1500
+ *
+ * - Unterstuetzt Verbindungsaufbau (COTP, Setup Communication), Read Var und
+ *   Write Var auf Datenbausteine. Alles andere wird mit einem Fehler beantwortet.
+ * - Die Datenbausteine sind Byte-Abbilder mit den Adressen aus {@link PlcTags}.
+ *   Der Status-Baustein wird vor jedem Lesen aus dem Simulator aktualisiert.
+ * - Ein gesetzter Kommando-Trigger uebergibt das Kommando an den Simulator und
+ *   wird danach zurueckgesetzt (Handshake wie an der echten SPS).
+ */
+public class FakeS7Plc {
+
+    private static final Logger log = LoggerFactory.getLogger(FakeS7Plc.class);
+
+    private static final int DB_SIZE = 256;
+    private static final int MAX_PDU_SIZE = 960;
+    private static final int AREA_DB = 0x84;
+
+    // COTP-TPDU-Typen
+    private static final int COTP_CONNECTION_REQUEST = 0xE0;
+    private static final int COTP_CONNECTION_CONFIRM = 0xD0;
+    private static final int COTP_DATA = 0xF0;
+
+    // S7-Nachrichtentypen und Funktionen
+    private static final int S7_PROTOCOL_ID = 0x32;
+    private static final int S7_JOB = 0x01;
+    private static final int S7_ACK = 0x02;
+    private static final int S7_ACK_DATA = 0x03;
+    private static final int S7_SETUP_COMMUNICATION = 0xF0;
+    private static final int S7_READ_VAR = 0x04;
+    private static final int S7_WRITE_VAR = 0x05;
+
+    // Rueckgabecodes je Variable
+    private static final int RC_OK = 0xFF;
+    private static final int RC_INVALID_ADDRESS = 0x05;
+    private static final int RC_NOT_FOUND = 0x0A;
+
+    private static final Pattern ADDRESS = Pattern.compile("%DB(\\d+)\\.DB([XBWD])(\\d+)(?:\\.(\\d))?:\\w+");
+
+    private static final Map<String, TagAddress> STATUS = parseAll(PlcTags.STATUS_TAGS);
+    private static final Map<String, TagAddress> COMMAND = parseAll(PlcTags.COMMAND_TAGS);
+    private static final Set<Integer> STATUS_BLOCKS = STATUS.values().stream()
+        .map(TagAddress::db)
+        .collect(Collectors.toSet());
+
+    private final CraneSimulatorService simulator;
+    private final int requestedPort;
+
+    private final Map<Integer, byte[]> dataBlocks = new HashMap<>();
+    private final Set<Socket> clients = ConcurrentHashMap.newKeySet();
+    private volatile boolean running = false;
+    private ServerSocket serverSocket;
+    private ExecutorService connectionThreads;
+
+    private final AtomicLong reads = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong commands = new AtomicLong();
+
+    /**
+     * @param simulator Simulator, der Status liefert und Kommandos ausfuehrt
+     * @param port      TCP-Port (0 = freien Port waehlen)
+     */
+    public FakeS7Plc(CraneSimulatorService simulator, int port) {
+        this.simulator = simulator;
+        this.requestedPort = port;
+        for (TagAddress address : STATUS.values()) {
+            dataBlocks.putIfAbsent(address.db(), new byte[DB_SIZE]);
+        }
+        for (TagAddress address : COMMAND.values()) {
+            dataBlocks.putIfAbsent(address.db(), new byte[DB_SIZE]);
+        }
+    }
+
+    // ========================================================================
+    // Start / Stopp
+    // ========================================================================
+
+    /**
+     * Startet die Attrappe (lauscht nur auf der Loopback-Adresse)
+     */
+    public synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+        serverSocket = new ServerSocket(requestedPort, 50, InetAddress.getLoopbackAddress());
+        connectionThreads = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "FakeS7Plc");
+            t.setDaemon(true);
+            return t;
+        });
+        running = true;
+        connectionThreads.execute(this::acceptLoop);
+        log.info("SPS-Attrappe gestartet: {}", getConnectionUrl());
+    }
+
+    /**
+     * Stoppt die Attrappe und trennt alle Verbindungen
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        closeQuietly(serverSocket);
+        for (Socket client : clients) {
+            closeQuietly(client);
+        }
+        connectionThreads.shutdownNow();
+        log.info("SPS-Attrappe gestoppt");
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int getPort() {
+        return serverSocket != null ? serverSocket.getLocalPort() : requestedPort;
+    }
+
+    /**
+     * PLC4X-Verbindungs-URL (Steuerungstyp fest, damit der Treiber keine SZL-Abfrage sendet)
+     */
+    public String getConnectionUrl() {
+        return "s7://127.0.0.1:" + getPort() + "?controller-type=S7_1500";
+    }
+
+    public long getReadCount() {
+        return reads.get();
+    }
+
+    public long getWriteCount() {
+        return writes.get();
+    }
+
+    public long getCommandCount() {
+        return commands.get();
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket client = serverSocket.accept();
+                client.setTcpNoDelay(true);
+                clients.add(client);
+                connectionThreads.execute(() -> serve(client));
+            } catch (IOException e) {
+                if (running) {
+                    log.warn("SPS-Attrappe: Fehler beim Annehmen einer Verbindung: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        try {
+            if (closeable != null) {
+                closeable.close();
+            }
+        } catch (Exception e) {
+            // ignorieren
+        }
+    }
+
+    // ========================================================================
+    // ISO-on-TCP (TPKT / COTP)
+    // ========================================================================
+
+    private void serve(Socket client) {
+        log.debug("SPS-Attrappe: Verbindung von {}", client.getRemoteSocketAddress());
+        try (client;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(client.getInputStream()));
+             OutputStream out = new BufferedOutputStream(client.getOutputStream())) {
+            while (running) {
+                byte[] tpdu = readTpkt(in);
+                if (tpdu == null) {
+                    break;
+                }
+                byte[] reply = handleCotp(tpdu);
+                if (reply == null) {
+                    break;
+                }
+                writeTpkt(out, reply);
+            }
+        } catch (IOException e) {
+            if (running) {
+                log.debug("SPS-Attrappe: Verbindung beendet: {}", e.getMessage());
+            }
+        } catch (RuntimeException e) {
+            log.warn("SPS-Attrappe: Ungueltiges Paket, Verbindung wird getrennt: {}", e.getMessage());
+        } finally {
+            clients.remove(client);
+        }
+    }
+
+    private static byte[] readTpkt(DataInputStream in) throws IOException {
+        int version;
+        try {
+            version = in.readUnsignedByte();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (version != 0x03) {
+            throw new IOException("Kein TPKT-Paket (Version " + version + ")");
+        }
+        in.readUnsignedByte();  // reserviert
+        int length = in.readUnsignedShort();
+        byte[] payload = new byte[length - 4];
+        in.readFully(payload);
+        return payload;
+    }
+
+    private static void writeTpkt(OutputStream out, byte[] payload) throws IOException {
+        int length = payload.length + 4;
+        out.write(new byte[]{0x03, 0x00, (byte) (length >> 8), (byte) length});
+        out.write(payload);
+        out.flush();
+    }
+
+    /**
+     * Beantwortet ein COTP-Paket (null = Verbindung schliessen)
+     */
+    private byte[] handleCotp(byte[] tpdu) {
+        int headerLength = tpdu[0] & 0xFF;
+        int type = tpdu[1] & 0xF0;
+        if (type == COTP_CONNECTION_REQUEST) {
+            return connectionConfirm(tpdu, headerLength);
+        }
+        if (type == COTP_DATA) {
+            byte[] s7Reply = handleS7(ByteBuffer.wrap(tpdu, headerLength + 1, tpdu.length - headerLength - 1).slice());
+            byte[] reply = new byte[s7Reply.length + 3];
+            reply[0] = 0x02;
+            reply[1] = (byte) COTP_DATA;
+            reply[2] = (byte) 0x80;  // EOT, TPDU-Nummer 0
+            System.arraycopy(s7Reply, 0, reply, 3, s7Reply.length);
+            return reply;
+        }
+        // Verbindungsabbau oder unbekannter Typ
+        return null;
+    }
+
+    /**
+     * Connection Confirm: Referenzen tauschen, Parameter (TPDU-Groesse, TSAPs) uebernehmen
+     */
+    private static byte[] connectionConfirm(byte[] request, int headerLength) {
+        byte[] parameters = Arrays.copyOfRange(request, 7, headerLength + 1);
+        ByteArrayOutputStream confirm = new ByteArrayOutputStream();
+        confirm.write(6 + parameters.length);
+        confirm.write(COTP_CONNECTION_CONFIRM);
+        confirm.write(request[4]);  // Ziel-Referenz = Quell-Referenz des Clients
+        confirm.write(request[5]);
+        confirm.write(0x00);        // eigene Quell-Referenz
+        confirm.write(0x01);
+        confirm.write(0x00);        // Klasse 0
+        confirm.writeBytes(parameters);
+        return confirm.toByteArray();
+    }
+
+    // ========================================================================
+    // S7comm
+    // ========================================================================
+
+    private byte[] handleS7(ByteBuffer message) {
+        if ((message.get() & 0xFF) != S7_PROTOCOL_ID) {
+            return ack(0, 0x81, 0x04);
+        }
+        int messageType = message.get() & 0xFF;
+        message.getShort();  // reserviert
+        int pduReference = message.getShort() & 0xFFFF;
+        int parameterLength = message.getShort() & 0xFFFF;
+        int dataLength = message.getShort() & 0xFFFF;
+        if (messageType != S7_JOB || parameterLength == 0) {
+            return ack(pduReference, 0x81, 0x04);
+        }
+        ByteBuffer parameters = message.slice().limit(parameterLength);
+        message.position(message.position() + parameterLength);
+        ByteBuffer data = message.slice().limit(dataLength);
+
+        return switch (parameters.get(0) & 0xFF) {
+            case S7_SETUP_COMMUNICATION -> setupCommunication(pduReference, parameters);
+            case S7_READ_VAR -> readVar(pduReference, parameters);
+            case S7_WRITE_VAR -> writeVar(pduReference, parameters, data);
+            default -> ack(pduReference, 0x81, 0x04);
+        };
+    }
+
+    private static byte[] setupCommunication(int pduReference, ByteBuffer request) {
+        int maxAmqCaller = request.getShort(2) & 0xFFFF;
+        int maxAmqCallee = request.getShort(4) & 0xFFFF;
+        int pduLength = Math.min(request.getShort(6) & 0xFFFF, MAX_PDU_SIZE);
+        ByteBuffer parameters = ByteBuffer.allocate(8)
+            .put((byte) S7_SETUP_COMMUNICATION).put((byte) 0)
+            .putShort((short) maxAmqCaller).putShort((short) maxAmqCallee).putShort((short) pduLength);
+        return ackData(pduReference, parameters.array(), new byte[0]);
+    }
+
+    private byte[] readVar(int pduReference, ByteBuffer request) {
+        VarItem[] items = parseItems(request);
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        synchronized (this) {
+            if (Arrays.stream(items).anyMatch(item -> STATUS_BLOCKS.contains(item.db()))) {
+                refreshStatus();
+            }
+            for (int i = 0; i < items.length; i++) {
+                VarItem item = items[i];
+                byte[] block = item.area() == AREA_DB ? dataBlocks.get(item.db()) : null;
+                int length = item.count() * elementSize(item.transportSize());
+                if (block == null || length == 0 || item.offset() + length > block.length) {
+                    data.write(block == null ? RC_NOT_FOUND : RC_INVALID_ADDRESS);
+                    data.writeBytes(new byte[]{0x00, 0x00, 0x00});
+                    continue;
+                }
+                byte[] value = item.transportSize() == 0x01
+                    ? new byte[]{(byte) ((block[item.offset()] >> item.bit()) & 1)}
+                    : Arrays.copyOfRange(block, item.offset(), item.offset() + length);
+                boolean bit = item.transportSize() == 0x01;
+                int lengthField = bit ? value.length : value.length * 8;
+                data.write(RC_OK);
+                data.write(bit ? 0x03 : 0x04);  // BIT bzw. BYTE/WORD/DWORD (Laenge in Bit)
+                data.write(lengthField >> 8);
+                data.write(lengthField);
+                data.writeBytes(value);
+                if (i < items.length - 1 && value.length % 2 == 1) {
+                    data.write(0x00);
+                }
+            }
+        }
+        reads.incrementAndGet();
+        return ackData(pduReference, new byte[]{(byte) S7_READ_VAR, (byte) items.length}, data.toByteArray());
+    }
+
+    private byte[] writeVar(int pduReference, ByteBuffer request, ByteBuffer data) {
+        VarItem[] items = parseItems(request);
+        byte[] results = new byte[items.length];
+        synchronized (this) {
+            for (int i = 0; i < items.length; i++) {
+                VarItem item = items[i];
+                data.get();  // Rueckgabecode (reserviert)
+                int dataTransportSize = data.get() & 0xFF;
+                int lengthField = data.getShort() & 0xFFFF;
+                boolean lengthInBits = dataTransportSize >= 0x03 && dataTransportSize <= 0x05;
+                byte[] value = new byte[lengthInBits ? (lengthField + 7) / 8 : lengthField];
+                data.get(value);
+                if (i < items.length - 1 && value.length % 2 == 1) {
+                    data.get();
+                }
+
+                byte[] block = item.area() == AREA_DB ? dataBlocks.get(item.db()) : null;
+                if (block == null) {
+                    results[i] = (byte) RC_NOT_FOUND;
+                } else if (value.length == 0 || item.offset() + value.length > block.length) {
+                    results[i] = (byte) RC_INVALID_ADDRESS;
+                } else {
+                    if (item.transportSize() == 0x01) {
+                        int mask = 1 << item.bit();
+                        block[item.offset()] = (byte) ((value[0] & 1) != 0
+                            ? block[item.offset()] | mask : block[item.offset()] & ~mask);
+                    } else {
+                        System.arraycopy(value, 0, block, item.offset(), value.length);
+                    }
+                    results[i] = (byte) RC_OK;
+                }
+            }
+            processCommandTrigger();
+        }
+        writes.incrementAndGet();
+        return ackData(pduReference, new byte[]{(byte) S7_WRITE_VAR, (byte) items.length}, results);
+    }
+
+    /**
+     * Liest die Variablen-Spezifikationen (S7ANY, je 12 Byte) einer Read/Write-Var-Anfrage
+     */
+    private static VarItem[] parseItems(ByteBuffer parameters) {
+        int count = parameters.get(1) & 0xFF;
+        VarItem[] items = new VarItem[count];
+        int pos = 2;
+        for (int i = 0; i < count; i++) {
+            // 0x12 (Variablen-Spezifikation), Laenge, 0x10 (S7ANY)
+            int transportSize = parameters.get(pos + 3) & 0xFF;
+            int elements = parameters.getShort(pos + 4) & 0xFFFF;
+            int db = parameters.getShort(pos + 6) & 0xFFFF;
+            int area = parameters.get(pos + 8) & 0xFF;
+            int address = ((parameters.get(pos + 9) & 0xFF) << 16)
+                | ((parameters.get(pos + 10) & 0xFF) << 8) | (parameters.get(pos + 11) & 0xFF);
+            items[i] = new VarItem(transportSize, elements, db, area, address >> 3, address & 0x07);
+            pos += 2 + (parameters.get(pos + 1) & 0xFF);
+        }
+        return items;
+    }
+
+    private static int elementSize(int transportSize) {
+        return switch (transportSize) {
+            case 0x01, 0x02, 0x03 -> 1;   // BOOL, BYTE/SINT, CHAR
+            case 0x04, 0x05 -> 2;         // WORD, INT
+            case 0x06, 0x07, 0x08 -> 4;   // DWORD, DINT, REAL
+            default -> 0;
+        };
+    }
+
+    private static byte[] ackData(int pduReference, byte[] parameters, byte[] data) {
+        return ByteBuffer.allocate(12 + parameters.length + data.length)
+            .put((byte) S7_PROTOCOL_ID).put((byte) S7_ACK_DATA).putShort((short) 0)
+            .putShort((short) pduReference)
+            .putShort((short) parameters.length).putShort((short) data.length)
+            .put((byte) 0).put((byte) 0)
+            .put(parameters).put(data)
+            .array();
+    }
+
+    private static byte[] ack(int pduReference, int errorClass, int errorCode) {
+        return ByteBuffer.allocate(12)
+            .put((byte) S7_PROTOCOL_ID).put((byte) S7_ACK).putShort((short) 0)
+            .putShort((short) pduReference)
+            .putShort((short) 0).putShort((short) 0)
+            .put((byte) errorClass).put((byte) errorCode)
+            .array();
+    }
+
+    // ========================================================================
+    // Abbildung auf den Simulator
+    // ========================================================================
+
+    /**
+     * Schreibt den Simulator-Status in den Status-Baustein
+     */
+    private void refreshStatus() {
+        CraneSimulatorService.SimulatorStatus status = simulator.getSimulatorStatus();
+        put(STATUS.get("xPos"), status.xPosition());
+        put(STATUS.get("yPos"), status.yPosition());
+        put(STATUS.get("zPos"), status.zPosition());
+        put(STATUS.get("craneMode"), switch (status.craneMode()) {
+            case AUTOMATIC -> 0;
+            case MANUAL -> 1;
+            case SEMI_AUTOMATIC -> 2;
+        });
+        put(STATUS.get("gripper"), switch (status.gripperState()) {
+            case OPEN -> 0;
+            case CLOSED -> 1;
+            case LOADED -> 2;
+        });
+        put(STATUS.get("jobState"), switch (status.jobState()) {
+            case IDLE -> 0;
+            case STARTED -> 1;
+            case LOADED -> 2;
+            case DROPPED -> 3;
+        });
+        put(STATUS.get("jobNumber"), simulator.getJobNumber());
+        put(STATUS.get("flags"), 0);  // Simulator hat keine Fehler
+
+        int doors = 0;
+        if (status.door1Open()) doors |= PlcTags.DOOR_1;
+        if (status.door7Open()) doors |= PlcTags.DOOR_7;
+        if (status.door10Open()) doors |= PlcTags.DOOR_10;
+        if (status.gatesOpen()) doors |= PlcTags.DOOR_GATES;
+        if (status.doorsOpen()) doors |= PlcTags.DOOR_OTHERS;
+        put(STATUS.get("doors"), doors);
+    }
+
+    /**
+     * Uebergibt ein Kommando an den Simulator, sobald der Trigger gesetzt ist
+     */
+    private void processCommandTrigger() {
+        TagAddress trigger = COMMAND.get("trigger");
+        if (get(trigger) == 0) {
+            return;
+        }
+        int flags = get(COMMAND.get("flags"));
+        CraneSimulatorCommand.Builder builder = CraneSimulatorCommand.builder();
+        if ((flags & PlcTags.CMD_FLAG_ABORT) != 0) {
+            builder.abort();
+        } else {
+            builder.pickup(get(COMMAND.get("pickupX")), get(COMMAND.get("pickupY")), get(COMMAND.get("pickupZ")))
+                .release(get(COMMAND.get("releaseX")), get(COMMAND.get("releaseY")), get(COMMAND.get("releaseZ")))
+                .ingot(get(COMMAND.get("length")), get(COMMAND.get("width")),
+                    get(COMMAND.get("thickness")), get(COMMAND.get("weight")))
+                .longIngot((flags & PlcTags.CMD_FLAG_LONG_INGOT) != 0)
+                .rotate((flags & PlcTags.CMD_FLAG_ROTATE) != 0);
+        }
+        // Handshake: Kommando uebernommen
+        put(trigger, 0);
+        commands.incrementAndGet();
+        simulator.sendCommand(builder.build());
+    }
+
+    private void put(TagAddress tag, int value) {
+        byte[] block = dataBlocks.get(tag.db());
+        if (tag.size() == 0) {
+            int mask = 1 << tag.bit();
+            block[tag.offset()] = (byte) (value != 0 ? block[tag.offset()] | mask : block[tag.offset()] & ~mask);
+            return;
+        }
+        for (int i = tag.size() - 1, v = value; i >= 0; i--, v >>= 8) {
+            block[tag.offset() + i] = (byte) v;
+        }
+    }
+
+    private int get(TagAddress tag) {
+        byte[] block = dataBlocks.get(tag.db());
+        if (tag.size() == 0) {
+            return (block[tag.offset()] >> tag.bit()) & 1;
+        }
+        int value = block[tag.offset()];  // Vorzeichen aus dem ersten Byte
+        for (int i = 1; i < tag.size(); i++) {
+            value = (value << 8) | (block[tag.offset() + i] & 0xFF);
+        }
+        return value;
+    }
+
+    // ========================================================================
+    // Adressen
+    // ========================================================================
+
+    private static Map<String, TagAddress> parseAll(Map<String, String> tags) {
+        Map<String, TagAddress> parsed = new LinkedHashMap<>();
+        tags.forEach((name, address) -> parsed.put(name, TagAddress.parse(address)));
+        return parsed;
+    }
+
+    /**
+     * Adresse im Datenbaustein (size 0 = Bit)
+     */
+    private record TagAddress(int db, int offset, int bit, int size) {
+
+        static TagAddress parse(String address) {
+            Matcher matcher = ADDRESS.matcher(address);
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("Unbekanntes Adressformat: " + address);
+            }
+            int size = switch (matcher.group(2)) {
+                case "X" -> 0;
+                case "B" -> 1;
+                case "W" -> 2;
+                default -> 4;
+            };
+            int bit = matcher.group(4) != null ? Integer.parseInt(matcher.group(4)) : 0;
+            return new TagAddress(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(3)), bit, size);
+        }
+    }
+
+    /**
+     * Variablen-Spezifikation einer Read/Write-Var-Anfrage
+     */
+    private record VarItem(int transportSize, int count, int db, int area, int offset, int bit) {
+    }
+}
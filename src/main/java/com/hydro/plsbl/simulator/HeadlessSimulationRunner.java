@@ -0,0 +1,164 @@
+package com.hydro.plsbl.simulator;
+
+import com.hydro.plsbl.plc.PlcService;
+import com.hydro.plsbl.service.TransportOrderProcessor;
+import com.hydro.plsbl.service.TransportOrderProcessor.QueueWaitStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Taktet Simulator und Kran-Steuerung in virtueller Zeit (ohne Threads und Wartezeiten)
+ *
+ * Periodische Aufgaben (every) und einmalige Ereignisse (at) werden nach Faelligkeit
+ * abgearbeitet; die Uhr springt jeweils direkt zum naechsten Zeitpunkt. So laesst sich
+ * z.B. ein ganzer Betriebstag in Sekunden nachspielen und Durchsatz sowie Wartezeiten
+ * der Auftraege auswerten.
+ *
+ * Voraussetzung: SimulationClock im virtuellen Modus. Session-gebundene Dienste
+ * (z.B. BeladungProcessorService) registriert der Aufrufer selbst per every(500, ...::step).
+ */
+public class HeadlessSimulationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(HeadlessSimulationRunner.class);
+
+    private final SimulationClock clock;
+    private final List<CraneSimulatorService> simulators;
+    private final PriorityQueue<Task> tasks = new PriorityQueue<>();
+    private TransportOrderProcessor orderProcessor;
+    private long sequence = 0;
+
+    /**
+     * @param simulators Kran-Simulatoren, deren Durchsatz ausgewertet wird (mehrere im Mehrkran-Betrieb)
+     */
+    public HeadlessSimulationRunner(SimulationClock clock, CraneSimulatorService... simulators) {
+        if (!clock.isVirtual()) {
+            throw new IllegalArgumentException("HeadlessSimulationRunner benoetigt virtuelle Zeit");
+        }
+        this.clock = clock;
+        this.simulators = List.of(simulators);
+    }
+
+    /**
+     * Runner mit den Takten des Regelbetriebs: Simulator, SPS-Poll (Tuer-Alarme folgen
+     * aus dessen Status-Events), Auftragsvergabe und Sicherheits-Abgleich der Warteschlange.
+     * Die automatische Auftragsvergabe wird eingeschaltet.
+     */
+    public static HeadlessSimulationRunner standard(SimulationClock clock, CraneSimulatorService simulator,
+                                                    PlcService plcService,
+                                                    TransportOrderProcessor orderProcessor) {
+        if (!simulator.isRunning()) {
+            simulator.start();
+        }
+        plcService.enableSimulatorMode();
+
+        HeadlessSimulationRunner runner = new HeadlessSimulationRunner(clock, simulator);
+        runner.orderProcessor = orderProcessor;
+        runner.every(simulator.getIntervalMs(), simulator::step);
+        runner.every(plcService.getPollInterval(PlcService.PollRate.FAST), plcService::pollTick);
+        if (orderProcessor != null) {
+            orderProcessor.startAutoProcessing();
+            runner.every(2000, orderProcessor::checkForPendingOrders);
+            runner.every(30000, orderProcessor::safetySweep);
+        }
+        return runner;
+    }
+
+    /**
+     * Registriert eine periodische Aufgabe (erste Ausfuehrung nach einem Intervall)
+     */
+    public HeadlessSimulationRunner every(long intervalMs, Runnable action) {
+        if (intervalMs <= 0) {
+            throw new IllegalArgumentException("Intervall muss positiv sein: " + intervalMs);
+        }
+        tasks.add(new Task(clock.millis() + intervalMs, sequence++, intervalMs, action));
+        return this;
+    }
+
+    /**
+     * Registriert ein einmaliges Ereignis zum Zeitpunkt [ms seit Epoche, virtuell]
+     */
+    public HeadlessSimulationRunner at(long timeMillis, Runnable action) {
+        tasks.add(new Task(Math.max(timeMillis, clock.millis()), sequence++, 0, action));
+        return this;
+    }
+
+    /**
+     * Spielt die angegebene virtuelle Dauer ab und liefert die Auswertung
+     */
+    public Report run(Duration duration) {
+        long end = clock.millis() + duration.toMillis();
+        simulators.forEach(CraneSimulatorService::resetThroughputStats);
+        if (orderProcessor != null) {
+            orderProcessor.resetQueueWaitStats();
+        }
+
+        long wallStart = System.nanoTime();
+        long steps = 0;
+        while (!tasks.isEmpty() && tasks.peek().due() <= end) {
+            Task task = tasks.poll();
+            clock.advanceTo(task.due());
+            try {
+                task.action().run();
+            } catch (Exception e) {
+                log.error("Fehler in virtuellem Takt bei t={}", task.due(), e);
+            }
+            steps++;
+            if (task.intervalMs() > 0) {
+                tasks.add(new Task(task.due() + task.intervalMs(), sequence++, task.intervalMs(), task.action()));
+            }
+        }
+        clock.advanceTo(end);
+        long wallMs = (System.nanoTime() - wallStart) / 1_000_000;
+
+        int jobs = 0;
+        long busyMs = 0;
+        long emptyMs = 0;
+        for (CraneSimulatorService simulator : simulators) {
+            for (CraneSimulatorService.ThroughputStats stats : simulator.getThroughputStats().values()) {
+                jobs += stats.jobs();
+                busyMs += stats.busyMs();
+                emptyMs += stats.emptyTravelMs();
+            }
+        }
+        Report report = new Report(duration.toMillis(), wallMs, steps, jobs,
+            jobs * 3_600_000.0 / duration.toMillis(),
+            busyMs > 0 ? (double) emptyMs / busyMs : 0,
+            orderProcessor != null ? orderProcessor.getQueueWaitStats() : null);
+        log.info("Headless-Simulation: {}", report);
+        return report;
+    }
+
+    private record Task(long due, long seq, long intervalMs, Runnable action) implements Comparable<Task> {
+        @Override
+        public int compareTo(Task other) {
+            int cmp = Long.compare(due, other.due);
+            return cmp != 0 ? cmp : Long.compare(seq, other.seq);
+        }
+    }
+
+    /**
+     * Auswertung eines Laufs: Durchsatz bezogen auf die simulierte Dauer,
+     * queueWait nur wenn ein TransportOrderProcessor getaktet wurde
+     */
+    public record Report(long simulatedMs, long wallMs, long steps, int jobs, double jobsPerHour,
+                         double emptyTravelShare, QueueWaitStats queueWait) {
+
+        /**
+         * Faktor simulierte Zeit zu Rechenzeit
+         */
+        public double speedup() {
+            return simulatedMs / (double) Math.max(1, wallMs);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.1f h simuliert in %d ms (x%.0f), %d Takte, %d Jobs, %.1f Jobs/h, Leerfahrt %.0f%%%s",
+                simulatedMs / 3_600_000.0, wallMs, speedup(), steps, jobs, jobsPerHour, emptyTravelShare * 100,
+                queueWait != null ? ", Wartezeit " + queueWait : "");
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.hydro.plsbl.simulator;
+
+import com.hydro.plsbl.plc.PlcService;
+import com.hydro.plsbl.service.IngotStorageService;
+import com.hydro.plsbl.service.MessageService;
+import com.hydro.plsbl.service.TransportOrderProcessor;
+import com.hydro.plsbl.service.YardOccupancyService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Einstiegspunkt fuer den Headless-Betrieb in virtueller Zeit
+ *
+ * Nur aktiv mit plsbl.simulator.virtual-time=true (Profil "headless"). Ohne @Scheduled-Takte
+ * wuerde die Anwendung sonst stillstehen; hier taktet der HeadlessSimulationRunner Simulator,
+ * SPS-Poll und Auftragsvergabe sowie die periodischen Aufgaben von MessageService (Tuer-Entprellung,
+ * Journal-Flush, Aufbewahrung) und YardOccupancyService (Abgleich) in virtueller Zeit, mit
+ * denselben Intervall-Properties wie im Regelbetrieb. Als Last dient die {@link SawPickupWorkload}
+ * (Einlagerungs-Anfragen der Saege, reproduzierbar ueber den Seed). Danach endet die Anwendung.
+ *
+ * Legt Barren und Auftraege in der Datenbank an - nur mit Test-Datenbank betreiben.
+ * Start z.B. mit: mvn spring-boot:run -Dspring-boot.run.profiles=h2,headless
+ */
+@Component
+@ConditionalOnProperty(name = "plsbl.simulator.virtual-time", havingValue = "true")
+public class HeadlessSimulationStarter {
+
+    private static final Logger log = LoggerFactory.getLogger(HeadlessSimulationStarter.class);
+
+    private final SimulationClock clock;
+    private final CraneSimulatorService simulator;
+    private final PlcService plcService;
+    private final TransportOrderProcessor orderProcessor;
+    private final MessageService messageService;
+    private final YardOccupancyService yardOccupancyService;
+    private final IngotStorageService ingotStorageService;
+    private final ConfigurableApplicationContext context;
+    private final Duration duration;
+    private final boolean exitAfterRun;
+    private final Duration pickupInterval;
+    private final long workloadSeed;
+    private final long doorDebounceCheckMs;
+    private final long messageFlushMs;
+    private final long retentionCheckMs;
+    private final long occupancyReconcileMs;
+
+    public HeadlessSimulationStarter(SimulationClock clock,
+                                     CraneSimulatorService simulator,
+                                     PlcService plcService,
+                                     TransportOrderProcessor orderProcessor,
+                                     MessageService messageService,
+                                     YardOccupancyService yardOccupancyService,
+                                     IngotStorageService ingotStorageService,
+                                     ConfigurableApplicationContext context,
+                                     @Value("${plsbl.simulator.headless-duration:PT8H}") Duration duration,
+                                     @Value("${plsbl.simulator.headless-exit:true}") boolean exitAfterRun,
+                                     @Value("${plsbl.simulator.workload.pickup-interval:PT5M}") Duration pickupInterval,
+                                     @Value("${plsbl.simulator.workload.seed:1}") long workloadSeed,
+                                     @Value("${plsbl.messages.door-debounce-check-ms:100}") long doorDebounceCheckMs,
+                                     @Value("${plsbl.messages.flush-interval:1000}") long messageFlushMs,
+                                     @Value("${plsbl.messages.retention-check-interval:3600000}") long retentionCheckMs,
+                                     @Value("${plsbl.occupancy.reconcile-interval:60000}") long occupancyReconcileMs) {
+        this.clock = clock;
+        this.simulator = simulator;
+        this.plcService = plcService;
+        this.orderProcessor = orderProcessor;
+        this.messageService = messageService;
+        this.yardOccupancyService = yardOccupancyService;
+        this.ingotStorageService = ingotStorageService;
+        this.context = context;
+        this.duration = duration;
+        this.exitAfterRun = exitAfterRun;
+        this.pickupInterval = pickupInterval;
+        this.workloadSeed = workloadSeed;
+        this.doorDebounceCheckMs = doorDebounceCheckMs;
+        this.messageFlushMs = messageFlushMs;
+        this.retentionCheckMs = retentionCheckMs;
+        this.occupancyReconcileMs = occupancyReconcileMs;
+    }
+
+    /**
+     * Laeuft als letzter Ready-Listener, damit Warteschlange und Belegungsmodell bereits geladen sind
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onApplicationReady() {
+        log.info("Headless-Simulation startet: {} virtuelle Zeit", duration);
+        HeadlessSimulationRunner runner =
+            HeadlessSimulationRunner.standard(clock, simulator, plcService, orderProcessor)
+                .every(doorDebounceCheckMs, messageService::confirmClosedDoors)
+                .every(messageFlushMs, messageService::flush)
+                .every(retentionCheckMs, messageService::purgeExpired)
+                .every(occupancyReconcileMs, yardOccupancyService::reconcile);
+
+        SawPickupWorkload workload = null;
+        if (pickupInterval.toMillis() > 0) {
+            workload = new SawPickupWorkload(workloadSeed, pickupInterval.toMillis(),
+                pickup -> ingotStorageService.processStorageRequest(pickup.ingotNo(), pickup.productNo(),
+                    pickup.weight(), pickup.length(), pickup.width(), pickup.height(), true, false));
+            workload.register(runner, clock, duration);
+        } else {
+            log.info("Headless-Simulation ohne Saegen-Last (plsbl.simulator.workload.pickup-interval=0)");
+        }
+
+        HeadlessSimulationRunner.Report report = runner.run(duration);
+        messageService.flush();
+        log.info("Headless-Simulation beendet: {}", report);
+        if (workload != null) {
+            log.info("Saegen-Last: {} Anfragen, davon {} abgelehnt", workload.getGenerated(), workload.getRejected());
+        }
+
+        if (exitAfterRun) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.hydro.plsbl.simulator;
+
+/**
+ * Bewegungsmodell mit Hoechstgeschwindigkeit, Beschleunigung und Verzoegerung je Achse
+ * (Trapez-Profil, bei kurzen Strecken Dreieck-Profil)
+ *
+ * Das Hubwerk hat getrennte Grenzwerte fuer leeren und beladenen Greifer.
+ * step() faehrt je Zeitschritt mit der hoechsten Geschwindigkeit, aus der noch
+ * rechtzeitig vor dem Ziel gebremst werden kann; travelSeconds() liefert die
+ * Fahrzeit desselben Profils geschlossen berechnet.
+ */
+public class KinematicMotionModel implements CraneMotionModel {
+
+    /**
+     * Grenzwerte einer Achse
+     *
+     * @param maxSpeed Hoechstgeschwindigkeit in mm/s
+     * @param accel    Beschleunigung in mm/s²
+     * @param decel    Verzoegerung in mm/s²
+     */
+    public record AxisLimits(double maxSpeed, double accel, double decel) {
+
+        public AxisLimits {
+            if (maxSpeed <= 0 || accel <= 0 || decel <= 0) {
+                throw new IllegalArgumentException("Achs-Grenzwerte muessen positiv sein");
+            }
+        }
+
+        /**
+         * Fahrzeit aus dem Stand in den Stand in Sekunden
+         */
+        public double travelSeconds(double distance) {
+            if (distance <= 0) {
+                return 0;
+            }
+            double rampDistance = maxSpeed * maxSpeed / (2 * accel) + maxSpeed * maxSpeed / (2 * decel);
+            if (distance >= rampDistance) {
+                return maxSpeed / accel + maxSpeed / decel + (distance - rampDistance) / maxSpeed;
+            }
+            // Dreieck-Profil: Hoechstgeschwindigkeit wird nicht erreicht
+            double peak = Math.sqrt(2 * distance * accel * decel / (accel + decel));
+            return peak / accel + peak / decel;
+        }
+    }
+
+    private final AxisLimits x;
+    private final AxisLimits y;
+    private final AxisLimits zEmpty;
+    private final AxisLimits zLoaded;
+
+    public KinematicMotionModel(AxisLimits x, AxisLimits y, AxisLimits zEmpty, AxisLimits zLoaded) {
+        this.x = x;
+        this.y = y;
+        this.zEmpty = zEmpty;
+        this.zLoaded = zLoaded;
+    }
+
+    /**
+     * Grenzwerte aus der Simulator-Konfiguration
+     */
+    public static KinematicMotionModel of(CraneSimulatorConfig config) {
+        return new KinematicMotionModel(
+            new AxisLimits(config.getMaxSpeedX(), config.getAccelX(), config.getDecelX()),
+            new AxisLimits(config.getMaxSpeedY(), config.getAccelY(), config.getDecelY()),
+            new AxisLimits(config.getHoistSpeedEmpty(), config.getHoistAccel(), config.getHoistAccel()),
+            new AxisLimits(config.getHoistSpeedLoaded(), config.getHoistAccel(), config.getHoistAccel()));
+    }
+
+    public AxisLimits limits(Axis axis, boolean loaded) {
+        return switch (axis) {
+            case X -> x;
+            case Y -> y;
+            case Z -> loaded ? zLoaded : zEmpty;
+        };
+    }
+
+    @Override
+    public Motion step(Axis axis, int position, double velocity, int goal, boolean loaded, double dtSeconds) {
+        double distance = Math.abs(goal - position);
+        if (distance == 0 && velocity == 0) {
+            return new Motion(goal, 0);
+        }
+        AxisLimits limits = limits(axis, loaded);
+        double direction = Math.signum(goal - position);
+
+        // Geschwindigkeit in Zielrichtung am Ende des Schritts: hoechstens so hoch, dass nach
+        // der Strecke dieses Schritts der Bremsweg v²/(2*decel) noch bis zum Ziel reicht
+        double speed = velocity * direction;
+        double decel = limits.decel();
+        double discriminant = dtSeconds * dtSeconds / 4 - 2 * (speed * dtSeconds / 2 - distance) / decel;
+        double braking = discriminant > 0 ? decel * (Math.sqrt(discriminant) - dtSeconds / 2) : 0;
+        double next = Math.max(0, Math.min(limits.maxSpeed(), Math.min(speed + limits.accel() * dtSeconds, braking)));
+        next = Math.max(next, speed - decel * dtSeconds);
+
+        double travel = (speed + next) / 2 * dtSeconds;
+        if (travel >= distance - 0.5) {
+            return new Motion(goal, 0);
+        }
+        return new Motion(position + (int) Math.round(direction * travel), direction * next);
+    }
+
+    @Override
+    public double travelSeconds(Axis axis, int distanceMm, boolean loaded) {
+        return limits(axis, loaded).travelSeconds(distanceMm);
+    }
+}
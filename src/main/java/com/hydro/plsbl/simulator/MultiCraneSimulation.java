@@ -0,0 +1,359 @@
+package com.hydro.plsbl.simulator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mehrere Kraene auf derselben Kranbahn (Was-waere-wenn-Simulation in virtueller Zeit)
+ *
+ * Jeder Kran hat einen eigenen CraneSimulatorService mit eigener Position. Der Verteiler
+ * vergibt wartende Auftraege parallel an freie Kraene (aus den ersten Auftraegen der
+ * Warteschlange jeweils an den Kran mit der kuerzesten Leerfahrt).
+ *
+ * Kollisionsschutz entlang X: Ein Kran belegt fuer die Dauer eines Auftrags den X-Bereich
+ * von seiner Position ueber Abhol- bis Ablageplatz. Benachbarte Kraene halten dazu den
+ * Sicherheitsabstand und koennen sich nicht ueberholen (Kran 0 links, Kran N-1 rechts).
+ * Steht ein freier Kran im Weg, faehrt er fuer den ersten blockierten Auftrag aus
+ * (moveTo), sofern er und ggf. seine Nachbarn dafuer auf der Bahn Platz haben.
+ *
+ * Die echte Anlage hat einen Kran an einer SPS; diese Klasse dient der Abschaetzung,
+ * wie der Durchsatz mit einem zweiten Kran skaliert (siehe {@link #compare}).
+ */
+public class MultiCraneSimulation {
+
+    private static final Logger log = LoggerFactory.getLogger(MultiCraneSimulation.class);
+
+    // Anzahl Auftraege vom Anfang der Warteschlange, die pro Takt bewertet werden
+    private static final int WINDOW = 10;
+
+    /**
+     * Belegter X-Bereich [mm]
+     */
+    record Zone(int lo, int hi) {
+
+        static Zone of(int... xs) {
+            return new Zone(Arrays.stream(xs).min().orElseThrow(), Arrays.stream(xs).max().orElseThrow());
+        }
+    }
+
+    private final SimulationClock clock;
+    private final List<CraneSimulatorService> cranes = new ArrayList<>();
+    private final Zone[] reservations;
+    private final int safetyDistance;
+    private final int runwayMinX;
+    private final int runwayMaxX;
+    private final Deque<CraneSimulatorCommand> pending = new ArrayDeque<>();
+
+    private int minGap = Integer.MAX_VALUE;
+    private int evasiveMoves = 0;
+    private int rejectedJobs = 0;
+
+    /**
+     * @param config           Vorlage fuer die Simulatoren (Parkpositionen werden gleichmaessig verteilt)
+     * @param clock            virtuelle Uhr
+     * @param craneCount       Anzahl Kraene
+     * @param safetyDistanceMm Mindestabstand benachbarter Kraene in X (inkl. Kranbreite)
+     * @param runwayMinX       linkes Ende der Kranbahn [mm]
+     * @param runwayMaxX       rechtes Ende der Kranbahn [mm]
+     */
+    public MultiCraneSimulation(CraneSimulatorConfig config, SimulationClock clock, int craneCount,
+                                int safetyDistanceMm, int runwayMinX, int runwayMaxX) {
+        if (!clock.isVirtual()) {
+            throw new IllegalArgumentException("MultiCraneSimulation benoetigt virtuelle Zeit");
+        }
+        if (craneCount < 1) {
+            throw new IllegalArgumentException("Mindestens ein Kran erforderlich");
+        }
+        if (runwayMaxX - runwayMinX < (craneCount - 1) * safetyDistanceMm) {
+            throw new IllegalArgumentException("Kranbahn zu kurz fuer " + craneCount + " Kraene");
+        }
+        this.clock = clock;
+        this.safetyDistance = safetyDistanceMm;
+        this.runwayMinX = runwayMinX;
+        this.runwayMaxX = runwayMaxX;
+        this.reservations = new Zone[craneCount];
+
+        for (int i = 0; i < craneCount; i++) {
+            CraneSimulatorConfig craneConfig = config.copy();
+            craneConfig.setEnabled(true);
+            craneConfig.setS7Port(0);
+            craneConfig.setParkX(runwayMinX + (int) ((i + 0.5) * (runwayMaxX - runwayMinX) / craneCount));
+            CraneSimulatorService crane = new CraneSimulatorService(craneConfig, clock);
+            crane.setThroughputLabel("Kran " + (i + 1));
+            crane.start();
+            cranes.add(crane);
+        }
+    }
+
+    /**
+     * Vergleicht den Durchsatz verschiedener Kran-Anzahlen auf derselben Auftragsliste
+     */
+    public static List<FleetReport> compare(CraneSimulatorConfig config, List<CraneSimulatorCommand> workload,
+                                            Duration duration, int safetyDistanceMm,
+                                            int runwayMinX, int runwayMaxX, int... craneCounts) {
+        List<FleetReport> reports = new ArrayList<>();
+        for (int craneCount : craneCounts) {
+            MultiCraneSimulation simulation = new MultiCraneSimulation(config, SimulationClock.virtual(0),
+                craneCount, safetyDistanceMm, runwayMinX, runwayMaxX);
+            simulation.submitAll(workload);
+            reports.add(simulation.run(duration));
+        }
+
+        FleetReport base = reports.get(0);
+        for (FleetReport report : reports.subList(1, reports.size())) {
+            if (base.run().jobsPerHour() > 0) {
+                log.info("Durchsatz {} Kraene gegenueber {}: {} statt {} Jobs/h ({}%)",
+                    report.cranes(), base.cranes(),
+                    String.format("%.1f", report.run().jobsPerHour()),
+                    String.format("%.1f", base.run().jobsPerHour()),
+                    String.format("%+.1f", (report.run().jobsPerHour() / base.run().jobsPerHour() - 1) * 100));
+            }
+        }
+        return reports;
+    }
+
+    public List<CraneSimulatorService> getCranes() {
+        return List.copyOf(cranes);
+    }
+
+    public void submit(CraneSimulatorCommand job) {
+        pending.add(job);
+    }
+
+    public void submitAll(Collection<CraneSimulatorCommand> jobs) {
+        pending.addAll(jobs);
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Ein Takt: alle Kraene bewegen, Abstaende pruefen, Auftraege vergeben
+     */
+    public void step() {
+        cranes.forEach(CraneSimulatorService::step);
+        for (int i = 0; i + 1 < cranes.size(); i++) {
+            minGap = Math.min(minGap, x(i + 1) - x(i));
+        }
+        dispatch();
+    }
+
+    /**
+     * Runner, der die Kraene im Simulations-Intervall taktet (weitere Ereignisse kann der Aufrufer ergaenzen)
+     */
+    public HeadlessSimulationRunner runner() {
+        HeadlessSimulationRunner runner = new HeadlessSimulationRunner(clock,
+            cranes.toArray(new CraneSimulatorService[0]));
+        runner.every(cranes.get(0).getIntervalMs(), this::step);
+        return runner;
+    }
+
+    /**
+     * Spielt die angegebene virtuelle Dauer ab
+     */
+    public FleetReport run(Duration duration) {
+        return report(runner().run(duration));
+    }
+
+    /**
+     * Auswertung zu einem Runner-Lauf
+     */
+    public FleetReport report(HeadlessSimulationRunner.Report run) {
+        int[] jobsPerCrane = cranes.stream()
+            .mapToInt(crane -> crane.getThroughputStats().values().stream()
+                .mapToInt(CraneSimulatorService.ThroughputStats::jobs).sum())
+            .toArray();
+        FleetReport report = new FleetReport(cranes.size(), run, jobsPerCrane,
+            cranes.size() > 1 ? minGap : -1, evasiveMoves, pending.size(), rejectedJobs);
+        log.info("Mehrkran-Simulation: {}", report);
+        return report;
+    }
+
+    // ========================================================================
+    // Verteilung und Kollisionsschutz
+    // ========================================================================
+
+    private void dispatch() {
+        boolean evasionChecked = false;
+        int examined = 0;
+        for (Iterator<CraneSimulatorCommand> it = pending.iterator(); it.hasNext() && examined < WINDOW; examined++) {
+            CraneSimulatorCommand job = it.next();
+            Zone jobZone = Zone.of(job.getPickupX(), job.getReleaseX());
+
+            int best = -1;
+            double bestSeconds = Double.MAX_VALUE;
+            boolean reachable = false;
+            for (int i = 0; i < cranes.size(); i++) {
+                if (!reachable(i, jobZone)) {
+                    continue;
+                }
+                reachable = true;
+                if (!isIdle(i) || blocked(i, sweep(i, job))) {
+                    continue;
+                }
+                double seconds = emptyTravelSeconds(i, job);
+                if (seconds < bestSeconds) {
+                    best = i;
+                    bestSeconds = seconds;
+                }
+            }
+
+            if (!reachable) {
+                log.warn("Auftrag ({} -> {}) fuer keinen Kran erreichbar - verworfen", job.getPickupX(), job.getReleaseX());
+                it.remove();
+                rejectedJobs++;
+            } else if (best >= 0) {
+                reservations[best] = sweep(best, job);
+                cranes.get(best).sendCommand(job);
+                it.remove();
+            } else if (!evasionChecked) {
+                evasionChecked = true;
+                evadeFor(job);
+            }
+        }
+    }
+
+    /**
+     * Schickt freie Kraene aus dem Weg, damit ein freier Kran den Auftrag uebernehmen kann
+     */
+    private void evadeFor(CraneSimulatorCommand job) {
+        Map<Integer, Integer> bestMoves = null;
+        double bestSeconds = Double.MAX_VALUE;
+        for (int i = 0; i < cranes.size(); i++) {
+            if (!isIdle(i) || !reachable(i, Zone.of(job.getPickupX(), job.getReleaseX()))) {
+                continue;
+            }
+            Map<Integer, Integer> moves = evasion(i, sweep(i, job));
+            double seconds = emptyTravelSeconds(i, job);
+            if (moves != null && !moves.isEmpty() && seconds < bestSeconds) {
+                bestMoves = moves;
+                bestSeconds = seconds;
+            }
+        }
+        if (bestMoves == null) {
+            return;  // warten, bis ein beteiligter Kran frei ist
+        }
+        bestMoves.forEach((j, targetX) -> {
+            CraneSimulatorService crane = cranes.get(j);
+            reservations[j] = Zone.of(x(j), targetX);
+            crane.moveTo(targetX, crane.getPosition()[1]);
+            evasiveMoves++;
+            log.debug("Kran {} weicht aus nach X={}", j + 1, targetX);
+        });
+    }
+
+    /**
+     * Ausweichziele der Nachbarn, damit Kran i den Bereich zone befahren kann (null = nicht moeglich)
+     */
+    private Map<Integer, Integer> evasion(int i, Zone zone) {
+        Map<Integer, Integer> moves = new LinkedHashMap<>();
+        int bound = zone.hi();
+        for (int j = i + 1; j < cranes.size(); j++) {
+            int required = bound + safetyDistance;
+            if (reserved(j).lo() >= required) {
+                break;
+            }
+            if (!isIdle(j) || required + (cranes.size() - 1 - j) * safetyDistance > runwayMaxX) {
+                return null;
+            }
+            moves.put(j, required);
+            bound = required;
+        }
+        bound = zone.lo();
+        for (int j = i - 1; j >= 0; j--) {
+            int required = bound - safetyDistance;
+            if (reserved(j).hi() <= required) {
+                break;
+            }
+            if (!isIdle(j) || required - j * safetyDistance < runwayMinX) {
+                return null;
+            }
+            moves.put(j, required);
+            bound = required;
+        }
+        return moves;
+    }
+
+    /**
+     * Kollidiert der Bereich von Kran i mit einem anderen Kran (inkl. Sicherheitsabstand)?
+     */
+    private boolean blocked(int i, Zone zone) {
+        for (int j = 0; j < cranes.size(); j++) {
+            if (j > i && zone.hi() + safetyDistance > reserved(j).lo()) {
+                return true;
+            }
+            if (j < i && zone.lo() - safetyDistance < reserved(j).hi()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Kann Kran i den Bereich ueberhaupt befahren, wenn alle anderen an die Bahnenden ausweichen?
+     */
+    private boolean reachable(int i, Zone zone) {
+        return zone.lo() - i * safetyDistance >= runwayMinX
+            && zone.hi() + (cranes.size() - 1 - i) * safetyDistance <= runwayMaxX;
+    }
+
+    /**
+     * Aktuell belegter Bereich eines Krans (Auftrag, Ausweichfahrt oder Standplatz)
+     */
+    private Zone reserved(int j) {
+        CraneSimulatorService crane = cranes.get(j);
+        if (crane.getJobState() != JobState.IDLE || crane.isRepositioning()) {
+            return reservations[j];
+        }
+        return new Zone(x(j), x(j));
+    }
+
+    private Zone sweep(int i, CraneSimulatorCommand job) {
+        return Zone.of(x(i), job.getPickupX(), job.getReleaseX());
+    }
+
+    private boolean isIdle(int i) {
+        CraneSimulatorService crane = cranes.get(i);
+        return crane.getJobState() == JobState.IDLE && !crane.isRepositioning();
+    }
+
+    private double emptyTravelSeconds(int i, CraneSimulatorCommand job) {
+        CraneSimulatorService crane = cranes.get(i);
+        int[] position = crane.getPosition();
+        return crane.getMotionModel().estimateTravelSeconds(position[0], position[1],
+            job.getPickupX(), job.getPickupY(), false);
+    }
+
+    private int x(int i) {
+        return cranes.get(i).getPosition()[0];
+    }
+
+    /**
+     * Auswertung eines Mehrkran-Laufs
+     *
+     * @param minGapMm kleinster gemessener X-Abstand benachbarter Kraene (-1 bei einem Kran)
+     */
+    public record FleetReport(int cranes, HeadlessSimulationRunner.Report run, int[] jobsPerCrane,
+                              int minGapMm, int evasiveMoves, int pendingJobs, int rejectedJobs) {
+
+        @Override
+        public String toString() {
+            return String.format("%d Kran/Kraene: %.1f Jobs/h, Jobs je Kran %s, min. Abstand %d mm, "
+                    + "%d Ausweichfahrten, %d wartend, %d verworfen",
+                cranes, run.jobsPerHour(), Arrays.toString(jobsPerCrane), minGapMm,
+                evasiveMoves, pendingJobs, rejectedJobs);
+        }
+    }
+}
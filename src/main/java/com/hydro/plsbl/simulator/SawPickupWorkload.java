@@ -0,0 +1,103 @@
+package com.hydro.plsbl.simulator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Reproduzierbare Last fuer den Headless-Betrieb: Einlagerungs-Anfragen der Saege
+ *
+ * Die Abstaende der Anfragen sind exponentialverteilt (Mittelwert meanIntervalMs), Produkt
+ * und Abmessungen zufaellig in den Bereichen des Batch-Tests (StorageTestController). Alles
+ * haengt nur vom Seed ab: gleicher Seed = gleiche Last, damit sich Laeufe mit verschiedenen
+ * Einstellungen (z.B. Auftragsreihenfolge FIFO / minimale Leerfahrt) vergleichen lassen.
+ */
+public class SawPickupWorkload {
+
+    private static final Logger log = LoggerFactory.getLogger(SawPickupWorkload.class);
+
+    private static final List<String> PRODUCTS = List.of("4047-001", "4047-002", "5052-001", "6061-001");
+
+    private final long seed;
+    private final long meanIntervalMs;
+    private final Consumer<Pickup> sink;
+
+    private int generated = 0;
+    private int rejected = 0;
+
+    /**
+     * @param meanIntervalMs mittlerer Abstand der Anfragen [ms]
+     * @param sink           verarbeitet eine Anfrage (z.B. IngotStorageService.processStorageRequest)
+     */
+    public SawPickupWorkload(long seed, long meanIntervalMs, Consumer<Pickup> sink) {
+        if (meanIntervalMs <= 0) {
+            throw new IllegalArgumentException("Mittlerer Abstand muss positiv sein: " + meanIntervalMs);
+        }
+        this.seed = seed;
+        this.meanIntervalMs = meanIntervalMs;
+        this.sink = sink;
+    }
+
+    /**
+     * Plant alle Anfragen im Zeitraum [jetzt, jetzt + duration) als Ereignisse im Runner ein
+     *
+     * @return Anzahl eingeplanter Anfragen
+     */
+    public int register(HeadlessSimulationRunner runner, SimulationClock clock, Duration duration) {
+        Random random = new Random(seed);
+        long end = clock.millis() + duration.toMillis();
+        long time = clock.millis();
+        int count = 0;
+        while (true) {
+            time += Math.max(1, Math.round(-Math.log(1.0 - random.nextDouble()) * meanIntervalMs));
+            if (time >= end) {
+                break;
+            }
+            count++;
+            Pickup pickup = new Pickup(
+                String.format("SIM-%05d", count),
+                PRODUCTS.get(random.nextInt(PRODUCTS.size())),
+                2000 + random.nextInt(1000),
+                4500 + random.nextInt(1000),
+                700 + random.nextInt(200),
+                300 + random.nextInt(100));
+            runner.at(time, () -> accept(pickup));
+        }
+        log.info("Saegen-Last: {} Anfragen in {} eingeplant (Seed {}, im Mittel alle {} s)",
+            count, duration, seed, meanIntervalMs / 1000);
+        return count;
+    }
+
+    private void accept(Pickup pickup) {
+        generated++;
+        try {
+            sink.accept(pickup);
+        } catch (Exception e) {
+            rejected++;
+            log.warn("Saegen-Anfrage {} abgelehnt: {}", pickup.ingotNo(), e.getMessage());
+        }
+    }
+
+    /**
+     * Bisher ausgeloeste Anfragen (inkl. abgelehnter)
+     */
+    public int getGenerated() {
+        return generated;
+    }
+
+    /**
+     * Abgelehnte Anfragen (z.B. kein freier Lagerplatz)
+     */
+    public int getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Einlagerungs-Anfrage der Saege (Gewicht in kg, Abmessungen in mm)
+     */
+    public record Pickup(String ingotNo, String productNo, int weight, int length, int width, int height) {}
+}
@@ -0,0 +1,72 @@
+package com.hydro.plsbl.simulator;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Uhr fuer Kran-Simulator und Kran-Steuerung
+ *
+ * - Echtzeit (Standard): liefert System.currentTimeMillis(), Takte kommen von
+ *   Executors und @Scheduled.
+ * - Virtuelle Zeit (plsbl.simulator.virtual-time=true): die Zeit steht, bis sie
+ *   vom {@link HeadlessSimulationRunner} weitergestellt wird. Simulator, SPS-Poll,
+ *   Auftragsvergabe und Beladung werden dann nur noch vom Runner getaktet und laufen
+ *   so schnell, wie die CPU es erlaubt.
+ */
+@Component
+public class SimulationClock {
+
+    private final boolean virtual;
+    private final AtomicLong virtualMillis;
+
+    public SimulationClock(@Value("${plsbl.simulator.virtual-time:false}") boolean virtual) {
+        this.virtual = virtual;
+        this.virtualMillis = new AtomicLong(System.currentTimeMillis());
+    }
+
+    /**
+     * Echtzeit-Uhr (fuer Tests und Werkzeuge ausserhalb von Spring)
+     */
+    public static SimulationClock realTime() {
+        return new SimulationClock(false);
+    }
+
+    /**
+     * Virtuelle Uhr mit Startzeitpunkt [ms seit Epoche]
+     */
+    public static SimulationClock virtual(long startMillis) {
+        SimulationClock clock = new SimulationClock(true);
+        clock.virtualMillis.set(startMillis);
+        return clock;
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * Aktuelle Zeit [ms seit Epoche]
+     */
+    public long millis() {
+        return virtual ? virtualMillis.get() : System.currentTimeMillis();
+    }
+
+    /**
+     * Stellt die virtuelle Zeit vor (nie zurueck)
+     */
+    public void advanceTo(long millis) {
+        if (!virtual) {
+            throw new IllegalStateException("Echtzeit-Uhr kann nicht verstellt werden");
+        }
+        virtualMillis.accumulateAndGet(millis, Math::max);
+    }
+
+    /**
+     * Stellt die virtuelle Zeit um die angegebene Dauer vor
+     */
+    public void advance(long millis) {
+        advanceTo(millis() + millis);
+    }
+}
@@ -0,0 +1,37 @@
+package com.hydro.plsbl.simulator;
+
+/**
+ * Bisheriges Bewegungsmodell: feste Schrittweite pro Simulations-Intervall
+ * (plsbl.simulator.delta-x/-y/-z), ohne Beschleunigung und unabhaengig von der Last.
+ * Liest die Schrittweiten bei jedem Aufruf, damit Aenderungen aus den Einstellungen sofort wirken.
+ */
+public class StepMotionModel implements CraneMotionModel {
+
+    private final CraneSimulatorConfig config;
+
+    public StepMotionModel(CraneSimulatorConfig config) {
+        this.config = config;
+    }
+
+    @Override
+    public Motion step(Axis axis, int position, double velocity, int goal, boolean loaded, double dtSeconds) {
+        int delta = delta(axis);
+        int next = position < goal ? Math.min(position + delta, goal) : Math.max(position - delta, goal);
+        return new Motion(next, 0);
+    }
+
+    @Override
+    public double travelSeconds(Axis axis, int distanceMm, boolean loaded) {
+        int delta = delta(axis);
+        int steps = (distanceMm + delta - 1) / delta;
+        return steps * config.getIntervalMs() / 1000.0;
+    }
+
+    private int delta(Axis axis) {
+        return switch (axis) {
+            case X -> config.getDeltaX();
+            case Y -> config.getDeltaY();
+            case Z -> config.getDeltaZ();
+        };
+    }
+}
@@ -7,6 +7,7 @@ import com.hydro.plsbl.service.CraneStatusService;
 import com.hydro.plsbl.service.ErrorBroadcaster;
 import com.hydro.plsbl.service.MessageService;
 import com.hydro.plsbl.service.StaplerAnforderungBroadcaster;
+import com.hydro.plsbl.service.UiSnapshotPublisher;
 import com.hydro.plsbl.simulator.CraneSimulatorService;
 import com.hydro.plsbl.ui.component.AccessControlBar;
 import com.hydro.plsbl.ui.component.AlarmBar;
@@ -67,6 +68,7 @@ public class MainLayout extends AppLayout {
     private final StaplerAnforderungBroadcaster staplerBroadcaster;
     private final MessageService messageService;
     private final CraneSimulatorService simulatorService;
+    private final UiSnapshotPublisher snapshotPublisher;
 
     private Registration errorRegistration;
     private StaplerAnforderungBroadcaster.Registration staplerRegistration;
@@ -76,7 +78,7 @@ public class MainLayout extends AppLayout {
     public MainLayout(PlsblSessionContext sessionContext, CraneAccessService accessService,
                       CraneStatusService craneStatusService, ErrorBroadcaster errorBroadcaster,
                       StaplerAnforderungBroadcaster staplerBroadcaster, MessageService messageService,
-                      CraneSimulatorService simulatorService) {
+                      CraneSimulatorService simulatorService, UiSnapshotPublisher snapshotPublisher) {
         this.sessionContext = sessionContext;
         this.accessService = accessService;
         this.craneStatusService = craneStatusService;
@@ -84,6 +86,7 @@ public class MainLayout extends AppLayout {
         this.staplerBroadcaster = staplerBroadcaster;
         this.messageService = messageService;
         this.simulatorService = simulatorService;
+        this.snapshotPublisher = snapshotPublisher;
 
         createHeader();
         createAlarmBar();
@@ -233,7 +236,7 @@ public class MainLayout extends AppLayout {
             .set("color", "white");
 
         // Kran-Status-Anzeige
-        CraneStatusBar craneStatusBar = new CraneStatusBar(craneStatusService);
+        CraneStatusBar craneStatusBar = new CraneStatusBar(craneStatusService, snapshotPublisher);
 
         // Status-Anzeigen
         statusLabel = new Span("Status: OK");
@@ -265,7 +268,7 @@ public class MainLayout extends AppLayout {
     
     private void createAccessControlBar() {
         // Zugriffskontroll-Leiste unter dem Header
-        AccessControlBar accessBar = new AccessControlBar(sessionContext, accessService);
+        AccessControlBar accessBar = new AccessControlBar(sessionContext, accessService, snapshotPublisher);
         accessBar.setWidthFull();
         
         addToNavbar(true, accessBar);  // true = unter dem Header
@@ -3,9 +3,10 @@ package com.hydro.plsbl.ui.component;
 import com.hydro.plsbl.security.AccessMode;
 import com.hydro.plsbl.security.CraneAccessService;
 import com.hydro.plsbl.security.PlsblSessionContext;
+import com.hydro.plsbl.service.UiSnapshotPublisher;
+import com.hydro.plsbl.service.UiSnapshotPublisher.Topic;
 import com.vaadin.flow.component.AttachEvent;
 import com.vaadin.flow.component.DetachEvent;
-import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
 import com.vaadin.flow.component.html.Span;
@@ -13,13 +14,11 @@ import com.vaadin.flow.component.icon.VaadinIcon;
 import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.notification.NotificationVariant;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.shared.Registration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.EnumSet;
 
 /**
  * UI-Komponente zur Anzeige und Steuerung des Zugriffsmodus.
@@ -35,19 +34,26 @@ public class AccessControlBar extends HorizontalLayout {
     
     private final PlsblSessionContext sessionContext;
     private final CraneAccessService accessService;
+    private final UiSnapshotPublisher snapshotPublisher;
     
     private Span workstationLabel;
     private Span modeLabel;
     private Span controllerLabel;
     private Button controlButton;
     
-    // Heartbeat für Token-Verlängerung
-    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
-    private ScheduledFuture<?> heartbeatTask;
+    // Heartbeat für Token-Verlängerung (alle 30 Sekunden, über den Sekundentakt des Publishers)
+    private static final long HEARTBEAT_INTERVAL_MS = 30_000;
+    private boolean heartbeatActive = false;
+    private long lastHeartbeat;
     
-    public AccessControlBar(PlsblSessionContext sessionContext, CraneAccessService accessService) {
+    private Registration snapshotRegistration;
+    private UiSnapshotPublisher.UiSnapshot lastSnapshot;
+    
+    public AccessControlBar(PlsblSessionContext sessionContext, CraneAccessService accessService,
+                            UiSnapshotPublisher snapshotPublisher) {
         this.sessionContext = sessionContext;
         this.accessService = accessService;
+        this.snapshotPublisher = snapshotPublisher;
         
         setSpacing(true);
         setAlignItems(Alignment.CENTER);
@@ -192,29 +198,32 @@ public class AccessControlBar extends HorizontalLayout {
     // ========================================================================
     
     private void startHeartbeat() {
-        if (heartbeatTask == null || heartbeatTask.isCancelled()) {
-            heartbeatTask = scheduler.scheduleAtFixedRate(
-                () -> {
-                    try {
-                        sessionContext.heartbeat();
-                    } catch (Exception e) {
-                        log.warn("Heartbeat failed", e);
-                    }
-                },
-                30, 30, TimeUnit.SECONDS  // Alle 30 Sekunden
-            );
+        if (!heartbeatActive) {
+            heartbeatActive = true;
+            lastHeartbeat = System.currentTimeMillis();
             log.debug("Heartbeat started");
         }
     }
     
     private void stopHeartbeat() {
-        if (heartbeatTask != null) {
-            heartbeatTask.cancel(false);
-            heartbeatTask = null;
+        if (heartbeatActive) {
+            heartbeatActive = false;
             log.debug("Heartbeat stopped");
         }
     }
     
+    private void heartbeatIfDue() {
+        long now = System.currentTimeMillis();
+        if (heartbeatActive && now - lastHeartbeat >= HEARTBEAT_INTERVAL_MS) {
+            lastHeartbeat = now;
+            try {
+                sessionContext.heartbeat();
+            } catch (Exception e) {
+                log.warn("Heartbeat failed", e);
+            }
+        }
+    }
+    
     @Override
     protected void onAttach(AttachEvent attachEvent) {
         super.onAttach(attachEvent);
@@ -224,17 +233,25 @@ public class AccessControlBar extends HorizontalLayout {
             startHeartbeat();
         }
         
-        // Periodische UI-Aktualisierung
-        UI ui = attachEvent.getUI();
-        scheduler.scheduleAtFixedRate(
-            () -> ui.access(this::updateDisplay),
-            5, 5, TimeUnit.SECONDS
-        );
+        // Periodische UI-Aktualisierung über den zentralen Snapshot-Publisher
+        snapshotRegistration = snapshotPublisher.subscribe(attachEvent.getUI(),
+            EnumSet.of(Topic.ACCESS, Topic.CLOCK),
+            snapshot -> {
+                heartbeatIfDue();
+                if (snapshot.isNewer(Topic.ACCESS, lastSnapshot)) {
+                    updateDisplay();
+                }
+                lastSnapshot = snapshot;
+            });
     }
     
     @Override
     protected void onDetach(DetachEvent detachEvent) {
         super.onDetach(detachEvent);
         stopHeartbeat();
+        if (snapshotRegistration != null) {
+            snapshotRegistration.remove();
+            snapshotRegistration = null;
+        }
     }
 }
@@ -2,20 +2,19 @@ package com.hydro.plsbl.ui.component;
 
 import com.hydro.plsbl.dto.CraneStatusDTO;
 import com.hydro.plsbl.service.CraneStatusService;
+import com.hydro.plsbl.service.UiSnapshotPublisher;
+import com.hydro.plsbl.service.UiSnapshotPublisher.Topic;
 import com.vaadin.flow.component.AttachEvent;
 import com.vaadin.flow.component.DetachEvent;
-import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.icon.Icon;
 import com.vaadin.flow.component.icon.VaadinIcon;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.shared.Registration;
 
+import java.util.EnumSet;
 import java.util.Optional;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Komponente zur Anzeige des Kran-Status im Header
@@ -23,6 +22,7 @@ import java.util.concurrent.TimeUnit;
 public class CraneStatusBar extends HorizontalLayout {
 
     private final CraneStatusService craneStatusService;
+    private final UiSnapshotPublisher snapshotPublisher;
 
     private Span modeLabel;
     private Span stateLabel;
@@ -32,12 +32,11 @@ public class CraneStatusBar extends HorizontalLayout {
     private Span alarmIcon;
     private boolean hasAlarm = false;
 
-    private ScheduledExecutorService scheduler;
-    private ScheduledFuture<?> refreshTask;
-    private UI ui;
+    private Registration snapshotRegistration;
 
-    public CraneStatusBar(CraneStatusService craneStatusService) {
+    public CraneStatusBar(CraneStatusService craneStatusService, UiSnapshotPublisher snapshotPublisher) {
         this.craneStatusService = craneStatusService;
+        this.snapshotPublisher = snapshotPublisher;
 
         setSpacing(true);
         setAlignItems(Alignment.CENTER);
@@ -235,27 +234,27 @@ public class CraneStatusBar extends HorizontalLayout {
     @Override
     protected void onAttach(AttachEvent attachEvent) {
         super.onAttach(attachEvent);
-        ui = attachEvent.getUI();
 
-        // Auto-Refresh alle 5 Sekunden
-        scheduler = Executors.newSingleThreadScheduledExecutor();
-        refreshTask = scheduler.scheduleAtFixedRate(() -> {
-            if (ui != null) {
-                ui.access(this::loadStatus);
-            }
-        }, 5, 5, TimeUnit.SECONDS);
+        // Auto-Refresh über den zentralen Snapshot-Publisher (nur bei Änderungen)
+        snapshotRegistration = snapshotPublisher.subscribe(attachEvent.getUI(), EnumSet.of(Topic.CRANE_DB),
+            snapshot -> {
+                CraneStatusDTO status = snapshot.getCraneDbStatus();
+                if (status != null) {
+                    updateDisplay(status);
+                } else {
+                    showNoData();
+                }
+            });
     }
 
     @Override
     protected void onDetach(DetachEvent detachEvent) {
         super.onDetach(detachEvent);
 
-        // Scheduler stoppen
-        if (refreshTask != null) {
-            refreshTask.cancel(true);
-        }
-        if (scheduler != null) {
-            scheduler.shutdownNow();
+        // Vom Snapshot-Publisher abmelden
+        if (snapshotRegistration != null) {
+            snapshotRegistration.remove();
+            snapshotRegistration = null;
         }
     }
 
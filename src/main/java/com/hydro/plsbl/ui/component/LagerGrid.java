@@ -4,6 +4,8 @@ import com.hydro.plsbl.dto.StockyardDTO;
 import com.hydro.plsbl.dto.StockyardStatusDTO;
 import com.hydro.plsbl.entity.enums.StockyardType;
 import com.hydro.plsbl.entity.enums.StockyardUsage;
+import com.hydro.plsbl.service.DataBroadcaster.DataEvent;
+import com.hydro.plsbl.service.DataBroadcaster.StockyardVersionTracker;
 import com.hydro.plsbl.service.SettingsService;
 import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.html.Span;
@@ -32,6 +34,7 @@ public class LagerGrid extends Div {
 
     private final Map<Long, StockyardButton> buttonMap = new HashMap<>();
     private Map<Long, StockyardDTO> allStockyardsMap = new HashMap<>();  // Alle Stockyards inkl. versteckter
+    private final StockyardVersionTracker stockyardVersion = new StockyardVersionTracker();  // Letzte übernommene Lagerplatz-Version
     private Consumer<StockyardDTO> clickListener;
     private Runnable trailerClickListener;
     private Consumer<Integer> gateClickListener;  // Listener für Tor-Klicks
@@ -1100,6 +1103,39 @@ public class LagerGrid extends Div {
         }
     }
 
+    /**
+     * Prüft ob ein Lagerplatz-Event direkt als Delta übernommen werden kann.
+     * Bei einer Lücke (verpasste Events) muss der Aufrufer alle Plätze neu laden.
+     */
+    public StockyardVersionTracker.Action classifyStockyardEvent(DataEvent event) {
+        return stockyardVersion.classify(event);
+    }
+
+    /**
+     * Übernimmt ein Delta-Update: nur die Buttons der geänderten Lagerplätze werden neu gerendert.
+     * Plätze, die nicht im Grid angezeigt werden, werden ignoriert.
+     */
+    public void updateStockyards(Collection<StockyardDTO> changed, long version) {
+        for (StockyardDTO yard : changed) {
+            if (allStockyardsMap.containsKey(yard.getId())) {
+                allStockyardsMap.put(yard.getId(), yard);
+                updateStockyard(yard);
+            }
+        }
+        stockyardVersion.setVersion(version);
+    }
+
+    /**
+     * Setzt die Lagerplatz-Version nach einem vollständigen Neuladen
+     */
+    public void setStockyardVersion(long version) {
+        stockyardVersion.setVersion(version);
+    }
+
+    public long getStockyardVersion() {
+        return stockyardVersion.getVersion();
+    }
+
     /**
      * Aktualisiert das Styling der Säge-Lichtschranke
      */
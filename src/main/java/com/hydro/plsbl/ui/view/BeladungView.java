@@ -16,10 +16,14 @@ import com.hydro.plsbl.service.CalloffService;
 import com.hydro.plsbl.service.DataBroadcaster;
 import com.hydro.plsbl.service.IngotService;
 import com.hydro.plsbl.service.LieferscheinPdfService;
+import com.hydro.plsbl.service.LoadPlanningService;
 import com.hydro.plsbl.service.SettingsService;
 import com.hydro.plsbl.service.ShipmentService;
 import com.hydro.plsbl.service.StockyardService;
 import com.hydro.plsbl.service.TransportOrderService;
+import com.hydro.plsbl.service.TruckLoadPlanner;
+import com.hydro.plsbl.service.UiSnapshotPublisher;
+import com.hydro.plsbl.service.UiSnapshotPublisher.Topic;
 import com.hydro.plsbl.ui.dialog.LieferungBestaetigenDialog;
 import com.hydro.plsbl.ui.MainLayout;
 import com.vaadin.flow.component.AttachEvent;
@@ -50,11 +54,8 @@ import org.slf4j.LoggerFactory;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Beladung-Ansicht - LKW Beladung und Versand
@@ -85,16 +86,14 @@ public class BeladungView extends VerticalLayout {
     private final ShipmentService shipmentService;
     private final LieferscheinPdfService pdfService;
     private final BeladungProcessorService processorService;
+    private final LoadPlanningService loadPlanningService;
+    private final UiSnapshotPublisher snapshotPublisher;
     private com.vaadin.flow.shared.Registration dataBroadcasterRegistration;
     private com.vaadin.flow.shared.Registration beladungBroadcasterRegistration;
 
-    // Trailer-Position (in mm)
+    // Trailer-Position (in mm): vorne/hinten laut Beladungsplan, siehe LoadPlanningService.releasePosition()
     // Die Trailer-Beladungsposition liegt UNTERHALB des Lager-Grids
-    // X: zwischen Position 04-07 (ca. 31000-47000 mm), Y: UNTER Y=1 (6270mm)
     // Diese Koordinaten werden in LagerGrid.updateCranePixelPosition() speziell behandelt
-    private static final int TRAILER_X = 40000;   // Mitte der Beladungsfläche (zwischen 04-07)
-    private static final int TRAILER_Y = 2000;    // UNTER dem Grid (Y=1 ist bei 6270mm)
-    private static final int TRAILER_Z = 2000;
 
     // Filter-Felder (Zeile 1)
     private ComboBox<String> lieferortCombo;
@@ -141,11 +140,11 @@ public class BeladungView extends VerticalLayout {
     private int beladungsNummer = 0;
     private boolean langBarrenModus = false;
     private boolean kranKommandoGesendet = false;
+    private int vorneAnzahl = -1;  // Barren vorne laut Plan (die ersten in Ladereihenfolge), -1 = ohne Plan
     private CalloffDTO selectedCalloff;
 
-    // Scheduler
-    private ScheduledExecutorService scheduler;
-    private ScheduledFuture<?> beladungsTask;
+    // UI-Updates während der Beladung (über den zentralen Snapshot-Publisher)
+    private com.vaadin.flow.shared.Registration beladungsTask;
 
     public BeladungView(IngotService ingotService,
                         StockyardService stockyardService,
@@ -158,7 +157,9 @@ public class BeladungView extends VerticalLayout {
                         DataBroadcaster dataBroadcaster,
                         ShipmentService shipmentService,
                         LieferscheinPdfService pdfService,
-                        BeladungProcessorService processorService) {
+                        BeladungProcessorService processorService,
+                        LoadPlanningService loadPlanningService,
+                        UiSnapshotPublisher snapshotPublisher) {
         this.ingotService = ingotService;
         this.stockyardService = stockyardService;
         this.transportOrderService = transportOrderService;
@@ -171,6 +172,8 @@ public class BeladungView extends VerticalLayout {
         this.shipmentService = shipmentService;
         this.pdfService = pdfService;
         this.processorService = processorService;
+        this.loadPlanningService = loadPlanningService;
+        this.snapshotPublisher = snapshotPublisher;
 
         setSizeFull();
         setPadding(true);
@@ -189,11 +192,6 @@ public class BeladungView extends VerticalLayout {
     @Override
     protected void onAttach(AttachEvent attachEvent) {
         super.onAttach(attachEvent);
-        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
-            Thread t = new Thread(r, "BeladungView-Scheduler");
-            t.setDaemon(true);
-            return t;
-        });
 
         dataBroadcasterRegistration = dataBroadcaster.register(event -> {
             if (event.getType() == DataBroadcaster.DataEventType.CALLOFF_CHANGED ||
@@ -223,10 +221,7 @@ public class BeladungView extends VerticalLayout {
                                 beladungLaeuft = false;
                                 beladungAktiv = false;
                                 kranKommandoGesendet = false;
-                                if (beladungsTask != null) {
-                                    beladungsTask.cancel(false);
-                                    beladungsTask = null;
-                                }
+                                stopBeladungsTask();
 
                                 // Barren-Listen leeren (Vorgang abgeschlossen)
                                 geplanteBarren.clear();
@@ -281,13 +276,8 @@ public class BeladungView extends VerticalLayout {
 
         // Dann Tasks stoppen
         if (beladungsTask != null) {
-            log.info("  >>> STOPPE BELADUNGS-SCHEDULER");
-            beladungsTask.cancel(false);
-            beladungsTask = null;
-        }
-        if (scheduler != null) {
-            scheduler.shutdownNow();
-            scheduler = null;
+            log.info("  >>> STOPPE BELADUNGS-UPDATES");
+            stopBeladungsTask();
         }
 
         super.onDetach(detachEvent);
@@ -751,6 +741,7 @@ public class BeladungView extends VerticalLayout {
         geplanteBarren.clear();
         geladeneBarren.clear();
         langBarrenModus = false;
+        vorneAnzahl = -1;
         beladungAktiv = true;
         beladungLaeuft = false;
         kranKommandoGesendet = false;
@@ -805,7 +796,7 @@ public class BeladungView extends VerticalLayout {
             }
         }
 
-        // Barren laden - immer alle verfügbaren laden, unabhängig von PRODUCT_ID
+        // Barren laden - alle verfügbaren; die Planung bevorzugt das Produkt des Abrufs
         log.info("=== ERMITTLE BARREN START ===");
         List<IngotDTO> verfuegbareBarren = ingotService.findAllInStock();
         log.info("Verfügbare Barren im Lager: {}", verfuegbareBarren.size());
@@ -846,39 +837,31 @@ public class BeladungView extends VerticalLayout {
             geplanteBarren.clear();
         }
 
-        int aktuellesGewicht = 0;
-        int abgelehntWegenGewicht = 0;
-        for (int i = 0; i < verfuegbareBarren.size() && geplanteBarren.size() < anzahl; i++) {
-            IngotDTO barren = verfuegbareBarren.get(i);
-            // WICHTIG: Oracle speichert Gewicht in GRAMM, UI erwartet KG -> /1000
-            int barrenGewichtGramm = barren.getWeight() != null ? barren.getWeight() : 0;
-            int barrenGewichtKg = barrenGewichtGramm / 1000;
-
-            if (aktuellesGewicht + barrenGewichtKg <= maxGewicht) {
-                geplanteBarren.add(barren);
-                aktuellesGewicht += barrenGewichtKg;
-                log.info("Barren hinzugefügt: {} ({} g = {} kg) -> Summe: {} kg",
-                    barren.getIngotNo(), barrenGewichtGramm, barrenGewichtKg, aktuellesGewicht);
-            } else {
-                abgelehntWegenGewicht++;
-                if (abgelehntWegenGewicht <= 3) {
-                    log.info("Barren abgelehnt (Gewicht): {} ({} g = {} kg) würde {} kg ergeben > {} kg",
-                        barren.getIngotNo(), barrenGewichtGramm, barrenGewichtKg,
-                        aktuellesGewicht + barrenGewichtKg, maxGewicht);
-                }
-            }
-        }
+        // Beladungsplanung: Gewicht, Anzahl, Achslast, Langbarren, Abruf-Produkt, Kranfahrt
+        TruckLoadPlanner.LoadPlan plan = loadPlanningService.plan(
+            verfuegbareBarren, anzahl, maxGewicht, selectedCalloff.getProductId());
+        geplanteBarren.addAll(plan.ingots());
+        vorneAnzahl = plan.frontCount();
 
-        log.info("Schleife beendet: {} Barren geplant, {} wegen Gewicht abgelehnt, Gesamtgewicht={} kg",
-            geplanteBarren.size(), abgelehntWegenGewicht, aktuellesGewicht);
+        log.info("Planung: {} Barren geplant, Gesamtgewicht={} kg, vorne={} kg, hinten={} kg",
+            geplanteBarren.size(), plan.weightKg(), plan.frontWeightKg(), plan.rearWeightKg());
 
         if (!geplanteBarren.isEmpty()) {
-            Integer ersteLaenge = geplanteBarren.get(0).getLength();
-            langBarrenModus = ersteLaenge != null && ersteLaenge > 4000;
+            langBarrenModus = plan.longIngots();
 
             Notification.show(geplanteBarren.size() + " Barren ermittelt für Abruf " + selectedCalloff.getCalloffNumber(),
                 3000, Notification.Position.BOTTOM_CENTER)
                 .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
+            if (!plan.productMatched()) {
+                Notification.show("Keine Barren des Abruf-Produkts im Lager - andere Barren geplant",
+                    5000, Notification.Position.MIDDLE)
+                    .addThemeVariants(NotificationVariant.LUMO_WARNING);
+            }
+            if (!plan.balanced()) {
+                Notification.show("Achslast unausgeglichen: vorne " + plan.frontWeightKg() + " kg, hinten "
+                    + plan.rearWeightKg() + " kg", 5000, Notification.Position.MIDDLE)
+                    .addThemeVariants(NotificationVariant.LUMO_WARNING);
+            }
         } else {
             log.error("!!! KEINE BARREN GEPLANT trotz {} verfügbarer Barren !!!", verfuegbareBarren.size());
             log.error("    anzahl={}, maxGewicht={}, erster Barren Gewicht={}",
@@ -922,8 +905,8 @@ public class BeladungView extends VerticalLayout {
         log.info("=== STARTE BELADUNG MIT HINTERGRUND-PROCESSOR ===");
         processorService.start();
 
-        // UI-Update Scheduler starten (nur für lokale UI-Updates)
-        beladungsTask = scheduler.scheduleAtFixedRate(this::pollUIStatus, 500, 500, TimeUnit.MILLISECONDS);
+        // UI-Updates starten (nur für lokale UI-Updates)
+        startBeladungsTask(true);
 
         Notification.show("Beladung gestartet", 2000, Notification.Position.BOTTOM_CENTER);
     }
@@ -933,7 +916,7 @@ public class BeladungView extends VerticalLayout {
         startenBtn.setEnabled(false);
         pauseBtn.setEnabled(true);
 
-        beladungsTask = scheduler.scheduleAtFixedRate(this::pollBeladungOhneKran, 500, 800, TimeUnit.MILLISECONDS);
+        startBeladungsTask(false);
 
         Notification.show("Beladung gestartet (ohne Kran)", 2000, Notification.Position.BOTTOM_CENTER);
     }
@@ -1002,89 +985,98 @@ public class BeladungView extends VerticalLayout {
         }
     }
 
+    /**
+     * Startet die UI-Updates während der Beladung.
+     * Mit Kran: bei jeder Änderung des Beladungs-Fortschritts im StateService.
+     * Ohne Kran: ein Barren pro Sekundentakt des Snapshot-Publishers.
+     */
+    private void startBeladungsTask(boolean mitKran) {
+        stopBeladungsTask();
+        UI ui = getUI().orElse(null);
+        if (ui == null) {
+            return;
+        }
+        beladungsTask = mitKran
+            ? snapshotPublisher.subscribe(ui, EnumSet.of(Topic.LOADING), snapshot -> pollUIStatus())
+            : snapshotPublisher.subscribe(ui, EnumSet.of(Topic.CLOCK), snapshot -> pollBeladungOhneKran());
+    }
+
+    private void stopBeladungsTask() {
+        if (beladungsTask != null) {
+            beladungsTask.remove();
+            beladungsTask = null;
+        }
+    }
+
+    /**
+     * Simuliert die Beladung ohne Kran (läuft in ui.access)
+     */
     private void pollBeladungOhneKran() {
         if (!beladungLaeuft || geplanteBarren.isEmpty()) return;
 
-        getUI().ifPresent(ui -> {
-            if (!ui.isAttached()) return;
-
-            ui.access(() -> {
-                try {
-                    IngotDTO barren = geplanteBarren.remove(0);
-                    geladeneBarren.add(barren);
-                    saveStateToService();
+        try {
+            IngotDTO barren = geplanteBarren.remove(0);
+            geladeneBarren.add(barren);
+            saveStateToService();
 
-                    updateLadeflaeche();
-                    updateAnzeigen();
-                    updateTransportGrid();
-                    broadcastStatus();
+            updateLadeflaeche();
+            updateAnzeigen();
+            updateTransportGrid();
+            broadcastStatus();
 
-                    if (geplanteBarren.isEmpty()) {
-                        beladungFertig();
-                    }
-                    // ui.push() nicht nötig - PushMode.AUTOMATIC macht das automatisch
-                } catch (Exception e) {
-                    log.error("Fehler: {}", e.getMessage());
-                }
-            });
-        });
+            if (geplanteBarren.isEmpty()) {
+                beladungFertig();
+            }
+            // ui.push() nicht nötig - PushMode.AUTOMATIC macht das automatisch
+        } catch (Exception e) {
+            log.error("Fehler: {}", e.getMessage());
+        }
     }
 
     /**
-     * Polling für UI-Updates - synchronisiert lokale UI mit dem StateService.
+     * Synchronisiert die lokale UI mit dem StateService (läuft in ui.access).
      * Die eigentliche Beladungslogik läuft im BeladungProcessorService.
      */
     private void pollUIStatus() {
         try {
-            getUI().ifPresent(ui -> {
-                if (!ui.isAttached()) return;
-
-                ui.access(() -> {
-                    try {
-                        // Status vom StateService holen
-                        boolean serverBeladungLaeuft = stateService.isBeladungLaeuft();
-                        int serverGeladen = stateService.getGeladeneCount();
-                        int localGeladen = geladeneBarren.size();
-
-                        // Prüfen ob sich etwas geändert hat
-                        if (serverGeladen != localGeladen) {
-                            log.info("UI-Update: Server hat {} geladen, lokal {}", serverGeladen, localGeladen);
-
-                            // Lokale Listen vom StateService synchronisieren
-                            geplanteBarren = new ArrayList<>(stateService.getGeplanteBarren());
-                            geladeneBarren = new ArrayList<>(stateService.getGeladeneBarren());
-                            kranKommandoGesendet = stateService.isKranKommandoGesendet();
-
-                            // UI aktualisieren
-                            updateLadeflaeche();
-                            updateAnzeigen();
-                            updateTransportGrid();
-                        }
-
-                        // Beladung beendet?
-                        // WICHTIG: Prüfe ob Server sagt "fertig" UND wir lokal noch "läuft" haben
-                        if (!serverBeladungLaeuft && beladungLaeuft) {
-                            log.info(">>> BELADUNG BEENDET ERKANNT! serverLaeuft={}, lokalLaeuft={}, geladen={}",
-                                serverBeladungLaeuft, beladungLaeuft, serverGeladen);
+            // Status vom StateService holen
+            boolean serverBeladungLaeuft = stateService.isBeladungLaeuft();
+            int serverGeladen = stateService.getGeladeneCount();
+            int localGeladen = geladeneBarren.size();
+
+            // Prüfen ob sich etwas geändert hat
+            if (serverGeladen != localGeladen) {
+                log.info("UI-Update: Server hat {} geladen, lokal {}", serverGeladen, localGeladen);
+
+                // Lokale Listen vom StateService synchronisieren
+                geplanteBarren = new ArrayList<>(stateService.getGeplanteBarren());
+                geladeneBarren = new ArrayList<>(stateService.getGeladeneBarren());
+                kranKommandoGesendet = stateService.isKranKommandoGesendet();
+
+                // UI aktualisieren
+                updateLadeflaeche();
+                updateAnzeigen();
+                updateTransportGrid();
+            }
 
-                            // Synchronisiere Listen BEVOR beladungFertig() aufgerufen wird
-                            geplanteBarren = new ArrayList<>(stateService.getGeplanteBarren());
-                            geladeneBarren = new ArrayList<>(stateService.getGeladeneBarren());
+            // Beladung beendet?
+            // WICHTIG: Prüfe ob Server sagt "fertig" UND wir lokal noch "läuft" haben
+            if (!serverBeladungLaeuft && beladungLaeuft) {
+                log.info(">>> BELADUNG BEENDET ERKANNT! serverLaeuft={}, lokalLaeuft={}, geladen={}",
+                    serverBeladungLaeuft, beladungLaeuft, serverGeladen);
 
-                            log.info(">>> Listen synchronisiert: geplant={}, geladen={}",
-                                geplanteBarren.size(), geladeneBarren.size());
+                // Synchronisiere Listen BEVOR beladungFertig() aufgerufen wird
+                geplanteBarren = new ArrayList<>(stateService.getGeplanteBarren());
+                geladeneBarren = new ArrayList<>(stateService.getGeladeneBarren());
 
-                            beladungLaeuft = false;
-                            beladungFertig();
-                        }
+                log.info(">>> Listen synchronisiert: geplant={}, geladen={}",
+                    geplanteBarren.size(), geladeneBarren.size());
 
-                    } catch (Exception e) {
-                        log.error("Fehler in pollUIStatus: {}", e.getMessage(), e);
-                    }
-                });
-            });
+                beladungLaeuft = false;
+                beladungFertig();
+            }
         } catch (Exception e) {
-            log.error("Kritischer Fehler in pollUIStatus: {}", e.getMessage(), e);
+            log.error("Fehler in pollUIStatus: {}", e.getMessage(), e);
         }
     }
 
@@ -1096,11 +1088,13 @@ public class BeladungView extends VerticalLayout {
             log.info("  Barren: {} von Lagerplatz {} (ID={})",
                 barren.getIngotNo(), barren.getStockyardNo(), barren.getStockyardId());
             log.info("  PICKUP:  X={}, Y={}, Z={}", pickupPos[0], pickupPos[1], pickupPos[2]);
-            log.info("  RELEASE: X={}, Y={}, Z={} (TRAILER)", TRAILER_X, TRAILER_Y, TRAILER_Z);
+            LoadPlanningService.ReleasePosition release =
+                loadPlanningService.releasePosition(geladeneBarren.size(), vorneAnzahl);
+            log.info("  RELEASE: X={}, Y={}, Z={} (TRAILER)", release.x(), release.y(), release.z());
 
             PlcCommand cmd = PlcCommand.builder()
                 .pickupPosition(pickupPos[0], pickupPos[1], pickupPos[2])
-                .releasePosition(TRAILER_X, TRAILER_Y, TRAILER_Z)
+                .releasePosition(release.x(), release.y(), release.z())
                 .dimensions(
                     barren.getLength() != null ? barren.getLength() : 1800,
                     barren.getWidth() != null ? barren.getWidth() : 500,
@@ -1147,9 +1141,7 @@ public class BeladungView extends VerticalLayout {
             processorService.stop();
 
             // Lokalen UI-Task stoppen
-            if (beladungsTask != null) {
-                beladungsTask.cancel(false);
-            }
+            stopBeladungsTask();
             pauseBtn.setText("Fortsetzen");
             pauseBtn.setIcon(VaadinIcon.PLAY.create());
             Notification.show("Beladung pausiert", 2000, Notification.Position.BOTTOM_CENTER);
@@ -1164,9 +1156,9 @@ public class BeladungView extends VerticalLayout {
                 // Hintergrund-Processor starten
                 processorService.start();
                 // UI-Update Task starten
-                beladungsTask = scheduler.scheduleAtFixedRate(this::pollUIStatus, 500, 500, TimeUnit.MILLISECONDS);
+                startBeladungsTask(true);
             } else {
-                beladungsTask = scheduler.scheduleAtFixedRate(this::pollBeladungOhneKran, 500, 800, TimeUnit.MILLISECONDS);
+                startBeladungsTask(false);
             }
             pauseBtn.setText("Pause");
             pauseBtn.setIcon(VaadinIcon.PAUSE.create());
@@ -1183,10 +1175,7 @@ public class BeladungView extends VerticalLayout {
         processorService.stop();
 
         // Lokalen UI-Task stoppen
-        if (beladungsTask != null) {
-            beladungsTask.cancel(false);
-            beladungsTask = null;
-        }
+        stopBeladungsTask();
 
         geplanteBarren.clear();
         geladeneBarren.clear();
@@ -1214,10 +1203,7 @@ public class BeladungView extends VerticalLayout {
         beladungLaeuft = false;
         kranKommandoGesendet = false;
 
-        if (beladungsTask != null) {
-            beladungsTask.cancel(false);
-            beladungsTask = null;
-        }
+        stopBeladungsTask();
 
         pauseBtn.setEnabled(false);
         broadcastStatus();
@@ -1508,6 +1494,7 @@ public class BeladungView extends VerticalLayout {
         stateService.setBeladungLaeuft(beladungLaeuft);
         stateService.setLangBarrenModus(langBarrenModus);
         stateService.setKranKommandoGesendet(kranKommandoGesendet);
+        stateService.setVorneAnzahl(vorneAnzahl);
         stateService.setGeplanteBarren(geplanteBarren);
         stateService.setGeladeneBarren(geladeneBarren);
         if (beladungsNrField != null && beladungsNrField.getValue() != null) {
@@ -1520,6 +1507,7 @@ public class BeladungView extends VerticalLayout {
         beladungLaeuft = stateService.isBeladungLaeuft();
         langBarrenModus = stateService.isLangBarrenModus();
         kranKommandoGesendet = stateService.isKranKommandoGesendet();
+        vorneAnzahl = stateService.getVorneAnzahl();
         geplanteBarren = new ArrayList<>(stateService.getGeplanteBarren());
         geladeneBarren = new ArrayList<>(stateService.getGeladeneBarren());
         beladungsNummer = stateService.getBeladungsNummer();
@@ -1548,12 +1536,8 @@ public class BeladungView extends VerticalLayout {
                 processorService.start();
             }
 
-            // Starte UI-Update Scheduler (nur für lokale UI-Updates)
-            if (craneAvailable) {
-                beladungsTask = scheduler.scheduleAtFixedRate(this::pollUIStatus, 500, 500, TimeUnit.MILLISECONDS);
-            } else {
-                beladungsTask = scheduler.scheduleAtFixedRate(this::pollBeladungOhneKran, 500, 800, TimeUnit.MILLISECONDS);
-            }
+            // Starte UI-Updates (nur für lokale UI-Updates)
+            startBeladungsTask(craneAvailable);
         } else {
             log.info("  >>> KEIN SCHEDULER GESTARTET (beladungLaeuft={}, geplant={})",
                 beladungLaeuft, geplanteBarren.size());
@@ -2,6 +2,10 @@ package com.hydro.plsbl.ui.view;
 
 import com.hydro.plsbl.dto.CraneStatusDTO;
 import com.hydro.plsbl.service.CraneStatusService;
+import com.hydro.plsbl.service.UiSnapshotPublisher;
+import com.hydro.plsbl.service.UiSnapshotPublisher.CraneSnapshot;
+import com.hydro.plsbl.service.UiSnapshotPublisher.Topic;
+import com.hydro.plsbl.service.UiSnapshotPublisher.UiSnapshot;
 import com.hydro.plsbl.simulator.CraneSimulatorCommand;
 import com.hydro.plsbl.simulator.CraneSimulatorService;
 import com.hydro.plsbl.ui.MainLayout;
@@ -25,18 +29,16 @@ import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.shared.Registration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Kran-Ansicht - Detaillierte Kran-Status-Anzeige
@@ -47,11 +49,11 @@ import java.util.concurrent.TimeUnit;
 public class KranView extends VerticalLayout {
 
     private static final Logger log = LoggerFactory.getLogger(KranView.class);
-    private static final int UPDATE_INTERVAL = 1;
     private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm:ss");
 
     private final CraneStatusService craneStatusService;
     private final CraneSimulatorService simulatorService;
+    private final UiSnapshotPublisher snapshotPublisher;
 
     // Auftragsstatus
     private TextField auftragStatusField;
@@ -97,13 +99,14 @@ public class KranView extends VerticalLayout {
     private Button simStopButton;
     private Span simStatusLabel;
 
-    // Polling
-    private ScheduledExecutorService updateExecutor;
-    private ScheduledFuture<?> updateFuture;
+    // Updates über den zentralen Snapshot-Publisher
+    private Registration snapshotRegistration;
 
-    public KranView(CraneStatusService craneStatusService, CraneSimulatorService simulatorService) {
+    public KranView(CraneStatusService craneStatusService, CraneSimulatorService simulatorService,
+                    UiSnapshotPublisher snapshotPublisher) {
         this.craneStatusService = craneStatusService;
         this.simulatorService = simulatorService;
+        this.snapshotPublisher = snapshotPublisher;
 
         setSizeFull();
         setPadding(true);
@@ -243,10 +246,11 @@ public class KranView extends VerticalLayout {
     }
 
     private void updateSimulatorStatus() {
-        boolean running = simulatorService.isRunning();
-        CraneSimulatorService.SimulatorStatus status = simulatorService.getSimulatorStatus();
+        updateSimulatorStatus(simulatorService.isRunning(), simulatorService.getSimulatorStatus());
+    }
 
-        if (running) {
+    private void updateSimulatorStatus(boolean running, CraneSimulatorService.SimulatorStatus status) {
+        if (running && status != null) {
             // Zeige Position im Status-Label
             simStatusLabel.setText(String.format("Läuft | X:%d Y:%d | %s",
                 status.xPosition(), status.yPosition(), status.workPhase()));
@@ -570,32 +574,44 @@ public class KranView extends VerticalLayout {
     // === Data Loading ===
 
     private void startUpdates(UI ui) {
-        if (updateExecutor != null) return;
-
-        updateExecutor = Executors.newSingleThreadScheduledExecutor();
-        updateFuture = updateExecutor.scheduleAtFixedRate(() -> {
-            try {
-                ui.access(this::loadStatus);
-            } catch (Exception e) {
-                log.debug("Update skipped: {}", e.getMessage());
-            }
-        }, UPDATE_INTERVAL, UPDATE_INTERVAL, TimeUnit.SECONDS);
+        if (snapshotRegistration != null) return;
+
+        snapshotRegistration = snapshotPublisher.subscribe(ui, EnumSet.of(Topic.CRANE, Topic.CRANE_DB),
+            this::applySnapshot);
 
         log.info("Crane status updates started");
     }
 
     private void stopUpdates() {
-        if (updateFuture != null) {
-            updateFuture.cancel(true);
-            updateFuture = null;
-        }
-        if (updateExecutor != null) {
-            updateExecutor.shutdownNow();
-            updateExecutor = null;
+        if (snapshotRegistration != null) {
+            snapshotRegistration.remove();
+            snapshotRegistration = null;
         }
         log.info("Crane status updates stopped");
     }
 
+    /**
+     * Übernimmt einen Snapshot des Snapshot-Publishers (läuft in ui.access)
+     */
+    private void applySnapshot(UiSnapshot snapshot) {
+        CraneSnapshot crane = snapshot.getCrane();
+        if (crane == null) {
+            return;
+        }
+        try {
+            updateSimulatorStatus(crane.simulatorRunning(), crane.simulator());
+
+            // Wenn Simulator läuft, dessen Position anzeigen - sonst Datenbank-Status
+            if (crane.simulatorRunning() && crane.simulator() != null) {
+                updateFromSimulator(crane.simulator());
+            } else if (snapshot.getCraneDbStatus() != null) {
+                updateDisplay(snapshot.getCraneDbStatus());
+            }
+        } catch (Exception e) {
+            log.warn("Error applying crane status: {}", e.getMessage());
+        }
+    }
+
     private void loadStatus() {
         try {
             // Simulator-Status zuerst aktualisieren
@@ -605,7 +621,7 @@ public class KranView extends VerticalLayout {
 
             // Wenn Simulator läuft, dessen Position anzeigen
             if (simRunning) {
-                updateFromSimulator();
+                updateFromSimulator(simulatorService.getSimulatorStatus());
             } else {
                 // Sonst Datenbank-Status verwenden
                 log.debug("Simulator not running (running={}), loading from DB", simRunning);
@@ -619,9 +635,7 @@ public class KranView extends VerticalLayout {
         }
     }
 
-    private void updateFromSimulator() {
-        CraneSimulatorService.SimulatorStatus simStatus = simulatorService.getSimulatorStatus();
-
+    private void updateFromSimulator(CraneSimulatorService.SimulatorStatus simStatus) {
         // Auftragsstatus aus Simulator
         auftragStatusField.setValue(simStatus.jobState().name());
         betriebsartField.setValue(simStatus.craneMode().name());
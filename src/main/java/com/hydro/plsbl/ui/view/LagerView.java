@@ -10,12 +10,19 @@ import com.hydro.plsbl.service.BeladungStateService;
 import com.hydro.plsbl.service.CraneStatusService;
 import com.hydro.plsbl.service.DataBroadcaster;
 import com.hydro.plsbl.service.DataBroadcaster.DataEventType;
+import com.hydro.plsbl.service.DataBroadcaster.StockyardVersionTracker;
 import com.hydro.plsbl.service.IngotService;
 import com.hydro.plsbl.service.LieferscheinPdfService;
 import com.hydro.plsbl.service.SettingsService;
 import com.hydro.plsbl.service.ShipmentService;
 import com.hydro.plsbl.service.StockyardService;
 import com.hydro.plsbl.service.TransportOrderService;
+import com.hydro.plsbl.service.UiSnapshotPublisher;
+import com.hydro.plsbl.service.UiSnapshotPublisher.CraneSnapshot;
+import com.hydro.plsbl.service.UiSnapshotPublisher.LoadingSnapshot;
+import com.hydro.plsbl.service.UiSnapshotPublisher.StockyardSnapshot;
+import com.hydro.plsbl.service.UiSnapshotPublisher.Topic;
+import com.hydro.plsbl.service.UiSnapshotPublisher.UiSnapshot;
 import com.hydro.plsbl.simulator.CraneSimulatorCommand;
 import com.hydro.plsbl.simulator.CraneSimulatorService;
 import com.hydro.plsbl.ui.MainLayout;
@@ -51,14 +58,12 @@ import org.slf4j.LoggerFactory;
 
 import com.vaadin.flow.shared.Registration;
 
+import java.util.EnumSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
 
 /**
  * Lager-Ansicht (Stock View)
@@ -73,10 +78,6 @@ public class LagerView extends VerticalLayout {
 
     private static final Logger log = LoggerFactory.getLogger(LagerView.class);
 
-    // Kran-Update-Intervall in Millisekunden (schneller = flüssiger)
-    private static final int CRANE_UPDATE_INTERVAL_MS = 200;
-    // Daten-Refresh-Intervall (alle X Kran-Updates)
-    private static final int DATA_REFRESH_MULTIPLIER = 15;  // ~3 Sekunden
     // Säge-Lagerplatz ID (wird dynamisch ermittelt)
     private Long sawStockyardId = null;
 
@@ -92,16 +93,16 @@ public class LagerView extends VerticalLayout {
     private final DataBroadcaster dataBroadcaster;
     private final ShipmentService shipmentService;
     private final LieferscheinPdfService pdfService;
+    private final UiSnapshotPublisher snapshotPublisher;
     private Registration broadcasterRegistration;
     private Registration dataBroadcasterRegistration;
     private LagerGrid lagerGrid;
     private TextField searchField;
     private Map<Long, StockyardDTO> allStockyards = new LinkedHashMap<>();
 
-    // Kran-Polling
-    private ScheduledExecutorService craneUpdateExecutor;
-    private ScheduledFuture<?> craneUpdateFuture;
-    private int dataRefreshCounter = 0;  // Zähler für Daten-Refresh
+    // Kran- und Lagerplatz-Updates (gemeinsamer Snapshot-Publisher)
+    private Registration snapshotRegistration;
+    private UiSnapshot lastSnapshot;
 
     // Simulator-Umlagern Modus
     private boolean relocateMode = false;
@@ -126,7 +127,8 @@ public class LagerView extends VerticalLayout {
                      SettingsService settingsService, PlcService plcService,
                      BeladungStateService beladungStateService, BeladungBroadcaster beladungBroadcaster,
                      TransportOrderService transportOrderService, DataBroadcaster dataBroadcaster,
-                     ShipmentService shipmentService, LieferscheinPdfService pdfService) {
+                     ShipmentService shipmentService, LieferscheinPdfService pdfService,
+                     UiSnapshotPublisher snapshotPublisher) {
         this.stockyardService = stockyardService;
         this.ingotService = ingotService;
         this.craneStatusService = craneStatusService;
@@ -139,6 +141,7 @@ public class LagerView extends VerticalLayout {
         this.dataBroadcaster = dataBroadcaster;
         this.shipmentService = shipmentService;
         this.pdfService = pdfService;
+        this.snapshotPublisher = snapshotPublisher;
 
         setSizeFull();
         setPadding(true);
@@ -192,8 +195,9 @@ public class LagerView extends VerticalLayout {
             if (event.getType() == DataEventType.STOCKYARD_CHANGED ||
                 event.getType() == DataEventType.REFRESH_ALL) {
                 ui.access(() -> {
-                    log.info("DataBroadcaster event empfangen: {} - Aktualisiere Lagerplätze", event.getType());
-                    refreshStockyardData();
+                    log.info("DataBroadcaster event empfangen: {} - Aktualisiere Lagerplätze {}",
+                        event.getType(), event.getStockyardIds());
+                    applyStockyardEvent(event);
                 });
             }
         });
@@ -553,10 +557,12 @@ public class LagerView extends VerticalLayout {
             // Aktuelle Ziel-Markierung merken bevor Grid neu aufgebaut wird
             Long previousTargetId = lagerGrid.getTargetStockyardId();
 
+            long stockyardVersion = dataBroadcaster.getStockyardVersion();
             allStockyards = stockyardService.findAllForStockView();
             log.info("Loaded {} stockyards", allStockyards.size());
 
             lagerGrid.setStockyards(allStockyards);
+            lagerGrid.setStockyardVersion(stockyardVersion);
 
             // Ziel-Markierung wiederherstellen wenn noch ein aktiver Transport läuft
             if (previousTargetId != null) {
@@ -584,35 +590,87 @@ public class LagerView extends VerticalLayout {
     private void refreshStockyardData() {
         try {
             Map<Long, StockyardDTO> newData = stockyardService.findAllForStockView();
+            applyStockyardData(newData, stockyardService.findActiveTransportOrderTarget(),
+                ingotService::countByStockyardId);
+        } catch (Exception e) {
+            log.debug("Error refreshing stockyard data: {}", e.getMessage());
+        }
+    }
 
-            // Nur aktualisieren wenn Daten vorhanden
-            if (newData.isEmpty()) return;
+    /**
+     * Verarbeitet ein Lagerplatz-Event des DataBroadcasters.
+     * Delta-Events mit der nächsten Version laden nur die geänderten Plätze;
+     * bei einer Versionslücke oder ohne Platz-IDs werden alle Plätze neu geladen.
+     */
+    private void applyStockyardEvent(DataBroadcaster.DataEvent event) {
+        StockyardVersionTracker.Action action = lagerGrid.classifyStockyardEvent(event);
+        if (action == StockyardVersionTracker.Action.SKIP) {
+            return;  // Bereits im letzten vollständigen Neuladen enthalten
+        }
+        if (action == StockyardVersionTracker.Action.APPLY_DELTA) {
+            try {
+                Map<Long, StockyardDTO> changed = stockyardService.findForStockView(event.getStockyardIds());
+                lagerGrid.updateStockyards(changed.values(), event.getStockyardVersion());
 
-            // Bestehende Buttons aktualisieren
-            for (Map.Entry<Long, StockyardDTO> entry : newData.entrySet()) {
-                Long id = entry.getKey();
-                StockyardDTO newYard = entry.getValue();
-                StockyardDTO oldYard = allStockyards.get(id);
+                Map<Long, StockyardDTO> merged = new LinkedHashMap<>(allStockyards);
+                changed.forEach((id, yard) -> merged.computeIfPresent(id, (k, old) -> yard));
+                allStockyards = merged;
 
-                // Prüfen ob sich etwas geändert hat
-                if (oldYard == null || hasStatusChanged(oldYard, newYard)) {
-                    // Button aktualisieren
-                    lagerGrid.updateStockyard(newYard);
-                    log.debug("Stockyard {} updated", newYard.getYardNumber());
-                }
+                checkSawAndUpdateTarget(allStockyards, stockyardService.findActiveTransportOrderTarget(),
+                    ingotService::countByStockyardId);
+            } catch (Exception e) {
+                log.debug("Error applying stockyard delta: {}", e.getMessage());
             }
+            return;
+        }
 
-            // Säge-Status prüfen und Ziel-Lagerplatz markieren
-            checkSawAndUpdateTarget(newData);
-
-            // Cache aktualisieren
-            allStockyards = newData;
+        if (event.isStockyardDelta()) {
+            log.info("Lagerplatz-Version {} erwartet, {} erhalten - lade alle Plätze neu",
+                lagerGrid.getStockyardVersion() + 1, event.getFirstStockyardVersion());
+        }
+        long stockyardVersion = dataBroadcaster.getStockyardVersion();
+        refreshStockyardData();
+        lagerGrid.setStockyardVersion(stockyardVersion);
+    }
 
+    /**
+     * Übernimmt die Lagerplätze aus einem Snapshot des Snapshot-Publishers
+     */
+    private void refreshStockyardData(StockyardSnapshot snapshot) {
+        try {
+            applyStockyardData(snapshot.yards(), Optional.ofNullable(snapshot.activeTransportTarget()),
+                snapshot::getSawIngotCount);
         } catch (Exception e) {
             log.debug("Error refreshing stockyard data: {}", e.getMessage());
         }
     }
 
+    private void applyStockyardData(Map<Long, StockyardDTO> newData, Optional<Long> activeTarget,
+                                    ToIntFunction<Long> sawIngotCount) {
+        // Nur aktualisieren wenn Daten vorhanden
+        if (newData.isEmpty()) return;
+
+        // Bestehende Buttons aktualisieren
+        for (Map.Entry<Long, StockyardDTO> entry : newData.entrySet()) {
+            Long id = entry.getKey();
+            StockyardDTO newYard = entry.getValue();
+            StockyardDTO oldYard = allStockyards.get(id);
+
+            // Prüfen ob sich etwas geändert hat
+            if (oldYard == null || hasStatusChanged(oldYard, newYard)) {
+                // Button aktualisieren
+                lagerGrid.updateStockyard(newYard);
+                log.debug("Stockyard {} updated", newYard.getYardNumber());
+            }
+        }
+
+        // Säge-Status prüfen und Ziel-Lagerplatz markieren
+        checkSawAndUpdateTarget(newData, activeTarget, sawIngotCount);
+
+        // Cache aktualisieren
+        allStockyards = new LinkedHashMap<>(newData);
+    }
+
     /**
      * Prüft den Säge-Status und markiert/löscht den Ziel-Lagerplatz.
      * Der Ziel-Platz wird aus dem Transport-Auftrag geholt (nicht geschätzt).
@@ -620,11 +678,14 @@ public class LagerView extends VerticalLayout {
      *
      * WICHTIG: Aktive Transporte haben IMMER Vorrang - die Markierung wird nicht gelöscht
      * solange ein Transport läuft (IN_PROGRESS oder PICKED_UP).
+     *
+     * @param activeTarget  Ziel des aktiven Transports (IN_PROGRESS oder PICKED_UP)
+     * @param sawIngotCount Barren-Anzahl je Säge-Lagerplatz (aus TD_INGOT)
      */
-    private void checkSawAndUpdateTarget(Map<Long, StockyardDTO> stockyards) {
+    private void checkSawAndUpdateTarget(Map<Long, StockyardDTO> stockyards, Optional<Long> activeTarget,
+                                         ToIntFunction<Long> sawIngotCount) {
         // 1. ZUERST prüfen ob ein aktiver Transport läuft (IN_PROGRESS oder PICKED_UP)
         // Wenn ja, diese Markierung IMMER beibehalten - nicht löschen!
-        Optional<Long> activeTarget = stockyardService.findActiveTransportOrderTarget();
         if (activeTarget.isPresent()) {
             // Transport läuft - Markierung setzen/beibehalten (NICHT löschen!)
             Long effectiveTargetId = resolveToLongStockyardIfNeeded(activeTarget.get());
@@ -650,7 +711,7 @@ public class LagerView extends VerticalLayout {
         }
 
         // WICHTIG: Barren DIREKT aus TD_INGOT zählen, nicht aus Status (kann veraltet sein!)
-        int currentSawIngotCount = ingotService.countByStockyardId(sawYard.getId());
+        int currentSawIngotCount = sawIngotCount.applyAsInt(sawYard.getId());
         log.debug("Säge-Barren-Anzahl (direkt aus DB): {}", currentSawIngotCount);
 
         // 3. Säge leer und kein aktiver Transport -> Markierung löschen
@@ -1025,107 +1086,94 @@ public class LagerView extends VerticalLayout {
     // ========================================================================
 
     /**
-     * Startet die periodischen Kran-Updates und Daten-Refresh
+     * Startet die Kran-Updates und den Daten-Refresh über den gemeinsamen Snapshot-Publisher
      */
     private void startCraneUpdates(UI ui) {
-        if (craneUpdateExecutor != null) {
+        if (snapshotRegistration != null) {
             return;  // Bereits gestartet
         }
 
-        craneUpdateExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
-            Thread t = new Thread(r, "LagerView-CraneUpdate");
-            t.setDaemon(true);
-            return t;
-        });
+        lastSnapshot = null;
+        snapshotRegistration = snapshotPublisher.subscribe(ui,
+            EnumSet.of(Topic.CRANE, Topic.CRANE_DB, Topic.STOCKYARDS, Topic.LOADING),
+            this::applySnapshot);
 
-        // Zähler für Scheduler-Ticks
-        final int[] tickCounter = {0};
-
-        craneUpdateFuture = craneUpdateExecutor.scheduleAtFixedRate(() -> {
-            tickCounter[0]++;
+        log.info("Crane updates started (Snapshot-Publisher)");
+    }
 
-            // WICHTIG: Gesamter Code in try-catch um Scheduler-Stopp zu verhindern!
-            try {
-                // Alle 5 Sekunden Status loggen
-                if (tickCounter[0] % 25 == 0) {
-                    log.info(">>> LagerView Scheduler TICK #{} - UI attached: {}",
-                        tickCounter[0], ui != null && ui.isAttached());
-                }
+    /**
+     * Stoppt die Kran-Updates
+     */
+    private void stopCraneUpdates() {
+        if (snapshotRegistration != null) {
+            snapshotRegistration.remove();
+            snapshotRegistration = null;
+        }
+        log.info("Crane updates stopped");
+    }
 
-                // Prüfen ob UI noch attached ist BEVOR ui.access() aufgerufen wird
-                if (ui == null) {
-                    log.warn("LagerView Scheduler: UI ist null!");
-                    return;
+    /**
+     * Übernimmt einen Snapshot des Snapshot-Publishers (läuft in ui.access).
+     * Lagerplätze werden nur bei geänderter Version neu abgeglichen.
+     */
+    private void applySnapshot(UiSnapshot snapshot) {
+        try {
+            // DEBUG: Heartbeat Indikator aktualisieren
+            heartbeatCount++;
+            if (heartbeatIndicator != null) {
+                heartbeatIndicator.setText("⚡ " + heartbeatCount);
+                // Farbe wechseln für visuelles Feedback
+                if (heartbeatCount % 2 == 0) {
+                    heartbeatIndicator.getStyle().set("background-color", "#E8F5E9");
+                } else {
+                    heartbeatIndicator.getStyle().set("background-color", "#C8E6C9");
                 }
+            }
 
-                boolean attached = false;
-                try {
-                    attached = ui.isAttached();
-                } catch (Exception e) {
-                    log.warn("LagerView Scheduler: UI.isAttached() warf Exception: {}", e.getMessage());
-                    return;
-                }
+            if (snapshot.isNewer(Topic.CRANE, lastSnapshot) || snapshot.isNewer(Topic.CRANE_DB, lastSnapshot)) {
+                applyCraneSnapshot(snapshot);
+            }
 
-                if (!attached) {
-                    log.debug("LagerView Scheduler: UI nicht attached");
-                    return;
-                }
+            LoadingSnapshot loading = snapshot.getLoading();
+            if (loading != null && snapshot.isNewer(Topic.LOADING, lastSnapshot) && lagerGrid != null) {
+                lagerGrid.updateTrailerLoad(loading.geladenCount(), loading.totalCount(), loading.beladungLaeuft());
+                updateBeladungStatusDisplay(loading.geladenCount(), loading.totalCount(), loading.beladungLaeuft());
+            }
 
-                // ui.access() - Vaadin sorgt für Thread-Sicherheit
-                ui.access(() -> {
-                    try {
-                        // DEBUG: Heartbeat Indikator aktualisieren
-                        heartbeatCount++;
-                        if (heartbeatIndicator != null) {
-                            heartbeatIndicator.setText("⚡ " + heartbeatCount);
-                            // Farbe wechseln für visuelles Feedback
-                            if (heartbeatCount % 2 == 0) {
-                                heartbeatIndicator.getStyle().set("background-color", "#E8F5E9");
-                            } else {
-                                heartbeatIndicator.getStyle().set("background-color", "#C8E6C9");
-                            }
-                        }
-
-                        // Logge alle 25 Ticks (5 Sekunden) dass ui.access() erfolgreich ausgeführt wird
-                        if (heartbeatCount % 25 == 0) {
-                            log.info(">>> UI.ACCESS TICK #{} - Updates funktionieren", heartbeatCount);
-                        }
-
-                        // Kran-Status immer aktualisieren
-                        loadCraneStatus();
-
-                        // Stockyard-Daten periodisch aktualisieren
-                        dataRefreshCounter++;
-                        if (dataRefreshCounter >= DATA_REFRESH_MULTIPLIER) {
-                            dataRefreshCounter = 0;
-                            refreshStockyardData();
-                        }
-                    } catch (Exception e) {
-                        log.error("Error in ui.access lambda: {}", e.getMessage(), e);
-                    }
-                });
-            } catch (Exception e) {
-                // NIEMALS Exception aus Scheduler werfen - sonst stoppt er!
-                log.error("KRITISCH - LagerView Scheduler Exception: {}", e.getMessage(), e);
+            StockyardSnapshot stockyards = snapshot.getStockyards();
+            if (stockyards != null && snapshot.isNewer(Topic.STOCKYARDS, lastSnapshot)) {
+                refreshStockyardData(stockyards);
             }
-        }, CRANE_UPDATE_INTERVAL_MS, CRANE_UPDATE_INTERVAL_MS, TimeUnit.MILLISECONDS);
 
-        log.info("Crane updates started (interval: {}ms)", CRANE_UPDATE_INTERVAL_MS);
+            lastSnapshot = snapshot;
+        } catch (Exception e) {
+            log.error("Error applying snapshot: {}", e.getMessage(), e);
+        }
     }
 
     /**
-     * Stoppt die periodischen Kran-Updates
+     * Aktualisiert die Kran-Anzeige aus dem Snapshot (SPS, Simulator oder Datenbank)
      */
-    private void stopCraneUpdates() {
-        if (craneUpdateFuture != null) {
-            craneUpdateFuture.cancel(true);
-            craneUpdateFuture = null;
+    private void applyCraneSnapshot(UiSnapshot snapshot) {
+        CraneSnapshot crane = snapshot.getCrane();
+        if (crane == null) {
+            return;
         }
-        if (craneUpdateExecutor != null) {
-            craneUpdateExecutor.shutdownNow();
-            craneUpdateExecutor = null;
+
+        // Button-Status aktualisieren
+        if (relocateButton != null && !relocateMode) {
+            relocateButton.setEnabled(crane.isCraneAvailable());
+        }
+
+        if (crane.simulatorMode() && crane.simulator() != null) {
+            updateCraneFromSimulator(crane.simulator());
+        } else if (crane.plcConnected()) {
+            if (crane.plc() != null) {
+                updateCraneFromPlcStatus(crane.plc());
+            }
+        } else if (snapshot.getCraneDbStatus() != null) {
+            updateCraneDisplay(snapshot.getCraneDbStatus());
         }
-        log.info("Crane updates stopped");
     }
 
     /**
@@ -1230,8 +1278,10 @@ public class LagerView extends VerticalLayout {
      * Aktualisiert die Kran-Anzeige aus dem Simulator
      */
     private void updateCraneFromSimulator() {
-        CraneSimulatorService.SimulatorStatus simStatus = simulatorService.getSimulatorStatus();
+        updateCraneFromSimulator(simulatorService.getSimulatorStatus());
+    }
 
+    private void updateCraneFromSimulator(CraneSimulatorService.SimulatorStatus simStatus) {
         // Debug: Zeige Position alle 2 Sekunden
         if (System.currentTimeMillis() % 2000 < 200) {
             log.info("LagerView Kran-Update: pos=({},{},{}), phase={}, job={}",
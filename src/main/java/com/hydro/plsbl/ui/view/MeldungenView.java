@@ -24,13 +24,13 @@ import com.vaadin.flow.router.Route;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.List;
 import java.util.function.Consumer;
 
 /**
  * View für System-Meldungen (Alarme, Warnungen, Info).
  *
  * Zeigt alle Meldungen in einem Grid mit Filter- und Quittier-Funktionen.
+ * Die Historie kommt seitenweise aus dem Meldungs-Journal (neueste zuerst).
  */
 @Route(value = "meldungen", layout = MainLayout.class)
 @PageTitle("Meldungen | PLSBL")
@@ -145,22 +145,19 @@ public class MeldungenView extends VerticalLayout {
         messageGrid.addColumn(SystemMessage::getCreatedAtFormatted)
             .setHeader("Zeit")
             .setWidth("150px")
-            .setFlexGrow(0)
-            .setSortable(true);
+            .setFlexGrow(0);
 
         // Typ
         messageGrid.addColumn(msg -> msg.getType().getDisplayName())
             .setHeader("Typ")
             .setWidth("100px")
-            .setFlexGrow(0)
-            .setSortable(true);
+            .setFlexGrow(0);
 
         // Kategorie
         messageGrid.addColumn(msg -> msg.getCategory().getDisplayName())
             .setHeader("Kategorie")
             .setWidth("120px")
-            .setFlexGrow(0)
-            .setSortable(true);
+            .setFlexGrow(0);
 
         // Code
         messageGrid.addColumn(SystemMessage::getCode)
@@ -270,42 +267,36 @@ public class MeldungenView extends VerticalLayout {
         return btn;
     }
 
+    /**
+     * Lädt die Meldungen seitenweise aus dem Journal (nur sichtbare Zeilen)
+     */
     private void loadMessages() {
-        List<SystemMessage> messages = messageService.getAllMessages();
-
-        // Filter anwenden
-        String typeFilterValue = typeFilter.getValue();
-        if (typeFilterValue != null && !typeFilterValue.equals("Alle")) {
-            MessageType filterType = switch (typeFilterValue) {
-                case "Alarm" -> MessageType.ALARM;
-                case "Warnung" -> MessageType.WARNING;
-                case "Info" -> MessageType.INFO;
-                default -> null;
-            };
-            if (filterType != null) {
-                messages = messages.stream()
-                    .filter(m -> m.getType() == filterType)
-                    .toList();
-            }
-        }
-
-        String statusFilterValue = statusFilter.getValue();
-        if (statusFilterValue != null && !statusFilterValue.equals("Alle")) {
-            messages = switch (statusFilterValue) {
-                case "Aktiv" -> messages.stream().filter(m -> !m.isAcknowledged()).toList();
-                case "Quittiert" -> messages.stream().filter(m -> m.isAcknowledged() && !m.isConditionCleared()).toList();
-                case "Behoben" -> messages.stream().filter(m -> m.isConditionCleared()).toList();
-                default -> messages;
-            };
-        }
-
-        messageGrid.setItems(messages);
+        MessageFilter filter = currentFilter();
+        messageGrid.setItems(
+            query -> messageService.findMessages(filter, query.getOffset(), query.getLimit()).stream(),
+            query -> messageService.countMessages(filter));
 
         // Zähler aktualisieren
-        long unackCount = messageService.getUnacknowledgedMessages().size();
+        int unackCount = messageService.getUnacknowledgedCount();
         long activeCount = messageService.getActiveMessages().size();
         countLabel.setText(String.format("%d Meldungen (%d unquittiert, %d aktiv)",
-            messageService.getAllMessages().size(), unackCount, activeCount));
+            messageService.countMessages(MessageFilter.ALL), unackCount, activeCount));
+    }
+
+    private MessageFilter currentFilter() {
+        MessageType type = typeFilter.getValue() == null ? null : switch (typeFilter.getValue()) {
+            case "Alarm" -> MessageType.ALARM;
+            case "Warnung" -> MessageType.WARNING;
+            case "Info" -> MessageType.INFO;
+            default -> null;
+        };
+        MessageState state = statusFilter.getValue() == null ? null : switch (statusFilter.getValue()) {
+            case "Aktiv" -> MessageState.ACTIVE;
+            case "Quittiert" -> MessageState.ACKNOWLEDGED;
+            case "Behoben" -> MessageState.CLEARED;
+            default -> null;
+        };
+        return new MessageFilter(type, null, state);
     }
 
     private void acknowledgeAll() {
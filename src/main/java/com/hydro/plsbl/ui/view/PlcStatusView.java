@@ -1,5 +1,6 @@
 package com.hydro.plsbl.ui.view;
 
+import com.hydro.plsbl.plc.LatencyHistogram;
 import com.hydro.plsbl.plc.PlcAlert;
 import com.hydro.plsbl.plc.PlcException;
 import com.hydro.plsbl.plc.PlcService;
@@ -58,6 +59,8 @@ public class PlcStatusView extends VerticalLayout {
     private Span connectionStatusLabel;
     private Icon connectionIcon;
     private Span connectionInfoLabel;
+    private Span pollRateLabel;
+    private Span latencyLabel;
     private Button connectButton;
     private Button disconnectButton;
     private Button testButton;
@@ -231,11 +234,20 @@ public class PlcStatusView extends VerticalLayout {
         HorizontalLayout buttons = new HorizontalLayout(connectButton, disconnectButton, testButton, simulatorToggleButton);
         buttons.setSpacing(true);
 
+        // Poll-Intervall (adaptiv)
+        pollRateLabel = new Span("Poll-Intervall: -");
+        pollRateLabel.getStyle().set("color", "gray").set("font-size", "12px");
+
+        // SPS-Latenz (nur bei echter SPS)
+        latencyLabel = new Span();
+        latencyLabel.getStyle().set("color", "gray").set("font-size", "12px");
+        latencyLabel.setVisible(false);
+
         // Last Update
         lastUpdateLabel = new Span("Letztes Update: -");
         lastUpdateLabel.getStyle().set("color", "gray").set("font-size", "12px");
 
-        VerticalLayout content = new VerticalLayout(statusRow, connectionInfoLabel, buttons, lastUpdateLabel);
+        VerticalLayout content = new VerticalLayout(statusRow, connectionInfoLabel, buttons, pollRateLabel, latencyLabel, lastUpdateLabel);
         content.setPadding(false);
         content.setSpacing(true);
 
@@ -617,6 +629,24 @@ public class PlcStatusView extends VerticalLayout {
         connectButton.setEnabled(enabled && !connected && !simulatorMode);
         disconnectButton.setEnabled(connected && !simulatorMode);
         testButton.setEnabled(enabled && !simulatorMode);
+
+        updatePollRate();
+    }
+
+    private void updatePollRate() {
+        PlcService.PollRate rate = plcService.getPollRate();
+        pollRateLabel.setText(String.format("Poll-Intervall: %d ms (%s) - Grenzen: schnell %d / normal %d / Ruhe %d ms",
+            plcService.getEffectivePollInterval(), rate.getDisplayName(),
+            plcService.getPollInterval(PlcService.PollRate.FAST),
+            plcService.getPollInterval(PlcService.PollRate.NORMAL),
+            plcService.getPollInterval(PlcService.PollRate.IDLE)));
+
+        LatencyHistogram.Snapshot read = plcService.getReadLatency();
+        LatencyHistogram.Snapshot write = plcService.getWriteLatency();
+        latencyLabel.setText(String.format("Latenz Lesen: p50 %.1f / p99 %.1f ms (%d) - Schreiben: p50 %.1f / p99 %.1f ms (%d)",
+            read.p50Millis(), read.p99Millis(), read.count(),
+            write.p50Millis(), write.p99Millis(), write.count()));
+        latencyLabel.setVisible(read.count() > 0 || write.count() > 0);
     }
 
     private void updateStatus(PlcStatus status) {
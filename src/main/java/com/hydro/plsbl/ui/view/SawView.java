@@ -10,6 +10,10 @@ import com.hydro.plsbl.service.SawStatusService;
 import com.hydro.plsbl.service.SettingsService;
 import com.hydro.plsbl.service.StockyardService;
 import com.hydro.plsbl.service.TransportOrderService;
+import com.hydro.plsbl.service.UiSnapshotPublisher;
+import com.hydro.plsbl.service.UiSnapshotPublisher.SawSnapshot;
+import com.hydro.plsbl.service.UiSnapshotPublisher.Topic;
+import com.hydro.plsbl.service.UiSnapshotPublisher.UiSnapshot;
 import com.hydro.plsbl.simulator.CraneSimulatorCommand;
 import com.hydro.plsbl.simulator.CraneSimulatorService;
 import com.hydro.plsbl.ui.MainLayout;
@@ -35,15 +39,13 @@ import com.vaadin.flow.component.textfield.TextArea;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.shared.Registration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.format.DateTimeFormatter;
+import java.util.EnumSet;
 import java.util.Optional;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Säge-Ansicht - Einlagerung von der Säge
@@ -54,7 +56,6 @@ import java.util.concurrent.TimeUnit;
 public class SawView extends VerticalLayout {
 
     private static final Logger log = LoggerFactory.getLogger(SawView.class);
-    private static final int UPDATE_INTERVAL = 2;
     private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm:ss");
     private static final Long SAW_STOCKYARD_ID = 1001L;  // SAW-01 Lagerplatz ID
 
@@ -64,6 +65,7 @@ public class SawView extends VerticalLayout {
     private final SettingsService settingsService;
     private final TransportOrderService transportOrderService;
     private final IngotService ingotService;
+    private final UiSnapshotPublisher snapshotPublisher;
 
     // Einlagerungsmodus
     private ComboBox<SawStatusDTO.PickupMode> pickupModeCombo;
@@ -126,15 +128,16 @@ public class SawView extends VerticalLayout {
     private String lastShownError = null;
 
     // Polling
-    private ScheduledExecutorService updateExecutor;
-    private ScheduledFuture<?> updateFuture;
+    private Registration snapshotRegistration;
 
     public SawView(SawStatusService sawStatusService,
                    CraneSimulatorService simulatorService,
                    StockyardService stockyardService,
                    SettingsService settingsService,
                    TransportOrderService transportOrderService,
-                   IngotService ingotService) {
+                   IngotService ingotService,
+                   UiSnapshotPublisher snapshotPublisher) {
+        this.snapshotPublisher = snapshotPublisher;
         this.sawStatusService = sawStatusService;
         this.simulatorService = simulatorService;
         this.stockyardService = stockyardService;
@@ -555,32 +558,43 @@ public class SawView extends VerticalLayout {
     // === Data Loading ===
 
     private void startUpdates(UI ui) {
-        if (updateExecutor != null) return;
-
-        updateExecutor = Executors.newSingleThreadScheduledExecutor();
-        updateFuture = updateExecutor.scheduleAtFixedRate(() -> {
-            try {
-                ui.access(this::loadStatus);
-            } catch (Exception e) {
-                log.debug("Update skipped: {}", e.getMessage());
-            }
-        }, UPDATE_INTERVAL, UPDATE_INTERVAL, TimeUnit.SECONDS);
+        if (snapshotRegistration != null) return;
+
+        snapshotRegistration = snapshotPublisher.subscribe(ui, EnumSet.of(Topic.SAW), this::applySnapshot);
 
         log.info("Saw status updates started");
     }
 
     private void stopUpdates() {
-        if (updateFuture != null) {
-            updateFuture.cancel(true);
-            updateFuture = null;
-        }
-        if (updateExecutor != null) {
-            updateExecutor.shutdownNow();
-            updateExecutor = null;
+        if (snapshotRegistration != null) {
+            snapshotRegistration.remove();
+            snapshotRegistration = null;
         }
         log.info("Saw status updates stopped");
     }
 
+    /**
+     * Übernimmt einen Snapshot des Snapshot-Publishers (läuft in ui.access)
+     */
+    private void applySnapshot(UiSnapshot snapshot) {
+        SawSnapshot saw = snapshot.getSaw();
+        if (saw == null) {
+            return;
+        }
+        try {
+            if (saw.status() != null) {
+                updateDisplay(saw.status());
+            }
+
+            // Barren von SAW-01 übernehmen (wenn nicht im Bearbeitungsmodus)
+            if (!editMode) {
+                showIngotFromSaw(saw.sawIngots());
+            }
+        } catch (Exception e) {
+            log.debug("Error applying saw status: {}", e.getMessage());
+        }
+    }
+
     private void loadStatus() {
         try {
             Optional<SawStatusDTO> statusOpt = sawStatusService.getCurrentStatus();
@@ -603,20 +617,7 @@ public class SawView extends VerticalLayout {
      */
     private void loadIngotFromSaw() {
         try {
-            java.util.List<IngotDTO> ingots = ingotService.findByStockyardId(SAW_STOCKYARD_ID);
-
-            if (!ingots.isEmpty()) {
-                // Obersten Barren auf dem Säge-Platz verwenden
-                currentIngot = ingots.get(0);
-                updateIngotDisplay(currentIngot);
-                editIngotButton.setEnabled(true);
-                log.debug("Ingot loaded from SAW-01: {}", currentIngot.getIngotNo());
-            } else {
-                // Kein Barren auf SAW-01
-                currentIngot = null;
-                clearIngotDisplay();
-                editIngotButton.setEnabled(false);
-            }
+            showIngotFromSaw(ingotService.findByStockyardId(SAW_STOCKYARD_ID));
         } catch (Exception e) {
             log.debug("Error loading ingot from SAW-01: {}", e.getMessage());
             currentIngot = null;
@@ -624,6 +625,24 @@ public class SawView extends VerticalLayout {
         }
     }
 
+    /**
+     * Zeigt den obersten Barren des Säge-Platzes an
+     */
+    private void showIngotFromSaw(java.util.List<IngotDTO> ingots) {
+        if (!ingots.isEmpty()) {
+            // Obersten Barren auf dem Säge-Platz verwenden
+            currentIngot = ingots.get(0);
+            updateIngotDisplay(currentIngot);
+            editIngotButton.setEnabled(true);
+            log.debug("Ingot loaded from SAW-01: {}", currentIngot.getIngotNo());
+        } else {
+            // Kein Barren auf SAW-01
+            currentIngot = null;
+            clearIngotDisplay();
+            editIngotButton.setEnabled(false);
+        }
+    }
+
     /**
      * Aktualisiert die Barren-Anzeige mit den Daten des aktuellen Barrens
      */
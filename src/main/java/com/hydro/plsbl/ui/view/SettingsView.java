@@ -1,5 +1,6 @@
 package com.hydro.plsbl.ui.view;
 
+import com.hydro.plsbl.kafka.KafkaOutboxRelay;
 import com.hydro.plsbl.service.IngotService;
 import com.hydro.plsbl.service.IngotTypeService;
 import com.hydro.plsbl.service.LieferscheinPdfService;
@@ -7,6 +8,7 @@ import com.hydro.plsbl.service.ProductService;
 import com.hydro.plsbl.service.SettingsService;
 import com.hydro.plsbl.service.ShipmentService;
 import com.hydro.plsbl.service.StockyardService;
+import com.hydro.plsbl.simulator.CraneMotionModel;
 import com.hydro.plsbl.simulator.CraneSimulatorConfig;
 import com.hydro.plsbl.simulator.CraneSimulatorService;
 import com.hydro.plsbl.ui.MainLayout;
@@ -16,6 +18,7 @@ import com.hydro.plsbl.ui.dialog.ProductDialog;
 import com.hydro.plsbl.ui.dialog.StockyardManagementDialog;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.combobox.ComboBox;
 import com.vaadin.flow.component.formlayout.FormLayout;
 import com.vaadin.flow.component.html.H3;
 import com.vaadin.flow.component.html.Hr;
@@ -28,6 +31,7 @@ import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.tabs.Tab;
 import com.vaadin.flow.component.tabs.Tabs;
 import com.vaadin.flow.component.textfield.IntegerField;
+import com.vaadin.flow.component.textfield.NumberField;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.component.checkbox.Checkbox;
 import com.vaadin.flow.router.PageTitle;
@@ -35,6 +39,8 @@ import com.vaadin.flow.router.Route;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+
 /**
  * Einstellungen-Ansicht
  *
@@ -55,6 +61,7 @@ public class SettingsView extends VerticalLayout {
     private final ShipmentService shipmentService;
     private final IngotService ingotService;
     private final LieferscheinPdfService pdfService;
+    private final KafkaOutboxRelay outboxRelay;
 
     // Tabs
     private VerticalLayout sawContent;
@@ -97,9 +104,19 @@ public class SettingsView extends VerticalLayout {
 
     // Simulator-Felder
     private IntegerField simIntervalField;
+    private ComboBox<CraneSimulatorConfig.MotionModel> simMotionModelField;
     private IntegerField simDeltaXField;
     private IntegerField simDeltaYField;
     private IntegerField simDeltaZField;
+    private NumberField simMaxSpeedXField;
+    private NumberField simMaxSpeedYField;
+    private NumberField simAccelXField;
+    private NumberField simDecelXField;
+    private NumberField simAccelYField;
+    private NumberField simDecelYField;
+    private NumberField simHoistSpeedEmptyField;
+    private NumberField simHoistSpeedLoadedField;
+    private NumberField simHoistAccelField;
     private IntegerField simDefaultZField;
     private IntegerField simParkXField;
     private IntegerField simParkYField;
@@ -147,6 +164,7 @@ public class SettingsView extends VerticalLayout {
     private TextField kafkaTopicIngotModifiedField;
     private TextField kafkaTopicShipmentCompletedField;
     private TextField kafkaTopicSawFeedbackField;
+    private Span kafkaOutboxStatusLabel;
 
     public SettingsView(SettingsService settingsService,
                         CraneSimulatorConfig simulatorConfig,
@@ -156,7 +174,8 @@ public class SettingsView extends VerticalLayout {
                         StockyardService stockyardService,
                         ShipmentService shipmentService,
                         IngotService ingotService,
-                        LieferscheinPdfService pdfService) {
+                        LieferscheinPdfService pdfService,
+                        KafkaOutboxRelay outboxRelay) {
         this.settingsService = settingsService;
         this.simulatorConfig = simulatorConfig;
         this.simulatorService = simulatorService;
@@ -166,6 +185,7 @@ public class SettingsView extends VerticalLayout {
         this.shipmentService = shipmentService;
         this.ingotService = ingotService;
         this.pdfService = pdfService;
+        this.outboxRelay = outboxRelay;
 
         setSizeFull();
         setPadding(true);
@@ -470,13 +490,22 @@ public class SettingsView extends VerticalLayout {
         form1.setResponsiveSteps(new FormLayout.ResponsiveStep("0", 1));
 
         simIntervalField = createIntegerField("Intervall [ms]", 100, 5000);
-        form1.add(simIntervalField);
+
+        simMotionModelField = new ComboBox<>("Bewegungsmodell");
+        simMotionModelField.setItems(CraneSimulatorConfig.MotionModel.values());
+        simMotionModelField.setItemLabelGenerator(model ->
+            model == CraneSimulatorConfig.MotionModel.KINEMATIC ? "Kinematik (Geschwindigkeit/Beschleunigung)"
+                                                                : "Feste Schrittweite");
+        simMotionModelField.setWidth("320px");
+        simMotionModelField.addValueChangeListener(e -> updateMotionModelFields(e.getValue()));
+
+        form1.add(simIntervalField, simMotionModelField);
         layout.add(form1);
 
         layout.add(new Hr());
 
-        // Bewegung
-        Span section2 = new Span("Bewegungsschrittweite pro Intervall");
+        // Bewegung (Modell STEP)
+        Span section2 = new Span("Bewegungsschrittweite pro Intervall (nur Modell \"Feste Schrittweite\")");
         section2.getStyle().set("font-weight", "bold").set("font-size", "16px");
         layout.add(section2);
 
@@ -495,6 +524,34 @@ public class SettingsView extends VerticalLayout {
 
         layout.add(new Hr());
 
+        // Kinematik (Modell KINEMATIC)
+        Span sectionKinematic = new Span("Kinematik (nur Modell \"Kinematik\")");
+        sectionKinematic.getStyle().set("font-weight", "bold").set("font-size", "16px");
+        layout.add(sectionKinematic);
+
+        FormLayout formKinematic = new FormLayout();
+        formKinematic.setResponsiveSteps(
+            new FormLayout.ResponsiveStep("0", 1),
+            new FormLayout.ResponsiveStep("400px", 3)
+        );
+
+        simMaxSpeedXField = createNumberField("Max. Geschw. X [mm/s]", 1, 10000);
+        simAccelXField = createNumberField("Beschleunigung X [mm/s²]", 1, 10000);
+        simDecelXField = createNumberField("Verzögerung X [mm/s²]", 1, 10000);
+        simMaxSpeedYField = createNumberField("Max. Geschw. Y [mm/s]", 1, 10000);
+        simAccelYField = createNumberField("Beschleunigung Y [mm/s²]", 1, 10000);
+        simDecelYField = createNumberField("Verzögerung Y [mm/s²]", 1, 10000);
+        simHoistSpeedEmptyField = createNumberField("Hubwerk leer [mm/s]", 1, 5000);
+        simHoistSpeedLoadedField = createNumberField("Hubwerk beladen [mm/s]", 1, 5000);
+        simHoistAccelField = createNumberField("Beschleunigung Z [mm/s²]", 1, 5000);
+
+        formKinematic.add(simMaxSpeedXField, simAccelXField, simDecelXField,
+                          simMaxSpeedYField, simAccelYField, simDecelYField,
+                          simHoistSpeedEmptyField, simHoistSpeedLoadedField, simHoistAccelField);
+        layout.add(formKinematic);
+
+        layout.add(new Hr());
+
         // Positionen
         Span section3 = new Span("Positionen");
         section3.getStyle().set("font-weight", "bold").set("font-size", "16px");
@@ -567,7 +624,7 @@ public class SettingsView extends VerticalLayout {
         layout.add(new Hr());
 
         // Hinweis
-        Span hint = new Span("Hinweis: Änderungen an der SPS-Verbindung erfordern einen Neustart der Anwendung.");
+        Span hint = new Span("Hinweis: Bei Änderung von URL oder Aktivierung wird die SPS-Verbindung automatisch neu aufgebaut.");
         hint.getStyle().set("color", "gray").set("font-style", "italic");
         layout.add(hint);
 
@@ -819,11 +876,37 @@ public class SettingsView extends VerticalLayout {
         return field;
     }
 
+    private NumberField createNumberField(String label, double min, double max) {
+        NumberField field = new NumberField(label);
+        field.setMin(min);
+        field.setMax(max);
+        field.setStepButtonsVisible(true);
+        field.setWidth("150px");
+        return field;
+    }
+
+    /**
+     * Nur die Felder des gewaehlten Bewegungsmodells sind bearbeitbar
+     */
+    private void updateMotionModelFields(CraneSimulatorConfig.MotionModel model) {
+        boolean kinematic = model != CraneSimulatorConfig.MotionModel.STEP;
+        for (IntegerField field : List.of(simDeltaXField, simDeltaYField, simDeltaZField)) {
+            field.setEnabled(!kinematic);
+            field.setHelperText(kinematic ? "bei Kinematik ohne Wirkung" : null);
+        }
+        for (NumberField field : List.of(simMaxSpeedXField, simAccelXField, simDecelXField,
+                                         simMaxSpeedYField, simAccelYField, simDecelYField,
+                                         simHoistSpeedEmptyField, simHoistSpeedLoadedField, simHoistAccelField)) {
+            field.setEnabled(kinematic);
+        }
+    }
+
     private HorizontalLayout createSaveButton(Runnable saveAction) {
         Button saveButton = new Button("Speichern", VaadinIcon.CHECK.create());
         saveButton.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
         saveButton.addClickListener(e -> {
-            saveAction.run();
+            // Alle Werte eines Reiters als ein neuer Einstellungs-Stand (eine Benachrichtigung)
+            settingsService.update(saveAction);
             Notification.show("Einstellungen gespeichert", 3000, Notification.Position.BOTTOM_CENTER)
                 .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
         });
@@ -864,9 +947,20 @@ public class SettingsView extends VerticalLayout {
 
         // Simulator
         simIntervalField.setValue(simulatorConfig.getIntervalMs());
+        simMotionModelField.setValue(simulatorConfig.getMotionModel());
         simDeltaXField.setValue(simulatorConfig.getDeltaX());
         simDeltaYField.setValue(simulatorConfig.getDeltaY());
         simDeltaZField.setValue(simulatorConfig.getDeltaZ());
+        simMaxSpeedXField.setValue(simulatorConfig.getMaxSpeedX());
+        simAccelXField.setValue(simulatorConfig.getAccelX());
+        simDecelXField.setValue(simulatorConfig.getDecelX());
+        simMaxSpeedYField.setValue(simulatorConfig.getMaxSpeedY());
+        simAccelYField.setValue(simulatorConfig.getAccelY());
+        simDecelYField.setValue(simulatorConfig.getDecelY());
+        simHoistSpeedEmptyField.setValue(simulatorConfig.getHoistSpeedEmpty());
+        simHoistSpeedLoadedField.setValue(simulatorConfig.getHoistSpeedLoaded());
+        simHoistAccelField.setValue(simulatorConfig.getHoistAccel());
+        updateMotionModelFields(simulatorConfig.getMotionModel());
         simDefaultZField.setValue(simulatorConfig.getDefaultZ());
         simParkXField.setValue(simulatorConfig.getParkX());
         simParkYField.setValue(simulatorConfig.getParkY());
@@ -914,6 +1008,7 @@ public class SettingsView extends VerticalLayout {
         kafkaTopicIngotModifiedField.setValue(settingsService.getKafkaTopicIngotModified());
         kafkaTopicShipmentCompletedField.setValue(settingsService.getKafkaTopicShipmentCompleted());
         kafkaTopicSawFeedbackField.setValue(settingsService.getKafkaTopicSawFeedback());
+        updateOutboxStatus();
     }
 
     private void saveSawSettings() {
@@ -951,13 +1046,28 @@ public class SettingsView extends VerticalLayout {
 
     private void saveSimulatorSettings() {
         simulatorConfig.setIntervalMs(simIntervalField.getValue());
+        if (simMotionModelField.getValue() != null) {
+            simulatorConfig.setMotionModel(simMotionModelField.getValue());
+        }
         simulatorConfig.setDeltaX(simDeltaXField.getValue());
         simulatorConfig.setDeltaY(simDeltaYField.getValue());
         simulatorConfig.setDeltaZ(simDeltaZField.getValue());
+        simulatorConfig.setMaxSpeedX(simMaxSpeedXField.getValue());
+        simulatorConfig.setAccelX(simAccelXField.getValue());
+        simulatorConfig.setDecelX(simDecelXField.getValue());
+        simulatorConfig.setMaxSpeedY(simMaxSpeedYField.getValue());
+        simulatorConfig.setAccelY(simAccelYField.getValue());
+        simulatorConfig.setDecelY(simDecelYField.getValue());
+        simulatorConfig.setHoistSpeedEmpty(simHoistSpeedEmptyField.getValue());
+        simulatorConfig.setHoistSpeedLoaded(simHoistSpeedLoadedField.getValue());
+        simulatorConfig.setHoistAccel(simHoistAccelField.getValue());
         simulatorConfig.setDefaultZ(simDefaultZField.getValue());
         simulatorConfig.setParkX(simParkXField.getValue());
         simulatorConfig.setParkY(simParkYField.getValue());
-        log.info("Simulator-Einstellungen gespeichert");
+
+        // Das Modell uebernimmt die Grenzwerte beim Erzeugen - neu aufbauen
+        simulatorService.setMotionModel(CraneMotionModel.of(simulatorConfig));
+        log.info("Simulator-Einstellungen gespeichert: Modell={}", simulatorConfig.getMotionModel());
 
         // Hinweis: Simulator muss neu gestartet werden für Intervall-Änderung
         Notification.show("Hinweis: Für Intervall-Änderung Simulator neu starten",
@@ -1090,8 +1200,22 @@ public class SettingsView extends VerticalLayout {
 
         layout.add(new Hr());
 
+        // Outbox-Status
+        Span sectionOutbox = new Span("Ausgehende Nachrichten (Outbox)");
+        sectionOutbox.getStyle().set("font-weight", "bold").set("font-size", "16px");
+        layout.add(sectionOutbox);
+
+        kafkaOutboxStatusLabel = new Span();
+        Button refreshOutboxButton = new Button("Aktualisieren", VaadinIcon.REFRESH.create());
+        refreshOutboxButton.addClickListener(e -> updateOutboxStatus());
+        HorizontalLayout outboxLayout = new HorizontalLayout(kafkaOutboxStatusLabel, refreshOutboxButton);
+        outboxLayout.setAlignItems(Alignment.CENTER);
+        layout.add(outboxLayout);
+
+        layout.add(new Hr());
+
         // Hinweis
-        Span hint = new Span("Hinweis: Aenderungen erfordern einen Neustart der Anwendung.");
+        Span hint = new Span("Hinweis: Aktivieren/Deaktivieren wirkt sofort; Server, IDs und Topics erfordern einen Neustart der Anwendung.");
         hint.getStyle().set("color", "gray").set("font-style", "italic");
         layout.add(hint);
 
@@ -1102,6 +1226,24 @@ public class SettingsView extends VerticalLayout {
         return layout;
     }
 
+    /**
+     * Rueckstand der Outbox: wartende und abgelegte Nachrichten, Alter der aeltesten
+     */
+    private void updateOutboxStatus() {
+        try {
+            KafkaOutboxRelay.OutboxStats stats = outboxRelay.getStats();
+            kafkaOutboxStatusLabel.setText(String.format(
+                "%d wartend (älteste %d s), %d abgelegt, %d gesendet, %d Fehlversuche seit Start%s",
+                stats.pending(), stats.lagMs() / 1000, stats.parked(), stats.published(), stats.failedAttempts(),
+                stats.lastError() != null ? " - letzter Fehler: " + stats.lastError() : ""));
+            kafkaOutboxStatusLabel.getStyle().set("color", stats.parked() > 0 ? "#f44336" : "inherit");
+        } catch (Exception e) {
+            log.warn("Outbox-Status nicht lesbar: {}", e.getMessage());
+            kafkaOutboxStatusLabel.setText("Outbox nicht lesbar: " + e.getMessage());
+            kafkaOutboxStatusLabel.getStyle().set("color", "#f44336");
+        }
+    }
+
     private VerticalLayout createMasterDataTab() {
         VerticalLayout layout = new VerticalLayout();
         layout.setPadding(false);
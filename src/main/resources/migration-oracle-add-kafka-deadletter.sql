@@ -0,0 +1,36 @@
+-- ===================================================================
+-- Migration: Ablage nicht verarbeitbarer Kafka-Nachrichten
+-- Ziel: TD_KAFKA_DEADLETTER (neu)
+-- ===================================================================
+
+CREATE TABLE TD_KAFKA_DEADLETTER (
+    ID              NUMBER(19) NOT NULL,
+    TOPIC           VARCHAR2(200) NOT NULL,
+    PARTITION_NO    NUMBER(10),
+    OFFSET_NO       NUMBER(19),
+    MESSAGE_KEY     VARCHAR2(200),
+    PAYLOAD         CLOB,
+    ERROR_MESSAGE   VARCHAR2(1000),
+    RECEIVED        TIMESTAMP DEFAULT SYSTIMESTAMP NOT NULL,
+    CONSTRAINT PK_KAFKA_DEADLETTER PRIMARY KEY (ID)
+);
+
+COMMENT ON TABLE TD_KAFKA_DEADLETTER IS 'Kafka-Nachrichten, die nicht verarbeitet werden konnten (zur manuellen Nachbearbeitung)';
+COMMENT ON COLUMN TD_KAFKA_DEADLETTER.PARTITION_NO IS 'Kafka-Partition';
+COMMENT ON COLUMN TD_KAFKA_DEADLETTER.OFFSET_NO IS 'Kafka-Offset';
+COMMENT ON COLUMN TD_KAFKA_DEADLETTER.ERROR_MESSAGE IS 'Fehlermeldung der Verarbeitung';
+
+-- Index für Auswertungen je Topic
+CREATE INDEX IDX_KAFKA_DEADLETTER_TOPIC ON TD_KAFKA_DEADLETTER(TOPIC);
+
+COMMIT;
+
+-- ===================================================================
+-- Hinweis: Dieses Script muss manuell auf der Oracle-Datenbank
+-- ausgeführt werden, z.B. mit SQL Developer oder sqlplus:
+--
+-- sqlplus plsbl/hydroplsbl@//192.168.178.113:1521/ORCLCDB @migration-oracle-add-kafka-deadletter.sql
+--
+-- Danach die Anwendung neu starten: die ID-Sequenz SEQ_TD_KAFKA_DEADLETTER_ID
+-- wird beim Start vom IdAllocator angelegt.
+-- ===================================================================
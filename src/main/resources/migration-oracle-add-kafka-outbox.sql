@@ -0,0 +1,38 @@
+-- ===================================================================
+-- Migration: Kafka-Outbox fuer ausgehende Nachrichten
+-- Ziel: TD_KAFKA_OUTBOX (neu)
+-- ===================================================================
+
+CREATE TABLE TD_KAFKA_OUTBOX (
+    ID              NUMBER(19) NOT NULL,
+    TOPIC           VARCHAR2(200) NOT NULL,
+    MESSAGE_KEY     VARCHAR2(200),
+    PAYLOAD         CLOB NOT NULL,
+    CREATED         TIMESTAMP NOT NULL,
+    ATTEMPTS        NUMBER(10) DEFAULT 0 NOT NULL,
+    NEXT_ATTEMPT    TIMESTAMP,
+    LAST_ERROR      VARCHAR2(1000),
+    PARKED_AT       TIMESTAMP,
+    CONSTRAINT PK_KAFKA_OUTBOX PRIMARY KEY (ID)
+);
+
+COMMENT ON TABLE TD_KAFKA_OUTBOX IS 'Ausgehende Kafka-Nachrichten, in der fachlichen Transaktion geschrieben und asynchron gesendet';
+COMMENT ON COLUMN TD_KAFKA_OUTBOX.ATTEMPTS IS 'Anzahl fehlgeschlagener Sendeversuche';
+COMMENT ON COLUMN TD_KAFKA_OUTBOX.NEXT_ATTEMPT IS 'Naechster Sendeversuch (Backoff), NULL = sofort';
+COMMENT ON COLUMN TD_KAFKA_OUTBOX.LAST_ERROR IS 'Letzte Fehlermeldung beim Senden';
+COMMENT ON COLUMN TD_KAFKA_OUTBOX.PARKED_AT IS 'Nach zu vielen Fehlversuchen abgelegt (Dead Letter), NULL = wird gesendet';
+
+-- Index für die Abfrage des Relays (je Topic in ID-Reihenfolge, jede Sekunde)
+CREATE INDEX IDX_KAFKA_OUTBOX_TOPIC_ID ON TD_KAFKA_OUTBOX(TOPIC, ID);
+
+COMMIT;
+
+-- ===================================================================
+-- Hinweis: Dieses Script muss manuell auf der Oracle-Datenbank
+-- ausgeführt werden, z.B. mit SQL Developer oder sqlplus:
+--
+-- sqlplus plsbl/hydroplsbl@//192.168.178.113:1521/ORCLCDB @migration-oracle-add-kafka-outbox.sql
+--
+-- Danach die Anwendung neu starten: die ID-Sequenz SEQ_TD_KAFKA_OUTBOX_ID
+-- wird beim Start vom IdAllocator angelegt.
+-- ===================================================================
@@ -0,0 +1,42 @@
+-- ===================================================================
+-- Migration: Persistentes Meldungs-Journal (Alarme, Warnungen, Info)
+-- Ziel: TD_MESSAGE (neu)
+-- ===================================================================
+
+CREATE TABLE TD_MESSAGE (
+    ID                  NUMBER(19) NOT NULL,
+    MSG_TYPE            VARCHAR2(20) NOT NULL,
+    CATEGORY            VARCHAR2(30) NOT NULL,
+    CODE                VARCHAR2(100) NOT NULL,
+    TEXT                VARCHAR2(500),
+    SOURCE              VARCHAR2(100),
+    CREATED             TIMESTAMP NOT NULL,
+    OCCURRENCES         NUMBER(10) DEFAULT 1 NOT NULL,
+    ACKNOWLEDGED        NUMBER(1) DEFAULT 0 NOT NULL,
+    ACKNOWLEDGED_AT     TIMESTAMP,
+    CONDITION_CLEARED   NUMBER(1) DEFAULT 0 NOT NULL,
+    CLEARED_AT          TIMESTAMP,
+    CONSTRAINT PK_MESSAGE PRIMARY KEY (ID)
+);
+
+COMMENT ON TABLE TD_MESSAGE IS 'System-Meldungen (Alarme, Warnungen, Info) mit Quittierung';
+COMMENT ON COLUMN TD_MESSAGE.MSG_TYPE IS 'ALARM, WARNING, INFO';
+COMMENT ON COLUMN TD_MESSAGE.OCCURRENCES IS 'Anzahl Wiederholungen waehrend die Meldung aktiv war';
+COMMENT ON COLUMN TD_MESSAGE.CONDITION_CLEARED IS 'Ausloesende Bedingung behoben (1=ja)';
+
+-- Indizes für offene Meldungen, Filter und Aufräumen
+CREATE INDEX IDX_MESSAGE_CATEGORY_CODE ON TD_MESSAGE(CATEGORY, CODE);
+CREATE INDEX IDX_MESSAGE_ACKNOWLEDGED ON TD_MESSAGE(ACKNOWLEDGED);
+CREATE INDEX IDX_MESSAGE_CREATED ON TD_MESSAGE(CREATED);
+
+COMMIT;
+
+-- ===================================================================
+-- Hinweis: Dieses Script muss manuell auf der Oracle-Datenbank
+-- ausgeführt werden, z.B. mit SQL Developer oder sqlplus:
+--
+-- sqlplus plsbl/hydroplsbl@//192.168.178.113:1521/ORCLCDB @migration-oracle-add-message-journal.sql
+--
+-- Danach die Anwendung neu starten: die ID-Sequenz SEQ_TD_MESSAGE_ID
+-- wird beim Start vom IdAllocator angelegt.
+-- ===================================================================
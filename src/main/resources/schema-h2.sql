@@ -244,3 +244,51 @@ CREATE TABLE IF NOT EXISTS TD_CALLOFF (
 CREATE INDEX IF NOT EXISTS IDX_CALLOFF_APPROVED ON TD_CALLOFF(APPROVED);
 CREATE INDEX IF NOT EXISTS IDX_CALLOFF_COMPLETED ON TD_CALLOFF(COMPLETED);
 CREATE INDEX IF NOT EXISTS IDX_CALLOFF_PRODUCT ON TD_CALLOFF(PRODUCT_ID);
+
+-- System-Meldungen (Alarm-Journal)
+CREATE TABLE IF NOT EXISTS TD_MESSAGE (
+    ID                  BIGINT PRIMARY KEY,
+    MSG_TYPE            VARCHAR(20) NOT NULL,
+    CATEGORY            VARCHAR(30) NOT NULL,
+    CODE                VARCHAR(100) NOT NULL,
+    TEXT                VARCHAR(500),
+    SOURCE              VARCHAR(100),
+    CREATED             TIMESTAMP NOT NULL,
+    OCCURRENCES         INT DEFAULT 1 NOT NULL,
+    ACKNOWLEDGED        BOOLEAN DEFAULT FALSE NOT NULL,
+    ACKNOWLEDGED_AT     TIMESTAMP,
+    CONDITION_CLEARED   BOOLEAN DEFAULT FALSE NOT NULL,
+    CLEARED_AT          TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS IDX_MESSAGE_CATEGORY_CODE ON TD_MESSAGE(CATEGORY, CODE);
+CREATE INDEX IF NOT EXISTS IDX_MESSAGE_ACKNOWLEDGED ON TD_MESSAGE(ACKNOWLEDGED);
+CREATE INDEX IF NOT EXISTS IDX_MESSAGE_CREATED ON TD_MESSAGE(CREATED);
+
+-- Kafka Dead-Letter (nicht verarbeitbare Nachrichten)
+CREATE TABLE IF NOT EXISTS TD_KAFKA_DEADLETTER (
+    ID              BIGINT PRIMARY KEY,
+    TOPIC           VARCHAR(200) NOT NULL,
+    PARTITION_NO    INT,
+    OFFSET_NO       BIGINT,
+    MESSAGE_KEY     VARCHAR(200),
+    PAYLOAD         CLOB,
+    ERROR_MESSAGE   VARCHAR(1000),
+    RECEIVED        TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS IDX_KAFKA_DEADLETTER_TOPIC ON TD_KAFKA_DEADLETTER(TOPIC);
+
+-- Kafka Outbox (ausgehende Nachrichten, in der fachlichen Transaktion geschrieben)
+CREATE TABLE IF NOT EXISTS TD_KAFKA_OUTBOX (
+    ID              BIGINT PRIMARY KEY,
+    TOPIC           VARCHAR(200) NOT NULL,
+    MESSAGE_KEY     VARCHAR(200),
+    PAYLOAD         CLOB NOT NULL,
+    CREATED         TIMESTAMP NOT NULL,
+    ATTEMPTS        INT DEFAULT 0 NOT NULL,
+    NEXT_ATTEMPT    TIMESTAMP,
+    LAST_ERROR      VARCHAR(1000),
+    PARKED_AT       TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS IDX_KAFKA_OUTBOX_TOPIC_ID ON TD_KAFKA_OUTBOX(TOPIC, ID);
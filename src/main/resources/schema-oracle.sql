@@ -22,6 +22,9 @@
 --    10. TD_CALLOFF         - Abrufe/Kundenbestellungen
 --    11. TD_SHIPMENT        - Lieferscheine
 --    12. TD_SHIPMENTLINE    - Lieferschein-Positionen
+--    13. TD_KAFKA_DEADLETTER - Nicht verarbeitbare Kafka-Nachrichten
+--    14. TD_KAFKA_OUTBOX    - Ausgehende Kafka-Nachrichten (Outbox)
+--    15. TD_MESSAGE         - System-Meldungen (Alarm-Journal)
 --
 -- ===================================================================
 
@@ -429,6 +432,83 @@ COMMENT ON COLUMN TD_SHIPMENTLINE.SAP_PRODUCT_NO IS 'SAP-Produktnummer';
 CREATE INDEX IDX_SHIPMENTLINE_SHIPMENT ON TD_SHIPMENTLINE(SHIPMENT_ID);
 
 
+-- -------------------------------------------------------------------
+-- 13. TD_KAFKA_DEADLETTER - Nicht verarbeitbare Kafka-Nachrichten
+-- -------------------------------------------------------------------
+CREATE TABLE TD_KAFKA_DEADLETTER (
+    ID              NUMBER(19) NOT NULL,
+    TOPIC           VARCHAR2(200) NOT NULL,
+    PARTITION_NO    NUMBER(10),
+    OFFSET_NO       NUMBER(19),
+    MESSAGE_KEY     VARCHAR2(200),
+    PAYLOAD         CLOB,
+    ERROR_MESSAGE   VARCHAR2(1000),
+    RECEIVED        TIMESTAMP DEFAULT SYSTIMESTAMP NOT NULL,
+    CONSTRAINT PK_KAFKA_DEADLETTER PRIMARY KEY (ID)
+);
+
+COMMENT ON TABLE TD_KAFKA_DEADLETTER IS 'Kafka-Nachrichten, die nicht verarbeitet werden konnten (zur manuellen Nachbearbeitung)';
+COMMENT ON COLUMN TD_KAFKA_DEADLETTER.PARTITION_NO IS 'Kafka-Partition';
+COMMENT ON COLUMN TD_KAFKA_DEADLETTER.OFFSET_NO IS 'Kafka-Offset';
+COMMENT ON COLUMN TD_KAFKA_DEADLETTER.ERROR_MESSAGE IS 'Fehlermeldung der Verarbeitung';
+
+CREATE INDEX IDX_KAFKA_DEADLETTER_TOPIC ON TD_KAFKA_DEADLETTER(TOPIC);
+
+
+-- -------------------------------------------------------------------
+-- 14. TD_KAFKA_OUTBOX - Ausgehende Kafka-Nachrichten (Outbox)
+-- -------------------------------------------------------------------
+CREATE TABLE TD_KAFKA_OUTBOX (
+    ID              NUMBER(19) NOT NULL,
+    TOPIC           VARCHAR2(200) NOT NULL,
+    MESSAGE_KEY     VARCHAR2(200),
+    PAYLOAD         CLOB NOT NULL,
+    CREATED         TIMESTAMP NOT NULL,
+    ATTEMPTS        NUMBER(10) DEFAULT 0 NOT NULL,
+    NEXT_ATTEMPT    TIMESTAMP,
+    LAST_ERROR      VARCHAR2(1000),
+    PARKED_AT       TIMESTAMP,
+    CONSTRAINT PK_KAFKA_OUTBOX PRIMARY KEY (ID)
+);
+
+COMMENT ON TABLE TD_KAFKA_OUTBOX IS 'Ausgehende Kafka-Nachrichten, in der fachlichen Transaktion geschrieben und asynchron gesendet';
+COMMENT ON COLUMN TD_KAFKA_OUTBOX.ATTEMPTS IS 'Anzahl fehlgeschlagener Sendeversuche';
+COMMENT ON COLUMN TD_KAFKA_OUTBOX.NEXT_ATTEMPT IS 'Naechster Sendeversuch (Backoff), NULL = sofort';
+COMMENT ON COLUMN TD_KAFKA_OUTBOX.LAST_ERROR IS 'Letzte Fehlermeldung beim Senden';
+COMMENT ON COLUMN TD_KAFKA_OUTBOX.PARKED_AT IS 'Nach zu vielen Fehlversuchen abgelegt (Dead Letter), NULL = wird gesendet';
+
+CREATE INDEX IDX_KAFKA_OUTBOX_TOPIC_ID ON TD_KAFKA_OUTBOX(TOPIC, ID);
+
+
+-- -------------------------------------------------------------------
+-- 15. TD_MESSAGE - System-Meldungen (Alarm-Journal)
+-- -------------------------------------------------------------------
+CREATE TABLE TD_MESSAGE (
+    ID                  NUMBER(19) NOT NULL,
+    MSG_TYPE            VARCHAR2(20) NOT NULL,
+    CATEGORY            VARCHAR2(30) NOT NULL,
+    CODE                VARCHAR2(100) NOT NULL,
+    TEXT                VARCHAR2(500),
+    SOURCE              VARCHAR2(100),
+    CREATED             TIMESTAMP NOT NULL,
+    OCCURRENCES         NUMBER(10) DEFAULT 1 NOT NULL,
+    ACKNOWLEDGED        NUMBER(1) DEFAULT 0 NOT NULL,
+    ACKNOWLEDGED_AT     TIMESTAMP,
+    CONDITION_CLEARED   NUMBER(1) DEFAULT 0 NOT NULL,
+    CLEARED_AT          TIMESTAMP,
+    CONSTRAINT PK_MESSAGE PRIMARY KEY (ID)
+);
+
+COMMENT ON TABLE TD_MESSAGE IS 'System-Meldungen (Alarme, Warnungen, Info) mit Quittierung';
+COMMENT ON COLUMN TD_MESSAGE.MSG_TYPE IS 'ALARM, WARNING, INFO';
+COMMENT ON COLUMN TD_MESSAGE.OCCURRENCES IS 'Anzahl Wiederholungen waehrend die Meldung aktiv war';
+COMMENT ON COLUMN TD_MESSAGE.CONDITION_CLEARED IS 'Ausloesende Bedingung behoben (1=ja)';
+
+CREATE INDEX IDX_MESSAGE_CATEGORY_CODE ON TD_MESSAGE(CATEGORY, CODE);
+CREATE INDEX IDX_MESSAGE_ACKNOWLEDGED ON TD_MESSAGE(ACKNOWLEDGED);
+CREATE INDEX IDX_MESSAGE_CREATED ON TD_MESSAGE(CREATED);
+
+
 -- ===================================================================
 -- INITIALE DATEN
 -- ===================================================================
@@ -0,0 +1,61 @@
+package com.hydro.plsbl.kafka;
+
+import com.hydro.plsbl.kafka.KeyedBatchProcessor.Failure;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.BadSqlGrammarException;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-Tests fuer die Dead-Letter-Ablage, wenn die Tabelle nicht beschreibbar ist
+ */
+@DisplayName("Kafka-Dead-Letter Tests")
+class KafkaDeadLetterServiceTest {
+
+    @Test
+    @DisplayName("Fehlgeschlagene Ablage wirft nicht, die uebrigen Nachrichten werden abgelegt")
+    void testStoreFailureDoesNotThrow() {
+        List<Long> stored = new ArrayList<>();
+        KafkaDeadLetterService service = new KafkaDeadLetterService(null, null) {
+            @Override
+            public void store(ConsumerRecord<String, String> record, Exception error) {
+                if (record.offset() == 1) {
+                    throw new BadSqlGrammarException("INSERT", "INSERT INTO TD_KAFKA_DEADLETTER",
+                        new SQLException("ORA-00942: Tabelle oder View nicht vorhanden"));
+                }
+                stored.add(record.offset());
+            }
+        };
+
+        int notStored = service.storeAll(List.of(failure(0), failure(1), failure(2)));
+
+        assertEquals(1, notStored);
+        assertEquals(List.of(0L, 2L), stored);
+        assertEquals(1, service.getStoreFailures());
+    }
+
+    @Test
+    @DisplayName("Ohne Fehler wird nichts gezaehlt")
+    void testNoFailures() {
+        KafkaDeadLetterService service = new KafkaDeadLetterService(null, null) {
+            @Override
+            public void store(ConsumerRecord<String, String> record, Exception error) {
+            }
+        };
+
+        assertEquals(0, service.storeAll(List.of(failure(0))));
+        assertEquals(0, service.storeAll(List.of()));
+        assertEquals(0, service.getStoreFailures());
+    }
+
+    private static Failure failure(long offset) {
+        return new Failure(new ConsumerRecord<>("pickup-order", 0, offset, "B" + offset, "{kaputt}"),
+            new IllegalArgumentException("nicht lesbar"));
+    }
+}
@@ -0,0 +1,160 @@
+package com.hydro.plsbl.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hydro.plsbl.kafka.dto.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests und Durchsatz-Benchmark fuer die JSON-Umwandlung der Kafka-Nachrichten
+ *
+ * Vergleicht den bisherigen Weg (ObjectMapper.writeValueAsString / readValue mit Klasse)
+ * mit den vorbereiteten Readern/Writern des KafkaMessageCodec.
+ * Anzahl der Benchmark-Durchlaeufe: -Dplsbl.benchmark.iterations=... (Standard 20000)
+ */
+@DisplayName("KafkaMessageCodec Tests")
+class KafkaMessageCodecBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaMessageCodecBenchmarkTest.class);
+
+    private final KafkaMessageCodec codec = new KafkaMessageCodec();
+
+    @Test
+    @DisplayName("Alle Nachrichtentypen: JSON unveraendert gegenueber dem bisherigen ObjectMapper")
+    void testSameFormat() throws Exception {
+        ObjectMapper legacy = legacyMapper();
+        for (Object message : samples()) {
+            String expected = legacy.writeValueAsString(message);
+
+            assertEquals(expected, codec.writeString(message), message.getClass().getSimpleName());
+
+            Object read = codec.read(codec.writeString(message), message.getClass());
+            assertEquals(expected, legacy.writeValueAsString(read), "Rundreise " + message.getClass().getSimpleName());
+            assertEquals(expected, legacy.writeValueAsString(codec.read(expected, message.getClass())));
+        }
+    }
+
+    @Test
+    @DisplayName("Reader/Writer werden je Typ wiederverwendet")
+    void testReaderWriterCached() {
+        for (Class<?> type : KafkaMessageCodec.MESSAGE_TYPES) {
+            assertSame(codec.reader(type), codec.reader(type));
+            assertSame(codec.writer(type), codec.writer(type));
+        }
+    }
+
+    @Test
+    @DisplayName("Benchmark: Serialisieren + Deserialisieren je Nachrichtentyp (vorher/nachher)")
+    void testThroughputBenchmark() throws Exception {
+        int iterations = Integer.getInteger("plsbl.benchmark.iterations", 20000);
+        ObjectMapper legacy = legacyMapper();
+
+        for (Object message : samples()) {
+            Class<?> type = message.getClass();
+            int length = codec.writeString(message).length();
+
+            // Aufwaermen (JIT)
+            runLegacy(legacy, message, type, Math.max(1, iterations / 10));
+            runCodec(message, type, Math.max(1, iterations / 10));
+
+            long start = System.nanoTime();
+            int legacyChecksum = runLegacy(legacy, message, type, iterations);
+            double legacySeconds = (System.nanoTime() - start) / 1e9;
+
+            start = System.nanoTime();
+            int codecChecksum = runCodec(message, type, iterations);
+            double codecSeconds = (System.nanoTime() - start) / 1e9;
+
+            log.info("JSON-Benchmark {} ({} Zeichen): vorher {} Nachr./s, nachher {} Nachr./s (x{})",
+                type.getSimpleName(), length,
+                String.format("%.0f", iterations / legacySeconds),
+                String.format("%.0f", iterations / codecSeconds),
+                String.format("%.2f", legacySeconds / codecSeconds));
+
+            assertEquals(legacyChecksum, codecChecksum, type.getSimpleName());
+        }
+    }
+
+    private static int runLegacy(ObjectMapper mapper, Object message, Class<?> type, int iterations) throws Exception {
+        int checksum = 0;
+        for (int i = 0; i < iterations; i++) {
+            String json = mapper.writeValueAsString(message);
+            Object read = mapper.readValue(json, type);
+            checksum += json.length() + (read != null ? 1 : 0);
+        }
+        return checksum;
+    }
+
+    private int runCodec(Object message, Class<?> type, int iterations) throws Exception {
+        int checksum = 0;
+        for (int i = 0; i < iterations; i++) {
+            String json = codec.writeString(message);
+            Object read = codec.read(json, type);
+            checksum += json.length() + (read != null ? 1 : 0);
+        }
+        return checksum;
+    }
+
+    /**
+     * Bisherige Konfiguration aus KafkaConsumerService/KafkaProducerService
+     */
+    private static ObjectMapper legacyMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        return mapper;
+    }
+
+    private static List<Object> samples() {
+        LocalDateTime time = LocalDateTime.of(2026, 3, 14, 9, 26, 53);
+
+        KafkaCalloffMessage calloff = new KafkaCalloffMessage();
+        calloff.setCalloffNumber("A-2026-0815");
+        calloff.setProductNumber("P-6060-700");
+        calloff.setCustomerNumber("K-10042");
+        calloff.setCustomerName("Strangpresse Nord");
+        calloff.setQuantity(24);
+        calloff.setDeliveryDate(time);
+        calloff.setPriority("HIGH");
+
+        KafkaPickupOrderMessage pickup = new KafkaPickupOrderMessage();
+        pickup.setIngotNumber("B-260314-017");
+        pickup.setProductNumber("P-6060-700");
+        pickup.setLength(6200);
+        pickup.setWidth(820);
+        pickup.setHeight(510);
+        pickup.setWeight(2150);
+        pickup.setHeadSawn(true);
+        pickup.setQuality("A");
+
+        KafkaIngotEventMessage moved = new KafkaIngotEventMessage(KafkaIngotEventMessage.EventType.MOVED, "B-260314-017");
+        moved.setProductNumber("P-6060-700");
+        moved.setFromStockyardNumber("01/05");
+        moved.setToStockyardNumber("12/03");
+        moved.setPilePosition(3);
+        moved.setTimestamp(time);
+        moved.setRotated(Boolean.FALSE);
+
+        KafkaShipmentMessage shipment = new KafkaShipmentMessage();
+        shipment.setShipmentNumber("L-2026-0099");
+        shipment.setCalloffNumber("A-2026-0815");
+        shipment.setCustomerNumber("K-10042");
+        shipment.setTransportNumber("LKW-7");
+        shipment.setCompletedAt(time);
+        for (int i = 0; i < 20; i++) {
+            shipment.addIngot("B-260314-" + (100 + i), "P-6060-700", 2100 + i);
+        }
+
+        KafkaSawFeedbackMessage feedback = KafkaSawFeedbackMessage.ingotStored("B-260314-017", "12/03", 3);
+        feedback.setTimestamp(time);
+
+        return List.of(calloff, pickup, moved, shipment, feedback);
+    }
+}
@@ -0,0 +1,270 @@
+package com.hydro.plsbl.kafka;
+
+import com.hydro.plsbl.kafka.KafkaOutboxRelay.OutboxStats;
+import com.hydro.plsbl.kafka.KafkaOutboxRelay.Transport;
+import com.hydro.plsbl.service.IdAllocator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.jdbc.DataJdbcTest;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration-Test fuer die Kafka-Outbox mit einem In-Memory-Ersatz fuer den Broker
+ *
+ * Ohne Test-Transaktion, damit Commit und Rollback der fachlichen Transaktion wirken.
+ */
+@DataJdbcTest(properties = "spring.datasource.url=jdbc:h2:mem:plsbl_outbox;DB_CLOSE_DELAY=-1;MODE=Oracle")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({KafkaOutboxService.class, IdAllocator.class})
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Kafka-Outbox Tests")
+class KafkaOutboxTest {
+
+    @Autowired
+    private KafkaOutboxService outboxService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private InMemoryKafka kafka;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM TD_KAFKA_OUTBOX");
+        kafka = new InMemoryKafka();
+    }
+
+    @Test
+    @DisplayName("Nur committete Nachrichten werden gesendet, in Reihenfolge")
+    void testCommitAndRollback() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            outboxService.enqueue("ingot-moved", "B1", "{\"n\":1}");
+            outboxService.enqueue("ingot-moved", "B1", "{\"n\":2}");
+        });
+        tx.executeWithoutResult(status -> {
+            outboxService.enqueue("ingot-moved", "B2", "{\"n\":3}");
+            status.setRollbackOnly();
+        });
+
+        KafkaOutboxRelay relay = relay(200, 1000);
+        assertEquals(2, relay.publishPending());
+
+        assertEquals(List.of("{\"n\":1}", "{\"n\":2}"), kafka.messages("ingot-moved"));
+        OutboxStats stats = relay.getStats();
+        assertEquals(0, stats.pending());
+        assertEquals(2, stats.published());
+    }
+
+    @Test
+    @DisplayName("Unabhaengige Nachricht bleibt trotz Rollback erhalten")
+    void testIndependentSurvivesRollback() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            outboxService.enqueue("saw-feedback", "B1", "ok");
+            outboxService.enqueueIndependent("saw-feedback", "B1", "fehler");
+            status.setRollbackOnly();
+        });
+
+        relay(200, 1000).publishPending();
+        assertEquals(List.of("fehler"), kafka.messages("saw-feedback"));
+    }
+
+    @Test
+    @DisplayName("Broker nicht erreichbar: Nachricht bleibt erhalten und wird spaeter gesendet")
+    void testRetryWhenBrokerDown() {
+        outboxService.enqueue("ingot-moved", "B1", "1");
+        outboxService.enqueue("ingot-moved", "B1", "2");
+
+        KafkaOutboxRelay relay = relay(200, 0);
+        kafka.down = true;
+        assertEquals(0, relay.publishPending());
+
+        // Nur die erste Nachricht zaehlt als Fehlversuch, die zweite wartet dahinter
+        OutboxStats stats = relay.getStats();
+        assertEquals(2, stats.pending());
+        assertEquals(1, stats.failedAttempts());
+        assertEquals("Broker nicht erreichbar", stats.lastError());
+        assertEquals(List.of(1, 0), jdbcTemplate.queryForList(
+            "SELECT ATTEMPTS FROM TD_KAFKA_OUTBOX ORDER BY ID", Integer.class));
+
+        kafka.down = false;
+        assertEquals(2, relay.publishPending());
+        assertEquals(List.of("1", "2"), kafka.messages("ingot-moved"));
+        assertEquals(0, relay.getStats().pending());
+    }
+
+    @Test
+    @DisplayName("Wartende Nachricht haelt spaetere Nachrichten desselben Topics zurueck")
+    void testOrderPerTopic() {
+        outboxService.enqueue("ingot-moved", "B1", "A1");
+        KafkaOutboxRelay relay = relay(200, 3_600_000);
+        kafka.downTopics.add("ingot-moved");
+        relay.publishPending();
+
+        outboxService.enqueue("ingot-moved", "B1", "A2");
+        outboxService.enqueue("shipment-completed", "L1", "S1");
+        kafka.downTopics.clear();
+        assertEquals(1, relay.publishPending());
+        assertEquals(List.of("S1"), kafka.messages("shipment-completed"));
+        assertTrue(kafka.messages("ingot-moved").isEmpty(), "A2 darf nicht vor A1 gesendet werden");
+
+        // Backoff abgelaufen
+        jdbcTemplate.update("UPDATE TD_KAFKA_OUTBOX SET NEXT_ATTEMPT = NULL");
+        assertEquals(2, relay.publishPending());
+        assertEquals(List.of("A1", "A2"), kafka.messages("ingot-moved"));
+    }
+
+    @Test
+    @DisplayName("Fehler im Block: spaetere Nachrichten des Topics gelten als nicht gesendet")
+    void testFailureInBlockHoldsBackTopic() {
+        outboxService.enqueue("ingot-moved", "B1", "A1");
+        outboxService.enqueue("ingot-moved", "B1", "A2");
+        outboxService.enqueue("shipment-completed", "L1", "S1");
+        outboxService.enqueue("ingot-moved", "B1", "A3");
+        KafkaOutboxRelay relay = relay(200, 3_600_000);
+        kafka.failPayloads.add("A2");
+
+        // A3 wurde vom Broker angenommen, bleibt aber hinter A2 in der Outbox
+        assertEquals(2, relay.publishPending());
+        assertEquals(List.of("A1", "A3"), kafka.messages("ingot-moved"));
+        assertEquals(List.of("S1"), kafka.messages("shipment-completed"));
+        assertEquals(List.of("A2", "A3"), jdbcTemplate.queryForList(
+            "SELECT PAYLOAD FROM TD_KAFKA_OUTBOX ORDER BY ID", String.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT ATTEMPTS FROM TD_KAFKA_OUTBOX WHERE PAYLOAD = 'A3'", Integer.class));
+        assertEquals(1, relay.getStats().failedAttempts());
+
+        // Nach dem Backoff in der urspruenglichen Reihenfolge erneut
+        kafka.failPayloads.clear();
+        jdbcTemplate.update("UPDATE TD_KAFKA_OUTBOX SET NEXT_ATTEMPT = NULL");
+        assertEquals(2, relay.publishPending());
+        assertEquals(List.of("A1", "A3", "A2", "A3"), kafka.messages("ingot-moved"));
+    }
+
+    @Test
+    @DisplayName("Wartendes Topic blockiert nicht die faelligen Nachrichten anderer Topics")
+    void testDueRowsPerTopic() {
+        outboxService.enqueue("ingot-moved", "B1", "A1");
+        KafkaOutboxRelay relay = relay(2, 3_600_000);
+        kafka.downTopics.add("ingot-moved");
+        relay.publishPending();
+        kafka.downTopics.clear();
+
+        // Aelteste Nachrichten gehoeren zum wartenden Topic, der Block ist trotzdem voll
+        outboxService.enqueue("ingot-moved", "B1", "A2");
+        outboxService.enqueue("ingot-moved", "B1", "A3");
+        outboxService.enqueue("shipment-completed", "L1", "S1");
+        outboxService.enqueue("shipment-completed", "L2", "S2");
+        outboxService.enqueue("shipment-completed", "L3", "S3");
+
+        assertEquals(3, relay.publishPending());
+        assertEquals(List.of("S1", "S2", "S3"), kafka.messages("shipment-completed"));
+        assertTrue(kafka.messages("ingot-moved").isEmpty());
+        assertEquals(3, relay.getStats().pending());
+    }
+
+    @Test
+    @DisplayName("Nach max. Fehlversuchen wird die Nachricht abgelegt, das Topic laeuft weiter")
+    void testParkAfterMaxAttempts() {
+        outboxService.enqueue("ingot-moved", "B1", "A1");
+        outboxService.enqueue("ingot-moved", "B1", "A2");
+        KafkaOutboxRelay relay = relay(200, 0, 3);
+        kafka.failPayloads.add("A1");
+
+        assertEquals(0, relay.publishPending());
+        assertEquals(0, relay.publishPending());
+        assertEquals(0, relay.publishPending(), "Dritter Fehlversuch legt A1 ab");
+        assertEquals(1, relay.publishPending());
+
+        assertEquals(List.of("A2"), kafka.messages("ingot-moved"));
+        OutboxStats stats = relay.getStats();
+        assertEquals(0, stats.pending());
+        assertEquals(1, stats.parked());
+        assertEquals(3, stats.failedAttempts());
+        assertEquals(3, jdbcTemplate.queryForObject(
+            "SELECT ATTEMPTS FROM TD_KAFKA_OUTBOX WHERE PARKED_AT IS NOT NULL", Integer.class));
+
+        // Abgelegte Nachricht wird nicht mehr gesendet
+        kafka.failPayloads.clear();
+        assertEquals(0, relay.publishPending());
+        assertEquals(List.of("A2"), kafka.messages("ingot-moved"));
+    }
+
+    @Test
+    @DisplayName("Rueckstand wird in Bloecken mit je einem Flush abgearbeitet")
+    void testBatches() {
+        for (int i = 0; i < 450; i++) {
+            outboxService.enqueue("saw-feedback", "B" + (i % 10), String.valueOf(i));
+        }
+
+        assertEquals(450, relay(200, 1000).publishPending());
+        assertEquals(3, kafka.flushes);
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 450; i++) {
+            expected.add(String.valueOf(i));
+        }
+        assertEquals(expected, kafka.messages("saw-feedback"));
+    }
+
+    private KafkaOutboxRelay relay(int batchSize, long retryBackoffMs) {
+        return relay(batchSize, retryBackoffMs, 20);
+    }
+
+    private KafkaOutboxRelay relay(int batchSize, long retryBackoffMs, int maxAttempts) {
+        return new KafkaOutboxRelay(outboxService, kafka, null, 0, batchSize, 1000,
+            retryBackoffMs, 3_600_000, maxAttempts);
+    }
+
+    /**
+     * Broker-Ersatz: speichert gesendete Nachrichten je Topic, kann ganz, je Topic oder
+     * fuer einzelne Nachrichten ausfallen
+     */
+    private static class InMemoryKafka implements Transport {
+        private final Map<String, List<String>> topics = new LinkedHashMap<>();
+        private final Set<String> downTopics = new HashSet<>();
+        private final Set<String> failPayloads = new HashSet<>();
+        private boolean down;
+        private int flushes;
+
+        @Override
+        public CompletableFuture<?> send(String topic, String key, String payload) {
+            if (down || downTopics.contains(topic) || failPayloads.contains(payload)) {
+                return CompletableFuture.failedFuture(new IllegalStateException("Broker nicht erreichbar"));
+            }
+            topics.computeIfAbsent(topic, t -> new ArrayList<>()).add(payload);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+
+        List<String> messages(String topic) {
+            return topics.getOrDefault(topic, List.of());
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.hydro.plsbl.kafka;
+
+import com.hydro.plsbl.kafka.KeyedBatchProcessor.Failure;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests fuer die Batch-Verarbeitung mit Reihenfolge je Schluessel
+ */
+@DisplayName("KeyedBatchProcessor Tests")
+class KeyedBatchProcessorTest {
+
+    @Test
+    @DisplayName("Reihenfolge je Schluessel bleibt bei paralleler Verarbeitung erhalten")
+    void testOrderPerKey() {
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            records.add(record(i, "K" + (i % 7), "K" + (i % 7) + ":" + i));
+        }
+        Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+
+        try (KeyedBatchProcessor processor = new KeyedBatchProcessor("test", 4)) {
+            List<Failure> failures = processor.process(records,
+                record -> record.value(),
+                value -> value.substring(0, value.indexOf(':')),
+                value -> {
+                    Thread.sleep(1);
+                    seen.computeIfAbsent(value.substring(0, value.indexOf(':')),
+                            k -> Collections.synchronizedList(new ArrayList<>()))
+                        .add(Integer.parseInt(value.substring(value.indexOf(':') + 1)));
+                });
+            assertTrue(failures.isEmpty());
+        }
+
+        assertEquals(7, seen.size());
+        for (List<Integer> sequence : seen.values()) {
+            List<Integer> sorted = new ArrayList<>(sequence);
+            Collections.sort(sorted);
+            assertEquals(sorted, sequence, "Reihenfolge verletzt");
+        }
+        assertEquals(200, seen.values().stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    @DisplayName("Verschiedene Schluessel werden gleichzeitig verarbeitet, hoechstens parallelism")
+    void testConcurrency() {
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            records.add(record(i, "K" + i, "v" + i));
+        }
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+
+        try (KeyedBatchProcessor processor = new KeyedBatchProcessor("test", 3)) {
+            processor.process(records, ConsumerRecord::value, value -> null, value -> {
+                maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                Thread.sleep(20);
+                active.decrementAndGet();
+            });
+        }
+
+        assertTrue(maxActive.get() > 1, "keine parallele Verarbeitung");
+        assertTrue(maxActive.get() <= 3, "zu viele gleichzeitig: " + maxActive.get());
+    }
+
+    @Test
+    @DisplayName("Fehlerhafte Nachrichten werden gemeldet, der Rest wird verarbeitet")
+    void testFailures() {
+        List<ConsumerRecord<String, String>> records = List.of(
+            record(0, "A", "1"),
+            record(1, "A", "kaputt"),
+            record(2, "A", "-3"),
+            record(3, "B", "4"));
+        List<Integer> processed = new CopyOnWriteArrayList<>();
+
+        List<Failure> failures;
+        try (KeyedBatchProcessor processor = new KeyedBatchProcessor("test", 2)) {
+            failures = processor.process(records,
+                record -> Integer.parseInt(record.value()),
+                value -> null,
+                value -> {
+                    if (value < 0) {
+                        throw new IllegalStateException("negativ");
+                    }
+                    processed.add(value);
+                });
+        }
+
+        // Parse-Fehler (Offset 1) und Verarbeitungsfehler (Offset 2) in Empfangsreihenfolge
+        assertEquals(2, failures.size());
+        assertEquals(1, failures.get(0).record().offset());
+        assertInstanceOf(NumberFormatException.class, failures.get(0).error());
+        assertEquals(2, failures.get(1).record().offset());
+        assertEquals("negativ", failures.get(1).error().getMessage());
+        assertEquals(List.of(1, 4), processed.stream().sorted().toList());
+    }
+
+    @Test
+    @DisplayName("Nach einem Fehler werden die folgenden Nachrichten des Schluessels nicht verarbeitet")
+    void testFailureStopsKeyGroup() {
+        List<ConsumerRecord<String, String>> records = List.of(
+            record(0, "A", "A:1"),
+            record(1, "B", "B:1"),
+            record(2, "A", "A:fehler"),
+            record(3, "B", "B:2"),
+            record(4, "A", "A:3"),
+            record(5, "A", "A:4"));
+        List<String> processed = new CopyOnWriteArrayList<>();
+
+        List<Failure> failures;
+        try (KeyedBatchProcessor processor = new KeyedBatchProcessor("test", 2)) {
+            failures = processor.process(records,
+                ConsumerRecord::value,
+                value -> value.substring(0, value.indexOf(':')),
+                value -> {
+                    if (value.endsWith("fehler")) {
+                        throw new IllegalStateException("fehler");
+                    }
+                    processed.add(value);
+                });
+        }
+
+        // A:3 und A:4 wurden nicht angewendet, B ist nicht betroffen
+        assertEquals(List.of("A:1", "B:1", "B:2"), processed.stream().sorted().toList());
+        assertEquals(List.of(2L, 4L, 5L), failures.stream().map(f -> f.record().offset()).toList());
+        assertEquals("fehler", failures.get(0).error().getMessage());
+        assertInstanceOf(IllegalStateException.class, failures.get(1).error());
+        assertTrue(failures.get(1).error().getMessage().contains("Offset 2"));
+    }
+
+    @Test
+    @DisplayName("Parallelitaet 1: Verarbeitung im aufrufenden Thread in Empfangsreihenfolge")
+    void testSequential() {
+        List<ConsumerRecord<String, String>> records = List.of(
+            record(0, "A", "a1"), record(1, "B", "b1"), record(2, "A", "a2"));
+        List<String> order = new ArrayList<>();
+        Thread caller = Thread.currentThread();
+
+        try (KeyedBatchProcessor processor = new KeyedBatchProcessor("test", 1)) {
+            processor.process(records, ConsumerRecord::value, value -> null, value -> {
+                assertSame(caller, Thread.currentThread());
+                order.add(value);
+            });
+        }
+
+        // Gruppen nacheinander: erst alle von A, dann B
+        assertEquals(List.of("a1", "a2", "b1"), order);
+    }
+
+    private static ConsumerRecord<String, String> record(long offset, String key, String value) {
+        return new ConsumerRecord<>("test-topic", 0, offset, key, value);
+    }
+}
@@ -0,0 +1,69 @@
+package com.hydro.plsbl.plc;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-Tests fuer das Latenz-Histogramm der SPS-Anfragen
+ */
+@DisplayName("Latenz-Histogramm Tests")
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Leeres Histogramm liefert Nullwerte")
+    void testEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0.0, histogram.getPercentileMillis(0.99));
+        assertEquals(0.0, histogram.getMeanMillis());
+    }
+
+    @Test
+    @DisplayName("Perzentile liegen innerhalb der Bucket-Genauigkeit")
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        // 98x 1 ms, 2x 100 ms
+        for (int i = 0; i < 98; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(100));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(100));
+
+        assertEquals(100, histogram.getCount());
+        double p50 = histogram.getPercentileMillis(0.5);
+        assertTrue(p50 >= 1.0 && p50 <= 1.2, "p50 sollte ca. 1 ms sein: " + p50);
+        double p99 = histogram.getPercentileMillis(0.99);
+        assertTrue(p99 >= 83.0 && p99 <= 100.0, "p99 sollte ca. 100 ms sein: " + p99);
+        assertEquals(100.0, histogram.getMaxMillis(), 0.001);
+        assertEquals(2.98, histogram.getMeanMillis(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Sehr kurze und sehr lange Dauern landen im ersten bzw. letzten Bucket")
+    void testOutOfRange() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1);
+        histogram.record(TimeUnit.MINUTES.toNanos(5));
+
+        assertEquals(2, histogram.getCount());
+        assertTrue(histogram.getPercentileMillis(0.5) <= 0.01);
+        assertEquals(TimeUnit.MINUTES.toMillis(5), histogram.getPercentileMillis(1.0), 0.001);
+    }
+
+    @Test
+    @DisplayName("Reset setzt alle Werte zurueck")
+    void testReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(5));
+
+        histogram.reset();
+
+        assertEquals(0, histogram.snapshot().count());
+        assertEquals(0.0, histogram.getMaxMillis());
+    }
+}
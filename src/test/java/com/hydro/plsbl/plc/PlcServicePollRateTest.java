@@ -0,0 +1,88 @@
+package com.hydro.plsbl.plc;
+
+import com.hydro.plsbl.plc.dto.PlcCommand;
+import com.hydro.plsbl.service.SettingsService;
+import com.hydro.plsbl.service.TransportDispatchQueue;
+import com.hydro.plsbl.simulator.CraneSimulatorConfig;
+import com.hydro.plsbl.simulator.CraneSimulatorService;
+import com.hydro.plsbl.simulator.SimulationClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests fuer das adaptive Polling des PlcService (Simulator, virtuelle Zeit)
+ */
+@DisplayName("SPS adaptives Polling Tests")
+class PlcServicePollRateTest {
+
+    private static final long FAST_MS = 100;
+    private static final long NORMAL_MS = 500;
+    private static final long IDLE_MS = 2000;
+
+    private SimulationClock clock;
+    private CraneSimulatorService simulator;
+    private PlcService plcService;
+
+    @BeforeEach
+    void setUp() {
+        clock = SimulationClock.virtual(1_700_000_000_000L);
+        simulator = new CraneSimulatorService(new CraneSimulatorConfig(), clock);
+        SettingsService settings = new SettingsService(null) {
+            @Override
+            public boolean isSpsEnabled() {
+                return false;
+            }
+        };
+        plcService = new PlcService(settings, simulator, new TransportDispatchQueue(null, clock), clock,
+            5, FAST_MS, NORMAL_MS, IDLE_MS);
+        simulator.start();
+        plcService.init();
+        plcService.pollStatus();
+    }
+
+    @Test
+    @DisplayName("Ruhender Kran ohne Auftraege: langsamste Stufe")
+    void testIdleRate() {
+        plcService.pollTick();
+
+        assertEquals(PlcService.PollRate.IDLE, plcService.getPollRate());
+        long reads = plcService.getStatusReadCount();
+        clock.advance(IDLE_MS - 1);
+        plcService.pollTick();
+        assertEquals(reads, plcService.getStatusReadCount(), "Vor Ablauf des Intervalls wird nicht gelesen");
+    }
+
+    @Test
+    @DisplayName("Kommando waehrend des Takts: schnelles Polling wird nicht ueberschrieben")
+    void testFastRequestDuringTick() {
+        AtomicBoolean sent = new AtomicBoolean();
+        plcService.addStatusChangeListener(change -> {
+            if (sent.compareAndSet(false, true)) {
+                try {
+                    plcService.sendCommand(PlcCommand.builder()
+                        .pickupPosition(10000, 10000, 2000)
+                        .releasePosition(20000, 10000, 2000)
+                        .build());
+                } catch (PlcException e) {
+                    fail(e);
+                }
+            }
+        });
+        // Statusaenderung loest den Listener innerhalb von pollTick aus; selectPollRate sieht danach
+        // nur das offene Tor (NORMAL), nicht das gerade gesendete Kommando
+        simulator.setDoor1Open(true);
+
+        plcService.pollTick();
+
+        assertTrue(sent.get(), "Listener wurde im Takt aufgerufen");
+        assertEquals(PlcService.PollRate.FAST, plcService.getPollRate());
+        long reads = plcService.getStatusReadCount();
+        plcService.pollTick();
+        assertEquals(reads + 1, plcService.getStatusReadCount(), "Naechster Takt liest sofort");
+    }
+}
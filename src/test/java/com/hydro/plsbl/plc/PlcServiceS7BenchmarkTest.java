@@ -0,0 +1,172 @@
+package com.hydro.plsbl.plc;
+
+import com.hydro.plsbl.plc.dto.CraneMode;
+import com.hydro.plsbl.plc.dto.GripperState;
+import com.hydro.plsbl.plc.dto.JobState;
+import com.hydro.plsbl.plc.dto.PlcCommand;
+import com.hydro.plsbl.plc.dto.PlcStatus;
+import com.hydro.plsbl.service.SettingsService;
+import com.hydro.plsbl.service.TransportDispatchQueue;
+import com.hydro.plsbl.simulator.CraneSimulatorConfig;
+import com.hydro.plsbl.simulator.CraneSimulatorService;
+import com.hydro.plsbl.simulator.FakeS7Plc;
+import com.hydro.plsbl.simulator.SimulationClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * End-to-End-Tests und Latenz-Benchmark fuer PlcService ueber den echten PLC4X-S7-Pfad
+ *
+ * Die Gegenstelle ist die S7-Attrappe (FakeS7Plc) auf Basis des Kran-Simulators.
+ * Anzahl der Benchmark-Zyklen: -Dplsbl.benchmark.cycles=... (Standard 100, damit der
+ * normale Testlauf kurz bleibt; fuer belastbare p99-Werte z.B. 2000)
+ */
+@DisplayName("PlcService ueber S7-Attrappe Tests")
+class PlcServiceS7BenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PlcServiceS7BenchmarkTest.class);
+
+    private CraneSimulatorService simulator;
+    private FakeS7Plc fakePlc;
+    private PlcService plcService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        CraneSimulatorConfig config = new CraneSimulatorConfig();
+        SimulationClock clock = SimulationClock.realTime();
+        simulator = new CraneSimulatorService(config, clock);
+        simulator.start();
+        fakePlc = new FakeS7Plc(simulator, 0);
+        fakePlc.start();
+
+        String url = fakePlc.getConnectionUrl();
+        SettingsService settings = new SettingsService(null) {
+            @Override
+            public boolean isSpsEnabled() {
+                return true;
+            }
+
+            @Override
+            public String getSpsUrl() {
+                return url;
+            }
+
+            @Override
+            public int getSpsTimeout() {
+                return 5;
+            }
+
+            @Override
+            public int getSpsRetryCount() {
+                return 3;
+            }
+        };
+        // Eigener, nicht gestarteter Simulator: kein Rueckfall auf den Simulator-Pfad
+        plcService = new PlcService(settings, new CraneSimulatorService(config, clock),
+            new TransportDispatchQueue(null, clock), clock, 5, 100, 500, 2000);
+        plcService.connect();
+        assertTrue(plcService.isConnected(), "Verbindung zur S7-Attrappe: " + url);
+    }
+
+    @AfterEach
+    void tearDown() {
+        plcService.shutdown();
+        fakePlc.stop();
+        simulator.stop();
+    }
+
+    @Test
+    @DisplayName("Status ueber S7 entspricht dem Simulator")
+    void testReadStatus() throws Exception {
+        PlcStatus status = plcService.readStatus();
+
+        int[] position = simulator.getPosition();
+        assertEquals(position[0], status.getXPosition());
+        assertEquals(position[1], status.getYPosition());
+        assertEquals(position[2], status.getZPosition());
+        assertEquals(CraneMode.AUTOMATIC, status.getCraneMode());
+        assertEquals(GripperState.OPEN, status.getGripperState());
+        assertEquals(JobState.IDLE, status.getJobState());
+        assertFalse(status.anyDoorOpen());
+    }
+
+    @Test
+    @DisplayName("Tuer-Bits werden wie an der echten SPS dekodiert")
+    void testDoorBits() throws Exception {
+        simulator.setDoor7Open(true);
+        simulator.setGatesOpen(true);
+
+        PlcStatus status = plcService.readStatus();
+
+        assertTrue(status.isDoor7Open());
+        assertTrue(status.isGatesOpen());
+        assertFalse(status.isDoor1Open());
+        assertFalse(status.isDoor10Open());
+        assertFalse(status.isDoorsOpen());
+    }
+
+    @Test
+    @DisplayName("Kommando mit Trigger erreicht den Simulator, Abbruch setzt ihn zurueck")
+    void testCommandHandshake() throws Exception {
+        plcService.sendCommand(command(40000, 20000, 1500));
+
+        assertEquals(1, fakePlc.getCommandCount());
+        assertEquals(com.hydro.plsbl.simulator.JobState.STARTED, simulator.getJobState());
+        PlcStatus status = plcService.readStatus();
+        assertEquals(JobState.STARTED, status.getJobState());
+        assertEquals(1, status.getJobNumber());
+
+        plcService.abort();
+
+        assertEquals(2, fakePlc.getCommandCount());
+        assertEquals(JobState.IDLE, plcService.readStatus().getJobState());
+    }
+
+    @Test
+    @DisplayName("Benchmark: Lese-/Schreibzyklen ueber den echten SPS-Pfad (p50/p99)")
+    void testLatencyBenchmark() throws Exception {
+        int cycles = Integer.getInteger("plsbl.benchmark.cycles", 100);
+
+        // Aufwaermen (Verbindung, JIT)
+        for (int i = 0; i < Math.min(100, cycles); i++) {
+            plcService.readStatus();
+        }
+        long readsBefore = plcService.getReadLatency().count();
+        long writesBefore = plcService.getWriteLatency().count();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < cycles; i++) {
+            plcService.readStatus();
+            plcService.sendCommand(i % 2 == 0 ? command(30000 + i, 20000, 1500) : PlcCommand.abort());
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        LatencyHistogram.Snapshot reads = plcService.getReadLatency();
+        LatencyHistogram.Snapshot writes = plcService.getWriteLatency();
+        log.info("S7-Benchmark: {} Zyklen in {} s ({} Zyklen/s)", cycles,
+            String.format("%.2f", seconds), String.format("%.0f", cycles / seconds));
+        log.info("S7-Benchmark Lesen:     {}", reads);
+        log.info("S7-Benchmark Schreiben: {}", writes);
+
+        assertEquals(cycles, reads.count() - readsBefore);
+        assertEquals(cycles, writes.count() - writesBefore);
+        assertEquals(cycles, fakePlc.getCommandCount());
+        assertTrue(reads.p50Millis() <= reads.p99Millis());
+        assertTrue(writes.p50Millis() <= writes.p99Millis());
+    }
+
+    private static PlcCommand command(int pickupX, int pickupY, int pickupZ) {
+        return PlcCommand.builder()
+            .pickupPosition(pickupX, pickupY, pickupZ)
+            .releasePosition(60000, 25000, 1500)
+            .dimensions(6000, 800, 500)
+            .weight(2000)
+            .build();
+    }
+}
@@ -0,0 +1,81 @@
+package com.hydro.plsbl.plc;
+
+import com.hydro.plsbl.plc.PlcStatusChange.Field;
+import com.hydro.plsbl.plc.dto.GripperState;
+import com.hydro.plsbl.plc.dto.JobState;
+import com.hydro.plsbl.plc.dto.PlcStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-Tests fuer die Aenderungserkennung der SPS-Status-Pipeline (PlcStatusChange)
+ */
+@DisplayName("SPS-Status Aenderungserkennung Tests")
+class PlcStatusChangeTest {
+
+    private static final int DEAD_BAND = 5;
+
+    private PlcStatus status(int x, int y, int z) {
+        PlcStatus status = new PlcStatus();
+        status.setXPosition(x);
+        status.setYPosition(y);
+        status.setZPosition(z);
+        return status;
+    }
+
+    @Test
+    @DisplayName("Erster Status meldet alle Felder als geaendert")
+    void testFirstStatus() {
+        assertEquals(EnumSet.allOf(Field.class), PlcStatusChange.diff(null, status(0, 0, 0), DEAD_BAND));
+    }
+
+    @Test
+    @DisplayName("Unveraenderter Status meldet keine Aenderung")
+    void testUnchanged() {
+        assertTrue(PlcStatusChange.diff(status(1000, 2000, 3000), status(1000, 2000, 3000), DEAD_BAND).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Positionsrauschen innerhalb des Totbands wird ignoriert")
+    void testDeadBand() {
+        PlcStatus previous = status(1000, 2000, 3000);
+
+        assertTrue(PlcStatusChange.diff(previous, status(1005, 1995, 3003), DEAD_BAND).isEmpty());
+        assertEquals(Set.of(Field.POSITION), PlcStatusChange.diff(previous, status(1006, 2000, 3000), DEAD_BAND));
+    }
+
+    @Test
+    @DisplayName("Greifer, Job-Status und Tueren werden einzeln erkannt")
+    void testFieldChanges() {
+        PlcStatus previous = status(0, 0, 0);
+        PlcStatus current = status(0, 0, 0);
+        current.setGripperState(GripperState.LOADED);
+        current.setJobState(JobState.LOADED);
+        current.setDoor7Open(true);
+
+        Set<Field> changes = PlcStatusChange.diff(previous, current, DEAD_BAND);
+
+        assertEquals(Set.of(Field.GRIPPER, Field.JOB_STATE, Field.DOORS), changes);
+        PlcStatusChange change = new PlcStatusChange(previous, current, changes);
+        assertTrue(change.affects(Field.WORK_PHASE, Field.JOB_STATE));
+        assertFalse(change.affects(Field.POSITION, Field.ERRORS));
+    }
+
+    @Test
+    @DisplayName("Eingefrorener Status ist unveraenderlich, Kopie ist veraenderbar")
+    void testFreeze() {
+        PlcStatus frozen = status(1, 2, 3).freeze();
+
+        assertThrows(UnsupportedOperationException.class, () -> frozen.setXPosition(10));
+
+        PlcStatus copy = frozen.clone();
+        copy.setXPosition(10);
+        assertEquals(10, copy.getXPosition());
+        assertEquals(1, frozen.getXPosition());
+    }
+}
@@ -0,0 +1,169 @@
+package com.hydro.plsbl.service;
+
+import com.hydro.plsbl.service.CraneJobSequencer.Position;
+import com.hydro.plsbl.service.TransportDispatchQueue.QueuedOrder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-Tests fuer die Kran-Auftragsreihenfolge (CraneJobSequencer).
+ *
+ * Achsgeschwindigkeiten wie in application.properties:
+ * X = 1000mm / 500ms = 2000 mm/s, Y = 500mm / 500ms = 1000 mm/s.
+ */
+@DisplayName("Kran-Auftragsreihenfolge Tests")
+class CraneJobSequencerTest {
+
+    private static final double SPEED_X = 2000;
+    private static final double SPEED_Y = 1000;
+    private static final long NOW = 1_000_000_000L;
+
+    private CraneJobSequencer sequencer;
+    private Map<Long, Position> yards;
+
+    @BeforeEach
+    void setUp() {
+        sequencer = new CraneJobSequencer(SPEED_X, SPEED_Y, 60, 0.02, 900);
+        yards = new HashMap<>();
+        yards.put(1L, new Position(51000, 30000));  // weit entfernt
+        yards.put(2L, new Position(4000, 3000));    // nahe am Kran
+        yards.put(3L, new Position(27000, 18000));  // Mitte
+    }
+
+    @Test
+    @DisplayName("Fahrzeit wird durch die langsamere Achse bestimmt")
+    void testTravelSeconds() {
+        // 10m in X (5s) und 4m in Y (4s) -> 5s
+        assertEquals(5.0, sequencer.travelSeconds(new Position(0, 0), new Position(10000, 4000)), 0.001);
+        // 2m in X (1s) und 6m in Y (6s) -> 6s
+        assertEquals(6.0, sequencer.travelSeconds(new Position(0, 0), new Position(2000, 6000)), 0.001);
+    }
+
+    @Test
+    @DisplayName("Naechster Abholplatz wird vor dem Kopf der Warteschlange gewaehlt")
+    void testNearestWins() {
+        List<QueuedOrder> queue = List.of(
+            new QueuedOrder(10, 0, 1L, NOW),
+            new QueuedOrder(11, 0, 3L, NOW),
+            new QueuedOrder(12, 0, 2L, NOW));
+
+        QueuedOrder selected = sequencer.select(queue, new Position(3000, 3000), yards::get, NOW).orElseThrow();
+
+        assertEquals(12, selected.orderId());
+    }
+
+    @Test
+    @DisplayName("Hoehere Prioritaet wiegt laengere Leerfahrt auf")
+    void testPriorityOutweighsDistance() {
+        List<QueuedOrder> queue = List.of(
+            new QueuedOrder(10, 1, 1L, NOW),
+            new QueuedOrder(12, 0, 2L, NOW));
+
+        // Leerfahrt zu Platz 1: max(48s, 27s) = 48s < 60s Prioritaets-Bonus
+        QueuedOrder selected = sequencer.select(queue, new Position(3000, 3000), yards::get, NOW).orElseThrow();
+
+        assertEquals(10, selected.orderId());
+    }
+
+    @Test
+    @DisplayName("Lange wartender Auftrag wird trotz weiter Leerfahrt vergeben")
+    void testStarvationProtection() {
+        List<QueuedOrder> queue = List.of(
+            new QueuedOrder(10, 0, 1L, NOW - 901_000),
+            new QueuedOrder(12, 0, 2L, NOW));
+
+        QueuedOrder selected = sequencer.select(queue, new Position(3000, 3000), yards::get, NOW).orElseThrow();
+
+        assertEquals(10, selected.orderId());
+    }
+
+    @Test
+    @DisplayName("Ohne Kran-Position wird in Warteschlangen-Reihenfolge vergeben")
+    void testUnknownCranePositionFallsBackToFifo() {
+        List<QueuedOrder> queue = List.of(
+            new QueuedOrder(10, 0, 1L, NOW),
+            new QueuedOrder(12, 0, 2L, NOW));
+
+        assertEquals(10, sequencer.select(queue, null, yards::get, NOW).orElseThrow().orderId());
+        assertTrue(sequencer.select(List.of(), new Position(0, 0), yards::get, NOW).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Minimale Leerfahrt erhoeht den Durchsatz gegenueber FIFO")
+    void testThroughputGain() {
+        Random random = new Random(42);
+
+        // Lager-Raster wie im Simulator: X=3000-51000, Y=3000-30000
+        Map<Long, Position> grid = new HashMap<>();
+        long id = 1;
+        for (int x = 3000; x <= 51000; x += 3000) {
+            for (int y = 3000; y <= 30000; y += 3000) {
+                grid.put(id++, new Position(x, y));
+            }
+        }
+        List<long[]> jobs = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            long from = 1 + random.nextInt(grid.size());
+            long to = 1 + random.nextInt(grid.size());
+            jobs.add(new long[] {from, to});
+        }
+
+        double fifo = simulateJobsPerHour(jobs, grid, false);
+        double nearest = simulateJobsPerHour(jobs, grid, true);
+
+        assertTrue(nearest > fifo * 1.10,
+            String.format("Erwartet >10%% Gewinn: FIFO %.1f Jobs/h, NEAREST %.1f Jobs/h", fifo, nearest));
+    }
+
+    /**
+     * Spielt die Auftraege mit konstant 15 wartenden Auftraegen ab und liefert Jobs/Stunde
+     */
+    private double simulateJobsPerHour(List<long[]> jobs, Map<Long, Position> grid, boolean nearest) {
+        final int pending = 15;
+        final double handlingSeconds = 20;   // Absenken, Greifen, Heben, Ablegen
+
+        Map<Long, long[]> byOrderId = new HashMap<>();
+        List<QueuedOrder> queue = new ArrayList<>();
+        int next = 0;
+        double clock = 0;
+        Position crane = new Position(27000, 18000);
+
+        int done = 0;
+        while (done < jobs.size()) {
+            while (queue.size() < pending && next < jobs.size()) {
+                long[] job = jobs.get(next);
+                QueuedOrder order = new QueuedOrder(next, 0, job[0], NOW + (long) (clock * 1000));
+                byOrderId.put(order.orderId(), job);
+                queue.add(order);
+                next++;
+            }
+            queue.sort(Comparator.comparingLong(QueuedOrder::orderId));
+
+            long now = NOW + (long) (clock * 1000);
+            QueuedOrder selected = nearest
+                ? sequencer.select(queue, crane, grid::get, now).orElseThrow()
+                : queue.get(0);
+            queue.remove(selected);
+
+            long[] job = byOrderId.get(selected.orderId());
+            Position pickup = grid.get(job[0]);
+            Position release = grid.get(job[1]);
+            clock += sequencer.travelSeconds(crane, pickup)
+                + sequencer.travelSeconds(pickup, release)
+                + handlingSeconds;
+            crane = release;
+            done++;
+        }
+        return done * 3600 / clock;
+    }
+}
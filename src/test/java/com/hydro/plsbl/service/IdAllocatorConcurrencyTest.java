@@ -0,0 +1,166 @@
+package com.hydro.plsbl.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.jdbc.DataJdbcTest;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration-Test fuer die ID-Vergabe (IdAllocator).
+ *
+ * Viele Threads vergeben gleichzeitig IDs und fuegen sie in eine Tabelle mit
+ * Primaerschluessel ein - es darf keine Schluesselverletzung auftreten.
+ * Die Sequenzen werden wie beim Start ausserhalb der Vergabe vorbereitet.
+ *
+ * Eigene H2-Datenbank und ohne Test-Transaktion, da die Threads eigene Verbindungen nutzen.
+ */
+@DataJdbcTest(properties = "spring.datasource.url=jdbc:h2:mem:plsbl_ids;DB_CLOSE_DELAY=-1;MODE=Oracle")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(IdAllocator.class)
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("ID-Vergabe Nebenlaeufigkeit Tests")
+class IdAllocatorConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int INSERTS_PER_THREAD = 50;
+
+    @Autowired
+    private IdAllocator idAllocator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("CREATE TABLE TEST_ID_ALLOC (ID NUMBER PRIMARY KEY, TABLESERIAL NUMBER UNIQUE)");
+        // Vorhandene Daten: Vergabe muss dahinter beginnen
+        jdbcTemplate.update("INSERT INTO TEST_ID_ALLOC (ID, TABLESERIAL) VALUES (100, 7)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE TEST_ID_ALLOC");
+        jdbcTemplate.execute("DROP SEQUENCE IF EXISTS SEQ_TEST_ID_ALLOC_ID");
+        jdbcTemplate.execute("DROP SEQUENCE IF EXISTS SEQ_TEST_ID_ALLOC_TS");
+    }
+
+    @Test
+    @DisplayName("Parallele Einfuegungen erhalten eindeutige IDs")
+    void testParallelInserts() throws Exception {
+        idAllocator.prepareTable("TEST_ID_ALLOC", true);
+
+        List<Long> ids = runParallel(() -> {
+            long id = idAllocator.nextId("TEST_ID_ALLOC");
+            long serial = idAllocator.nextTableSerial("TEST_ID_ALLOC");
+            jdbcTemplate.update("INSERT INTO TEST_ID_ALLOC (ID, TABLESERIAL) VALUES (?, ?)", id, serial);
+            return id;
+        });
+
+        assertEquals(THREADS * INSERTS_PER_THREAD, new HashSet<>(ids).size(), "Doppelte IDs vergeben");
+        assertTrue(ids.stream().allMatch(id -> id > 100), "IDs muessen hinter den vorhandenen Daten liegen");
+
+        Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM TEST_ID_ALLOC", Integer.class);
+        assertEquals(THREADS * INSERTS_PER_THREAD + 1, rows);
+    }
+
+    @Test
+    @DisplayName("Parallele Transportnummern sind eindeutig und fortlaufend")
+    void testParallelTransportNumbers() throws Exception {
+        String yearPrefix = "TX" + String.format("%02d", LocalDate.now().getYear() % 100) + "-";
+        idAllocator.prepareTransportNumbers("TX", LocalDate.now().getYear());
+
+        List<String> numbers = runParallel(() -> idAllocator.nextTransportNo("TX"));
+
+        Set<String> unique = new HashSet<>(numbers);
+        assertEquals(THREADS * INSERTS_PER_THREAD, unique.size(), "Doppelte Transportnummern vergeben");
+        for (int i = 1; i <= THREADS * INSERTS_PER_THREAD; i++) {
+            assertTrue(unique.contains(yearPrefix + String.format("%04d", i)), "Nummer " + i + " fehlt");
+        }
+        jdbcTemplate.execute("DROP SEQUENCE IF EXISTS SEQ_TNO_" + yearPrefix.substring(0, 4));
+    }
+
+    @Test
+    @DisplayName("Vergabe legt keine Sequenz an, Ausweichen auf MAX + 1 vergibt trotzdem eindeutig")
+    void testNoDdlAndFallbackWithoutSequence() throws Exception {
+        // Ohne Vorbereitung: kein CREATE SEQUENCE in der Vergabe (wuerde die Transaktion committen)
+        List<Long> ids = runParallel(() -> idAllocator.nextId("TEST_ID_ALLOC"));
+
+        assertEquals(0, sequenceCount("SEQ_TEST_ID_ALLOC_ID"));
+        assertEquals(THREADS * INSERTS_PER_THREAD, new HashSet<>(ids).size(),
+            "Ohne Einfuegung darf MAX + 1 nicht zweimal denselben Wert liefern");
+        assertTrue(ids.stream().allMatch(id -> id > 100));
+
+        // Nachtraeglich vorbereitet: Sequenz beginnt hinter den bereits vergebenen Werten
+        idAllocator.prepareTable("TEST_ID_ALLOC", false);
+        assertEquals(1, sequenceCount("SEQ_TEST_ID_ALLOC_ID"));
+        long next = idAllocator.nextId("TEST_ID_ALLOC");
+        assertTrue(next > ids.stream().mapToLong(Long::longValue).max().orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Sequenz hinter den Daten wird vorgestellt statt neu angelegt")
+    void testSequenceBehindData() {
+        idAllocator.prepareTable("TEST_ID_ALLOC", false);
+        jdbcTemplate.update("INSERT INTO TEST_ID_ALLOC (ID, TABLESERIAL) VALUES (5000, 8)");
+
+        idAllocator.prepareTable("TEST_ID_ALLOC", false);
+
+        assertTrue(idAllocator.nextId("TEST_ID_ALLOC") > 5000);
+        assertEquals(1, sequenceCount("SEQ_TEST_ID_ALLOC_ID"));
+    }
+
+    private int sequenceCount(String sequence) {
+        return jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = ?", Integer.class, sequence);
+    }
+
+    private <T> List<T> runParallel(Callable<T> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<List<T>>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    List<T> results = new ArrayList<>();
+                    for (int i = 0; i < INSERTS_PER_THREAD; i++) {
+                        results.add(task.call());
+                    }
+                    return results;
+                }));
+            }
+            start.countDown();
+
+            List<T> all = new ArrayList<>();
+            for (Future<List<T>> future : futures) {
+                all.addAll(future.get(30, TimeUnit.SECONDS));
+            }
+            return all;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.hydro.plsbl.service;
+
+import com.hydro.plsbl.entity.masterdata.IngotType;
+import com.hydro.plsbl.service.IngotTypeClassifier.Dimensions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests und Durchsatz-Benchmark fuer die vorkompilierte Barrentyp-Erkennung
+ *
+ * Vergleicht den bisherigen Weg (lineare Suche, Pattern.compile je Pruefung) mit dem
+ * IngotTypeClassifier - das Ergebnis muss fuer beliebige Barren identisch sein.
+ * Anzahl der Benchmark-Durchlaeufe: -Dplsbl.benchmark.iterations=... (Standard 200000)
+ */
+@DisplayName("IngotTypeClassifier Tests")
+class IngotTypeClassifierBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(IngotTypeClassifierBenchmarkTest.class);
+
+    @Test
+    @DisplayName("Zufaellige Barren: gleiches Ergebnis wie die bisherige lineare Suche")
+    void testSameAsLinearScan() {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            List<IngotType> types = randomTypes(random, 3 + random.nextInt(15));
+            IngotTypeClassifier classifier = IngotTypeClassifier.of(types);
+
+            for (Dimensions ingot : randomIngots(random, 2000)) {
+                Optional<IngotType> expected = legacyDetermine(types, ingot);
+                Optional<IngotType> actual = classifier.classify(ingot);
+                assertEquals(expected.map(IngotType::getName), actual.map(IngotType::getName), ingot.toString());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Offene Grenzen, Extremwerte, leere Typ-Liste und ungueltige Regex")
+    void testEdgeCases() {
+        IngotType open = type("OFFEN", null, null);
+        IngotType invalid = type("UNGUELTIG", 1000, 2000);
+        invalid.setProductRegex("P-[");
+        IngotType inverted = type("VERDREHT", 5000, 4000);
+        IngotTypeClassifier classifier = IngotTypeClassifier.of(List.of(inverted, invalid, open));
+
+        assertEquals("UNGUELTIG", classifier.classify(1500, null, null, null, "X").orElseThrow().getName());
+        assertEquals("OFFEN", classifier.classify(Integer.MAX_VALUE, null, null, null, null).orElseThrow().getName());
+        assertEquals("OFFEN", classifier.classify(Integer.MIN_VALUE, null, null, null, null).orElseThrow().getName());
+        assertEquals("OFFEN", classifier.classify(4500, null, null, null, null).orElseThrow().getName());
+        // Ohne Laenge wird die Laenge nicht geprueft - erster Typ gewinnt
+        assertEquals("VERDREHT", classifier.classify(null, null, null, null, null).orElseThrow().getName());
+
+        assertTrue(IngotTypeClassifier.of(List.of()).classify(4000, 100, 100, 100, "P").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Stapel-Erkennung liefert dieselben Typen in gleicher Reihenfolge")
+    void testClassifyAll() {
+        Random random = new Random(7);
+        List<IngotType> types = randomTypes(random, 10);
+        IngotTypeClassifier classifier = IngotTypeClassifier.of(types);
+        List<Dimensions> ingots = randomIngots(random, 500);
+
+        List<Optional<IngotType>> batch = classifier.classifyAll(ingots);
+
+        assertEquals(ingots.size(), batch.size());
+        for (int i = 0; i < ingots.size(); i++) {
+            assertEquals(classifier.classify(ingots.get(i)), batch.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Benchmark: Barrentyp-Erkennung lineare Suche vs. Klassifikator (vorher/nachher)")
+    void testThroughputBenchmark() {
+        int iterations = Integer.getInteger("plsbl.benchmark.iterations", 200000);
+        Random random = new Random(1);
+        List<IngotType> types = randomTypes(random, 12);
+        List<Dimensions> ingots = randomIngots(random, 1000);
+
+        // Aufwaermen (JIT)
+        runLegacy(types, ingots, Math.max(1, iterations / 10));
+        runClassifier(types, ingots, Math.max(1, iterations / 10));
+
+        long start = System.nanoTime();
+        int legacyChecksum = runLegacy(types, ingots, iterations);
+        double legacySeconds = (System.nanoTime() - start) / 1e9;
+
+        start = System.nanoTime();
+        int classifierChecksum = runClassifier(types, ingots, iterations);
+        double classifierSeconds = (System.nanoTime() - start) / 1e9;
+
+        log.info("Barrentyp-Benchmark ({} Typen): vorher {} Barren/s, nachher {} Barren/s (x{})",
+            types.size(),
+            String.format("%.0f", iterations / legacySeconds),
+            String.format("%.0f", iterations / classifierSeconds),
+            String.format("%.2f", legacySeconds / classifierSeconds));
+
+        assertEquals(legacyChecksum, classifierChecksum);
+    }
+
+    private static int runLegacy(List<IngotType> types, List<Dimensions> ingots, int iterations) {
+        int checksum = 0;
+        for (int i = 0; i < iterations; i++) {
+            checksum += legacyDetermine(types, ingots.get(i % ingots.size())).map(t -> t.getId().intValue()).orElse(-1);
+        }
+        return checksum;
+    }
+
+    private static int runClassifier(List<IngotType> types, List<Dimensions> ingots, int iterations) {
+        // Aufbau gehoert zum Messwert (einmal je Stand von MD_INGOTTYPE)
+        IngotTypeClassifier classifier = IngotTypeClassifier.of(types);
+        int checksum = 0;
+        for (int i = 0; i < iterations; i++) {
+            checksum += classifier.classify(ingots.get(i % ingots.size())).map(t -> t.getId().intValue()).orElse(-1);
+        }
+        return checksum;
+    }
+
+    /**
+     * Bisherige Logik aus IngotTypeService.determineIngotType()/matches()
+     */
+    private static Optional<IngotType> legacyDetermine(List<IngotType> types, Dimensions ingot) {
+        for (IngotType type : types) {
+            if (legacyMatches(type, ingot.length(), ingot.width(), ingot.thickness(), ingot.weight(), ingot.productNo())) {
+                return Optional.of(type);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static boolean legacyMatches(IngotType type, Integer length, Integer width, Integer thickness,
+                                         Integer weight, String productNo) {
+        if (length != null) {
+            if (type.getMinLength() != null && length < type.getMinLength()) return false;
+            if (type.getMaxLength() != null && length > type.getMaxLength()) return false;
+        }
+        if (width != null) {
+            if (type.getMinWidth() != null && width < type.getMinWidth()) return false;
+            if (type.getMaxWidth() != null && width > type.getMaxWidth()) return false;
+        }
+        if (thickness != null) {
+            if (type.getMinThickness() != null && thickness < type.getMinThickness()) return false;
+            if (type.getMaxThickness() != null && thickness > type.getMaxThickness()) return false;
+        }
+        if (weight != null) {
+            if (type.getMinWeight() != null && weight < type.getMinWeight()) return false;
+            if (type.getMaxWeight() != null && weight > type.getMaxWeight()) return false;
+        }
+        if (productNo != null && type.getProductRegex() != null && !type.getProductRegex().isEmpty()) {
+            try {
+                if (!Pattern.compile(type.getProductRegex()).matcher(productNo).matches()) return false;
+            } catch (Exception e) {
+                // ungueltige Regex - keine Pruefung
+            }
+        }
+        return true;
+    }
+
+    private static IngotType type(String name, Integer minLength, Integer maxLength) {
+        IngotType type = new IngotType();
+        type.setId((long) name.hashCode() & 0xFFFF);
+        type.setName(name);
+        type.setMinLength(minLength);
+        type.setMaxLength(maxLength);
+        return type;
+    }
+
+    private static final String[] REGEXES = {null, "", "P-6060-.*", "P-60\\d{2}-\\d+", "P-[", "X.*"};
+
+    private static List<IngotType> randomTypes(Random random, int count) {
+        List<IngotType> types = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int minLength = 3000 + random.nextInt(5000);
+            IngotType type = type("TYP_" + i,
+                random.nextInt(8) == 0 ? null : minLength,
+                random.nextInt(8) == 0 ? null : minLength + random.nextInt(2500));
+            type.setId((long) i + 1);
+            if (random.nextBoolean()) {
+                type.setMinWidth(700 + random.nextInt(100));
+                type.setMaxWidth(800 + random.nextInt(100));
+            }
+            if (random.nextInt(3) == 0) {
+                type.setMinThickness(450 + random.nextInt(50));
+                type.setMaxThickness(random.nextBoolean() ? null : 500 + random.nextInt(50));
+            }
+            if (random.nextInt(3) == 0) {
+                type.setMinWeight(random.nextBoolean() ? null : 1500 + random.nextInt(500));
+                type.setMaxWeight(2000 + random.nextInt(800));
+            }
+            type.setProductRegex(REGEXES[random.nextInt(REGEXES.length)]);
+            types.add(type);
+        }
+        return types;
+    }
+
+    private static final String[] PRODUCTS = {null, "P-6060-700", "P-6082-12", "P-7075-1", "X-1"};
+
+    private static List<Dimensions> randomIngots(Random random, int count) {
+        List<Dimensions> ingots = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ingots.add(new Dimensions(
+                random.nextInt(20) == 0 ? null : 2500 + random.nextInt(8500),
+                random.nextInt(4) == 0 ? null : 650 + random.nextInt(300),
+                random.nextInt(4) == 0 ? null : 400 + random.nextInt(200),
+                random.nextInt(4) == 0 ? null : 1200 + random.nextInt(2000),
+                PRODUCTS[random.nextInt(PRODUCTS.length)]));
+        }
+        return ingots;
+    }
+}
@@ -9,14 +9,13 @@ import org.junit.jupiter.api.Test;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
-import java.util.regex.Pattern;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * Unit-Test fuer Barrentyp-Matching Logik.
- * Testet ohne Spring-Kontext, verwendet aber die gleiche Matching-Logik
- * wie IngotTypeService.matches() (Laenge, Breite, Dicke, Gewicht, Produkt-Regex).
+ * Testet ohne Spring-Kontext direkt den IngotTypeClassifier, den auch
+ * IngotTypeService.determineIngotType() verwendet (Laenge, Breite, Dicke, Gewicht, Produkt-Regex).
  */
 @DisplayName("Barrentyp Matching Tests")
 class IngotTypeMatchingTest {
@@ -246,44 +245,10 @@ class IngotTypeMatchingTest {
     }
 
     /**
-     * Matching-Logik analog zu IngotTypeService.matches().
-     * Prueft Laenge, Breite, Dicke, Gewicht und Produkt-Regex.
+     * Barrentyp-Erkennung wie in IngotTypeService.determineIngotType()
      */
     private Optional<IngotType> findMatchingType(Integer length, Integer width, Integer thickness,
                                                   Integer weight, String productNo) {
-        for (IngotType type : barrentypen) {
-            if (matches(type, length, width, thickness, weight, productNo)) {
-                return Optional.of(type);
-            }
-        }
-        return Optional.empty();
-    }
-
-    private boolean matches(IngotType type, Integer length, Integer width, Integer thickness,
-                            Integer weight, String productNo) {
-        if (length != null) {
-            if (type.getMinLength() != null && length < type.getMinLength()) return false;
-            if (type.getMaxLength() != null && length > type.getMaxLength()) return false;
-        }
-        if (width != null) {
-            if (type.getMinWidth() != null && width < type.getMinWidth()) return false;
-            if (type.getMaxWidth() != null && width > type.getMaxWidth()) return false;
-        }
-        if (thickness != null) {
-            if (type.getMinThickness() != null && thickness < type.getMinThickness()) return false;
-            if (type.getMaxThickness() != null && thickness > type.getMaxThickness()) return false;
-        }
-        if (weight != null) {
-            if (type.getMinWeight() != null && weight < type.getMinWeight()) return false;
-            if (type.getMaxWeight() != null && weight > type.getMaxWeight()) return false;
-        }
-        if (productNo != null && type.getProductRegex() != null && !type.getProductRegex().isEmpty()) {
-            try {
-                if (!Pattern.compile(type.getProductRegex()).matcher(productNo).matches()) return false;
-            } catch (Exception e) {
-                // invalid regex - skip check
-            }
-        }
-        return true;
+        return IngotTypeClassifier.of(barrentypen).classify(length, width, thickness, weight, productNo);
     }
 }
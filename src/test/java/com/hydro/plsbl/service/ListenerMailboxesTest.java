@@ -0,0 +1,153 @@
+package com.hydro.plsbl.service;
+
+import com.hydro.plsbl.service.DataBroadcaster.DataEvent;
+import com.hydro.plsbl.service.DataBroadcaster.DataEventType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-Tests fuer die Listener-Mailboxen der Broadcaster (ListenerMailboxes).
+ *
+ * Der Executor sammelt die Drain-Auftraege und fuehrt sie erst auf Anforderung aus,
+ * damit sich Events in der Mailbox stauen lassen.
+ */
+@DisplayName("Listener-Mailboxen Tests")
+class ListenerMailboxesTest {
+
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+    private ListenerMailboxes<String> mailboxes;
+
+    @BeforeEach
+    void setUp() {
+        // Schluessel = erster Buchstabe, "x..." wird nie zusammengefuehrt
+        mailboxes = new ListenerMailboxes<>("Test", 3,
+            event -> event.startsWith("x") ? null : event.substring(0, 1),
+            (older, newer) -> older + "+" + newer,
+            tasks::add);
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.poll().run();
+        }
+    }
+
+    @Test
+    @DisplayName("Wartende Events mit gleichem Schluessel werden zusammengefuehrt")
+    void testCoalesce() {
+        List<String> received = new ArrayList<>();
+        mailboxes.register(received::add);
+
+        mailboxes.publish("a1");
+        mailboxes.publish("b1");
+        mailboxes.publish("a2");
+        runTasks();
+
+        assertEquals(List.of("a1+a2", "b1"), received);
+        assertEquals(1, mailboxes.getMetrics().coalesced());
+        assertEquals(2, mailboxes.getMetrics().delivered());
+    }
+
+    @Test
+    @DisplayName("Volle Mailbox verwirft das aelteste Event")
+    void testDropOldest() {
+        List<String> received = new ArrayList<>();
+        mailboxes.register(received::add);
+
+        mailboxes.publish("x1");
+        mailboxes.publish("x2");
+        mailboxes.publish("x3");
+        mailboxes.publish("x4");
+        assertEquals(3, mailboxes.getMetrics().queueDepth());
+        runTasks();
+
+        assertEquals(List.of("x2", "x3", "x4"), received);
+        assertEquals(1, mailboxes.getMetrics().dropped());
+        assertEquals(0, mailboxes.getMetrics().queueDepth());
+    }
+
+    @Test
+    @DisplayName("Jeder Listener hat eine eigene Mailbox")
+    void testSeparateMailboxes() {
+        List<String> first = new ArrayList<>();
+        List<String> second = new ArrayList<>();
+        mailboxes.register(first::add);
+        ListenerMailboxes<String>.Mailbox mailbox = mailboxes.register(second::add);
+
+        mailbox.offer("a0");
+        mailboxes.publish("b1");
+        runTasks();
+
+        assertEquals(List.of("b1"), first);
+        assertEquals(List.of("a0", "b1"), second);
+    }
+
+    @Test
+    @DisplayName("Abgemeldete Listener erhalten keine wartenden Events mehr")
+    void testRemove() {
+        List<String> received = new ArrayList<>();
+        ListenerMailboxes<String>.Mailbox mailbox = mailboxes.register(received::add);
+
+        mailboxes.publish("a1");
+        mailbox.remove();
+        mailboxes.publish("b1");
+        runTasks();
+
+        assertTrue(received.isEmpty());
+        assertEquals(0, mailboxes.getListenerCount());
+    }
+
+    @Test
+    @DisplayName("Fehler in einem Listener stoppt die Auslieferung nicht")
+    void testListenerException() {
+        List<String> received = new ArrayList<>();
+        mailboxes.register(event -> {
+            if (event.equals("a1")) {
+                throw new IllegalStateException("Test");
+            }
+            received.add(event);
+        });
+
+        mailboxes.publish("a1");
+        mailboxes.publish("b1");
+        runTasks();
+
+        assertEquals(List.of("b1"), received);
+    }
+
+    @Test
+    @DisplayName("Aufeinanderfolgende Lagerplatz-Deltas werden vereinigt")
+    void testMergeStockyardDeltas() {
+        DataEvent first = new DataEvent(DataEventType.STOCKYARD_CHANGED, Set.of(1L, 2L), 5);
+        DataEvent second = new DataEvent(DataEventType.STOCKYARD_CHANGED, Set.of(2L, 3L), 6);
+
+        DataEvent merged = DataEvent.merge(first, second);
+
+        assertTrue(merged.isStockyardDelta());
+        assertEquals(Set.of(1L, 2L, 3L), merged.getStockyardIds());
+        assertEquals(5, merged.getFirstStockyardVersion());
+        assertEquals(6, merged.getStockyardVersion());
+    }
+
+    @Test
+    @DisplayName("Lagerplatz-Deltas mit Luecke werden zu vollstaendigem Neuladen")
+    void testMergeStockyardGap() {
+        DataEvent first = new DataEvent(DataEventType.STOCKYARD_CHANGED, Set.of(1L), 5);
+        DataEvent third = new DataEvent(DataEventType.STOCKYARD_CHANGED, Set.of(3L), 7);
+
+        DataEvent merged = DataEvent.merge(first, third);
+
+        assertFalse(merged.isStockyardDelta());
+        assertEquals(DataEventType.STOCKYARD_CHANGED, merged.getType());
+    }
+}
@@ -0,0 +1,53 @@
+package com.hydro.plsbl.service;
+
+import com.hydro.plsbl.service.LoadPlanningService.ReleasePosition;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-Test fuer die Ablage-Positionen der Beladung (ohne Spring-Kontext)
+ */
+@DisplayName("Beladungsplanung Ablage-Position Tests")
+class LoadPlanningServiceTest {
+
+    private final Map<String, Integer> values = new HashMap<>();
+
+    private LoadPlanningService service() {
+        SettingsService.Snapshot snapshot = new SettingsService.Snapshot(1, values, Map.of());
+        SettingsService settings = new SettingsService(null) {
+            @Override
+            public Snapshot getSnapshot() {
+                return snapshot;
+            }
+        };
+        return new LoadPlanningService(settings, null, null, 250, 20);
+    }
+
+    @Test
+    @DisplayName("Ablage folgt dem Plan: die ersten frontCount Barren vorne, danach hinten")
+    void testReleaseFollowsPlan() {
+        values.put(SettingsService.KEY_LOADING_ZONE_FRONT_X, 38000);
+        values.put(SettingsService.KEY_LOADING_ZONE_REAR_X, 42000);
+        values.put(SettingsService.KEY_LOADING_ZONE_Y, 2500);
+        values.put(SettingsService.KEY_LOADING_ZONE_Z, 1800);
+        LoadPlanningService service = service();
+
+        assertEquals(new ReleasePosition(38000, 2500, 1800), service.releasePosition(0, 2));
+        assertEquals(new ReleasePosition(38000, 2500, 1800), service.releasePosition(1, 2));
+        assertEquals(new ReleasePosition(42000, 2500, 1800), service.releasePosition(2, 2));
+    }
+
+    @Test
+    @DisplayName("Ohne Ladezone und ohne Plan: bisherige Trailer-Mitte")
+    void testFallbackTrailer() {
+        LoadPlanningService service = service();
+
+        assertEquals(new ReleasePosition(40000, 2000, 2000), service.releasePosition(0, -1));
+        assertEquals(new ReleasePosition(40000, 2000, 2000), service.releasePosition(3, 1));
+    }
+}
@@ -0,0 +1,197 @@
+package com.hydro.plsbl.service;
+
+import com.hydro.plsbl.plc.PlcService;
+import com.hydro.plsbl.service.MessageService.MessageCategory;
+import com.hydro.plsbl.service.MessageService.MessageFilter;
+import com.hydro.plsbl.service.MessageService.MessageState;
+import com.hydro.plsbl.service.MessageService.MessageType;
+import com.hydro.plsbl.service.MessageService.SystemMessage;
+import com.hydro.plsbl.simulator.CraneSimulatorConfig;
+import com.hydro.plsbl.simulator.CraneSimulatorService;
+import com.hydro.plsbl.simulator.SimulationClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.jdbc.DataJdbcTest;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration-Test fuer das Meldungs-Journal (TD_MESSAGE) und den MessageService
+ *
+ * Ein "Neustart" wird durch eine zweite MessageService-Instanz auf derselben Datenbank nachgestellt.
+ */
+@DataJdbcTest(properties = "spring.datasource.url=jdbc:h2:mem:plsbl_messages;DB_CLOSE_DELAY=-1;MODE=Oracle")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({MessageJournal.class, IdAllocator.class})
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Meldungs-Journal Tests")
+class MessageJournalTest {
+
+    @Autowired
+    private MessageJournal journal;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private SimulationClock clock;
+    private CraneSimulatorService simulator;
+    private PlcService plcService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM TD_MESSAGE");
+
+        clock = SimulationClock.virtual(1_700_000_000_000L);
+        simulator = new CraneSimulatorService(new CraneSimulatorConfig(), clock);
+        SettingsService settings = new SettingsService(null) {
+            @Override
+            public boolean isSpsEnabled() {
+                return false;
+            }
+        };
+        plcService = new PlcService(settings, simulator, new TransportDispatchQueue(null, clock), clock,
+            5, 100, 500, 2000);
+        simulator.start();
+        plcService.init();
+    }
+
+    @Test
+    @DisplayName("Offene Meldungen und Historie ueberstehen einen Neustart")
+    void testRestart() {
+        MessageService before = newService(90);
+        SystemMessage alarm = before.alarm(MessageCategory.CRANE, "CRANE_ERR", "Kranfehler", "SPS");
+        before.alarm(MessageCategory.CRANE, "CRANE_ERR", "Kranfehler", "SPS");
+        SystemMessage warning = before.warning(MessageCategory.SYSTEM, "SYS_WARN", "Warnung", "System");
+        before.acknowledge(warning.getId());
+        before.clearCondition(MessageCategory.SYSTEM.name(), "SYS_WARN");
+        before.flush();
+
+        MessageService after = newService(90);
+        assertEquals(1, after.getUnacknowledgedCount());
+        SystemMessage restored = after.getUnacknowledgedMessages().get(0);
+        assertEquals(alarm.getId(), restored.getId());
+        assertEquals(2, restored.getCount());
+        assertTrue(after.hasUnacknowledgedAlarms());
+        assertEquals(2, after.getAllMessages().size());
+
+        // Erneutes Auftreten zaehlt an der wiederhergestellten Meldung weiter
+        after.alarm(MessageCategory.CRANE, "CRANE_ERR", "Kranfehler", "SPS");
+        assertEquals(3, restored.getCount());
+        assertTrue(after.acknowledge(alarm.getId()));
+        after.flush();
+
+        assertEquals(0, newService(90).getUnacknowledgedCount());
+    }
+
+    @Test
+    @DisplayName("Seitenweise Abfrage mit Typ- und Status-Filter, neueste zuerst")
+    void testPaging() {
+        MessageService service = newService(90);
+        for (int i = 0; i < 25; i++) {
+            service.info(MessageCategory.TRANSPORT, "INFO_" + i, "Info " + i, "Test");
+        }
+        for (int i = 0; i < 5; i++) {
+            service.alarm(MessageCategory.CRANE, "ALARM_" + i, "Alarm " + i, "Test");
+        }
+        service.acknowledge(service.getUnacknowledgedMessages().get(0).getId());
+
+        assertEquals(30, service.countMessages(MessageFilter.ALL));
+        List<SystemMessage> page = service.findMessages(MessageFilter.ALL, 0, 10);
+        assertEquals(10, page.size());
+        assertEquals("ALARM_4", page.get(0).getCode());
+        assertEquals("INFO_14", service.findMessages(MessageFilter.ALL, 10, 10).get(5).getCode());
+
+        MessageFilter alarms = new MessageFilter(MessageType.ALARM, null, null);
+        assertEquals(5, service.countMessages(alarms));
+        assertEquals(4, service.countMessages(new MessageFilter(MessageType.ALARM, null, MessageState.ACTIVE)));
+        assertEquals(1, service.countMessages(new MessageFilter(null, null, MessageState.ACKNOWLEDGED)));
+        assertEquals(25, service.countMessages(new MessageFilter(null, MessageCategory.TRANSPORT, null)));
+
+        // Unquittierte Meldungen kommen als Instanz aus dem Speicher (Quittieren wirkt sofort)
+        SystemMessage open = service.findMessages(alarms, 1, 1).get(0);
+        assertSame(service.getUnacknowledgedMessages().get(0), open);
+    }
+
+    @Test
+    @DisplayName("Historie im Speicher ist begrenzt, verdraengte Meldungen bleiben quittierbar")
+    void testBoundedHistory() {
+        MessageService service = newService(90);
+        SystemMessage first = service.warning(MessageCategory.STORAGE, "FIRST", "Erste", "Test");
+        for (int i = 0; i < 1100; i++) {
+            service.info(MessageCategory.TRANSPORT, "INFO_" + i, "Info " + i, "Test");
+        }
+
+        assertEquals(1000, service.getAllMessages().size());
+        assertFalse(service.getAllMessages().contains(first));
+        assertEquals(1101, service.countMessages(MessageFilter.ALL));
+
+        assertTrue(service.acknowledge(first.getId()));
+        assertFalse(service.acknowledge(first.getId()));
+        assertEquals(1, service.countMessages(new MessageFilter(null, MessageCategory.STORAGE, MessageState.ACKNOWLEDGED)));
+    }
+
+    @Test
+    @DisplayName("Aufbewahrung: nur alte, abgeschlossene Meldungen werden geloescht")
+    void testRetention() {
+        MessageService service = newService(30);
+        SystemMessage done = service.warning(MessageCategory.SYSTEM, "DONE", "Erledigt", "Test");
+        service.acknowledge(done.getId());
+        service.clearCondition(MessageCategory.SYSTEM.name(), "DONE");
+        SystemMessage open = service.alarm(MessageCategory.SYSTEM, "OPEN", "Offen", "Test");
+        SystemMessage recent = service.warning(MessageCategory.SYSTEM, "RECENT", "Neu", "Test");
+        service.acknowledge(recent.getId());
+        service.clearCondition(MessageCategory.SYSTEM.name(), "RECENT");
+        service.flush();
+
+        Timestamp old = Timestamp.valueOf(LocalDateTime.now().minusDays(31));
+        jdbcTemplate.update("UPDATE TD_MESSAGE SET CREATED = ? WHERE ID IN (?, ?)", old, done.getId(), open.getId());
+
+        assertEquals(1, service.purgeExpired());
+        assertEquals(2, service.countMessages(MessageFilter.ALL));
+        assertEquals(0, newService(0).purgeExpired());
+    }
+
+    @Test
+    @DisplayName("Wiederhergestellter Tuer-Alarm wird beim Schliessen der Tuer behoben")
+    void testRestoredDoorAlarm() {
+        simulator.setDoor1Open(true);
+        MessageService before = newService(90);
+        plcService.pollStatus();
+        assertTrue(before.hasActiveDoorAlarms());
+        assertFalse(before.isCraneOperationAllowed());
+        before.flush();
+
+        // Neustart, waehrenddessen wurde die Tuer geschlossen
+        simulator.setDoor1Open(false);
+        MessageService after = newService(90);
+        assertTrue(after.hasActiveDoorAlarms());
+
+        plcService.pollStatus();
+        SystemMessage door = after.getUnacknowledgedMessages().get(0);
+        assertEquals("DOOR_1", door.getCode());
+        assertTrue(door.isConditionCleared());
+
+        after.acknowledgeAll();
+        assertFalse(after.hasActiveDoorAlarms());
+        assertTrue(after.isCraneOperationAllowed());
+    }
+
+    private MessageService newService(int retentionDays) {
+        MessageService service = new MessageService(plcService, simulator, journal, clock, retentionDays, 0);
+        service.restore();
+        return service;
+    }
+}
@@ -0,0 +1,219 @@
+package com.hydro.plsbl.service;
+
+import com.hydro.plsbl.plc.PlcService;
+import com.hydro.plsbl.service.MessageService.SystemMessage;
+import com.hydro.plsbl.simulator.CraneSimulatorConfig;
+import com.hydro.plsbl.simulator.CraneSimulatorService;
+import com.hydro.plsbl.simulator.SimulationClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests fuer die ereignisgesteuerte Tuer-Ueberwachung im MessageService
+ *
+ * Tuer-Status kommt ueber die Status-Events des PlcService (Simulator, virtuelle Zeit);
+ * das Journal ist durch einen Ersatz im Speicher ersetzt (kann ausfallen).
+ */
+@DisplayName("MessageService Tuer-Alarm Tests")
+class MessageServiceDoorAlarmTest {
+
+    private static final long DEBOUNCE_MS = 500;
+
+    private SimulationClock clock;
+    private CraneSimulatorService simulator;
+    private PlcService plcService;
+    private MessageService messageService;
+    private InMemoryJournal journal;
+
+    @BeforeEach
+    void setUp() {
+        clock = SimulationClock.virtual(1_700_000_000_000L);
+        simulator = new CraneSimulatorService(new CraneSimulatorConfig(), clock);
+        SettingsService settings = new SettingsService(null) {
+            @Override
+            public boolean isSpsEnabled() {
+                return false;
+            }
+        };
+        plcService = new PlcService(settings, simulator, new TransportDispatchQueue(null, clock), clock,
+            5, 100, 500, 2000);
+        simulator.start();
+        plcService.init();
+
+        journal = new InMemoryJournal();
+        messageService = new MessageService(plcService, simulator, journal, clock, 90, DEBOUNCE_MS);
+        messageService.restore();
+        plcService.pollStatus();
+    }
+
+    @Test
+    @DisplayName("Tuer oeffnen: Alarm und Sicherheitsstopp sofort mit dem Status-Event")
+    void testOpenRaisesImmediately() {
+        simulator.setDoor1Open(true);
+        plcService.pollStatus();
+
+        assertTrue(messageService.hasActiveDoorAlarms());
+        assertFalse(messageService.isCraneOperationAllowed());
+        assertTrue(simulator.isPaused());
+        assertEquals("DOOR_1", messageService.getUnacknowledgedMessages().get(0).getCode());
+    }
+
+    @Test
+    @DisplayName("Nur geaenderte Tueren werden ausgewertet, unveraenderter Status erzeugt nichts")
+    void testOnlyTransitions() {
+        simulator.setDoor1Open(true);
+        plcService.pollStatus();
+        simulator.setDoor7Open(true);
+        plcService.pollStatus();
+        plcService.pollStatus();
+        messageService.evaluateDoors(plcService.getCurrentStatus());
+
+        List<SystemMessage> alarms = messageService.getUnacknowledgedMessages();
+        assertEquals(2, alarms.size());
+        assertTrue(alarms.stream().allMatch(m -> m.getCount() == 1), "Offene Tuer darf nicht erneut zaehlen");
+    }
+
+    @Test
+    @DisplayName("Tuer schliessen wird erst nach der Entprell-Zeit als behoben gemeldet")
+    void testCloseDebounced() {
+        simulator.setGatesOpen(true);
+        plcService.pollStatus();
+        SystemMessage alarm = messageService.getUnacknowledgedMessages().get(0);
+        messageService.acknowledgeAll();
+
+        simulator.setGatesOpen(false);
+        plcService.pollStatus();
+        assertFalse(alarm.isConditionCleared());
+
+        clock.advance(DEBOUNCE_MS - 1);
+        messageService.confirmClosedDoors();
+        assertFalse(alarm.isConditionCleared());
+        assertTrue(simulator.isPaused());
+
+        clock.advance(1);
+        messageService.confirmClosedDoors();
+        assertTrue(alarm.isConditionCleared());
+        assertTrue(messageService.getActiveMessages().isEmpty());
+        assertFalse(simulator.isPaused(), "Kran laeuft nach Schliessen und Quittieren weiter");
+    }
+
+    @Test
+    @DisplayName("Flattern innerhalb der Entprell-Zeit erzeugt keinen neuen Alarm")
+    void testBounce() {
+        simulator.setDoor10Open(true);
+        plcService.pollStatus();
+        SystemMessage alarm = messageService.getUnacknowledgedMessages().get(0);
+
+        for (int i = 0; i < 5; i++) {
+            simulator.setDoor10Open(false);
+            plcService.pollStatus();
+            clock.advance(100);
+            simulator.setDoor10Open(true);
+            plcService.pollStatus();
+            messageService.confirmClosedDoors();
+        }
+
+        assertEquals(1, alarm.getCount());
+        assertFalse(alarm.isConditionCleared());
+        assertEquals(1, messageService.getUnacknowledgedCount());
+
+        // Entprellung beginnt mit dem letzten Schliessen neu
+        simulator.setDoor10Open(false);
+        plcService.pollStatus();
+        clock.advance(DEBOUNCE_MS);
+        messageService.confirmClosedDoors();
+        assertTrue(alarm.isConditionCleared());
+    }
+
+    @Test
+    @DisplayName("Andere Tuer-Events bestaetigen abgelaufene Entprellung mit")
+    void testConfirmedByLaterEvent() {
+        simulator.setDoor1Open(true);
+        plcService.pollStatus();
+        SystemMessage door1 = messageService.getUnacknowledgedMessages().get(0);
+
+        simulator.setDoor1Open(false);
+        plcService.pollStatus();
+        clock.advance(DEBOUNCE_MS);
+        simulator.setDoor7Open(true);
+        plcService.pollStatus();
+
+        assertTrue(door1.isConditionCleared());
+        assertEquals(2, messageService.getUnacknowledgedCount());
+    }
+
+    @Test
+    @DisplayName("Journal nicht erreichbar: einmalige System-Warnung, behoben sobald wieder gespeichert wird")
+    void testJournalUnavailable() {
+        journal.down = true;
+        messageService.warning(MessageService.MessageCategory.TRANSPORT, "T1", "Auftrag haengt", "Test");
+        messageService.warning(MessageService.MessageCategory.TRANSPORT, "T2", "Auftrag haengt", "Test");
+        messageService.flush();
+
+        assertFalse(messageService.isJournalAvailable());
+        List<SystemMessage> journalWarnings = messageService.getActiveMessages().stream()
+            .filter(m -> m.getCode().equals(MessageService.JOURNAL_UNAVAILABLE))
+            .toList();
+        assertEquals(1, journalWarnings.size());
+        assertEquals(1, journalWarnings.get(0).getCount(), "Nur beim ersten Ausfall gemeldet");
+        assertEquals(3, messageService.getUnacknowledgedCount(), "Meldungen bleiben im Speicher sichtbar");
+
+        journal.down = false;
+        messageService.warning(MessageService.MessageCategory.TRANSPORT, "T3", "Auftrag haengt", "Test");
+        messageService.flush();
+
+        assertTrue(messageService.isJournalAvailable());
+        assertTrue(journalWarnings.get(0).isConditionCleared());
+        assertEquals(1, journal.inserted);
+    }
+
+    /**
+     * Journal ohne Datenbank
+     */
+    private static class InMemoryJournal extends MessageJournal {
+        private final AtomicLong ids = new AtomicLong();
+        private boolean down;
+        private int inserted;
+
+        InMemoryJournal() {
+            super(null, null);
+        }
+
+        @Override
+        public long nextId() {
+            if (down) {
+                throw new DataAccessResourceFailureException("TD_MESSAGE nicht vorhanden");
+            }
+            return ids.incrementAndGet();
+        }
+
+        @Override
+        public void insert(List<SystemMessage> messages) {
+            if (down) {
+                throw new DataAccessResourceFailureException("TD_MESSAGE nicht vorhanden");
+            }
+            inserted += messages.size();
+        }
+
+        @Override
+        public void update(List<SystemMessage> messages) {
+        }
+
+        @Override
+        public List<SystemMessage> findOpen() {
+            return List.of();
+        }
+
+        @Override
+        public List<SystemMessage> findRecent(int limit) {
+            return List.of();
+        }
+    }
+}
@@ -32,7 +32,7 @@ import static org.junit.jupiter.api.Assertions.*;
  */
 @DataJdbcTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
-@Import({IngotTypeService.class})
+@Import({IngotTypeService.class, IdAllocator.class})
 @ActiveProfiles("h2")
 @DisplayName("MITTEL-Barren Workflow Tests")
 class MittelBarrenWorkflowTest {
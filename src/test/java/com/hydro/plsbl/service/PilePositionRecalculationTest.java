@@ -0,0 +1,123 @@
+package com.hydro.plsbl.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.jdbc.DataJdbcTest;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration-Test fuer die Neu-Nummerierung der Stapelpositionen
+ * (IngotService.recalculatePilePositions).
+ *
+ * Verwendet Platz 01/10 (ID=101) aus data-h2.sql mit 8 Barren (ID 1-8, Position 1-8, SERIAL 1).
+ */
+@DataJdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({IngotService.class, YardOccupancyService.class, DataBroadcaster.class, IdAllocator.class})
+@ActiveProfiles("h2")
+@DisplayName("Stapelpositionen Neu-Nummerierung Tests")
+class PilePositionRecalculationTest {
+
+    private static final long STOCKYARD_ID = 101L;
+
+    @Autowired
+    private IngotService ingotService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /** ID -> {PILE_POSITION, SERIAL} */
+    private Map<Long, int[]> loadPile() {
+        Map<Long, int[]> pile = new LinkedHashMap<>();
+        jdbcTemplate.query(
+            "SELECT ID, PILE_POSITION, SERIAL FROM TD_INGOT WHERE STOCKYARD_ID = ? ORDER BY ID",
+            rs -> {
+                pile.put(rs.getLong("ID"), new int[] {rs.getInt("PILE_POSITION"), rs.getInt("SERIAL")});
+            },
+            STOCKYARD_ID);
+        return pile;
+    }
+
+    @Test
+    @DisplayName("Unterster Barren entfernt: alle darueber ruecken nach und erhalten neue SERIAL")
+    void testRemoveBottomIngot() {
+        // Given: Barren 1 (Position 1) vom Platz nehmen
+        jdbcTemplate.update("UPDATE TD_INGOT SET STOCKYARD_ID = NULL, PILE_POSITION = NULL WHERE ID = 1");
+        Map<Long, int[]> before = loadPile();
+
+        // When
+        int updated = ingotService.recalculatePilePositions(STOCKYARD_ID);
+
+        // Then: Positionen 1..7 lueckenlos, jede SERIAL genau um 1 erhoeht
+        Map<Long, int[]> after = loadPile();
+        assertEquals(7, updated);
+        int expectedPosition = 1;
+        for (long id = 2; id <= 8; id++) {
+            assertEquals(expectedPosition++, after.get(id)[0], "Position von Barren " + id);
+            assertEquals(before.get(id)[1] + 1, after.get(id)[1], "SERIAL von Barren " + id);
+        }
+    }
+
+    @Test
+    @DisplayName("Barren in der Mitte entfernt: nur darueberliegende Barren werden geaendert")
+    void testRemoveMiddleIngot() {
+        // Given: Barren 5 (Position 5) vom Platz nehmen
+        jdbcTemplate.update("UPDATE TD_INGOT SET STOCKYARD_ID = NULL, PILE_POSITION = NULL WHERE ID = 5");
+        Map<Long, int[]> before = loadPile();
+
+        // When
+        int updated = ingotService.recalculatePilePositions(STOCKYARD_ID);
+
+        // Then: Barren 1-4 unveraendert, 6-8 rutschen auf 5-7
+        Map<Long, int[]> after = loadPile();
+        assertEquals(3, updated);
+        for (long id = 1; id <= 4; id++) {
+            assertArrayEquals(before.get(id), after.get(id), "Barren " + id + " darf sich nicht aendern");
+        }
+        for (long id = 6; id <= 8; id++) {
+            assertEquals(id - 1, after.get(id)[0], "Position von Barren " + id);
+            assertEquals(before.get(id)[1] + 1, after.get(id)[1], "SERIAL von Barren " + id);
+        }
+    }
+
+    @Test
+    @DisplayName("Lueckenloser Stapel: keine Aenderung")
+    void testNoGap() {
+        Map<Long, int[]> before = loadPile();
+
+        int updated = ingotService.recalculatePilePositions(STOCKYARD_ID);
+
+        assertEquals(0, updated);
+        Map<Long, int[]> after = loadPile();
+        for (Long id : before.keySet()) {
+            assertArrayEquals(before.get(id), after.get(id), "Barren " + id + " darf sich nicht aendern");
+        }
+    }
+
+    @Test
+    @DisplayName("Barren ohne Position werden oben angehaengt")
+    void testNullPositionLast() {
+        // Given: Barren 3 ohne Position, Barren 8 entfernt
+        jdbcTemplate.update("UPDATE TD_INGOT SET PILE_POSITION = NULL WHERE ID = 3");
+        jdbcTemplate.update("UPDATE TD_INGOT SET STOCKYARD_ID = NULL, PILE_POSITION = NULL WHERE ID = 8");
+
+        ingotService.recalculatePilePositions(STOCKYARD_ID);
+
+        // Then: 1,2,4,5,6,7 -> 1..6, Barren 3 -> 7
+        Map<Long, int[]> after = loadPile();
+        assertEquals(1, after.get(1L)[0]);
+        assertEquals(2, after.get(2L)[0]);
+        assertEquals(3, after.get(4L)[0]);
+        assertEquals(6, after.get(7L)[0]);
+        assertEquals(7, after.get(3L)[0]);
+    }
+}
@@ -0,0 +1,146 @@
+package com.hydro.plsbl.service;
+
+import com.hydro.plsbl.service.SettingsService.SettingsChange;
+import com.hydro.plsbl.service.SettingsService.Snapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.jdbc.DataJdbcTest;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests fuer den versionierten Einstellungs-Stand und die Listener je Kategorie
+ */
+@DataJdbcTest(properties = "spring.datasource.url=jdbc:h2:mem:plsbl_settings;DB_CLOSE_DELAY=-1;MODE=Oracle")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SettingsService.class)
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("SettingsService Snapshot Tests")
+class SettingsServiceSnapshotTest {
+
+    @Autowired
+    private SettingsService settingsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<SettingsChange> spsChanges = new ArrayList<>();
+    private final List<SettingsChange> kafkaChanges = new ArrayList<>();
+    private final Consumer<SettingsChange> spsListener = spsChanges::add;
+    private final Consumer<SettingsChange> kafkaListener = kafkaChanges::add;
+
+    @AfterEach
+    void tearDown() {
+        settingsService.removeChangeListener(SettingsService.CAT_SPS, spsListener);
+        settingsService.removeChangeListener(SettingsService.CAT_KAFKA, kafkaListener);
+        jdbcTemplate.update("DELETE FROM MD_APPSETTING");
+        settingsService.reload();
+    }
+
+    @Test
+    @DisplayName("Aenderung erzeugt neuen Stand, alter Stand bleibt unveraendert")
+    void testSnapshotSwap() {
+        Snapshot before = settingsService.getSnapshot();
+        int sawX = settingsService.getSawX();
+
+        settingsService.setSawX(sawX + 10);
+
+        assertEquals(sawX, before.sawX);
+        assertEquals(sawX + 10, settingsService.getSawX());
+        assertEquals(before.getVersion() + 1, settingsService.getVersion());
+        assertNotSame(before, settingsService.getSnapshot());
+    }
+
+    @Test
+    @DisplayName("Unveraenderter Wert erzeugt keine neue Version und keine Benachrichtigung")
+    void testNoChangeNoVersion() {
+        settingsService.addChangeListener(SettingsService.CAT_SPS, spsListener);
+        long version = settingsService.getVersion();
+
+        settingsService.setSpsTimeout(settingsService.getSpsTimeout());
+        settingsService.reload();
+
+        assertEquals(version, settingsService.getVersion());
+        assertTrue(spsChanges.isEmpty());
+    }
+
+    @Test
+    @DisplayName("update() buendelt mehrere Setter zu einer Version, Listener nur fuer betroffene Kategorie")
+    void testBatchedUpdate() {
+        settingsService.addChangeListener(SettingsService.CAT_SPS, spsListener);
+        settingsService.addChangeListener(SettingsService.CAT_KAFKA, kafkaListener);
+        long version = settingsService.getVersion();
+        String oldUrl = settingsService.getSpsUrl();
+
+        settingsService.update(() -> {
+            settingsService.setSpsUrl("s7://10.0.0.99");
+            settingsService.setSpsTimeout(settingsService.getSpsTimeout() + 1);
+            settingsService.setSawY(settingsService.getSawY() + 1);
+            // Innerhalb von update() gilt noch der bisherige Stand
+            assertEquals(oldUrl, settingsService.getSpsUrl());
+        });
+
+        assertEquals(version + 1, settingsService.getVersion());
+        assertEquals("s7://10.0.0.99", settingsService.getSpsUrl());
+        assertEquals(1, spsChanges.size());
+        SettingsChange change = spsChanges.get(0);
+        assertEquals(Set.of(SettingsService.KEY_SPS_URL, SettingsService.KEY_SPS_TIMEOUT), change.keys());
+        assertTrue(change.affects(SettingsService.KEY_SPS_URL));
+        assertFalse(change.affects(SettingsService.KEY_SPS_ENABLED));
+        assertEquals(oldUrl, change.previous().spsUrl);
+        assertSame(settingsService.getSnapshot(), change.current());
+        assertTrue(kafkaChanges.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Aenderung aus einem Listener wird danach zugestellt, Listener sehen Versionen aufsteigend")
+    void testNotifyInVersionOrder() {
+        Consumer<SettingsChange> retryOnUrl = change -> {
+            if (change.affects(SettingsService.KEY_SPS_URL)) {
+                settingsService.setSpsRetryCount(settingsService.getSpsRetryCount() + 1);
+            }
+        };
+        settingsService.addChangeListener(SettingsService.CAT_SPS, retryOnUrl);
+        settingsService.addChangeListener(SettingsService.CAT_SPS, spsListener);
+        try {
+            settingsService.setSpsUrl("s7://10.0.0.98");
+        } finally {
+            settingsService.removeChangeListener(SettingsService.CAT_SPS, retryOnUrl);
+        }
+
+        assertEquals(2, spsChanges.size());
+        assertEquals(Set.of(SettingsService.KEY_SPS_URL), spsChanges.get(0).keys());
+        assertEquals(Set.of(SettingsService.KEY_SPS_RETRY_COUNT), spsChanges.get(1).keys());
+        assertTrue(spsChanges.get(0).current().getVersion() < spsChanges.get(1).current().getVersion());
+    }
+
+    @Test
+    @DisplayName("reload() uebernimmt Aenderungen aus der Datenbank und benachrichtigt")
+    void testReload() {
+        settingsService.addChangeListener(SettingsService.CAT_KAFKA, kafkaListener);
+        long version = settingsService.getVersion();
+
+        jdbcTemplate.update("UPDATE MD_APPSETTING SET SETTING_VALUE = ? WHERE SETTING_KEY = ?",
+            "broker-2:9092", SettingsService.KEY_KAFKA_BOOTSTRAP_SERVERS);
+        settingsService.reload();
+
+        assertEquals("broker-2:9092", settingsService.getKafkaBootstrapServers());
+        assertEquals(version + 1, settingsService.getVersion());
+        assertEquals(1, kafkaChanges.size());
+        assertEquals(Set.of(SettingsService.KEY_KAFKA_BOOTSTRAP_SERVERS), kafkaChanges.get(0).keys());
+    }
+}
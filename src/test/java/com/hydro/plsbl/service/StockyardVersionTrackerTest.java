@@ -0,0 +1,94 @@
+package com.hydro.plsbl.service;
+
+import com.hydro.plsbl.service.DataBroadcaster.DataEvent;
+import com.hydro.plsbl.service.DataBroadcaster.DataEventType;
+import com.hydro.plsbl.service.DataBroadcaster.StockyardVersionTracker;
+import com.hydro.plsbl.service.DataBroadcaster.StockyardVersionTracker.Action;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-Tests fuer die Lagerplatz-Deltas (Versionen, Luecken, zusammengefuehrte Events)
+ */
+@DisplayName("Lagerplatz-Versionen Tests")
+class StockyardVersionTrackerTest {
+
+    private final StockyardVersionTracker tracker = new StockyardVersionTracker();
+
+    @Test
+    @DisplayName("Aufeinanderfolgende Deltas werden direkt uebernommen")
+    void testConsecutiveDeltas() {
+        assertEquals(Action.APPLY_DELTA, tracker.classify(delta(1, 101L)));
+        tracker.setVersion(1);
+        assertEquals(Action.APPLY_DELTA, tracker.classify(delta(2, 102L)));
+    }
+
+    @Test
+    @DisplayName("Verpasste Version erzwingt vollstaendiges Neuladen")
+    void testGapForcesFullReload() {
+        tracker.setVersion(1);
+
+        // Version 2 ging verloren
+        assertEquals(Action.FULL_RELOAD, tracker.classify(delta(3, 103L)));
+
+        // Nach dem Neuladen gilt die Version des Broadcasters, aeltere Deltas sind enthalten
+        tracker.setVersion(3);
+        assertEquals(Action.SKIP, tracker.classify(delta(2, 102L)));
+        assertEquals(Action.SKIP, tracker.classify(delta(3, 103L)));
+        assertEquals(Action.APPLY_DELTA, tracker.classify(delta(4, 104L)));
+    }
+
+    @Test
+    @DisplayName("Zusammengefuehrte Deltas ohne Luecke bleiben Deltas")
+    void testMergedDeltas() {
+        tracker.setVersion(1);
+        DataEvent merged = DataEvent.merge(delta(2, 102L), delta(3, 103L));
+
+        assertEquals(2, merged.getFirstStockyardVersion());
+        assertEquals(3, merged.getStockyardVersion());
+        assertEquals(Set.of(102L, 103L), merged.getStockyardIds());
+        assertEquals(Action.APPLY_DELTA, tracker.classify(merged));
+
+        // Teilweise bereits uebernommen (z.B. Neuladen waehrend des Staus)
+        tracker.setVersion(2);
+        assertEquals(Action.APPLY_DELTA, tracker.classify(merged));
+    }
+
+    @Test
+    @DisplayName("Luecke innerhalb der Mailbox wird zu einem Neuladen zusammengefuehrt")
+    void testMergeWithGap() {
+        DataEvent merged = DataEvent.merge(delta(2, 102L), delta(4, 104L));
+
+        assertFalse(merged.isStockyardDelta());
+        assertEquals(Action.FULL_RELOAD, tracker.classify(merged));
+    }
+
+    @Test
+    @DisplayName("Event ohne Lagerplatz-IDs laedt immer alles neu")
+    void testEventWithoutIds() {
+        tracker.setVersion(5);
+        assertEquals(Action.FULL_RELOAD, tracker.classify(new DataEvent(DataEventType.STOCKYARD_CHANGED)));
+        assertEquals(Action.FULL_RELOAD, tracker.classify(new DataEvent(DataEventType.REFRESH_ALL)));
+    }
+
+    @Test
+    @DisplayName("Broadcaster vergibt fortlaufende Versionen")
+    void testBroadcasterVersions() {
+        DataBroadcaster broadcaster = new DataBroadcaster();
+        assertEquals(0, broadcaster.getStockyardVersion());
+
+        broadcaster.broadcastStockyardsChanged(101L, null);
+        broadcaster.broadcastStockyardsChanged(102L);
+        broadcaster.broadcastStockyardsChanged((Long) null);
+
+        assertEquals(2, broadcaster.getStockyardVersion(), "Events ohne gueltige ID bekommen keine Version");
+    }
+
+    private static DataEvent delta(long version, Long... stockyardIds) {
+        return new DataEvent(DataEventType.STOCKYARD_CHANGED, Set.of(stockyardIds), version);
+    }
+}
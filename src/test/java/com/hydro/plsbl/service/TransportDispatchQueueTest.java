@@ -0,0 +1,146 @@
+package com.hydro.plsbl.service;
+
+import com.hydro.plsbl.dto.TransportOrderDTO;
+import com.hydro.plsbl.entity.enums.OrderStatus;
+import com.hydro.plsbl.service.TransportDispatchQueue.QueuedOrder;
+import com.hydro.plsbl.simulator.SimulationClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.jdbc.DataJdbcTest;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration-Test fuer die Auftrags-Warteschlange (Reihenfolge, Duplikate, Abgleich)
+ *
+ * Ohne Test-Transaktion, damit die Pflege nach dem Commit wirkt.
+ */
+@DataJdbcTest(properties = "spring.datasource.url=jdbc:h2:mem:plsbl_dispatchqueue;DB_CLOSE_DELAY=-1;MODE=Oracle")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TransportDispatchQueue.class, TransportOrderService.class, YardOccupancyService.class,
+         IdAllocator.class, SimulationClock.class})
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Auftrags-Warteschlange Tests")
+class TransportDispatchQueueTest {
+
+    @Autowired
+    private TransportDispatchQueue queue;
+
+    @Autowired
+    private TransportOrderService orderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        queue.rebuild();
+        assertTrue(queue.isEmpty(), "Test-Daten enthalten keine wartenden Auftraege");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM TD_TRANSPORTORDER WHERE STATUS = 'P'");
+        queue.rebuild();
+    }
+
+    @Test
+    @DisplayName("Hoehere Prioritaet zuerst, bei gleicher Prioritaet die kleinere ID")
+    void testOrdering() {
+        queue.offer(30L, 0, 101L);
+        queue.offer(10L, 0, 102L);
+        queue.offer(20L, 5, 103L);
+        queue.offer(40L, 5, 104L);
+
+        assertEquals(List.of(20L, 40L, 10L, 30L), ids(queue.head(10)));
+        assertEquals(20L, queue.peek().orElseThrow().orderId());
+        assertEquals(List.of(20L, 40L), ids(queue.head(2)));
+    }
+
+    @Test
+    @DisplayName("Erneutes Einreihen ersetzt den Eintrag, Wartezeit bleibt erhalten")
+    void testDeduplication() {
+        AtomicInteger queued = new AtomicInteger();
+        queue.addOrderQueuedListener(queued::incrementAndGet);
+
+        queue.offer(10L, 0, 101L);
+        long queuedAt = queue.peek().orElseThrow().queuedAt();
+        queue.offer(11L, 1, 102L);
+        queue.offer(10L, 9, 101L);
+        queue.offer(10L, 9, 101L);
+
+        assertEquals(2, queue.size());
+        assertEquals(List.of(10L, 11L), ids(queue.head(10)));
+        QueuedOrder first = queue.peek().orElseThrow();
+        assertEquals(9, first.priority());
+        assertEquals(queuedAt, first.queuedAt());
+        assertEquals(2, queued.get(), "Nur neue Auftraege loesen den Listener aus");
+
+        queue.orderChanged(10L, OrderStatus.IN_PROGRESS, 9, 101L);
+        assertFalse(queue.contains(10L));
+        assertEquals(List.of(11L), ids(queue.head(10)));
+    }
+
+    @Test
+    @DisplayName("Neuer Auftrag wird mit seiner Prioritaet eingereiht, erst nach dem Commit")
+    void testPriorityFromOrder() {
+        Long[] ids = new Long[2];
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            ids[0] = orderService.save(order("TQ-1", 0)).getId();
+            ids[1] = orderService.save(order("TQ-2", 7)).getId();
+            assertTrue(queue.isEmpty(), "Vor dem Commit nicht eingereiht");
+        });
+
+        assertEquals(List.of(ids[1], ids[0]), ids(queue.head(10)));
+        assertEquals(7, queue.peek().orElseThrow().priority());
+        assertEquals(7, jdbcTemplate.queryForObject(
+            "SELECT PRIORITY FROM TD_TRANSPORTORDER WHERE ID = ?", Integer.class, ids[1]));
+
+        // Abgleich mit der DB findet keine Abweichung
+        assertEquals(0, queue.rebuild());
+    }
+
+    @Test
+    @DisplayName("Abgleich korrigiert verpasste Aenderungen")
+    void testRebuildCorrections() {
+        queue.offer(999L, 0, 101L);
+        jdbcTemplate.update(
+            "INSERT INTO TD_TRANSPORTORDER (ID, SERIAL, TABLESERIAL, TRANSPORT_NO, FROM_YARD_ID, TO_YARD_ID, STATUS, PRIORITY) " +
+            "VALUES (9001, 1, 9001, 'TQ-9001', 101, 201, 'P', 3)");
+
+        assertEquals(2, queue.rebuild());
+        assertEquals(List.of(9001L), ids(queue.head(10)));
+        assertEquals(3, queue.peek().orElseThrow().priority());
+    }
+
+    private static TransportOrderDTO order(String transportNo, int priority) {
+        TransportOrderDTO dto = new TransportOrderDTO();
+        dto.setTransportNo(transportNo);
+        dto.setFromYardId(101L);
+        dto.setToYardId(201L);
+        dto.setPriority(priority);
+        return dto;
+    }
+
+    private static List<Long> ids(List<QueuedOrder> orders) {
+        return orders.stream().map(QueuedOrder::orderId).toList();
+    }
+}
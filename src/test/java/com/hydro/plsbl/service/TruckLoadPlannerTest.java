@@ -0,0 +1,223 @@
+package com.hydro.plsbl.service;
+
+import com.hydro.plsbl.dto.IngotDTO;
+import com.hydro.plsbl.service.CraneJobSequencer.Position;
+import com.hydro.plsbl.service.TruckLoadPlanner.LoadPlan;
+import com.hydro.plsbl.service.TruckLoadPlanner.Request;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-Test fuer die LKW-Beladungsplanung (ohne Spring-Kontext)
+ *
+ * Fahrzeit: konstante Achsgeschwindigkeiten (X 1000 mm/s, Y 500 mm/s), Achsen gleichzeitig.
+ * Gewichte im Bestand in Gramm wie in TD_INGOT.
+ */
+@DisplayName("LKW-Beladungsplanung Tests")
+class TruckLoadPlannerTest {
+
+    private static final Position FRONT = new Position(38000, 2000);
+    private static final Position REAR = new Position(42000, 2000);
+
+    private final TruckLoadPlanner planner = new TruckLoadPlanner(
+        (from, to) -> Math.max(Math.abs(to.x() - from.x()) / 1000.0, Math.abs(to.y() - from.y()) / 500.0));
+
+    private final Map<Long, Position> yards = new HashMap<>();
+    private long nextId = 1;
+
+    @Test
+    @DisplayName("Volle Anzahl statt Abbruch am ersten zu schweren Barren (bisherige Greedy-Luecke)")
+    void testFillsCountWithinWeight() {
+        List<IngotDTO> stock = List.of(
+            ingot(30000, 3000, 40000, 8000), ingot(12000, 3000, 40000, 8000),
+            ingot(10000, 3000, 40000, 8000), ingot(10000, 3000, 40000, 8000),
+            ingot(9000, 3000, 40000, 8000), ingot(9000, 3000, 40000, 8000));
+
+        LoadPlan plan = planner.plan(stock, request(4, 40000, null), this::yard);
+
+        assertEquals(4, plan.ingots().size(), "Bisher: 30 t + 10 t = nur 2 Barren");
+        assertTrue(plan.weightKg() <= 40000);
+        assertEquals(38000, plan.weightKg());
+    }
+
+    @Test
+    @DisplayName("Achslast: Gewicht vorne und hinten ausgeglichen, vordere Barren zuerst")
+    void testAxleBalance() {
+        List<IngotDTO> stock = List.of(
+            ingot(10000, 3000, 40000, 8000), ingot(10000, 3000, 40000, 8000),
+            ingot(2000, 3000, 40000, 8000), ingot(2000, 3000, 40000, 8000));
+
+        LoadPlan plan = planner.plan(stock, request(4, 64000, null), this::yard);
+
+        assertEquals(2, plan.frontCount());
+        assertEquals(12000, plan.frontWeightKg());
+        assertEquals(12000, plan.rearWeightKg());
+        assertTrue(plan.balanced());
+        int front = plan.ingots().subList(0, plan.frontCount()).stream().mapToInt(TruckLoadPlanner::weightKg).sum();
+        assertEquals(plan.frontWeightKg(), front, "Ladereihenfolge: erste Haelfte liegt vorne");
+    }
+
+    @Test
+    @DisplayName("Bei gleichem Gewicht werden die Barren mit der kuerzesten Kranfahrt gewaehlt")
+    void testMinimalTravel() {
+        List<IngotDTO> stock = new ArrayList<>();
+        for (int x : new int[] {10000, 70000, 39000, 5000, 41000, 60000}) {
+            stock.add(ingot(5000, 3000, x, 8000));
+        }
+
+        LoadPlan plan = planner.plan(stock, request(2, 64000, null), this::yard);
+
+        assertEquals(List.of(39000, 41000), xPositions(plan));
+        assertTrue(plan.searchCompleted());
+    }
+
+    @Test
+    @DisplayName("Unzulaessige Achslast wird gegen laengere Fahrt getauscht")
+    void testBalanceBeforeTravel() {
+        List<IngotDTO> stock = List.of(
+            ingot(20000, 3000, 40000, 8000), ingot(2000, 3000, 40000, 8000),
+            ingot(11000, 3000, 80000, 20000), ingot(11000, 3000, 80000, 20000));
+
+        LoadPlan plan = planner.plan(stock, request(2, 64000, null), this::yard);
+
+        assertEquals(11000, plan.frontWeightKg());
+        assertEquals(11000, plan.rearWeightKg());
+        assertTrue(plan.balanced());
+    }
+
+    @Test
+    @DisplayName("Abruf-Produkt wird bevorzugt, ohne Bestand Rueckfall auf alle Barren")
+    void testCalloffProduct() {
+        IngotDTO other = ingot(5000, 3000, 40000, 8000);
+        IngotDTO matching = ingot(5000, 3000, 90000, 30000);
+        matching.setProductId(7L);
+        other.setProductId(8L);
+
+        LoadPlan plan = planner.plan(List.of(other, matching), request(2, 64000, 7L), this::yard);
+        assertEquals(List.of(matching), plan.ingots());
+        assertTrue(plan.productMatched());
+
+        LoadPlan fallback = planner.plan(List.of(other), request(2, 64000, 7L), this::yard);
+        assertEquals(List.of(other), fallback.ingots());
+        assertFalse(fallback.productMatched());
+    }
+
+    @Test
+    @DisplayName("Lange und kurze Barren werden nicht gemischt")
+    void testLongIngotsNotMixed() {
+        List<IngotDTO> stock = List.of(
+            ingot(5000, 3000, 40000, 8000), ingot(5000, 3000, 40000, 8000),
+            ingot(9000, 7000, 60000, 8000), ingot(9000, 7000, 60000, 8000), ingot(9000, 7000, 60000, 8000));
+
+        LoadPlan plan = planner.plan(stock, request(5, 64000, null), this::yard);
+
+        assertEquals(3, plan.ingots().size());
+        assertTrue(plan.longIngots());
+        assertTrue(plan.ingots().stream().allMatch(TruckLoadPlanner::isLong));
+    }
+
+    @Test
+    @DisplayName("Leerer Bestand und zu schwere Barren ergeben einen leeren Plan")
+    void testEmpty() {
+        assertTrue(planner.plan(List.of(), request(6, 64000, null), this::yard).isEmpty());
+        assertTrue(planner.plan(List.of(ingot(70000, 3000, 40000, 8000)), request(6, 64000, null), this::yard).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Zufaelliger Bestand: Grenzen eingehalten, maximale Anzahl erreicht")
+    void testRandomStockLimits() {
+        Random random = new Random(3);
+        for (int round = 0; round < 50; round++) {
+            List<IngotDTO> stock = randomStock(random, 5 + random.nextInt(40));
+            int maxCount = 1 + random.nextInt(8);
+            int maxWeight = 10000 + random.nextInt(60000);
+
+            LoadPlan plan = planner.plan(stock, request(maxCount, maxWeight, null), this::yard);
+
+            assertTrue(plan.ingots().size() <= maxCount);
+            assertTrue(plan.weightKg() <= maxWeight);
+            assertEquals(plan.weightKg(), plan.ingots().stream().mapToInt(TruckLoadPlanner::weightKg).sum());
+            assertEquals(plan.ingots().size(), plan.ingots().stream().distinct().count());
+            assertEquals(bestCount(stock, maxCount, maxWeight), plan.ingots().size());
+        }
+    }
+
+    @Test
+    @DisplayName("Zeitbudget: grosser Bestand wird in interaktiver Zeit geplant")
+    void testTimeBudget() {
+        List<IngotDTO> stock = randomStock(new Random(11), 20000);
+
+        long start = System.currentTimeMillis();
+        LoadPlan plan = planner.plan(stock, new Request(20, 64000, null, 20, FRONT, REAR, 50), this::yard);
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertEquals(20, plan.ingots().size());
+        assertTrue(plan.weightKg() <= 64000);
+        assertTrue(elapsed < 2000, "Planung dauerte " + elapsed + " ms");
+    }
+
+    /**
+     * Groesste Anzahl je Laengenklasse ueber die leichtesten Barren
+     */
+    private static int bestCount(List<IngotDTO> stock, int maxCount, int maxWeight) {
+        Map<Boolean, List<Integer>> byClass = stock.stream().collect(Collectors.partitioningBy(
+            TruckLoadPlanner::isLong, Collectors.mapping(TruckLoadPlanner::weightKg, Collectors.toList())));
+        int best = 0;
+        for (List<Integer> weights : byClass.values()) {
+            List<Integer> sorted = weights.stream().sorted().toList();
+            int sum = 0;
+            int count = 0;
+            for (int w : sorted) {
+                if (count == maxCount || sum + w > maxWeight) {
+                    break;
+                }
+                sum += w;
+                count++;
+            }
+            best = Math.max(best, count);
+        }
+        return best;
+    }
+
+    private List<IngotDTO> randomStock(Random random, int count) {
+        List<IngotDTO> stock = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            stock.add(ingot(2000 + random.nextInt(14000), random.nextBoolean() ? 3500 : 6500,
+                5000 + random.nextInt(60000), 6000 + random.nextInt(20000)));
+        }
+        return stock;
+    }
+
+    private List<Integer> xPositions(LoadPlan plan) {
+        return plan.ingots().stream().map(i -> yards.get(i.getStockyardId()).x()).sorted().toList();
+    }
+
+    private static Request request(int maxCount, int maxWeightKg, Long productId) {
+        return new Request(maxCount, maxWeightKg, productId, 20, FRONT, REAR, 1000);
+    }
+
+    private Position yard(Long stockyardId) {
+        return yards.get(stockyardId);
+    }
+
+    private IngotDTO ingot(int weightKg, int length, int yardX, int yardY) {
+        long id = nextId++;
+        yards.put(id, new Position(yardX, yardY));
+        IngotDTO ingot = new IngotDTO();
+        ingot.setId(id);
+        ingot.setIngotNo("B-" + id);
+        ingot.setStockyardId(id);
+        ingot.setWeight(weightKg * 1000);
+        ingot.setLength(length);
+        return ingot;
+    }
+}
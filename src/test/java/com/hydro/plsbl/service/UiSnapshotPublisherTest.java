@@ -0,0 +1,122 @@
+package com.hydro.plsbl.service;
+
+import com.hydro.plsbl.dto.StockyardDTO;
+import com.hydro.plsbl.dto.StockyardStatusDTO;
+import com.hydro.plsbl.service.UiSnapshotPublisher.StockyardSnapshot;
+import com.hydro.plsbl.service.UiSnapshotPublisher.Subscriber;
+import com.hydro.plsbl.service.UiSnapshotPublisher.Topic;
+import com.hydro.plsbl.service.UiSnapshotPublisher.TopicVersions;
+import com.hydro.plsbl.service.UiSnapshotPublisher.UiSnapshot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-Tests fuer die Aenderungserkennung und Versionierung des UI-Snapshot-Publishers
+ */
+@DisplayName("UI-Snapshot-Publisher Tests")
+class UiSnapshotPublisherTest {
+
+    @Test
+    @DisplayName("Gleicher Inhalt in neuen DTOs ergibt gleichen Fingerprint")
+    void testStockyardFingerprintStable() {
+        assertEquals(stockyards(yard(true, true, status(3, false))).fingerprint(),
+                     stockyards(yard(true, true, status(3, false))).fingerprint());
+        assertEquals(stockyards(yard(true, false, null)).fingerprint(),
+                     stockyards(yard(true, false, null)).fingerprint());
+    }
+
+    @Test
+    @DisplayName("Sperren, Voll-Kennung und Barren-Anzahl aendern den Fingerprint")
+    void testStockyardFingerprintChanges() {
+        Object base = stockyards(yard(true, true, status(3, false))).fingerprint();
+
+        assertNotEquals(base, stockyards(yard(false, true, status(3, false))).fingerprint(), "Einlagern gesperrt");
+        assertNotEquals(base, stockyards(yard(true, false, status(3, false))).fingerprint(), "Auslagern gesperrt");
+        assertNotEquals(base, stockyards(yard(true, true, status(3, true))).fingerprint(), "Platz voll");
+        assertNotEquals(base, stockyards(yard(true, true, status(4, false))).fingerprint(), "Barren-Anzahl");
+
+        // Platz ohne Status: Sperren werden trotzdem erkannt
+        assertNotEquals(stockyards(yard(true, true, null)).fingerprint(),
+                        stockyards(yard(true, false, null)).fingerprint());
+    }
+
+    @Test
+    @DisplayName("Version steigt nur bei geaendertem Fingerprint, je Bereich getrennt")
+    void testTopicVersions() {
+        TopicVersions versions = new TopicVersions();
+        assertEquals(0, versions.get(Topic.STOCKYARDS));
+
+        assertTrue(versions.update(Topic.STOCKYARDS, stockyards(yard(true, true, status(1, false))).fingerprint()));
+        assertFalse(versions.update(Topic.STOCKYARDS, stockyards(yard(true, true, status(1, false))).fingerprint()));
+        assertEquals(1, versions.get(Topic.STOCKYARDS));
+
+        assertTrue(versions.update(Topic.STOCKYARDS, stockyards(yard(false, true, status(1, false))).fingerprint()));
+        assertEquals(2, versions.get(Topic.STOCKYARDS));
+        assertEquals(0, versions.get(Topic.SAW));
+
+        Map<Topic, Long> snapshot = versions.snapshot();
+        versions.update(Topic.STOCKYARDS, "neu");
+        assertEquals(2, snapshot.get(Topic.STOCKYARDS), "Snapshot der Versionen ist unveraenderlich");
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.put(Topic.SAW, 1L));
+    }
+
+    @Test
+    @DisplayName("Abonnent wird nur bei neuer Version eines seiner Bereiche benachrichtigt")
+    void testSubscriberChanges() {
+        Consumer<UiSnapshot> listener = snapshot -> { };
+        Subscriber subscriber = new Subscriber(null, EnumSet.of(Topic.STOCKYARDS), listener);
+        TopicVersions versions = new TopicVersions();
+
+        UiSnapshot empty = snapshot(versions);
+        assertFalse(subscriber.hasChanges(empty), "Noch nicht berechnete Bereiche loesen nichts aus");
+
+        versions.update(Topic.STOCKYARDS, "a");
+        UiSnapshot first = snapshot(versions);
+        assertTrue(subscriber.hasChanges(first));
+        assertTrue(first.isNewer(Topic.STOCKYARDS, empty));
+        subscriber.markDelivered(first);
+        assertFalse(subscriber.hasChanges(first));
+
+        // Aenderung eines fremden Bereichs
+        versions.update(Topic.SAW, "x");
+        assertFalse(subscriber.hasChanges(snapshot(versions)));
+
+        versions.update(Topic.STOCKYARDS, "b");
+        UiSnapshot second = snapshot(versions);
+        assertTrue(subscriber.hasChanges(second));
+        assertTrue(second.isNewer(Topic.STOCKYARDS, first));
+        assertFalse(first.isNewer(Topic.STOCKYARDS, second));
+    }
+
+    private static UiSnapshot snapshot(TopicVersions versions) {
+        return new UiSnapshot(System.currentTimeMillis(), versions.snapshot(), Map.of());
+    }
+
+    private static StockyardSnapshot stockyards(StockyardDTO yard) {
+        return new StockyardSnapshot(Map.of(yard.getId(), yard), null, Map.of());
+    }
+
+    private static StockyardDTO yard(boolean toStockAllowed, boolean fromStockAllowed, StockyardStatusDTO status) {
+        StockyardDTO yard = new StockyardDTO();
+        yard.setId(101L);
+        yard.setToStockAllowed(toStockAllowed);
+        yard.setFromStockAllowed(fromStockAllowed);
+        yard.setStatus(status);
+        return yard;
+    }
+
+    private static StockyardStatusDTO status(int ingots, boolean full) {
+        StockyardStatusDTO status = new StockyardStatusDTO();
+        status.setIngotsCount(ingots);
+        status.setFull(full);
+        status.setIngotNumber("BAR-" + ingots);
+        status.setProductNumber("P-6060");
+        return status;
+    }
+}
@@ -0,0 +1,149 @@
+package com.hydro.plsbl.service;
+
+import com.hydro.plsbl.service.YardOccupancyService.YardOccupancy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.jdbc.DataJdbcTest;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration-Test fuer das In-Memory Belegungsmodell
+ *
+ * Ohne Test-Transaktion, damit Commit und Rollback der fachlichen Transaktion wirken.
+ */
+@DataJdbcTest(properties = "spring.datasource.url=jdbc:h2:mem:plsbl_occupancy;DB_CLOSE_DELAY=-1;MODE=Oracle")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(YardOccupancyService.class)
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Belegungsmodell Tests")
+class YardOccupancyServiceTest {
+
+    private static final long TEST_INGOT_ID = 990001;
+
+    @Autowired
+    private YardOccupancyService occupancyService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Set<Long>> notifications = new ArrayList<>();
+    private final Consumer<Set<Long>> listener = notifications::add;
+
+    private Long emptyYardId;
+
+    @BeforeEach
+    void setUp() {
+        occupancyService.reload();
+        occupancyService.addChangeListener(listener);
+        emptyYardId = jdbcTemplate.queryForObject(
+            "SELECT MIN(ID) FROM MD_STOCKYARD WHERE " +
+            "ID NOT IN (SELECT STOCKYARD_ID FROM TD_INGOT WHERE STOCKYARD_ID IS NOT NULL) AND " +
+            "ID NOT IN (SELECT STOCKYARD_ID FROM TD_STOCKYARDSTATUS) AND " +
+            "ID NOT IN (SELECT TO_YARD_ID FROM TD_TRANSPORTORDER WHERE TO_YARD_ID IS NOT NULL)",
+            Long.class);
+        assertNotNull(emptyYardId, "Test-Daten sollten einen leeren Lagerplatz enthalten");
+    }
+
+    @AfterEach
+    void tearDown() {
+        occupancyService.removeChangeListener(listener);
+        jdbcTemplate.update("DELETE FROM TD_INGOT WHERE ID = ?", TEST_INGOT_ID);
+        occupancyService.reload();
+    }
+
+    @Test
+    @DisplayName("Gemeldeter Lagerplatz wird nach dem Commit gezielt nachgeladen")
+    void testRefreshAfterCommit() {
+        long reloads = occupancyService.getReloadCount();
+        assertTrue(occupancyService.get(emptyYardId).isEmpty());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            insertIngot(emptyYardId);
+            occupancyService.yardsChanged(emptyYardId);
+            // Vor dem Commit bleibt das Modell unveraendert
+            assertTrue(occupancyService.get(emptyYardId).isEmpty());
+        });
+
+        YardOccupancy yard = occupancyService.get(emptyYardId);
+        assertEquals(1, yard.ingotCount());
+        assertEquals(TEST_INGOT_ID, yard.topIngotId());
+        assertEquals("OCC-TEST", yard.topIngotNo());
+        assertEquals(List.of(Set.of(emptyYardId)), notifications);
+        assertEquals(reloads, occupancyService.getReloadCount(), "Kein kompletter Neuaufbau");
+    }
+
+    @Test
+    @DisplayName("Rollback: Modell bleibt unveraendert, keine Benachrichtigung")
+    void testRollbackKeepsModel() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            insertIngot(emptyYardId);
+            occupancyService.yardsChanged(emptyYardId);
+            status.setRollbackOnly();
+        });
+
+        assertTrue(occupancyService.get(emptyYardId).isEmpty());
+        assertTrue(notifications.isEmpty());
+        assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM TD_INGOT WHERE ID = ?", Integer.class, TEST_INGOT_ID));
+    }
+
+    @Test
+    @DisplayName("Abgleich korrigiert Aenderungen, die nicht gemeldet wurden")
+    void testReconcileFixesUnreportedChange() {
+        long mismatches = occupancyService.getReconcileMismatches();
+
+        // Direktes SQL ohne yardsChanged - Modell ist veraltet
+        insertIngot(emptyYardId);
+        assertTrue(occupancyService.get(emptyYardId).isEmpty());
+
+        occupancyService.reconcile();
+
+        assertEquals(1, occupancyService.getIngotCount(emptyYardId));
+        assertEquals(mismatches + 1, occupancyService.getReconcileMismatches());
+        assertTrue(notifications.stream().anyMatch(ids -> ids.contains(emptyYardId)));
+
+        // Zweiter Abgleich ohne Aenderung findet nichts
+        occupancyService.reconcile();
+        assertEquals(mismatches + 1, occupancyService.getReconcileMismatches());
+    }
+
+    @Test
+    @DisplayName("Modell entspricht nach dem Laden den Zaehlungen in der Datenbank")
+    void testModelMatchesDatabase() {
+        jdbcTemplate.query(
+            "SELECT STOCKYARD_ID, COUNT(*) AS CNT FROM TD_INGOT WHERE STOCKYARD_ID IS NOT NULL GROUP BY STOCKYARD_ID",
+            rs -> {
+                assertEquals(rs.getInt("CNT"), occupancyService.getIngotCount(rs.getLong("STOCKYARD_ID")));
+            });
+        assertEquals(occupancyService.getAllIngotCounts().values().stream().mapToInt(Integer::intValue).sum(),
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM TD_INGOT WHERE STOCKYARD_ID IS NOT NULL", Integer.class));
+    }
+
+    private void insertIngot(Long stockyardId) {
+        jdbcTemplate.update(
+            "INSERT INTO TD_INGOT (ID, SERIAL, INGOT_NO, STOCKYARD_ID, PILE_POSITION, WEIGHT, LENGTH) " +
+            "VALUES (?, 1, 'OCC-TEST', ?, 1, 8000, 2000)",
+            TEST_INGOT_ID, stockyardId);
+    }
+}
@@ -0,0 +1,331 @@
+package com.hydro.plsbl.service;
+
+import com.hydro.plsbl.entity.enums.StockyardType;
+import com.hydro.plsbl.entity.enums.StockyardUsage;
+import com.hydro.plsbl.entity.masterdata.Stockyard;
+import com.hydro.plsbl.service.YardOccupancyService.YardOccupancy;
+import com.hydro.plsbl.service.YardPlacementIndex.Placement;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-Test fuer den Platzierungs-Index.
+ * Testet ohne Spring-Kontext und vergleicht auf zufaellig erzeugten Lager-Layouts
+ * mit der bisherigen Suche aus IngotStorageService.findTargetStockyard()
+ * (Schleifen ueber findByType / findByProductId mit isYardAvailable, isYardEmpty, hasCapacity).
+ */
+@DisplayName("Platzierungs-Index Tests")
+class YardPlacementIndexTest {
+
+    private static final StockyardType[] TYPES = {
+        StockyardType.INTERNAL, StockyardType.INTERNAL, StockyardType.INTERNAL,
+        StockyardType.EXTERNAL, StockyardType.EXTERNAL,
+        StockyardType.SWAPOUT, StockyardType.SAW, StockyardType.LOADING, null
+    };
+    private static final StockyardUsage[] USAGES = {
+        StockyardUsage.SHORT, StockyardUsage.SHORT, StockyardUsage.LONG, StockyardUsage.LONG,
+        StockyardUsage.AUTOMATIC, StockyardUsage.RESERVED, null
+    };
+    private static final int PRODUCTS = 6;
+
+    // ========== Vergleich mit bisheriger Suche ==========
+
+    @Test
+    @DisplayName("Index liefert auf erzeugten Layouts dieselben Plaetze wie die bisherige Suche")
+    void testIdenticalChoicesOnGeneratedLayouts() {
+        Random random = new Random(4711);
+        int comparisons = 0;
+
+        for (int layout = 0; layout < 200; layout++) {
+            List<Stockyard> yards = generateYards(random, 20 + random.nextInt(120));
+            Map<Long, YardOccupancy> occupancy = generateOccupancy(random, yards);
+            YardPlacementIndex index = new YardPlacementIndex(yards, occupancy);
+
+            comparisons += compareAllQueries(index, yards, occupancy, "Layout " + layout);
+        }
+
+        assertTrue(comparisons > 10_000, "Zu wenige Vergleiche: " + comparisons);
+    }
+
+    @Test
+    @DisplayName("Index bleibt nach inkrementellen Belegungs-Aenderungen identisch")
+    void testIdenticalChoicesAfterIncrementalUpdates() {
+        Random random = new Random(815);
+
+        for (int layout = 0; layout < 30; layout++) {
+            List<Stockyard> yards = generateYards(random, 60 + random.nextInt(60));
+            Map<Long, YardOccupancy> occupancy = generateOccupancy(random, yards);
+            YardPlacementIndex index = new YardPlacementIndex(yards, occupancy);
+
+            for (int step = 0; step < 50; step++) {
+                // Zufaelligen Platz aendern (Barren ein-/auslagern, Transporte, Produktwechsel)
+                Stockyard yard = yards.get(random.nextInt(yards.size()));
+                YardOccupancy changed = randomOccupancy(random, yard);
+                occupancy.put(yard.getId(), changed);
+                assertTrue(index.update(changed));
+
+                compareAllQueries(index, yards, occupancy, "Layout " + layout + " Schritt " + step);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Unbekannter Lagerplatz wird beim Update gemeldet")
+    void testUpdateUnknownYard() {
+        List<Stockyard> yards = generateYards(new Random(1), 10);
+        YardPlacementIndex index = new YardPlacementIndex(yards, Map.of());
+
+        assertFalse(index.update(YardOccupancy.empty(99_999L)));
+    }
+
+    @Test
+    @DisplayName("Suche im Index dauert unter einer Millisekunde")
+    void testLookupPerformance() {
+        Random random = new Random(42);
+        List<Stockyard> yards = generateYards(random, 600);
+        YardPlacementIndex index = new YardPlacementIndex(yards, generateOccupancy(random, yards));
+
+        // Aufwaermen
+        for (int i = 0; i < 20_000; i++) {
+            index.findBest((long) (i % PRODUCTS + 1), StockyardUsage.SHORT, true, true);
+        }
+
+        int lookups = 50_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            StockyardUsage usage = i % 2 == 0 ? StockyardUsage.SHORT : StockyardUsage.LONG;
+            index.findBest((long) (i % PRODUCTS + 1), usage, true, i % 3 != 0);
+        }
+        double avgMicros = (System.nanoTime() - start) / 1000.0 / lookups;
+
+        assertTrue(avgMicros < 1000, "Durchschnittliche Suche: " + avgMicros + " us");
+    }
+
+    private int compareAllQueries(YardPlacementIndex index, List<Stockyard> yards,
+                                  Map<Long, YardOccupancy> occupancy, String context) {
+        ReferenceSearch reference = new ReferenceSearch(yards, occupancy);
+        int comparisons = 0;
+
+        assertEquals(reference.findSwapoutYard().map(Stockyard::getId),
+            index.findSwapout().map(p -> p.yard().getId()), context + ": Ausgang-Platz");
+
+        for (long productId = 1; productId <= PRODUCTS; productId++) {
+            for (StockyardUsage usage : new StockyardUsage[] {StockyardUsage.SHORT, StockyardUsage.LONG}) {
+                for (boolean internal : new boolean[] {true, false}) {
+                    for (boolean external : new boolean[] {true, false}) {
+                        Optional<Long> expected = reference.findTarget(productId, usage, internal, external)
+                            .map(Stockyard::getId);
+                        Optional<Long> actual = index.findBest(productId, usage, internal, external)
+                            .map(Placement::yard).map(Stockyard::getId);
+                        assertEquals(expected, actual, context + ": Produkt " + productId + ", " + usage
+                            + ", intern=" + internal + ", extern=" + external);
+                        comparisons++;
+                    }
+                }
+            }
+            for (Stockyard yard : yards) {
+                assertEquals(reference.isYardAvailable(yard, productId), index.isAvailable(yard.getId(), productId),
+                    context + ": Verfuegbarkeit " + yard.getYardNumber() + " fuer Produkt " + productId);
+                comparisons++;
+            }
+        }
+        return comparisons;
+    }
+
+    // ========== Layout-Generator ==========
+
+    private List<Stockyard> generateYards(Random random, int count) {
+        List<Stockyard> yards = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Stockyard yard = new Stockyard();
+            yard.setId(1000L + i * 7L);
+            // Koordinaten mit Dubletten, damit die ID als Tie-Breaker greift
+            yard.setXCoordinate(random.nextInt(18));
+            yard.setYCoordinate(random.nextInt(11));
+            yard.setYardNumber(String.format("%02d/%02d-%d", yard.getXCoordinate(), yard.getYCoordinate(), i));
+            yard.setType(TYPES[random.nextInt(TYPES.length)]);
+            yard.setUsage(USAGES[random.nextInt(USAGES.length)]);
+            yard.setMaxIngots(1 + random.nextInt(10));
+            yard.setToStockAllowed(random.nextInt(6) != 0);
+            yards.add(yard);
+        }
+        return yards;
+    }
+
+    private Map<Long, YardOccupancy> generateOccupancy(Random random, List<Stockyard> yards) {
+        Map<Long, YardOccupancy> occupancy = new HashMap<>();
+        for (Stockyard yard : yards) {
+            if (random.nextInt(4) != 0) {
+                occupancy.put(yard.getId(), randomOccupancy(random, yard));
+            }
+        }
+        return occupancy;
+    }
+
+    private YardOccupancy randomOccupancy(Random random, Stockyard yard) {
+        int count = random.nextInt(3) == 0 ? 0 : random.nextInt(yard.getMaxIngots() + 1);
+        int pending = random.nextInt(4) == 0 ? random.nextInt(3) : 0;
+        Long productId = random.nextInt(5) == 0 ? null : (long) (1 + random.nextInt(PRODUCTS));
+        return new YardOccupancy(yard.getId(), count, pending, productId, null, null);
+    }
+
+    // ========== Bisherige Suche (Referenz) ==========
+
+    /**
+     * Nachbildung der bisherigen Suche aus IngotStorageService auf In-Memory-Daten.
+     * findByType sortiert nach Y absteigend, X aufsteigend; findByProductId liefert
+     * belegte Plaetze des Produkts (ohne ORDER BY - hier nach ID sortiert).
+     */
+    private static class ReferenceSearch {
+
+        private final List<Stockyard> yards;
+        private final Map<Long, Stockyard> yardsById;
+        private final Map<Long, YardOccupancy> occupancy;
+
+        ReferenceSearch(List<Stockyard> yards, Map<Long, YardOccupancy> occupancy) {
+            this.yards = yards;
+            this.yardsById = yards.stream().collect(Collectors.toMap(Stockyard::getId, y -> y));
+            this.occupancy = occupancy;
+        }
+
+        Optional<Stockyard> findTarget(Long productId, StockyardUsage requiredUsage,
+                                       boolean internalAllowed, boolean externalAllowed) {
+            List<Stockyard> allowedYards = new ArrayList<>();
+            if (internalAllowed) {
+                allowedYards.addAll(findByType(StockyardType.INTERNAL));
+            }
+            if (externalAllowed) {
+                allowedYards.addAll(findByType(StockyardType.EXTERNAL));
+            }
+            if (allowedYards.isEmpty()) {
+                return Optional.empty();
+            }
+
+            List<Stockyard> exactMatchYards = allowedYards.stream()
+                .filter(yard -> yard.getUsage() == requiredUsage)
+                .collect(Collectors.toList());
+            List<Stockyard> automaticYards = allowedYards.stream()
+                .filter(yard -> yard.getUsage() == null || yard.getUsage() == StockyardUsage.AUTOMATIC)
+                .collect(Collectors.toList());
+
+            List<Stockyard> productLocations = findByProductId(productId);
+            for (Stockyard yard : productLocations) {
+                if (isYardAvailable(yard, productId) && yard.getUsage() == requiredUsage
+                        && isYardTypeAllowed(yard, internalAllowed, externalAllowed)) {
+                    return Optional.of(yard);
+                }
+            }
+            for (Stockyard yard : exactMatchYards) {
+                if (yard.isToStockAllowed() && isYardEmpty(yard)) {
+                    return Optional.of(yard);
+                }
+            }
+            for (Stockyard yard : exactMatchYards) {
+                if (yard.isToStockAllowed() && hasCapacity(yard, productId)) {
+                    return Optional.of(yard);
+                }
+            }
+            for (Stockyard yard : productLocations) {
+                if (isYardAvailable(yard, productId)
+                        && (yard.getUsage() == null || yard.getUsage() == StockyardUsage.AUTOMATIC)
+                        && isYardTypeAllowed(yard, internalAllowed, externalAllowed)) {
+                    return Optional.of(yard);
+                }
+            }
+            for (Stockyard yard : automaticYards) {
+                if (yard.isToStockAllowed() && isYardEmpty(yard)) {
+                    return Optional.of(yard);
+                }
+            }
+            return Optional.empty();
+        }
+
+        Optional<Stockyard> findSwapoutYard() {
+            List<Stockyard> swapoutYards = findByType(StockyardType.SWAPOUT);
+            swapoutYards.sort(Comparator.comparingInt(Stockyard::getYCoordinate));
+            for (Stockyard yard : swapoutYards) {
+                if (yard.isToStockAllowed() && isYardEmpty(yard)) {
+                    return Optional.of(yard);
+                }
+            }
+            return Optional.empty();
+        }
+
+        boolean isYardAvailable(Stockyard yard, Long productId) {
+            if (!yard.isToStockAllowed()) {
+                return false;
+            }
+            YardOccupancy occ = occupancy(yard);
+            if (occ.ingotCount() + occ.pendingInbound() >= yard.getMaxIngots()) {
+                return false;
+            }
+            if (occ.ingotCount() > 0 && occ.productId() != null) {
+                return occ.productId().equals(productId);
+            }
+            return true;
+        }
+
+        private boolean hasCapacity(Stockyard yard, Long productId) {
+            YardOccupancy occ = occupancy(yard);
+            if (occ.ingotCount() + occ.pendingInbound() >= yard.getMaxIngots()) {
+                return false;
+            }
+            if (occ.ingotCount() == 0) {
+                return true;
+            }
+            if (occ.productId() != null) {
+                return occ.productId().equals(productId);
+            }
+            return true;
+        }
+
+        private boolean isYardEmpty(Stockyard yard) {
+            return occupancy(yard).ingotCount() == 0;
+        }
+
+        private boolean isYardTypeAllowed(Stockyard yard, boolean internalAllowed, boolean externalAllowed) {
+            if (yard.getType() == StockyardType.INTERNAL) {
+                return internalAllowed;
+            }
+            if (yard.getType() == StockyardType.EXTERNAL) {
+                return externalAllowed;
+            }
+            return true;
+        }
+
+        private List<Stockyard> findByType(StockyardType type) {
+            return yards.stream()
+                .filter(yard -> yard.getType() == type)
+                .sorted(Comparator.comparingInt(Stockyard::getYCoordinate).reversed()
+                    .thenComparingInt(Stockyard::getXCoordinate)
+                    .thenComparing(Stockyard::getId))
+                .collect(Collectors.toList());
+        }
+
+        private List<Stockyard> findByProductId(Long productId) {
+            return occupancy.values().stream()
+                .filter(occ -> occ.ingotCount() > 0 && Objects.equals(occ.productId(), productId))
+                .map(occ -> yardsById.get(occ.stockyardId()))
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(Stockyard::getId))
+                .collect(Collectors.toList());
+        }
+
+        private YardOccupancy occupancy(Stockyard yard) {
+            YardOccupancy occ = occupancy.get(yard.getId());
+            return occ != null ? occ : YardOccupancy.empty(yard.getId());
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.hydro.plsbl.simulator;
+
+import com.hydro.plsbl.config.OrderSequencingConfig;
+import com.hydro.plsbl.dto.StockyardDTO;
+import com.hydro.plsbl.dto.TransportOrderDTO;
+import com.hydro.plsbl.entity.enums.OrderStatus;
+import com.hydro.plsbl.plc.PlcService;
+import com.hydro.plsbl.plc.dto.JobState;
+import com.hydro.plsbl.plc.dto.PlcCommand;
+import com.hydro.plsbl.plc.dto.PlcStatus;
+import com.hydro.plsbl.service.CraneSequencingService;
+import com.hydro.plsbl.service.MessageService;
+import com.hydro.plsbl.service.SettingsService;
+import com.hydro.plsbl.service.StockyardService;
+import com.hydro.plsbl.service.TransportDispatchQueue;
+import com.hydro.plsbl.service.TransportOrderProcessor;
+import com.hydro.plsbl.service.TransportOrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests fuer den Headless-Betrieb in virtueller Zeit (Simulator + PlcService)
+ */
+@DisplayName("HeadlessSimulationRunner Tests")
+class HeadlessSimulationRunnerTest {
+
+    private static final long START = 1_700_000_000_000L;
+
+    private static final long SAW_YARD_ID = 1L;
+
+    private SimulationClock clock;
+    private CraneSimulatorService simulator;
+    private TransportDispatchQueue dispatchQueue;
+    private PlcService plcService;
+
+    @BeforeEach
+    void setUp() {
+        clock = SimulationClock.virtual(START);
+        simulator = new CraneSimulatorService(new CraneSimulatorConfig(), clock);
+        SettingsService settings = new SettingsService(null) {
+            @Override
+            public boolean isSpsEnabled() {
+                return false;
+            }
+        };
+        dispatchQueue = new TransportDispatchQueue(null, clock) {
+            @Override
+            public int rebuild() {
+                return 0;  // Sicherheits-Abgleich ohne Datenbank
+            }
+        };
+        plcService = new PlcService(settings, simulator, dispatchQueue, clock, 5, 100, 500, 2000);
+    }
+
+    @Test
+    @DisplayName("Virtuelle Uhr steht still und laeuft nur vorwaerts")
+    void testVirtualClock() {
+        assertTrue(clock.isVirtual());
+        assertEquals(START, clock.millis());
+
+        clock.advance(1500);
+        assertEquals(START + 1500, clock.millis());
+
+        clock.advanceTo(START);
+        assertEquals(START + 1500, clock.millis(), "Uhr darf nicht zurueckgestellt werden");
+
+        assertThrows(IllegalStateException.class, () -> SimulationClock.realTime().advance(1));
+    }
+
+    @Test
+    @DisplayName("Ereignisse werden in Zeitreihenfolge ausgefuehrt")
+    void testEventOrder() {
+        StringBuilder trace = new StringBuilder();
+        HeadlessSimulationRunner runner = new HeadlessSimulationRunner(clock, simulator)
+            .at(START + 3000, () -> trace.append('c'))
+            .at(START + 1000, () -> trace.append('a'))
+            .at(START + 1000, () -> trace.append('b'))
+            .every(2500, () -> trace.append('x'));
+
+        HeadlessSimulationRunner.Report report = runner.run(Duration.ofSeconds(6));
+
+        assertEquals("abxcx", trace.toString());
+        assertEquals(START + 6000, clock.millis());
+        assertEquals(5, report.steps());
+    }
+
+    @Test
+    @DisplayName("Schichtbetrieb: 8 h mit Saegen-Abholung alle 5 min laufen in Sekunden durch")
+    void testShiftReplay() {
+        HeadlessSimulationRunner runner = HeadlessSimulationRunner.standard(clock, simulator, plcService, null);
+        assertTrue(plcService.isSimulatorMode());
+
+        // Saege meldet alle 5 Minuten einen Barren, der Kran holt ihn ab, sobald er frei ist
+        Deque<PlcCommand> pending = new ArrayDeque<>();
+        int pickups = 96;
+        for (int i = 0; i < pickups; i++) {
+            PlcCommand command = PlcCommand.builder()
+                .pickupPosition(5000, 3000, 1500)
+                .releasePosition(10000 + (i % 8) * 5000, 6000 + (i % 5) * 4000, 1500)
+                .dimensions(6000, 800, 500)
+                .weight(2000)
+                .build();
+            runner.at(START + i * 300_000L, () -> pending.add(command));
+        }
+        runner.every(500, () -> {
+            PlcStatus status = plcService.getCurrentStatus();
+            if (!pending.isEmpty() && status.getJobState() == JobState.IDLE) {
+                try {
+                    plcService.sendCommand(pending.poll());
+                } catch (Exception e) {
+                    fail(e);
+                }
+            }
+        });
+
+        HeadlessSimulationRunner.Report report = runner.run(Duration.ofHours(8));
+
+        assertEquals(pickups, report.jobs(), "Alle Abholungen erledigt: " + report);
+        assertTrue(pending.isEmpty());
+        assertEquals(12.0, report.jobsPerHour(), 0.01);
+        assertEquals(Duration.ofHours(8).toMillis(), report.simulatedMs());
+        assertTrue(report.speedup() > 100, "Headless deutlich schneller als Echtzeit: " + report);
+        assertNull(report.queueWait());
+    }
+
+    @Test
+    @DisplayName("Saegen-Last ueber Warteschlange und TransportOrderProcessor: alle Auftraege vergeben, Wartezeit erfasst")
+    void testWorkloadDispatch() {
+        Map<Long, TransportOrderDTO> orders = new HashMap<>();
+        TransportOrderProcessor orderProcessor = orderProcessor(orders);
+        HeadlessSimulationRunner runner = HeadlessSimulationRunner.standard(clock, simulator, plcService, orderProcessor);
+        assertTrue(orderProcessor.isAutoProcessingEnabled());
+
+        // Auftrag je Anfrage wie IngotStorageService: von der Saege auf einen von 8 Lagerplaetzen
+        SawPickupWorkload workload = new SawPickupWorkload(7, 300_000, pickup -> {
+            long id = orders.size() + 1;
+            TransportOrderDTO order = new TransportOrderDTO();
+            order.setId(id);
+            order.setTransportNo("TA-" + id);
+            order.setFromYardId(SAW_YARD_ID);
+            order.setToYardId(100 + id % 8);
+            order.setPriority(10);
+            order.setStatus(OrderStatus.PENDING);
+            orders.put(id, order);
+            dispatchQueue.orderChanged(id, OrderStatus.PENDING, 10, SAW_YARD_ID);
+        });
+        int planned = workload.register(runner, clock, Duration.ofHours(7));
+
+        HeadlessSimulationRunner.Report report = runner.run(Duration.ofHours(8));
+
+        assertTrue(planned > 50, "Mittel 12 Anfragen/h: " + planned);
+        assertEquals(planned, workload.getGenerated());
+        assertEquals(0, workload.getRejected());
+        assertEquals(planned, report.jobs(), "Alle Auftraege gefahren: " + report);
+        assertTrue(orders.values().stream().allMatch(o -> o.getStatus() == OrderStatus.COMPLETED));
+        assertTrue(dispatchQueue.isEmpty());
+
+        assertNotNull(report.queueWait());
+        assertEquals(planned, report.queueWait().orders());
+        assertTrue(report.queueWait().maxWaitSeconds() > 0, "Ankuenfte waehrend einer Fahrt warten: " + report);
+        assertTrue(report.queueWait().maxWaitSeconds() >= report.queueWait().meanWaitSeconds());
+    }
+
+    @Test
+    @DisplayName("Gleicher Seed ergibt die gleiche Saegen-Last")
+    void testWorkloadSeed() {
+        assertEquals(pickups(42), pickups(42));
+        assertNotEquals(pickups(42), pickups(43));
+    }
+
+    private List<String> pickups(long seed) {
+        SimulationClock runClock = SimulationClock.virtual(START);
+        HeadlessSimulationRunner runner = new HeadlessSimulationRunner(runClock, simulator);
+        List<String> trace = new ArrayList<>();
+        new SawPickupWorkload(seed, 60_000, pickup -> trace.add(runClock.millis() + " " + pickup))
+            .register(runner, runClock, Duration.ofHours(1));
+        runner.run(Duration.ofHours(1));
+        return trace;
+    }
+
+    /**
+     * Auftragsvergabe mit Auftraegen und Lagerplaetzen im Speicher (ohne Datenbank)
+     */
+    private TransportOrderProcessor orderProcessor(Map<Long, TransportOrderDTO> orders) {
+        TransportOrderService orderService = new TransportOrderService(null, null, dispatchQueue, null, null) {
+            @Override
+            public Optional<TransportOrderDTO> findById(Long id) {
+                return Optional.ofNullable(orders.get(id));
+            }
+
+            @Override
+            public void updateStatus(Long orderId, OrderStatus status, String errorMessage) {
+                TransportOrderDTO order = orders.get(orderId);
+                order.setStatus(status);
+                dispatchQueue.orderChanged(orderId, status, order.getPriority(), order.getFromYardId());
+            }
+
+            @Override
+            public void incrementRetryCount(Long orderId) {
+                // ohne Wirkung
+            }
+        };
+        StockyardService stockyardService = new StockyardService(null, null, null, null, null, null) {
+            @Override
+            public Optional<StockyardDTO> findById(Long id) {
+                StockyardDTO yard = new StockyardDTO();
+                yard.setId(id);
+                yard.setYardNumber(String.valueOf(id));
+                if (id == SAW_YARD_ID) {
+                    yard.setXPosition(5000);
+                    yard.setYPosition(3000);
+                } else {
+                    yard.setXPosition(10000 + (int) (id % 8) * 5000);
+                    yard.setYPosition(6000 + (int) (id % 5) * 4000);
+                }
+                yard.setZPosition(1500);
+                return Optional.of(yard);
+            }
+        };
+        MessageService messageService = new MessageService(plcService, simulator, null, clock, 0, 500);
+        CraneSequencingService sequencingService =
+            new CraneSequencingService(new OrderSequencingConfig(), null, simulator, clock);
+        return new TransportOrderProcessor(orderService, stockyardService, null, plcService, null,
+            messageService, dispatchQueue, sequencingService, clock);
+    }
+}
@@ -0,0 +1,114 @@
+package com.hydro.plsbl.simulator;
+
+import com.hydro.plsbl.simulator.CraneMotionModel.Axis;
+import com.hydro.plsbl.simulator.CraneMotionModel.Motion;
+import com.hydro.plsbl.simulator.KinematicMotionModel.AxisLimits;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests fuer das Bewegungsmodell mit Beschleunigung (Trapez-/Dreieck-Profil)
+ */
+@DisplayName("KinematicMotionModel Tests")
+class KinematicMotionModelTest {
+
+    private static final double DT = 0.1;
+
+    private final KinematicMotionModel model = new KinematicMotionModel(
+        new AxisLimits(1500, 400, 400),
+        new AxisLimits(1000, 500, 250),
+        new AxisLimits(300, 300, 300),
+        new AxisLimits(150, 300, 300));
+
+    @Test
+    @DisplayName("Trapez-Profil: Rampen plus Konstantfahrt")
+    void testTrapezoid() {
+        // Rampen: 1500²/800 * 2 = 5625 mm in 7,5 s, Rest 14375 mm mit 1500 mm/s
+        assertEquals(7.5 + 14375 / 1500.0, model.travelSeconds(Axis.X, 20000, false), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Dreieck-Profil: kurze Strecke ohne Hoechstgeschwindigkeit")
+    void testTriangle() {
+        // 1000 mm bei 400 mm/s²: Spitze 632 mm/s nach 1,58 s, gesamt 3,16 s
+        assertEquals(2 * Math.sqrt(1000 / 400.0), model.travelSeconds(Axis.X, 1000, false), 1e-9);
+        assertEquals(0, model.travelSeconds(Axis.X, 0, false));
+    }
+
+    @Test
+    @DisplayName("Hubwerk mit Barren langsamer als leer")
+    void testLoadedHoist() {
+        double empty = model.travelSeconds(Axis.Z, 3500, false);
+        double loaded = model.travelSeconds(Axis.Z, 3500, true);
+        assertTrue(loaded > empty * 1.8, "leer " + empty + " s, beladen " + loaded + " s");
+    }
+
+    @Test
+    @DisplayName("X und Y fahren gleichzeitig - die langsamere Achse bestimmt die Fahrzeit")
+    void testSimultaneousXY() {
+        double tx = model.travelSeconds(Axis.X, 30000, false);
+        double ty = model.travelSeconds(Axis.Y, 12000, false);
+        assertEquals(Math.max(tx, ty), model.estimateTravelSeconds(0, 0, 30000, 12000, false), 1e-9);
+        assertEquals(model.estimateTravelSeconds(30000, 12000, 0, 0, false),
+                     model.estimateTravelSeconds(0, 0, 30000, 12000, false), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Schrittweise Fahrt erreicht das Ziel im Stillstand und passt zur analytischen Fahrzeit")
+    void testStepMatchesEstimate() {
+        for (Axis axis : Axis.values()) {
+            for (int distance : new int[] {300, 2500, 8000, 40000}) {
+                for (boolean loaded : new boolean[] {false, true}) {
+                    double simulated = simulate(axis, 1000, 1000 + distance, loaded);
+                    double estimated = model.travelSeconds(axis, distance, loaded);
+                    assertEquals(estimated, simulated, 3 * DT,
+                        axis + " " + distance + " mm, beladen=" + loaded);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Geschwindigkeits- und Beschleunigungsgrenzen werden eingehalten")
+    void testLimits() {
+        AxisLimits limits = model.limits(Axis.Y, false);
+        int position = 0;
+        double velocity = 0;
+        while (true) {
+            Motion motion = model.step(Axis.Y, position, velocity, 25000, false, DT);
+            if (motion.reached(25000)) {
+                break;
+            }
+            double change = motion.velocity() - velocity;
+            assertTrue(motion.velocity() <= limits.maxSpeed() + 1e-9);
+            assertTrue(change <= limits.accel() * DT + 1e-9, "Beschleunigung zu gross");
+            assertTrue(-change <= limits.decel() * DT + 1e-9, "Verzoegerung zu gross");
+            position = motion.position();
+            velocity = motion.velocity();
+        }
+    }
+
+    @Test
+    @DisplayName("Fahrt in negative Richtung")
+    void testNegativeDirection() {
+        double simulated = simulate(Axis.X, 40000, 5000, false);
+        assertEquals(model.travelSeconds(Axis.X, 35000, false), simulated, 3 * DT);
+    }
+
+    private double simulate(Axis axis, int start, int goal, boolean loaded) {
+        int position = start;
+        double velocity = 0;
+        int steps = 0;
+        Motion motion;
+        do {
+            motion = model.step(axis, position, velocity, goal, loaded, DT);
+            position = motion.position();
+            velocity = motion.velocity();
+            steps++;
+            assertTrue(steps < 100_000, "Ziel nicht erreicht");
+        } while (!motion.reached(goal));
+        return steps * DT;
+    }
+}
@@ -0,0 +1,101 @@
+package com.hydro.plsbl.simulator;
+
+import com.hydro.plsbl.simulator.MultiCraneSimulation.FleetReport;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests fuer den Mehrkran-Betrieb auf einer gemeinsamen Kranbahn
+ */
+@DisplayName("MultiCraneSimulation Tests")
+class MultiCraneSimulationTest {
+
+    private static final int SAFETY = 5000;
+    private static final int RUNWAY_MIN = 0;
+    private static final int RUNWAY_MAX = 54000;
+
+    @Test
+    @DisplayName("1 gegen 2 Kraene: gleicher Auftragsbestand, Sicherheitsabstand wird eingehalten")
+    void testThroughputOneVsTwoCranes() {
+        List<CraneSimulatorCommand> workload = randomWorkload(600, 42);
+
+        List<FleetReport> reports = MultiCraneSimulation.compare(new CraneSimulatorConfig(), workload,
+            Duration.ofHours(4), SAFETY, RUNWAY_MIN, RUNWAY_MAX, 1, 2);
+        FleetReport one = reports.get(0);
+        FleetReport two = reports.get(1);
+
+        // Beide Laeufe ausgelastet: es warten noch Auftraege
+        assertTrue(one.pendingJobs() > 0);
+        assertTrue(two.pendingJobs() > 0);
+        assertEquals(0, one.rejectedJobs());
+        assertEquals(0, two.rejectedJobs());
+
+        assertTrue(two.run().jobsPerHour() > one.run().jobsPerHour(), one + " / " + two);
+        assertTrue(two.run().jobsPerHour() <= 2 * one.run().jobsPerHour() + 1, one + " / " + two);
+        assertTrue(two.jobsPerCrane()[0] > 0 && two.jobsPerCrane()[1] > 0, "beide Kraene arbeiten: " + two);
+        assertTrue(two.minGapMm() >= SAFETY, "Sicherheitsabstand unterschritten: " + two);
+        assertEquals(-1, one.minGapMm());
+        assertEquals(0, one.evasiveMoves());
+    }
+
+    @Test
+    @DisplayName("Freier Kran im Weg faehrt aus, bevor der andere Kran faehrt")
+    void testEvasiveMove() {
+        SimulationClock clock = SimulationClock.virtual(0);
+        MultiCraneSimulation simulation = new MultiCraneSimulation(new CraneSimulatorConfig(), clock, 2,
+            SAFETY, RUNWAY_MIN, RUNWAY_MAX);
+        CraneSimulatorService right = simulation.getCranes().get(1);
+        assertEquals(40500, right.getPosition()[0]);
+
+        // Abholung ganz links: nur Kran 1 erreichbar, Kran 2 steht im Ablagebereich
+        simulation.submit(job(2000, 45000));
+        FleetReport report = simulation.run(Duration.ofMinutes(15));
+
+        assertEquals(1, report.evasiveMoves());
+        assertArrayEquals(new int[] {1, 0}, report.jobsPerCrane());
+        assertEquals(45000 + SAFETY, right.getPosition()[0]);
+        assertTrue(report.minGapMm() >= SAFETY, report.toString());
+    }
+
+    @Test
+    @DisplayName("Auftrag ausserhalb der Kranbahn wird verworfen")
+    void testUnreachableJob() {
+        MultiCraneSimulation simulation = new MultiCraneSimulation(new CraneSimulatorConfig(),
+            SimulationClock.virtual(0), 2, SAFETY, RUNWAY_MIN, RUNWAY_MAX);
+
+        // Kran 1 braucht rechts, Kran 2 links Platz fuer den jeweils anderen
+        simulation.submit(job(1000, 53000));
+        FleetReport report = simulation.run(Duration.ofMinutes(1));
+
+        assertEquals(1, report.rejectedJobs());
+        assertEquals(0, report.pendingJobs());
+    }
+
+    private static List<CraneSimulatorCommand> randomWorkload(int count, long seed) {
+        Random random = new Random(seed);
+        List<CraneSimulatorCommand> jobs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            jobs.add(CraneSimulatorCommand.builder()
+                .pickup(5000 + random.nextInt(44000), 3000 + random.nextInt(27000), 1500)
+                .release(5000 + random.nextInt(44000), 3000 + random.nextInt(27000), 1500)
+                .ingot(6000, 800, 500, 2000)
+                .build());
+        }
+        return jobs;
+    }
+
+    private static CraneSimulatorCommand job(int pickupX, int releaseX) {
+        return CraneSimulatorCommand.builder()
+            .pickup(pickupX, 10000, 1500)
+            .release(releaseX, 12000, 1500)
+            .ingot(6000, 800, 500, 2000)
+            .build();
+    }
+}